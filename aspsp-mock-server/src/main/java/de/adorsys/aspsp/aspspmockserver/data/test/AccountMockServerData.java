@@ -54,6 +54,7 @@ public class AccountMockServerData {
     private PaymentRepository paymentRepository;
     private List<SpiAccountDetails> accountDetails;
     private List<Psu> psus;
+    private long lastEntrySequence;
     private final List<String> ALLOWED_PAYMENTS = Collections.singletonList("sepa-credit-transfers");
     private final Currency EUR = Currency.getInstance("EUR");
     private final Currency USD = Currency.getInstance("USD");
@@ -123,11 +124,13 @@ public class AccountMockServerData {
     }
 
     private SpiTransaction getTransaction(String transactionId, Psu creditor, Psu debtor, BigDecimal amount, Currency currency, LocalDate bookingDate, LocalDate valueDate, String purposeCode) {
-        return new SpiTransaction(
+        SpiTransaction transaction = new SpiTransaction(
             transactionId, "", "", creditor.getId(), bookingDate, valueDate,
             new SpiAmount(currency, amount), getFirstElementName(creditor), getRef(creditor, currency), getFirstElementName(creditor),
             getFirstElementName(debtor), getRef(debtor, currency), getFirstElementName(debtor), "",
             "", purposeCode, "");
+        transaction.setEntrySequence(++lastEntrySequence);
+        return transaction;
     }
 
     private String getFirstElementName(Psu creditor) {
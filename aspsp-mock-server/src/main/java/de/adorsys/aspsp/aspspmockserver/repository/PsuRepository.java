@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,6 @@ public interface PsuRepository extends MongoRepository<Psu, String> {
     Optional<Psu> findPsuByAccountDetailsList_Iban(String iban);
 
     Optional<Psu> findPsuByAccountDetailsList_Id(String accountId);
+
+    List<Psu> findPsuByAccountDetailsList_IbanIn(Collection<String> ibans);
 }
@@ -18,6 +18,8 @@ package de.adorsys.aspsp.aspspmockserver.repository;
 
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -32,6 +34,26 @@ public interface TransactionRepository extends MongoRepository<SpiTransaction, S
     @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'valueDate':{$gte:?2,$lte:?3}}")
     List<SpiTransaction> findAllByDates(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo);
 
+    @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'valueDate':{$gte:?2,$lte:?3}}")
+    List<SpiTransaction> findAllByDates(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo, Pageable pageable);
+
+    @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'valueDate':{$gte:?2,$lte:?3},'bookingDate':{$ne:null}}")
+    List<SpiTransaction> findAllBookedByDates(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo);
+
+    @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'valueDate':{$gte:?2,$lte:?3},'bookingDate':null}")
+    List<SpiTransaction> findAllPendingByDates(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo);
+
+    @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'entrySequence':{$gt:?2}}")
+    List<SpiTransaction> findAllAfterEntry(String iban, Currency currency, long entrySequence, Sort sort);
+
+    SpiTransaction findFirstByOrderByEntrySequenceDesc();
+
+    @Query("{$and:[{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}]},{'valueDate':{$gte:?2,$lte:?3}},{$or:[{'valueDate':{$gt:?4}},{'valueDate':?4,'transactionId':{$gt:?5}}]}]}")
+    List<SpiTransaction> findAllByDatesAfter(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo, LocalDate valueDate, String transactionId, Pageable pageable);
+
+    @Query("{$and:[{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}]},{'valueDate':{$gte:?2,$lte:?3}},{$or:[{'valueDate':{$lt:?4}},{'valueDate':?4,'transactionId':{$lt:?5}}]}]}")
+    List<SpiTransaction> findAllByDatesBefore(String iban, Currency currency, LocalDate dateFrom, LocalDate dateTo, LocalDate valueDate, String transactionId, Pageable pageable);
+
     @Query("{$or:[{$and:[{'creditorAccount.iban':?0},{'creditorAccount.currency':?1}]},{$and:[{'debtorAccount.iban':?0},{'debtorAccount.currency':?1}]}],'transactionId':?2}")
     SpiTransaction findOneByTransactionIdAndAccount(String iban, Currency currency, String transactionId);
 }
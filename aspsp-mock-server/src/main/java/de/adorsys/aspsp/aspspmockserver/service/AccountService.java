@@ -19,13 +19,17 @@ package de.adorsys.aspsp.aspspmockserver.service;
 import de.adorsys.aspsp.aspspmockserver.repository.PsuRepository;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountBalance;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.psu.Psu;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -82,6 +86,26 @@ public class AccountService {
                    .orElse(Collections.emptyList());
     }
 
+    /**
+     * Returns details of accounts matched by the given references, all references are resolved with one query.
+     * References without any matched account are returned as missing
+     *
+     * @param references account references with IBAN and optionally currency
+     * @return batch of matched account details and missing references
+     */
+    public SpiAccountDetailsBatch getAccountsByReferences(List<SpiAccountReference> references) {
+        Set<String> ibans = references.stream()
+                                .map(SpiAccountReference::getIban)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet());
+        List<SpiAccountDetails> candidates = ibans.isEmpty()
+                                                 ? Collections.emptyList()
+                                                 : psuRepository.findPsuByAccountDetailsList_IbanIn(ibans).stream()
+                                                       .flatMap(psu -> psu.getAccountDetailsList().stream())
+                                                       .collect(Collectors.toList());
+        return SpiAccountDetailsBatch.of(references, candidates);
+    }
+
     Optional<String> getPsuIdByIban(String iban) {
         return psuRepository.findPsuByAccountDetailsList_Iban(iban)
                    .map(Psu::getId);
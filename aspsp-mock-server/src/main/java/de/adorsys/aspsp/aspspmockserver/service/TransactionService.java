@@ -18,8 +18,14 @@ package de.adorsys.aspsp.aspspmockserver.service;
 
 import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBookingStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -32,6 +38,7 @@ import java.util.Optional;
 public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private Long lastEntrySequence;
 
     public List<SpiTransaction> getAllTransactions() {
         return transactionRepository.findAll();
@@ -42,7 +49,15 @@ public class TransactionService {
         return details.map(det -> transactionRepository.findOneByTransactionIdAndAccount(det.getIban(), det.getCurrency(), transactionId));
     }
 
-    public Optional<String> saveTransaction(SpiTransaction transaction) {
+    /**
+     * Saves transaction with the next entry sequence number. Transactions are saved one at a time, so that numbers
+     * become visible in ascending order and delta reports never skip a transaction
+     *
+     * @param transaction transaction to be saved
+     * @return identifier of the saved transaction
+     */
+    public synchronized Optional<String> saveTransaction(SpiTransaction transaction) {
+        transaction.setEntrySequence(nextEntrySequence());
         return Optional.ofNullable(transactionRepository.save(transaction))
                    .map(SpiTransaction::getTransactionId);
     }
@@ -53,4 +68,50 @@ public class TransactionService {
                    .orElse(Collections.emptyList());
     }
 
+    public List<SpiTransaction> getTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiBookingStatus bookingStatus) {
+        if (bookingStatus == SpiBookingStatus.BOTH) {
+            return getTransactionsByPeriod(accountId, dateFrom, dateTo);
+        }
+        Optional<SpiAccountDetails> details = accountService.getAccountById(accountId);
+        return details.map(det -> bookingStatus == SpiBookingStatus.BOOKED
+                                      ? transactionRepository.findAllBookedByDates(det.getIban(), det.getCurrency(), dateFrom, dateTo)
+                                      : transactionRepository.findAllPendingByDates(det.getIban(), det.getCurrency(), dateFrom, dateTo))
+                   .orElse(Collections.emptyList());
+    }
+
+    public List<SpiTransaction> getTransactionsAfter(String accountId, long entrySequence) {
+        Optional<SpiAccountDetails> details = accountService.getAccountById(accountId);
+        return details.map(det -> transactionRepository.findAllAfterEntry(det.getIban(), det.getCurrency(), entrySequence, new Sort("valueDate", "transactionId")))
+                   .orElse(Collections.emptyList());
+    }
+
+    public Optional<SpiTransactionPage> getTransactionsPageByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiTransactionPageKey pageKey, int pageSize) {
+        return accountService.getAccountById(accountId)
+                   .map(det -> SpiTransactionPage.fromSlice(getTransactionSlice(det, dateFrom, dateTo, pageKey, pageSize), pageKey, pageSize));
+    }
+
+    private List<SpiTransaction> getTransactionSlice(SpiAccountDetails details, LocalDate dateFrom, LocalDate dateTo, SpiTransactionPageKey pageKey, int pageSize) {
+        Sort.Direction direction = pageKey == null || pageKey.isForward()
+                                       ? Sort.Direction.ASC
+                                       : Sort.Direction.DESC;
+        // one transaction more than the page tells whether there is a further page
+        Pageable slice = new PageRequest(0, (int) Math.min(pageSize + 1L, Integer.MAX_VALUE), direction, "valueDate", "transactionId");
+        if (pageKey == null) {
+            return transactionRepository.findAllByDates(details.getIban(), details.getCurrency(), dateFrom, dateTo, slice);
+        }
+        return pageKey.isForward()
+                   ? transactionRepository.findAllByDatesAfter(details.getIban(), details.getCurrency(), dateFrom, dateTo, pageKey.getValueDate(), pageKey.getTransactionId(), slice)
+                   : transactionRepository.findAllByDatesBefore(details.getIban(), details.getCurrency(), dateFrom, dateTo, pageKey.getValueDate(), pageKey.getTransactionId(), slice);
+    }
+
+    private long nextEntrySequence() {
+        if (lastEntrySequence == null) {
+            lastEntrySequence = Optional.ofNullable(transactionRepository.findFirstByOrderByEntrySequenceDesc())
+                                    .map(SpiTransaction::getEntrySequence)
+                                    .orElse(0L);
+        }
+        lastEntrySequence++;
+        return lastEntrySequence;
+    }
+
 }
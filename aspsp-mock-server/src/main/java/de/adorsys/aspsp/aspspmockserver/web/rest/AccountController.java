@@ -19,6 +19,8 @@ package de.adorsys.aspsp.aspspmockserver.web.rest;
 import de.adorsys.aspsp.aspspmockserver.service.AccountService;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountBalance;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -116,4 +118,12 @@ public class AccountController { //TODO: Remove unnecessary endpoints and servic
                    ? ResponseEntity.noContent().build()
                    : ResponseEntity.ok(response);
     }
+
+    @ApiOperation(value = "Returns account details selected by several account references at once. References without matched accounts are returned as missing", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = SpiAccountDetailsBatch.class)})
+    @PostMapping(path = "/batch")
+    public ResponseEntity<SpiAccountDetailsBatch> readAccountsByReferences(@RequestBody List<SpiAccountReference> references) {
+        return ResponseEntity.ok(accountService.getAccountsByReferences(references));
+    }
 }
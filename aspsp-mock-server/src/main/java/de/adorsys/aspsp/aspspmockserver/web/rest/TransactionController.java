@@ -17,26 +17,34 @@
 package de.adorsys.aspsp.aspspmockserver.web.rest;
 
 import de.adorsys.aspsp.aspspmockserver.service.TransactionService;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBookingStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import io.swagger.annotations.*;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.http.HttpStatus.CREATED;
 
 @RestController
-@AllArgsConstructor
+@RequiredArgsConstructor
 @RequestMapping(path = "/transaction")
 @Api(tags = "Transactions", description = "Provides access to transactions")
 public class TransactionController {
     private final TransactionService transactionService;
 
+    @Value("${transaction.max-page-size:1000}")
+    private int maxPageSize;
+
     @ApiOperation(value = "Returns a list of all transactions available at ASPSP", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
     @ApiResponses(value = {
         @ApiResponse(code = 201, message = "Created", response = List.class),
@@ -84,4 +92,60 @@ public class TransactionController {
                    ? ResponseEntity.noContent().build()
                    : ResponseEntity.ok(response);
     }
+
+    @ApiOperation(value = "Returns a list of booked or pending transactions for account by its ASPSP identifier for a certain period of time bounded by dates from/to", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = List.class),
+        @ApiResponse(code = 204, message = "No Content")})
+    @GetMapping(path = "/{account-id}", params = {"bookingStatus", "!afterEntry", "!pageSize"})
+    public ResponseEntity<List<SpiTransaction>> readTransactionsByPeriodAndStatus(@PathVariable("account-id") String accountId,
+                                                                                  @RequestParam("dateFrom") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                                                                  @RequestParam("dateTo") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                                                                                  @RequestParam("bookingStatus") SpiBookingStatus bookingStatus) {
+        List<SpiTransaction> response = transactionService.getTransactionsByPeriod(accountId, dateFrom, dateTo, bookingStatus);
+        return CollectionUtils.isEmpty(response)
+                   ? ResponseEntity.noContent().build()
+                   : ResponseEntity.ok(response);
+    }
+
+    @ApiOperation(value = "Returns a list of transactions for account by its ASPSP identifier, which were booked or changed after the transaction with the given entry sequence number. Transactions are ordered by value date and transaction identifier", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = List.class),
+        @ApiResponse(code = 204, message = "No Content"),
+        @ApiResponse(code = 400, message = "Bad Request")})
+    @GetMapping(path = "/{account-id}", params = {"afterEntry", "!pageSize"})
+    public ResponseEntity<List<SpiTransaction>> readTransactionsAfter(@PathVariable("account-id") String accountId,
+                                                                      @RequestParam("afterEntry") long afterEntry) {
+        List<SpiTransaction> response = transactionService.getTransactionsAfter(accountId, afterEntry);
+        return CollectionUtils.isEmpty(response)
+                   ? ResponseEntity.noContent().build()
+                   : ResponseEntity.ok(response);
+    }
+
+    @ApiOperation(value = "Returns a page of transactions for account by its ASPSP identifier for a certain period of time bounded by dates from/to. Transactions are ordered by value date and transaction identifier, the page is read from the position set by page key", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = SpiTransactionPage.class),
+        @ApiResponse(code = 204, message = "No Content"),
+        @ApiResponse(code = 400, message = "Bad Request")})
+    @GetMapping(path = "/{account-id}", params = "pageSize")
+    public ResponseEntity<SpiTransactionPage> readTransactionsPageByPeriod(@PathVariable("account-id") String accountId,
+                                                                           @RequestParam("dateFrom") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                                                           @RequestParam("dateTo") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                                                                           @RequestParam("pageSize") int pageSize,
+                                                                           @RequestParam(name = "pageKey", required = false) String pageKey) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<SpiTransactionPageKey> key;
+        try {
+            key = Optional.ofNullable(pageKey)
+                      .map(SpiTransactionPageKey::decode);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return transactionService.getTransactionsPageByPeriod(accountId, dateFrom, dateTo, key.orElse(null), pageSize)
+                   .filter(page -> !page.getTransactions().isEmpty())
+                   .map(ResponseEntity::ok)
+                   .orElseGet(() -> ResponseEntity.noContent().build());
+    }
 }
@@ -19,6 +19,8 @@ package de.adorsys.aspsp.aspspmockserver.service;
 import de.adorsys.aspsp.aspspmockserver.repository.PsuRepository;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountBalance;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBalanceType;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
 import de.adorsys.aspsp.xs2a.spi.domain.psu.Psu;
@@ -176,6 +178,27 @@ public class AccountServiceTest {
         assertThat(actualList).isEmpty();
     }
 
+    @Test
+    public void getAccountsByReferences() {
+        //Given:
+        SpiAccountReference eurReference = new SpiAccountReference(IBAN, null, null, null, null, EUR);
+        SpiAccountReference ibanReference = new SpiAccountReference(IBAN, null, null, null, null, null);
+        SpiAccountReference wrongReference = new SpiAccountReference(WRONG_IBAN, null, null, null, null, null);
+        when(psuRepository.findPsuByAccountDetailsList_IbanIn(new HashSet<>(Arrays.asList(IBAN, WRONG_IBAN))))
+            .thenReturn(Collections.singletonList(getPsuWithRightAccounts()));
+
+        //When:
+        SpiAccountDetailsBatch eurBatch = accountService.getAccountsByReferences(Arrays.asList(eurReference, wrongReference));
+        SpiAccountDetailsBatch ibanBatch = accountService.getAccountsByReferences(Arrays.asList(wrongReference, ibanReference, eurReference));
+
+        //Then:
+        assertThat(eurBatch.getAccountDetails()).containsExactly(getSpiAccountDetails_1());
+        assertThat(eurBatch.getMissingReferences()).containsExactly(wrongReference);
+        assertThat(ibanBatch.getAccountDetails()).containsExactly(getSpiAccountDetails_1(), getSpiAccountDetails_2());
+        assertThat(ibanBatch.getMissingReferences()).containsExactly(wrongReference);
+        assertThat(ibanBatch.isComplete()).isFalse();
+    }
+
     private SpiAccountDetails getSpiAccountDetails_1() {
         return new SpiAccountDetails(ACCOUNT_ID, IBAN, null, "1111222233334444",
             "111122xxxxxx44", null, Currency.getInstance("EUR"), "Jack", "GIRO",
@@ -20,6 +20,8 @@ import de.adorsys.aspsp.aspspmockserver.repository.TransactionRepository;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,15 +29,22 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -62,8 +71,8 @@ public class TransactionServiceTest {
             .thenReturn(getTransaction());
         when(transactionRepository.findOneByTransactionIdAndAccount(IBAN, EUR, WRONG_TRANSACTION_ID))
             .thenReturn(null);
-        when(transactionRepository.save(getTransaction()))
-            .thenReturn(getTransaction());
+        when(transactionRepository.save(any(SpiTransaction.class)))
+            .thenAnswer(invocation -> invocation.getArguments()[0]);
         when(transactionRepository.findAllByDates(IBAN, EUR, DATE, DATE))
             .thenReturn(Collections.singletonList(getTransaction()));
         when(accountService.getAccountById(ACCOUNT_ID))
@@ -108,6 +117,24 @@ public class TransactionServiceTest {
         assertThat(respondedTransactionId.get()).isEqualTo(TRANSACTION_ID);
     }
 
+    @Test
+    public void saveTransaction_AssignsNextEntrySequence() {
+        //Given
+        SpiTransaction lastTransaction = getTransaction(WRONG_TRANSACTION_ID);
+        lastTransaction.setEntrySequence(41L);
+        when(transactionRepository.findFirstByOrderByEntrySequenceDesc()).thenReturn(lastTransaction);
+        SpiTransaction first = getTransaction();
+        SpiTransaction second = getTransaction();
+
+        //When
+        transactionService.saveTransaction(first);
+        transactionService.saveTransaction(second);
+
+        //Then
+        assertThat(first.getEntrySequence()).isEqualTo(42L);
+        assertThat(second.getEntrySequence()).isEqualTo(43L);
+    }
+
     @Test
     public void getTransactionsByPeriod() {
         //When
@@ -126,8 +153,78 @@ public class TransactionServiceTest {
         assertThat(respondedTransaction).isEmpty();
     }
 
+    @Test
+    public void getTransactionsAfter() {
+        //Given
+        when(transactionRepository.findAllAfterEntry(eq(IBAN), eq(EUR), eq(41L), any(Sort.class)))
+            .thenReturn(Collections.singletonList(getTransaction(WRONG_TRANSACTION_ID)));
+
+        //When
+        List<SpiTransaction> transactionList = transactionService.getTransactionsAfter(ACCOUNT_ID, 41L);
+
+        //Then
+        assertThat(transactionList).containsExactly(getTransaction(WRONG_TRANSACTION_ID));
+    }
+
+    @Test
+    public void getTransactionsPageByPeriod_FirstPage() {
+        //Given
+        when(transactionRepository.findAllByDates(eq(IBAN), eq(EUR), eq(DATE), eq(DATE), any(Pageable.class)))
+            .thenReturn(Arrays.asList(getTransaction(), getTransaction(WRONG_TRANSACTION_ID)));
+
+        //When
+        Optional<SpiTransactionPage> page = transactionService.getTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, null, 1);
+
+        //Then
+        assertThat(page.get().getTransactions()).containsExactly(getTransaction());
+        assertThat(page.get().getNextPageKey()).isEqualTo(SpiTransactionPageKey.after(getTransaction()).encode());
+        assertThat(page.get().getPreviousPageKey()).isNull();
+    }
+
+    @Test
+    public void getTransactionsPageByPeriod_PreviousPage() {
+        //Given
+        when(transactionRepository.findAllByDatesBefore(eq(IBAN), eq(EUR), eq(DATE), eq(DATE), eq(DATE), eq(WRONG_TRANSACTION_ID), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(getTransaction()));
+
+        //When
+        Optional<SpiTransactionPage> page = transactionService.getTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, SpiTransactionPageKey.before(getTransaction(WRONG_TRANSACTION_ID)), 1);
+
+        //Then
+        assertThat(page.get().getTransactions()).containsExactly(getTransaction());
+        assertThat(page.get().getNextPageKey()).isEqualTo(SpiTransactionPageKey.after(getTransaction()).encode());
+        assertThat(page.get().getPreviousPageKey()).isNull();
+    }
+
+    @Test
+    public void getTransactionsPageByPeriod_MaxPageSize() {
+        //Given
+        when(transactionRepository.findAllByDates(eq(IBAN), eq(EUR), eq(DATE), eq(DATE), any(Pageable.class)))
+            .thenReturn(Collections.singletonList(getTransaction()));
+
+        //When
+        Optional<SpiTransactionPage> page = transactionService.getTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, null, Integer.MAX_VALUE);
+
+        //Then
+        assertThat(page.get().getTransactions()).containsExactly(getTransaction());
+        verify(transactionRepository).findAllByDates(eq(IBAN), eq(EUR), eq(DATE), eq(DATE), eq(new PageRequest(0, Integer.MAX_VALUE, Sort.Direction.ASC, "valueDate", "transactionId")));
+    }
+
+    @Test
+    public void getTransactionsPageByPeriod_Failure_Wrong_AccId() {
+        //When
+        Optional<SpiTransactionPage> page = transactionService.getTransactionsPageByPeriod(WRONG_ACCOUNT_ID, DATE, DATE, null, 1);
+
+        //Then
+        assertThat(page).isEqualTo(Optional.empty());
+    }
+
     private SpiTransaction getTransaction() {
-        return new SpiTransaction(TRANSACTION_ID, null, null, "Creditor_id", DATE, DATE, new SpiAmount(EUR, BigDecimal.valueOf(1000)), "Creditor",
+        return getTransaction(TRANSACTION_ID);
+    }
+
+    private SpiTransaction getTransaction(String transactionId) {
+        return new SpiTransaction(transactionId, null, null, "Creditor_id", DATE, DATE, new SpiAmount(EUR, BigDecimal.valueOf(1000)), "Creditor",
             new SpiAccountReference(IBAN, null, null, null, null, EUR), "Ult Creditor", "Debtor",
             new SpiAccountReference(IBAN_2, null, null, null, null, EUR), "Ult Debtor", null, null, "Purpose", "bankTrCode");
     }
@@ -20,6 +20,7 @@ import de.adorsys.aspsp.aspspmockserver.service.TransactionService;
 import de.adorsys.aspsp.aspspmockserver.web.rest.TransactionController;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
 import org.junit.Before;
 import org.junit.Test;
@@ -29,6 +30,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -58,6 +60,7 @@ public class TransactionControllerTest {
 
     @Before
     public void setUp() {
+        ReflectionTestUtils.setField(transactionController, "maxPageSize", 1000);
         when(transactionService.getAllTransactions()).thenReturn(Collections.singletonList(getTransaction()));
         when(transactionService.getTransactionById(TRANSACTION_ID, ACCOUNT_ID)).thenReturn(Optional.of(getTransaction()));
         when(transactionService.getTransactionById(WRONG_TRANSACTION_ID, ACCOUNT_ID)).thenReturn(Optional.empty());
@@ -115,6 +118,38 @@ public class TransactionControllerTest {
         assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
     }
 
+    @Test
+    public void readTransactionsPageByDates() {
+        //Given:
+        SpiTransactionPage page = new SpiTransactionPage(Collections.singletonList(getTransaction()), "next", null);
+        when(transactionService.getTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, null, 10)).thenReturn(Optional.of(page));
+
+        //When:
+        ResponseEntity expectedResponse = transactionController.readTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, 10, null);
+
+        //Then:
+        assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(expectedResponse.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    public void readTransactionsPageByDates_Failure_PageKey() {
+        //When:
+        ResponseEntity expectedResponse = transactionController.readTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, 10, "not a key");
+
+        //Then:
+        assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void readTransactionsPageByDates_Failure_PageSizeAboveMaximum() {
+        //When:
+        ResponseEntity expectedResponse = transactionController.readTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, Integer.MAX_VALUE, null);
+
+        //Then:
+        assertThat(expectedResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     private SpiTransaction getTransaction() {
         return new SpiTransaction(TRANSACTION_ID, null, null, "Creditor_id", DATE, DATE, new SpiAmount(EUR, BigDecimal.valueOf(1000)), "Creditor",
             new SpiAccountReference(IBAN, null, null, null, null, EUR), "Ult Creditor", "Debtor",
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.consent.api.ais;
+
+import de.adorsys.aspsp.xs2a.consent.api.AccountInfo;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "Requested access to account information, which is checked against the consent and consumes one usage of the consent unless a report is continued", value = "AisConsentAccessRequest")
+public class AisConsentAccessRequest {
+
+    @ApiModelProperty(value = "TPP id", required = true, example = "af006545-d713-46d7-b6cf-09c9628f9a5d")
+    private String tppId;
+
+    @ApiModelProperty(value = "Account to be accessed. Is not set, if the list of accounts of the consent is requested")
+    private AccountInfo account;
+
+    @ApiModelProperty(value = "Type of requested access: account, balance, transaction", required = true, example = "ACCOUNT")
+    private TypeAccess typeAccess;
+
+    @ApiModelProperty(value = "'true', if balances are requested together with account details", example = "false")
+    private boolean withBalance;
+
+    @ApiModelProperty(value = "'true', if a further page of a report is requested, whose first page has already consumed a usage of the consent", example = "false")
+    private boolean continuation;
+}
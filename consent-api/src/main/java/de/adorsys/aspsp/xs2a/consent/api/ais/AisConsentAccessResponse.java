@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.consent.api.ais;
+
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "Result of the check of requested access to account information against the consent", value = "AisConsentAccessResponse")
+public class AisConsentAccessResponse {
+
+    @ApiModelProperty(value = "Result of the check, which is saved to the action log of the consent", required = true, example = "SUCCESS")
+    private ActionStatus actionStatus;
+
+    @ApiModelProperty(value = "Accesses given by the consent. Is set only if the requested access is granted")
+    private AisAccountAccess access;
+}
@@ -14,16 +14,20 @@
  * limitations under the License.
  */
 
-package de.adorsys.aspsp.xs2a.service.validator.header.impl;
+package de.adorsys.aspsp.xs2a.consent.api.ais;
 
-import de.adorsys.aspsp.xs2a.service.validator.header.RequestHeader;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
-@ApiModel(description = "Is used when headers are not correct", value = "NotMatchedHeaderImpl")
-public class ErrorMessageHeaderImpl implements RequestHeader {
-    @ApiModelProperty(value = "Error description", required = false, example = "Error: 'tpp-transaction-id' header has wrong format")
-    private final String errorMessage;
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(description = "Position of the last transaction delivered to TPP for an account within a consent. Transactions are ordered by the entry sequence assigned by ASPSP, when they are booked or changed", value = "AisTransactionWatermark")
+public class AisTransactionWatermark {
+
+    @ApiModelProperty(value = "Entry sequence number of the last delivered transaction", required = true, example = "1234")
+    private long entrySequence;
 }
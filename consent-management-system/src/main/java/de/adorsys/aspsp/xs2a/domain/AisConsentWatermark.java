@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+@Data
+@ToString(exclude = "consent")
+@Entity(name = "ais_consent_watermark")
+@ApiModel(description = "Position of the last transaction delivered within ais consent for an account", value = "AisConsentWatermark")
+public class AisConsentWatermark {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ais_consent_watermark_generator")
+    @SequenceGenerator(name = "ais_consent_watermark_generator", sequenceName = "ais_consent_watermark_id_seq")
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "consent_id", nullable = false)
+    @ApiModelProperty(value = "Consent the transactions were delivered with", required = true)
+    private AisConsent consent;
+
+    @Column(name = "account_id", nullable = false, length = 100)
+    @ApiModelProperty(value = "ASPSP identifier of the account", required = true, example = "3dc3d5b3-7023-4848-9853-f5400a64e80f")
+    private String accountId;
+
+    @Column(name = "entry_sequence", nullable = false)
+    @ApiModelProperty(value = "Entry sequence number of the last delivered transaction", required = true, example = "1234")
+    private long entrySequence;
+}
@@ -18,8 +18,10 @@ package de.adorsys.aspsp.xs2a.repository;
 
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -30,4 +32,7 @@ public interface AisConsentRepository extends CrudRepository<AisConsent, Long> {
     Optional<AisConsent> findByExternalId(String externalId);
 
     Optional<AisConsent> findByExternalIdAndConsentStatusIn(String externalId, Set<CmsConsentStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AisConsent> findLockedByExternalId(String externalId);
 }
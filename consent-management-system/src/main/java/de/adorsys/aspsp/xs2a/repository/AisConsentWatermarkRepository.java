@@ -14,16 +14,16 @@
  * limitations under the License.
  */
 
-package de.adorsys.aspsp.xs2a.service.validator.parameter.impl;
+package de.adorsys.aspsp.xs2a.repository;
 
-import de.adorsys.aspsp.xs2a.service.validator.parameter.RequestParameter;
-import io.swagger.annotations.ApiModel;
-import io.swagger.annotations.ApiModelProperty;
-import lombok.Data;
+import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.AisConsentWatermark;
+import org.springframework.data.repository.CrudRepository;
 
-@Data
-@ApiModel(description = "Is used when parameter are not correct", value = "ErrorMessageParameterImpl")
-public class ErrorMessageParameterImpl implements RequestParameter {
-    @ApiModelProperty(value = "Error description", required = false, example = "Error: 'dataFrom' parameter has wrong format")
-    private final String errorMessage;
+import java.util.Optional;
+
+public interface AisConsentWatermarkRepository extends CrudRepository<AisConsentWatermark, Long> {
+    Optional<AisConsentWatermark> findByConsentExternalIdAndAccountId(String consentId, String accountId);
+
+    Optional<AisConsentWatermark> findByConsentAndAccountId(AisConsent consent, String accountId);
 }
@@ -18,17 +18,24 @@ package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.account.AccountHolder;
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.AccountInfo;
 import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessRequest;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.aspsp.xs2a.domain.AccountAccess;
 import de.adorsys.aspsp.xs2a.domain.AisAccount;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
 import de.adorsys.aspsp.xs2a.domain.AisConsentAction;
+import de.adorsys.aspsp.xs2a.domain.AisConsentWatermark;
 import de.adorsys.aspsp.xs2a.repository.AisConsentActionRepository;
 import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.repository.AisConsentWatermarkRepository;
 import de.adorsys.aspsp.xs2a.service.mapper.ConsentMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -49,6 +56,7 @@ import static de.adorsys.aspsp.xs2a.consent.api.TypeAccess.*;
 public class AISConsentService {
     private final AisConsentRepository aisConsentRepository;
     private final AisConsentActionRepository aisConsentActionRepository;
+    private final AisConsentWatermarkRepository aisConsentWatermarkRepository;
     private final ConsentMapper consentMapper;
     private final AspspProfileService profileService;
 
@@ -135,15 +143,86 @@ public class AISConsentService {
     }
 
     /**
-     * Save information about uses of consent
+     * Save information about uses of consent. The consent is locked until the usage is saved, so concurrent uses
+     * of one consent are counted one by one
      *
      * @param request needed parameters for logging usage AIS consent
      */
     @Transactional
     public void checkConsentAndSaveActionLog(ConsentActionRequest request) {
-        Optional<AisConsent> consent = getAisConsentById(request.getConsentId());
+        Optional<AisConsent> consent = Optional.ofNullable(request.getConsentId())
+                                           .flatMap(aisConsentRepository::findLockedByExternalId);
         checkAndUpdateConsentParameter(consent);
-        logConsentAction(request.getConsentId(), resolveConsentActionStatus(request, consent), request.getTppId());
+        aisConsentActionRepository.save(buildConsentAction(request, consent));
+    }
+
+    /**
+     * Check requested access to account information against consent and consume one usage of the consent within one
+     * transaction. The consent is locked while it is checked, so concurrent requests can't use more usages than allowed.
+     * Result of the check is saved to the action log of the consent
+     *
+     * @param consentId id of the consent
+     * @param request   requested access to account information
+     * @return AisConsentAccessResponse with result of the check and accesses of the consent, if requested access is granted
+     */
+    @Transactional
+    public AisConsentAccessResponse checkAndConsumeConsentAccess(String consentId, AisConsentAccessRequest request) {
+        Optional<AisConsent> consent = Optional.ofNullable(consentId)
+                                           .flatMap(aisConsentRepository::findLockedByExternalId)
+                                           .map(this::checkAndUpdateOnExpiration);
+        ActionStatus actionStatus = consent
+                                        .map(c -> resolveConsentAccessStatus(c, request))
+                                        .orElse(ActionStatus.CONSENT_NOT_FOUND);
+        if (consent.isPresent() && actionStatus != ActionStatus.CONSENT_INVALID_STATUS && !request.isContinuation()) {
+            updateAisConsentCounter(consent.get());
+        }
+        aisConsentActionRepository.save(buildConsentAction(new ConsentActionRequest(request.getTppId(), consentId, actionStatus), consent));
+        return new AisConsentAccessResponse(actionStatus, actionStatus == ActionStatus.SUCCESS
+                                                              ? consentMapper.mapToAisAccountAccess(consent.get().getAccounts())
+                                                              : null);
+    }
+
+    /**
+     * Read position of the last transaction delivered within consent for an account
+     *
+     * @param consentId id of the consent
+     * @param accountId ASPSP id of the account
+     * @return AisTransactionWatermark or empty if no transactions were delivered yet
+     */
+    public Optional<AisTransactionWatermark> getTransactionWatermark(String consentId, String accountId) {
+        return aisConsentWatermarkRepository.findByConsentExternalIdAndAccountId(consentId, accountId)
+                   .map(w -> new AisTransactionWatermark(w.getEntrySequence()));
+    }
+
+    /**
+     * Moves position of the last transaction delivered within consent for an account forward. The consent is locked
+     * while the watermark is updated, so concurrent updates are applied one by one and the watermark never moves back
+     *
+     * @param consentId id of the consent
+     * @param accountId ASPSP id of the account
+     * @param watermark position of the last transaction delivered
+     * @return Boolean 'true' if watermark was moved, 'false' if it is already placed at or after the given position
+     */
+    @Transactional
+    public Optional<Boolean> updateTransactionWatermark(String consentId, String accountId, AisTransactionWatermark watermark) {
+        return Optional.ofNullable(consentId)
+                   .flatMap(aisConsentRepository::findLockedByExternalId)
+                   .map(consent -> moveTransactionWatermark(consent, accountId, watermark));
+    }
+
+    private boolean moveTransactionWatermark(AisConsent consent, String accountId, AisTransactionWatermark watermark) {
+        AisConsentWatermark consentWatermark = aisConsentWatermarkRepository.findByConsentAndAccountId(consent, accountId)
+                                                   .orElse(null);
+        if (consentWatermark == null) {
+            consentWatermark = new AisConsentWatermark();
+            consentWatermark.setConsent(consent);
+            consentWatermark.setAccountId(accountId);
+        } else if (consentWatermark.getEntrySequence() >= watermark.getEntrySequence()) {
+            return false;
+        }
+        consentWatermark.setEntrySequence(watermark.getEntrySequence());
+        aisConsentWatermarkRepository.save(consentWatermark);
+        return true;
     }
 
     private void checkAndUpdateConsentParameter(Optional<AisConsent> consent) {
@@ -154,6 +233,41 @@ public class AISConsentService {
         }
     }
 
+    private ActionStatus resolveConsentAccessStatus(AisConsent consent, AisConsentAccessRequest request) {
+        if (!EnumSet.of(RECEIVED, VALID).contains(consent.getConsentStatus())) {
+            return ActionStatus.CONSENT_INVALID_STATUS;
+        }
+        if (!request.isContinuation() && !consent.hasUsagesAvailable()) {
+            return ActionStatus.CONSENT_LIMIT_EXCEEDED;
+        }
+        TypeAccess typeAccess = request.getTypeAccess() == ACCOUNT && request.isWithBalance()
+                                    ? BALANCE
+                                    : request.getTypeAccess();
+        if (request.getAccount() != null && !hasAccountAccess(consent, request.getAccount(), typeAccess)) {
+            return resolveAccessFailureStatus(typeAccess);
+        }
+        return ActionStatus.SUCCESS;
+    }
+
+    private ActionStatus resolveAccessFailureStatus(TypeAccess typeAccess) {
+        if (typeAccess == TRANSACTION) {
+            return ActionStatus.FAILURE_TRANSACTION;
+        } else if (typeAccess == BALANCE) {
+            return ActionStatus.FAILURE_BALANCE;
+        }
+        return ActionStatus.FAILURE_ACCOUNT;
+    }
+
+    private boolean hasAccountAccess(AisConsent consent, AccountInfo account, TypeAccess typeAccess) {
+        Currency currency = Optional.ofNullable(account.getCurrency())
+                                .map(Currency::getInstance)
+                                .orElse(null);
+        return consent.getAccounts().stream()
+                   .filter(acc -> acc.getIban().equals(account.getIban()))
+                   .flatMap(acc -> acc.getAccesses().stream())
+                   .anyMatch(access -> access.getTypeAccess() == typeAccess && Objects.equals(access.getCurrency(), currency));
+    }
+
     private ActionStatus resolveConsentActionStatus(ConsentActionRequest request, Optional<AisConsent> consent) {
         return consent.isPresent()
                    ? request.getActionStatus()
@@ -170,13 +284,13 @@ public class AISConsentService {
         }
     }
 
-    private void logConsentAction(String requestedConsentId, ActionStatus actionStatus, String tppId) {
+    private AisConsentAction buildConsentAction(ConsentActionRequest request, Optional<AisConsent> consent) {
         AisConsentAction action = new AisConsentAction();
-        action.setActionStatus(actionStatus);
-        action.setRequestedConsentId(requestedConsentId);
-        action.setTppId(tppId);
+        action.setActionStatus(resolveConsentActionStatus(request, consent));
+        action.setRequestedConsentId(request.getConsentId());
+        action.setTppId(request.getTppId());
         action.setRequestDate(LocalDate.now());
-        aisConsentActionRepository.save(action);
+        return action;
     }
 
     private Optional<AisConsent> getActualAisConsent(String consentId) {
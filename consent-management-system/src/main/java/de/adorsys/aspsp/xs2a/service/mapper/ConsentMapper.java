@@ -45,7 +45,7 @@ public class ConsentMapper {
             consent.getAspspConsentData());
     }
 
-    private AisAccountAccess mapToAisAccountAccess(List<AisAccount> aisAccounts) {
+    public AisAccountAccess mapToAisAccountAccess(List<AisAccount> aisAccounts) {
         return new AisAccountAccess(mapToCmsAccountReference(aisAccounts, TypeAccess.ACCOUNT),
             mapToCmsAccountReference(aisAccounts, TypeAccess.BALANCE),
             mapToCmsAccountReference(aisAccounts, TypeAccess.TRANSACTION));
@@ -20,6 +20,9 @@ import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentStatusResponse;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessRequest;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentResponse;
 import de.adorsys.aspsp.xs2a.service.AISConsentService;
@@ -94,4 +97,46 @@ public class AisConsentController {
                    .map(updated -> new ResponseEntity<Void>(HttpStatus.OK))
                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
+
+    @PostMapping(path = "/{consent-id}/access")
+    @ApiOperation(value = "Check requested access to account information against the consent and consume one usage of the consent. Result of the check is saved as information about use of consent")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisConsentAccessResponse.class)})
+    public ResponseEntity<AisConsentAccessResponse> checkAndConsumeConsentAccess(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @RequestBody AisConsentAccessRequest request) {
+        return new ResponseEntity<>(aisConsentService.checkAndConsumeConsentAccess(consentId, request), HttpStatus.OK);
+    }
+
+    @GetMapping(path = "/{consent-id}/watermark/{account-id}")
+    @ApiOperation(value = "Read position of the last transaction delivered within consent for an account.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisTransactionWatermark.class),
+        @ApiResponse(code = 204, message = "No Content")})
+    public ResponseEntity<AisTransactionWatermark> getTransactionWatermark(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @ApiParam(name = "account-id", value = "ASPSP identification of the account.", example = "3dc3d5b3-7023-4848-9853-f5400a64e80f")
+        @PathVariable("account-id") String accountId) {
+        return aisConsentService.getTransactionWatermark(consentId, accountId)
+                   .map(watermark -> new ResponseEntity<>(watermark, HttpStatus.OK))
+                   .orElse(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    @PutMapping(path = "/{consent-id}/watermark/{account-id}")
+    @ApiOperation(value = "Move position of the last transaction delivered within consent for an account forward. Positions before the current one are ignored.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK"),
+        @ApiResponse(code = 404, message = "Not Found")})
+    public ResponseEntity<Void> updateTransactionWatermark(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId,
+        @ApiParam(name = "account-id", value = "ASPSP identification of the account.", example = "3dc3d5b3-7023-4848-9853-f5400a64e80f")
+        @PathVariable("account-id") String accountId,
+        @RequestBody AisTransactionWatermark watermark) {
+        return aisConsentService.updateTransactionWatermark(consentId, accountId, watermark)
+                   .map(updated -> new ResponseEntity<Void>(HttpStatus.OK))
+                   .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
 }
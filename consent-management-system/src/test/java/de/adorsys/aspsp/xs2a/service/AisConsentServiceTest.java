@@ -17,30 +17,50 @@
 package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.consent.api.AccountInfo;
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
+import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountConsent;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessRequest;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentRequest;
+import de.adorsys.aspsp.xs2a.domain.AccountAccess;
+import de.adorsys.aspsp.xs2a.domain.AisAccount;
 import de.adorsys.aspsp.xs2a.domain.AisConsent;
+import de.adorsys.aspsp.xs2a.domain.AisConsentAction;
+import de.adorsys.aspsp.xs2a.domain.AisConsentWatermark;
+import de.adorsys.aspsp.xs2a.repository.AisConsentActionRepository;
 import de.adorsys.aspsp.xs2a.repository.AisConsentRepository;
+import de.adorsys.aspsp.xs2a.repository.AisConsentWatermarkRepository;
 import de.adorsys.aspsp.xs2a.service.mapper.ConsentMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.Currency;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -53,10 +73,16 @@ public class AisConsentServiceTest {
     private ConsentMapper consentMapper;
     @Mock
     private AisConsentRepository aisConsentRepository;
+    @Mock
+    private AisConsentWatermarkRepository aisConsentWatermarkRepository;
+    @Mock
+    private AisConsentActionRepository aisConsentActionRepository;
 
     private AisConsent aisConsent;
     private final long CONSENT_ID = 1;
     private final String EXTERNAL_CONSENT_ID = "4b112130-6a96-4941-a220-2da8a4af2c65";
+    private final String ACCOUNT_ID = "3dc3d5b3-7023-4848-9853-f5400a64e80f";
+    private final String TPP_ID = "tpp-id-1";
 
     @Before
     public void setUp() {
@@ -91,6 +117,123 @@ public class AisConsentServiceTest {
         assertThat(externalId.get(), is(equalTo(aisConsent.getExternalId())));
     }
 
+    @Test
+    public void shouldCreateWatermark_WhenUpdateTransactionWatermarkIsCalledFirstTime() {
+        // When
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentWatermarkRepository.findByConsentAndAccountId(aisConsent, ACCOUNT_ID)).thenReturn(Optional.empty());
+
+        // Then
+        Optional<Boolean> updated = aisConsentService.updateTransactionWatermark(EXTERNAL_CONSENT_ID, ACCOUNT_ID, new AisTransactionWatermark(12));
+
+        // Assert
+        assertThat(updated.get(), is(true));
+        ArgumentCaptor<AisConsentWatermark> saved = ArgumentCaptor.forClass(AisConsentWatermark.class);
+        verify(aisConsentWatermarkRepository).save(saved.capture());
+        assertThat(saved.getValue().getConsent(), is(aisConsent));
+        assertThat(saved.getValue().getEntrySequence(), is(equalTo(12L)));
+    }
+
+    @Test
+    public void shouldKeepWatermark_WhenUpdateTransactionWatermarkIsCalledWithOlderPosition() {
+        // When
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(aisConsentWatermarkRepository.findByConsentAndAccountId(aisConsent, ACCOUNT_ID)).thenReturn(Optional.of(buildWatermark()));
+
+        // Then
+        Optional<Boolean> updated = aisConsentService.updateTransactionWatermark(EXTERNAL_CONSENT_ID, ACCOUNT_ID, new AisTransactionWatermark(11));
+
+        // Assert
+        assertThat(updated.get(), is(false));
+        verify(aisConsentWatermarkRepository, never()).save(any(AisConsentWatermark.class));
+    }
+
+    @Test
+    public void shouldConsumeUsage_WhenCheckAndConsumeConsentAccessIsCalledWithGrantedAccess() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(CmsConsentStatus.VALID);
+        aisConsent.setUsageCounter(5);
+        aisConsent.addAccounts(Collections.singletonList(new AisAccount("iban-1", Collections.singleton(new AccountAccess(Currency.getInstance("EUR"), TypeAccess.BALANCE)))));
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(consentMapper.mapToAisAccountAccess(aisConsent.getAccounts())).thenReturn(new AisAccountAccess(null, null, null));
+        ArgumentCaptor<AisConsentAction> actionCaptor = ArgumentCaptor.forClass(AisConsentAction.class);
+
+        // Then
+        AisConsentAccessResponse response = aisConsentService.checkAndConsumeConsentAccess(EXTERNAL_CONSENT_ID,
+            new AisConsentAccessRequest(TPP_ID, new AccountInfo("iban-1", "EUR"), TypeAccess.ACCOUNT, true, false));
+
+        // Assert
+        assertThat(response.getActionStatus(), equalTo(ActionStatus.SUCCESS));
+        assertThat(response.getAccess(), is(notNullValue()));
+        assertThat(aisConsent.getUsageCounter(), equalTo(4));
+        verify(aisConsentActionRepository).save(actionCaptor.capture());
+        assertThat(actionCaptor.getValue().getActionStatus(), equalTo(ActionStatus.SUCCESS));
+    }
+
+    @Test
+    public void shouldRefuseAccess_WhenCheckAndConsumeConsentAccessIsCalledWithAccountNotInConsent() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(CmsConsentStatus.VALID);
+        aisConsent.setUsageCounter(5);
+        aisConsent.addAccounts(Collections.singletonList(new AisAccount("iban-1", Collections.singleton(new AccountAccess(Currency.getInstance("EUR"), TypeAccess.ACCOUNT)))));
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+
+        // Then
+        AisConsentAccessResponse response = aisConsentService.checkAndConsumeConsentAccess(EXTERNAL_CONSENT_ID,
+            new AisConsentAccessRequest(TPP_ID, new AccountInfo("iban-1", "EUR"), TypeAccess.TRANSACTION, false, false));
+
+        // Assert
+        assertThat(response.getActionStatus(), equalTo(ActionStatus.FAILURE_TRANSACTION));
+        assertThat(response.getAccess(), is(nullValue()));
+        assertThat(aisConsent.getUsageCounter(), equalTo(4));
+    }
+
+    @Test
+    public void shouldNotConsumeUsage_WhenCheckAndConsumeConsentAccessIsCalledForContinuation() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setConsentStatus(CmsConsentStatus.VALID);
+        aisConsent.setUsageCounter(0);
+        aisConsent.addAccounts(Collections.singletonList(new AisAccount("iban-1", Collections.singleton(new AccountAccess(Currency.getInstance("EUR"), TypeAccess.TRANSACTION)))));
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+        when(consentMapper.mapToAisAccountAccess(aisConsent.getAccounts())).thenReturn(new AisAccountAccess(null, null, null));
+
+        // Then
+        AisConsentAccessResponse response = aisConsentService.checkAndConsumeConsentAccess(EXTERNAL_CONSENT_ID,
+            new AisConsentAccessRequest(TPP_ID, new AccountInfo("iban-1", "EUR"), TypeAccess.TRANSACTION, false, true));
+
+        // Assert
+        assertThat(response.getActionStatus(), equalTo(ActionStatus.SUCCESS));
+        assertThat(aisConsent.getUsageCounter(), equalTo(0));
+    }
+
+    @Test
+    public void shouldDecrementLockedConsent_WhenCheckConsentAndSaveActionLogIsCalled() {
+        // When
+        aisConsent.setExpireDate(LocalDate.now().plusDays(1));
+        aisConsent.setUsageCounter(2);
+        when(aisConsentRepository.findLockedByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.of(aisConsent));
+
+        // Then
+        aisConsentService.checkConsentAndSaveActionLog(new ConsentActionRequest("tpp-id-1", EXTERNAL_CONSENT_ID, ActionStatus.SUCCESS));
+
+        // Assert
+        assertThat(aisConsent.getUsageCounter(), is(1));
+        verify(aisConsentRepository, never()).findByExternalId(EXTERNAL_CONSENT_ID);
+        verify(aisConsentRepository).save(aisConsent);
+        verify(aisConsentActionRepository).save(any(AisConsentAction.class));
+    }
+
+    private AisConsentWatermark buildWatermark() {
+        AisConsentWatermark watermark = new AisConsentWatermark();
+        watermark.setConsent(aisConsent);
+        watermark.setAccountId(ACCOUNT_ID);
+        watermark.setEntrySequence(12);
+        return watermark;
+    }
+
     private AisConsent buildConsent() {
         AisConsent aisConsent = new AisConsent();
         aisConsent.setId(CONSENT_ID);
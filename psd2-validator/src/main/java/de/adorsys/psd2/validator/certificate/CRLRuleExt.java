@@ -16,21 +16,131 @@
 
 package de.adorsys.psd2.validator.certificate;
 
-import no.difi.certvalidator.api.CertificateValidationException;
-import no.difi.certvalidator.rule.CRLRule;
+import de.adorsys.psd2.validator.certificate.revocation.RevocationStatus;
+import de.adorsys.psd2.validator.certificate.revocation.RevocationStatusStore;
+import no.difi.certvalidator.api.CertificateBucket;
+import no.difi.certvalidator.api.ValidatorRule;
+import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 
+import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
-public class CRLRuleExt extends CRLRule {
+/**
+ * Checks certificate against CRLs of its distribution points, as kept by {@link RevocationStatusStore}.
+ * CRLs have to be signed by the issuer of the certificate, which is looked up in the given buckets.
+ * Locations of one distribution point are alternatives, the first one giving a definitive status is used,
+ * locations the store can't fetch are skipped. A certificate is rejected if it is revoked at any distribution
+ * point or if no distribution point gives a definitive status.
+ */
+public class CRLRuleExt implements ValidatorRule {
+
+	private final RevocationStatusStore revocationStatusStore;
+	private final List<CertificateBucket> issuerCertificates;
+
+	public CRLRuleExt(RevocationStatusStore revocationStatusStore, CertificateBucket... issuerCertificates) {
+		this.revocationStatusStore = revocationStatusStore;
+		this.issuerCertificates = Arrays.asList(issuerCertificates);
+	}
 
-    @Override
+	@Override
 	public void validate(X509Certificate certificate) throws FailedCertValidationException {
 
+		List<List<String>> distributionPoints = getCrlDistributionPoints(certificate);
+		if (distributionPoints.isEmpty()) {
+			return;
+		}
+
+		X509Certificate issuer = findIssuer(certificate);
+		boolean statusKnown = false;
+		for (List<String> locations : distributionPoints) {
+			RevocationStatus status = getRevocationStatus(certificate, issuer, locations);
+			if (status == RevocationStatus.REVOKED) {
+				throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_REVOKED.name(),
+						CertificateErrorMsgCode.CERTIFICATE_REVOKED.toString());
+			}
+			statusKnown |= status == RevocationStatus.GOOD;
+		}
+		if (!statusKnown) {
+			throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_INVALID.name(),
+					CertificateErrorMsgCode.CERTIFICATE_INVALID.toString());
+		}
+	}
+
+	private RevocationStatus getRevocationStatus(X509Certificate certificate, X509Certificate issuer, List<String> locations) {
+		for (String location : locations) {
+			if (!revocationStatusStore.canFetch(location)) {
+				continue;
+			}
+			RevocationStatus status = revocationStatusStore.getRevocationStatus(certificate, issuer, location);
+			if (status != RevocationStatus.UNKNOWN) {
+				return status;
+			}
+		}
+		return RevocationStatus.UNKNOWN;
+	}
+
+	private X509Certificate findIssuer(X509Certificate certificate) throws FailedCertValidationException {
+		for (CertificateBucket bucket : issuerCertificates) {
+			for (X509Certificate candidate : bucket) {
+				if (candidate.getSubjectX500Principal().equals(certificate.getIssuerX500Principal())
+						&& isSignedBy(certificate, candidate)) {
+					return candidate;
+				}
+			}
+		}
+		throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_INVALID.name(),
+				CertificateErrorMsgCode.CERTIFICATE_INVALID.toString());
+	}
+
+	private boolean isSignedBy(X509Certificate certificate, X509Certificate issuer) {
+		try {
+			certificate.verify(issuer.getPublicKey());
+			return true;
+		} catch (GeneralSecurityException e) {
+			return false;
+		}
+	}
+
+	private List<List<String>> getCrlDistributionPoints(X509Certificate certificate) throws FailedCertValidationException {
+		byte[] extensionValue = certificate.getExtensionValue(Extension.cRLDistributionPoints.getId());
+		if (extensionValue == null) {
+			return Collections.emptyList();
+		}
+
+		List<List<String>> distributionPoints = new ArrayList<>();
 		try {
-			super.validate(certificate);
-		} catch (CertificateValidationException e) {
-			throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_REVOKED.name(),
-					CertificateErrorMsgCode.CERTIFICATE_REVOKED.toString());
+			CRLDistPoint crlDistPoint = CRLDistPoint.getInstance(JcaX509ExtensionUtils.parseExtensionValue(extensionValue));
+			for (DistributionPoint distributionPoint : crlDistPoint.getDistributionPoints()) {
+				DistributionPointName pointName = distributionPoint.getDistributionPoint();
+				if (pointName == null || pointName.getType() != DistributionPointName.FULL_NAME) {
+					continue;
+				}
+				List<String> locations = new ArrayList<>();
+				for (GeneralName name : GeneralNames.getInstance(pointName.getName()).getNames()) {
+					if (name.getTagNo() == GeneralName.uniformResourceIdentifier) {
+						locations.add(DERIA5String.getInstance(name.getName()).getString());
+					}
+				}
+				if (!locations.isEmpty()) {
+					distributionPoints.add(locations);
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_INVALID.name(),
+					CertificateErrorMsgCode.CERTIFICATE_INVALID.toString());
 		}
+		return distributionPoints;
 	}
 }
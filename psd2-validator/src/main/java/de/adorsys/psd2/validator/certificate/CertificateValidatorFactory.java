@@ -7,6 +7,8 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.nimbusds.jose.util.X509CertUtils;
 
+import de.adorsys.psd2.validator.certificate.revocation.RevocationStatusStore;
+
 import no.difi.certvalidator.Validator;
 import no.difi.certvalidator.ValidatorBuilder;
 import no.difi.certvalidator.api.CertificateValidationException;
@@ -19,7 +21,15 @@ public class CertificateValidatorFactory {
 	public CertificateValidatorFactory(SimpleCertificateBucket blockedCertBucket,
 			SimpleCertificateBucket rootCertificates, SimpleCertificateBucket intermediateCertificates) {
 
-		validator = ValidatorBuilder.newInstance().addRule(new ExpirationRuleExt()).addRule(new CRLRuleExt())
+		this(blockedCertBucket, rootCertificates, intermediateCertificates, RevocationStatusStore.getDefaultInstance());
+	}
+
+	public CertificateValidatorFactory(SimpleCertificateBucket blockedCertBucket,
+			SimpleCertificateBucket rootCertificates, SimpleCertificateBucket intermediateCertificates,
+			RevocationStatusStore revocationStatusStore) {
+
+		validator = ValidatorBuilder.newInstance().addRule(new ExpirationRuleExt())
+				.addRule(new CRLRuleExt(revocationStatusStore, rootCertificates, intermediateCertificates))
 				.addRule(new BlackListRule(blockedCertBucket))
 				.addRule(new ChainRuleExt(rootCertificates, intermediateCertificates)).build();
 	}
@@ -38,6 +48,11 @@ public class CertificateValidatorFactory {
 					CertificateErrorMsgCode.CERTIFICATE_MISSING.toString());
 		}
 
+		return validate(cert);
+	}
+
+	public boolean validate(X509Certificate cert) throws CertificateValidationException {
+
 		validator.validate(cert);
 
 		return true;
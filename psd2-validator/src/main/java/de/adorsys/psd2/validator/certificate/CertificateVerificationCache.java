@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import de.adorsys.psd2.validator.certificate.util.CertificateExtractorUtil;
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import no.difi.certvalidator.api.CertificateValidationException;
+import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of TPP certificate validation verdicts, keyed by SHA-256 fingerprint of the encoded certificate.
+ * Positive verdicts are kept no longer than the ttl and the certificate's notAfter. Negative verdicts are kept
+ * only for the (short) negative ttl, so that a transient validation failure doesn't lock a valid TPP out.
+ */
+public class CertificateVerificationCache {
+
+	private final int maxSize;
+	private final long ttl;
+	private final long negativeTtl;
+	private final Map<String, Entry> entries;
+	private final CertificateValidatorFactory validatorFactory;
+
+	public CertificateVerificationCache(CertificateValidatorFactory validatorFactory, int maxSize, long ttl, long negativeTtl) {
+		this.validatorFactory = validatorFactory;
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.negativeTtl = negativeTtl;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > CertificateVerificationCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Validates encoded certificate and extracts TPP data from it. Verdicts for already seen certificates are
+	 * served from the cache.
+	 *
+	 * @param encodedCert PEM or base64 encoded certificate, as sent in 'tpp-certificate' header
+	 * @return parsed certificate with extracted TPP data
+	 * @throws CertificateException           if certificate cannot be read
+	 * @throws CertificateValidationException if certificate is not valid
+	 */
+	public VerifiedCertificate validate(String encodedCert) throws CertificateException, CertificateValidationException {
+
+		if (StringUtils.isBlank(encodedCert)) {
+			throw new FailedCertValidationException(CertificateErrorMsgCode.CERTIFICATE_MISSING.name(),
+					CertificateErrorMsgCode.CERTIFICATE_MISSING.toString());
+		}
+
+		String fingerprint = fingerprint(encodedCert);
+		long now = System.currentTimeMillis();
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(fingerprint);
+		}
+
+		if (entry == null || entry.expiresAt <= now) {
+			entry = verify(encodedCert, now);
+			put(fingerprint, entry, now);
+		}
+
+		if (entry.failureMessage != null) {
+			throw entry.failureCode != null
+					? new FailedCertValidationException(entry.failureCode, entry.failureMessage)
+					: new CertificateValidationException(entry.failureMessage);
+		}
+		return entry.verifiedCertificate;
+	}
+
+	private Entry verify(String encodedCert, long now) {
+		X509Certificate cert = X509CertUtils.parse(encodedCert);
+		if (cert == null) {
+			return Entry.failure(CertificateErrorMsgCode.CERTIFICATE_MISSING.name(),
+					CertificateErrorMsgCode.CERTIFICATE_MISSING.toString(), now + negativeTtl);
+		}
+
+		try {
+			validatorFactory.validate(cert);
+			TppCertificateData tppCertData = CertificateExtractorUtil.extract(cert);
+			long expiresAt = Math.min(now + ttl, cert.getNotAfter().getTime());
+			return Entry.success(new VerifiedCertificate(cert, tppCertData), expiresAt);
+		} catch (FailedCertValidationException e) {
+			return Entry.failure(e.getCode(), e.getMessage(), now + negativeTtl);
+		} catch (CertificateValidationException e) {
+			return Entry.failure(null, e.getMessage(), now + negativeTtl);
+		}
+	}
+
+	private void put(String fingerprint, Entry entry, long now) {
+		synchronized (entries) {
+			if (entry.expiresAt > now) {
+				entries.put(fingerprint, entry);
+			} else {
+				entries.remove(fingerprint);
+			}
+		}
+	}
+
+	private String fingerprint(String encodedCert) throws CertificateException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Hex.toHexString(digest.digest(encodedCert.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new CertificateException(e);
+		}
+	}
+
+	private static class Entry {
+		private final VerifiedCertificate verifiedCertificate;
+		private final String failureCode;
+		private final String failureMessage;
+		private final long expiresAt;
+
+		private Entry(VerifiedCertificate verifiedCertificate, String failureCode, String failureMessage, long expiresAt) {
+			this.verifiedCertificate = verifiedCertificate;
+			this.failureCode = failureCode;
+			this.failureMessage = failureMessage;
+			this.expiresAt = expiresAt;
+		}
+
+		static Entry success(VerifiedCertificate verifiedCertificate, long expiresAt) {
+			return new Entry(verifiedCertificate, null, null, expiresAt);
+		}
+
+		static Entry failure(String failureCode, String failureMessage, long expiresAt) {
+			return new Entry(null, failureCode, failureMessage == null ? "" : failureMessage, expiresAt);
+		}
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate;
+
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import lombok.Value;
+
+import java.security.cert.X509Certificate;
+
+/**
+ * Result of a successful TPP certificate validation: parsed certificate and data extracted from its QC statement
+ */
+@Value
+public class VerifiedCertificate {
+	private final X509Certificate certificate;
+	private final TppCertificateData tppCertificateData;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Reads CRLs from local directory instead of their distribution points.
+ * A distribution point is resolved to the file with the same name as the last segment of its path,
+ * e.g. 'http://ca.example.com/crl/ca.crl' is read from '&lt;directory&gt;/ca.crl'.
+ */
+public class DirectoryRevocationListFetcher implements RevocationListFetcher {
+
+	private final File directory;
+
+	public DirectoryRevocationListFetcher(File directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public byte[] fetch(String distributionPoint) throws IOException {
+		return FileUtils.readFileToByteArray(new File(directory, FilenameUtils.getName(distributionPoint)));
+	}
+}
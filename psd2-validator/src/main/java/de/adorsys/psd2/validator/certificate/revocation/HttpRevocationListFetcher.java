@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Reads CRLs directly from their distribution points
+ */
+public class HttpRevocationListFetcher implements RevocationListFetcher {
+
+	private final int connectTimeout;
+	private final int readTimeout;
+
+	public HttpRevocationListFetcher(int connectTimeout, int readTimeout) {
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	@Override
+	public byte[] fetch(String distributionPoint) throws IOException {
+		URLConnection connection = new URL(distributionPoint).openConnection();
+		connection.setConnectTimeout(connectTimeout);
+		connection.setReadTimeout(readTimeout);
+		try (InputStream inputStream = connection.getInputStream()) {
+			return IOUtils.toByteArray(inputStream);
+		}
+	}
+
+	@Override
+	public boolean canFetch(String distributionPoint) {
+		return distributionPoint.regionMatches(true, 0, "http://", 0, 7)
+				|| distributionPoint.regionMatches(true, 0, "https://", 0, 8);
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import lombok.Value;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.cert.CRLException;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Parsed CRL of one distribution point, reduced to a hash set of revoked issuer and serial number pairs.
+ * Only CRLs with a valid signature of the issuing CA are accepted.
+ */
+public class RevocationList {
+
+	private final Set<RevokedCertificate> revokedCertificates;
+	private final PublicKey issuerKey;
+	private final Date nextUpdate;
+	private final long fetchedAt;
+
+	private RevocationList(Set<RevokedCertificate> revokedCertificates, PublicKey issuerKey, Date nextUpdate, long fetchedAt) {
+		this.revokedCertificates = revokedCertificates;
+		this.issuerKey = issuerKey;
+		this.nextUpdate = nextUpdate;
+		this.fetchedAt = fetchedAt;
+	}
+
+	/**
+	 * Parses encoded CRL and verifies its signature
+	 *
+	 * @param encodedCrl DER or PEM encoded CRL
+	 * @param issuerKey  public key of the CA, which issued the CRL
+	 * @param fetchedAt  time in milliseconds when CRL was read from its distribution point
+	 * @return parsed revocation list
+	 * @throws CRLException if CRL cannot be parsed or is not signed by the given key
+	 */
+	public static RevocationList parse(byte[] encodedCrl, PublicKey issuerKey, long fetchedAt) throws CRLException {
+		X509CRL crl;
+		try {
+			crl = (X509CRL) CertificateFactory.getInstance("X.509")
+					.generateCRL(new ByteArrayInputStream(encodedCrl));
+		} catch (CertificateException e) {
+			throw new CRLException(e);
+		}
+		if (crl == null) {
+			throw new CRLException("CRL is empty");
+		}
+		try {
+			crl.verify(issuerKey);
+		} catch (GeneralSecurityException e) {
+			throw new CRLException("CRL signature is not valid", e);
+		}
+
+		Set<RevokedCertificate> revoked = new HashSet<>();
+		String crlIssuer = crl.getIssuerX500Principal().getName();
+		Set<? extends X509CRLEntry> entries = crl.getRevokedCertificates();
+		if (entries != null) {
+			for (X509CRLEntry entry : entries) {
+				String issuer = Optional.ofNullable(entry.getCertificateIssuer())
+						.map(X500Principal::getName)
+						.orElse(crlIssuer);
+				revoked.add(new RevokedCertificate(issuer, entry.getSerialNumber()));
+			}
+		}
+		return new RevocationList(revoked, issuerKey, crl.getNextUpdate(), fetchedAt);
+	}
+
+	/**
+	 * @return public key, which the CRL signature was verified with
+	 */
+	public PublicKey getIssuerKey() {
+		return issuerKey;
+	}
+
+	/**
+	 * Checks whether this list was verified with the key of given CA
+	 *
+	 * @param issuer certificate of the CA
+	 * @return 'true' if the list is signed by the CA
+	 */
+	public boolean isIssuedBy(X509Certificate issuer) {
+		return issuerKey.equals(issuer.getPublicKey());
+	}
+
+	public boolean isRevoked(X509Certificate certificate) {
+		return revokedCertificates.contains(
+				new RevokedCertificate(certificate.getIssuerX500Principal().getName(), certificate.getSerialNumber()));
+	}
+
+	/**
+	 * Checks whether this list has to be read again from its distribution point
+	 *
+	 * @param now             current time in milliseconds
+	 * @param refreshInterval refresh interval for CRLs without nextUpdate
+	 * @return 'true' if the list is outdated
+	 */
+	public boolean isOutdated(long now, long refreshInterval) {
+		return nextUpdate != null
+				? nextUpdate.getTime() <= now
+				: fetchedAt + refreshInterval <= now;
+	}
+
+	/**
+	 * Checks whether this list may still be used to answer revocation status. An outdated list stays in use
+	 * for one more refresh interval, while it can't be read again.
+	 *
+	 * @param now             current time in milliseconds
+	 * @param refreshInterval refresh interval for CRLs without nextUpdate
+	 * @return 'true' if the list may be used
+	 */
+	public boolean isUsable(long now, long refreshInterval) {
+		return nextUpdate != null
+				? nextUpdate.getTime() + refreshInterval > now
+				: fetchedAt + 2 * refreshInterval > now;
+	}
+
+	@Value
+	private static class RevokedCertificate {
+		private String issuer;
+		private BigInteger serialNumber;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import java.io.IOException;
+
+/**
+ * Source of certificate revocation lists, resolved by CRL distribution point
+ */
+public interface RevocationListFetcher {
+
+	/**
+	 * Reads encoded CRL published at given distribution point
+	 *
+	 * @param distributionPoint CRL distribution point as found in certificate
+	 * @return DER or PEM encoded CRL
+	 * @throws IOException if CRL cannot be read
+	 */
+	byte[] fetch(String distributionPoint) throws IOException;
+
+	/**
+	 * Tells whether CRL of given distribution point can be read by this fetcher at all, e.g. whether its scheme
+	 * is supported
+	 *
+	 * @param distributionPoint CRL distribution point as found in certificate
+	 * @return true if {@link #fetch(String)} can be tried for the distribution point
+	 */
+	default boolean canFetch(String distributionPoint) {
+		return true;
+	}
+}
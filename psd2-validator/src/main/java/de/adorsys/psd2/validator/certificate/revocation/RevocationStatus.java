@@ -14,11 +14,16 @@
  * limitations under the License.
  */
 
-package de.adorsys.aspsp.xs2a.service.validator.header.impl;
+package de.adorsys.psd2.validator.certificate.revocation;
 
-import de.adorsys.aspsp.xs2a.service.validator.header.RequestHeader;
-import io.swagger.annotations.ApiModel;
-
-@ApiModel(description = "Is used when handler is not matched", value = "NotMatchedHeaderImpl")
-public class NotMatchedHeaderImpl implements RequestHeader {
+/**
+ * Revocation status of a certificate as answered by {@link RevocationStatusStore}
+ */
+public enum RevocationStatus {
+	GOOD,
+	REVOKED,
+	/**
+	 * No valid CRL of the distribution point is known
+	 */
+	UNKNOWN
 }
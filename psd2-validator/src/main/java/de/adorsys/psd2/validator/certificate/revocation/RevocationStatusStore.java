@@ -0,0 +1,267 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.cert.CRLException;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local store of parsed CRLs. Revocation status is answered from memory; CRLs are kept on disk, so they survive
+ * restarts, and are refreshed in background when their nextUpdate is reached.
+ * A distribution point is read inline only when no usable CRL of it is known. Only CRLs signed by the issuer
+ * of the checked certificate are accepted; if there is none, revocation status is unknown.
+ */
+@Slf4j
+public class RevocationStatusStore implements Closeable {
+
+	private static final String STORE_DIRECTORY_PROPERTY = "psd2.crl.store.directory";
+	private static final long DEFAULT_REFRESH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+	private static final long DEFAULT_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+	private static final int DEFAULT_TIMEOUT = 10000;
+
+	private static volatile RevocationStatusStore defaultInstance;
+
+	private final RevocationListFetcher fetcher;
+	private final File storeDirectory;
+	private final long refreshInterval;
+	private final long checkInterval;
+	private final Map<String, RevocationList> revocationLists = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<RevocationList>> loads = new ConcurrentHashMap<>();
+	private final Map<String, Long> failedFetches = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService refreshExecutor;
+
+	/**
+	 * @param fetcher         source of CRLs
+	 * @param storeDirectory  directory to keep CRLs in, may be null if CRLs should be kept in memory only
+	 * @param refreshInterval refresh interval in milliseconds for CRLs without nextUpdate
+	 * @param checkInterval   interval in milliseconds to check CRLs for refresh and to retry distribution points,
+	 *                        which could not be read, 0 to disable background refresh
+	 */
+	public RevocationStatusStore(RevocationListFetcher fetcher, File storeDirectory, long refreshInterval, long checkInterval) {
+		this.fetcher = fetcher;
+		this.storeDirectory = storeDirectory;
+		this.refreshInterval = refreshInterval;
+		this.checkInterval = checkInterval;
+		this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "crl-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (checkInterval > 0) {
+			refreshExecutor.scheduleWithFixedDelay(this::refresh, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns store shared by validators created without explicit store. CRLs are read from their distribution points
+	 * and kept in directory given by system property 'psd2.crl.store.directory'. If the property is not set,
+	 * CRLs are kept in memory only.
+	 *
+	 * @return default store
+	 */
+	public static RevocationStatusStore getDefaultInstance() {
+		if (defaultInstance == null) {
+			synchronized (RevocationStatusStore.class) {
+				if (defaultInstance == null) {
+					String directory = System.getProperty(STORE_DIRECTORY_PROPERTY);
+					defaultInstance = new RevocationStatusStore(new HttpRevocationListFetcher(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT),
+							directory == null ? null : new File(directory), DEFAULT_REFRESH_INTERVAL, DEFAULT_CHECK_INTERVAL);
+				}
+			}
+		}
+		return defaultInstance;
+	}
+
+	/**
+	 * Checks whether certificate is listed in CRL of given distribution point
+	 *
+	 * @param certificate       certificate to check
+	 * @param issuer            certificate of the CA, which issued the certificate and its CRL
+	 * @param distributionPoint CRL distribution point of the certificate
+	 * @return revocation status, {@link RevocationStatus#UNKNOWN} if no valid CRL signed by the issuer is known
+	 */
+	public RevocationStatus getRevocationStatus(X509Certificate certificate, X509Certificate issuer, String distributionPoint) {
+		long now = System.currentTimeMillis();
+		RevocationList revocationList = revocationLists.get(distributionPoint);
+		if (revocationList == null || !revocationList.isUsable(now, refreshInterval) || !revocationList.isIssuedBy(issuer)) {
+			revocationList = load(distributionPoint, issuer.getPublicKey());
+		}
+		if (revocationList == null || !revocationList.isUsable(now, refreshInterval) || !revocationList.isIssuedBy(issuer)) {
+			return RevocationStatus.UNKNOWN;
+		}
+		return revocationList.isRevoked(certificate)
+				? RevocationStatus.REVOKED
+				: RevocationStatus.GOOD;
+	}
+
+	/**
+	 * Tells whether CRL of given distribution point can be read by the store, e.g. whether its scheme is supported
+	 *
+	 * @param distributionPoint CRL distribution point of the certificate
+	 * @return true if the store can answer for the distribution point
+	 */
+	public boolean canFetch(String distributionPoint) {
+		return fetcher.canFetch(distributionPoint);
+	}
+
+	/**
+	 * Reads again all CRLs, which reached their nextUpdate. Failed reads keep previous CRL in use as long as
+	 * it is usable.
+	 */
+	public void refresh() {
+		long now = System.currentTimeMillis();
+		revocationLists.forEach((distributionPoint, revocationList) -> {
+			if (revocationList.isOutdated(now, refreshInterval)) {
+				fetchAndStore(distributionPoint, revocationList.getIssuerKey(), now);
+			}
+		});
+	}
+
+	@Override
+	public void close() {
+		refreshExecutor.shutdownNow();
+	}
+
+	/**
+	 * Loads CRL of the distribution point once for all concurrent callers. The fetch is not done inside
+	 * the map update, so that checks of other distribution points aren't blocked by it.
+	 */
+	private RevocationList load(String distributionPoint, PublicKey issuerKey) {
+		CompletableFuture<RevocationList> load = new CompletableFuture<>();
+		CompletableFuture<RevocationList> runningLoad = loads.putIfAbsent(distributionPoint, load);
+		if (runningLoad != null) {
+			return runningLoad.join();
+		}
+		try {
+			RevocationList revocationList = readOrFetch(distributionPoint, issuerKey);
+			load.complete(revocationList);
+			return revocationList;
+		} finally {
+			loads.remove(distributionPoint, load);
+			load.complete(revocationLists.get(distributionPoint));
+		}
+	}
+
+	private RevocationList readOrFetch(String distributionPoint, PublicKey issuerKey) {
+		long now = System.currentTimeMillis();
+		RevocationList current = revocationLists.get(distributionPoint);
+		if (current == null || !current.getIssuerKey().equals(issuerKey)) {
+			RevocationList stored = readStored(distributionPoint, issuerKey);
+			if (stored != null) {
+				revocationLists.put(distributionPoint, stored);
+				current = stored;
+			}
+		}
+		if (current != null && current.getIssuerKey().equals(issuerKey) && current.isUsable(now, refreshInterval)) {
+			if (current.isOutdated(now, refreshInterval)) {
+				refreshExecutor.execute(this::refresh);
+			}
+			return current;
+		}
+
+		Long failedAt = failedFetches.get(distributionPoint);
+		if (failedAt != null && now < failedAt + checkInterval) {
+			return current;
+		}
+		return fetchAndStore(distributionPoint, issuerKey, now);
+	}
+
+	private RevocationList fetchAndStore(String distributionPoint, PublicKey issuerKey, long now) {
+		try {
+			byte[] encodedCrl = fetcher.fetch(distributionPoint);
+			RevocationList revocationList = RevocationList.parse(encodedCrl, issuerKey, now);
+			writeStored(distributionPoint, encodedCrl);
+			revocationLists.put(distributionPoint, revocationList);
+			failedFetches.remove(distributionPoint);
+			return revocationList;
+		} catch (IOException | CRLException e) {
+			log.warn("CRL cannot be read from {}: {}", distributionPoint, e.getMessage());
+			failedFetches.put(distributionPoint, now);
+			return revocationLists.get(distributionPoint);
+		}
+	}
+
+	private RevocationList readStored(String distributionPoint, PublicKey issuerKey) {
+		File storedCrl = getStoredCrl(distributionPoint);
+		if (storedCrl == null || !storedCrl.isFile()) {
+			return null;
+		}
+		try {
+			return RevocationList.parse(FileUtils.readFileToByteArray(storedCrl), issuerKey, storedCrl.lastModified());
+		} catch (IOException | CRLException e) {
+			log.debug("Stored CRL for {} cannot be read: {}", distributionPoint, e.getMessage());
+			return null;
+		}
+	}
+
+	private void writeStored(String distributionPoint, byte[] encodedCrl) {
+		File storedCrl = getStoredCrl(distributionPoint);
+		if (storedCrl == null) {
+			return;
+		}
+		Path tempFile = null;
+		try {
+			FileUtils.forceMkdir(storeDirectory);
+			tempFile = Files.createTempFile(storeDirectory.toPath(), storedCrl.getName(), ".tmp");
+			Files.write(tempFile, encodedCrl);
+			try {
+				Files.move(tempFile, storedCrl.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, storedCrl.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			log.warn("CRL of {} cannot be stored: {}", distributionPoint, e.getMessage());
+			if (tempFile != null) {
+				FileUtils.deleteQuietly(tempFile.toFile());
+			}
+		}
+	}
+
+	private File getStoredCrl(String distributionPoint) {
+		if (storeDirectory == null) {
+			return null;
+		}
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(distributionPoint.getBytes(StandardCharsets.UTF_8));
+			return new File(storeDirectory, Hex.toHexString(hash) + ".crl");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
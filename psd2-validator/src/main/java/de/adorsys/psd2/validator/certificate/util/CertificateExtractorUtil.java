@@ -25,7 +25,10 @@ public class CertificateExtractorUtil {
 
 	public static TppCertificateData extract(String encodedCert) throws CertificateValidationException {
 
-		X509Certificate cert = X509CertUtils.parse(encodedCert);
+		return extract(X509CertUtils.parse(encodedCert));
+	}
+
+	public static TppCertificateData extract(X509Certificate cert) throws CertificateValidationException {
 
 		List<TppRole> roles = new ArrayList<>();
 
@@ -3,45 +3,59 @@ package de.adorsys.psd2.validator.signature;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.tomitribe.auth.signatures.Algorithm;
 import org.tomitribe.auth.signatures.Base64;
-import org.tomitribe.auth.signatures.Signature;
 import org.tomitribe.auth.signatures.UnsupportedAlgorithmException;
 
+/**
+ * Verifies signatures with one public key. Signature engines are shared by all keys: each thread keeps one engine
+ * per algorithm and provider, which is initialised with the key on every verification.
+ */
 public class Asymmetric implements Verify {
 
+	private static final ThreadLocal<Map<String, java.security.Signature>> ENGINES = ThreadLocal.withInitial(HashMap::new);
+
 	private final PublicKey key;
 	private final Algorithm algorithm;
 	private final Provider provider;
-	private final Signature signature;
 
-	Asymmetric(final PublicKey key, final Provider provider, final Algorithm algorithm, final Signature signature) {
+	Asymmetric(final PublicKey key, final Provider provider, final Algorithm algorithm) {
 		this.key = key;
 		this.provider = provider;
 		this.algorithm = algorithm;
-		this.signature = signature;
 	}
 
 	@Override
-	public boolean verify(final byte[] signingStringBytes) {
+	public boolean verify(final byte[] signingStringBytes, final String signatureValue) {
+		final Map<String, java.security.Signature> engines = ENGINES.get();
+		final String engineKey = provider == null ? algorithm.getJmvName() : algorithm.getJmvName() + "/" + provider.getName();
+		final java.security.Signature instance = engines.computeIfAbsent(engineKey, name -> createEngine());
 		try {
 
-			final java.security.Signature instance = provider == null
-					? java.security.Signature.getInstance(algorithm.getJmvName())
-					: java.security.Signature.getInstance(algorithm.getJmvName(), provider);
-
 			instance.initVerify(key);
 			instance.update(signingStringBytes);
-			return instance.verify(Base64.decodeBase64(signature.getSignature().getBytes()));
-
-		} catch (NoSuchAlgorithmException e) {
-
-			throw new UnsupportedAlgorithmException(algorithm.getJmvName());
+			return instance.verify(Base64.decodeBase64(signatureValue.getBytes()));
 
 		} catch (Exception e) {
 
+			engines.remove(engineKey);
 			throw new IllegalStateException(e);
 		}
 	}
+
+	private java.security.Signature createEngine() {
+		try {
+
+			return provider == null
+					? java.security.Signature.getInstance(algorithm.getJmvName())
+					: java.security.Signature.getInstance(algorithm.getJmvName(), provider);
+
+		} catch (NoSuchAlgorithmException e) {
+
+			throw new UnsupportedAlgorithmException(algorithm.getJmvName());
+		}
+	}
 }
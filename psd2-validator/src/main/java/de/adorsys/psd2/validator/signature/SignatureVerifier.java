@@ -28,9 +28,6 @@ import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
-/**
- * A new instance of the Verifier class needs to be created for each signature.
- */
 public class SignatureVerifier {
 
 	private final Verify verify;
@@ -43,26 +40,41 @@ public class SignatureVerifier {
 	public SignatureVerifier(final Key key, final Signature signature, final Provider provider) {
 		requireNonNull(key, "Key cannot be null");
 		this.signature = requireNonNull(signature, "Signature cannot be null");
-        Algorithm algorithm = signature.getAlgorithm();
+		this.verify = createVerify(key, signature.getAlgorithm(), provider);
+
+		checkAlgorithm(verify, signature);
+	}
+
+	/**
+	 * Creates verifier on already checked key and algorithm, see {@link SignatureVerifierRegistry}
+	 */
+	SignatureVerifier(final Verify verify, final Signature signature) {
+		this.verify = requireNonNull(verify, "Verify cannot be null");
+		this.signature = requireNonNull(signature, "Signature cannot be null");
+	}
+
+	static Verify createVerify(final Key key, final Algorithm algorithm, final Provider provider) {
 
 		if (java.security.Signature.class.equals(algorithm.getType())) {
 
-			this.verify = new Asymmetric(PublicKey.class.cast(key), provider, algorithm, signature);
+			return new Asymmetric(PublicKey.class.cast(key), provider, algorithm);
 
 		} else if (Mac.class.equals(algorithm.getType())) {
 
-			this.verify = new Symmetric(key, provider, algorithm, signature);
+			return new Symmetric(key, provider, algorithm);
 
 		} else {
 
 			throw new UnsupportedAlgorithmException(String.format("Unknown Algorithm type %s %s",
                                                                   algorithm.getPortableName(), algorithm.getType().getName()));
 		}
+	}
 
+	static void checkAlgorithm(final Verify verify, final Signature signature) {
 		// check that the JVM really knows the algorithm we are going to use
 		try {
 
-			verify.verify("validation".getBytes());
+			verify.verify("validation".getBytes(), signature.getSignature());
 
 		} catch (final RuntimeException e) {
 
@@ -79,7 +91,7 @@ public class SignatureVerifier {
 
 		final String signingString = createSigningString(method, uri, headers);
 
-		return verify.verify(signingString.getBytes());
+		return verify.verify(signingString.getBytes(), signature.getSignature());
 	}
 
 	public String createSigningString(final String method, final String uri, final Map<String, String> headers)
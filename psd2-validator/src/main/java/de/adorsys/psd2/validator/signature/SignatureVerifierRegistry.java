@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.validator.signature;
+
+import com.nimbusds.jose.util.X509CertUtils;
+import org.bouncycastle.util.encoders.Hex;
+import org.tomitribe.auth.signatures.Signature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded registry of signature verification engines, keyed by TPP certificate fingerprint and signature algorithm.
+ * Certificate parsing and the algorithm check are done once per key, afterwards a verification costs only
+ * the cryptographic operation itself.
+ */
+public class SignatureVerifierRegistry {
+
+	private final Map<String, Verify> verifiers;
+
+	public SignatureVerifierRegistry(int maxSize) {
+		this.verifiers = new LinkedHashMap<String, Verify>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Verify> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns verifier for given signature, created on public key of the encoded TPP certificate
+	 *
+	 * @param tppEncodedCert encoded TPP certificate
+	 * @param signature      parsed signature header
+	 * @return signature verifier
+	 */
+	public SignatureVerifier getVerifier(String tppEncodedCert, Signature signature) {
+		String registryKey = fingerprint(tppEncodedCert) + "/" + signature.getAlgorithm().getPortableName();
+
+		Verify verify;
+		synchronized (verifiers) {
+			verify = verifiers.get(registryKey);
+		}
+
+		if (verify == null) {
+			X509Certificate cert = X509CertUtils.parse(tppEncodedCert);
+			if (cert == null) {
+				throw new IllegalArgumentException("CERTIFICAT_INVALID");
+			}
+			verify = SignatureVerifier.createVerify(cert.getPublicKey(), signature.getAlgorithm(), null);
+			SignatureVerifier.checkAlgorithm(verify, signature);
+			synchronized (verifiers) {
+				verifiers.put(registryKey, verify);
+			}
+		}
+		return new SignatureVerifier(verify, signature);
+	}
+
+	private String fingerprint(String tppEncodedCert) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Hex.toHexString(digest.digest(tppEncodedCert.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
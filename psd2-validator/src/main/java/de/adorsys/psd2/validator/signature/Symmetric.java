@@ -4,48 +4,65 @@ import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.crypto.Mac;
 
 import org.tomitribe.auth.signatures.Algorithm;
 import org.tomitribe.auth.signatures.Base64;
-import org.tomitribe.auth.signatures.Signature;
 import org.tomitribe.auth.signatures.UnsupportedAlgorithmException;
 
+/**
+ * Verifies HMAC signatures with one secret key. Mac engines are shared by all keys: each thread keeps one engine
+ * per algorithm and provider, which is initialised with the key on every verification.
+ */
 public class Symmetric implements Verify {
 
+	private static final ThreadLocal<Map<String, Mac>> ENGINES = ThreadLocal.withInitial(HashMap::new);
+
 	private final Key key;
 	private final Algorithm algorithm;
 	private final Provider provider;
-	private final Signature signature;
 
-	Symmetric(final Key key, final Provider provider, final Algorithm algorithm, final Signature signature) {
+	Symmetric(final Key key, final Provider provider, final Algorithm algorithm) {
 		this.key = key;
 		this.provider = provider;
 		this.algorithm = algorithm;
-		this.signature = signature;
 	}
 
 	@Override
-	public boolean verify(final byte[] signingStringBytes) {
+	public boolean verify(final byte[] signingStringBytes, final String signatureValue) {
 
+		final Map<String, Mac> engines = ENGINES.get();
+		final String engineKey = provider == null ? algorithm.getJmvName() : algorithm.getJmvName() + "/" + provider.getName();
+		final Mac mac = engines.computeIfAbsent(engineKey, name -> createEngine());
 		try {
 
-			final Mac mac = provider == null ? Mac.getInstance(algorithm.getJmvName())
-					: Mac.getInstance(algorithm.getJmvName(), provider);
 			mac.init(key);
 			byte[] hash = mac.doFinal(signingStringBytes);
 			byte[] encoded = Base64.encodeBase64(hash);
-			return Arrays.equals(encoded, signature.getSignature().getBytes());
-
-		} catch (NoSuchAlgorithmException e) {
-
-			throw new UnsupportedAlgorithmException(algorithm.getJmvName());
+			return Arrays.equals(encoded, signatureValue.getBytes());
 
 		} catch (Exception e) {
 
+			engines.remove(engineKey);
 			throw new IllegalStateException(e);
 
 		}
 	}
+
+	private Mac createEngine() {
+
+		try {
+
+			return provider == null ? Mac.getInstance(algorithm.getJmvName())
+					: Mac.getInstance(algorithm.getJmvName(), provider);
+
+		} catch (NoSuchAlgorithmException e) {
+
+			throw new UnsupportedAlgorithmException(algorithm.getJmvName());
+
+		}
+	}
 }
@@ -16,15 +16,12 @@
 
 package de.adorsys.psd2.validator.signature;
 
-import com.nimbusds.jose.util.X509CertUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.tomitribe.auth.signatures.Signature;
 
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
 import java.security.SignatureException;
-import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +33,17 @@ public class TppSignatureValidator {
 	 */
 	private static final List<String> MANDATORY_HEADERS_PSD2 = Arrays
 			.asList("digest", "tpp-transaction-id", "x-request-id", "timestamp");
+	private static final int DEFAULT_REGISTRY_SIZE = 1000;
+
+	private final SignatureVerifierRegistry verifierRegistry;
+
+	public TppSignatureValidator() {
+		this(new SignatureVerifierRegistry(DEFAULT_REGISTRY_SIZE));
+	}
+
+	public TppSignatureValidator(SignatureVerifierRegistry verifierRegistry) {
+		this.verifierRegistry = verifierRegistry;
+	}
 
 	/**
 	 * signature should not be null signature should be conform with psd2
@@ -61,9 +69,7 @@ public class TppSignatureValidator {
 			throw new IllegalArgumentException("SIGNATURE_INVALID");
 		}
 
-		X509Certificate cert = X509CertUtils.parse(tppEncodedCert);
-		PublicKey key = cert.getPublicKey();
-		SignatureVerifier verifier = new SignatureVerifier(key, signatureData);
+		SignatureVerifier verifier = verifierRegistry.getVerifier(tppEncodedCert, signatureData);
 		return verifier.verify("method", "uri", headers);
 	}
 
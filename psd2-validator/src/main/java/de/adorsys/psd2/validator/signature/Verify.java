@@ -1,5 +1,5 @@
 package de.adorsys.psd2.validator.signature;
 
 interface Verify {
-    boolean verify(byte[] signingStringBytes);
+    boolean verify(byte[] signingStringBytes, String signatureValue);
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package de.adorsys.psd2.validator.certificate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.adorsys.psd2.validator.certificate.util.CertificateUtils;
+import no.difi.certvalidator.api.CertificateValidationException;
+import no.difi.certvalidator.util.SimpleCertificateBucket;
+
+public class CertificateVerificationCacheTest {
+
+	private CountingValidatorFactory validatorFactory;
+	private CertificateVerificationCache cache;
+
+	@Before
+	public void init() {
+
+		validatorFactory = createValidatorFactory();
+		cache = new CertificateVerificationCache(validatorFactory, 10, 60000, 60000);
+	}
+
+	@Test
+	public void when_SameCertificate_Expected_ValidatedOnce() throws CertificateException {
+
+		String encodedCert = CertificateUtils.getCertificateByName("certificateInvalid.crt");
+
+		assertValidationFails(encodedCert);
+		assertValidationFails(encodedCert);
+
+		assertEquals(1, validatorFactory.invocations);
+	}
+
+	@Test
+	public void when_NegativeTtlElapsed_Expected_ValidatedAgain() throws CertificateException {
+
+		cache = new CertificateVerificationCache(validatorFactory, 10, 60000, 0);
+		String encodedCert = CertificateUtils.getCertificateByName("certificateInvalid.crt");
+
+		assertValidationFails(encodedCert);
+		assertValidationFails(encodedCert);
+
+		assertEquals(2, validatorFactory.invocations);
+	}
+
+	@Test(expected = FailedCertValidationException.class)
+	public void when_CertificateMissing_Expected_Exception() throws CertificateException, CertificateValidationException {
+
+		cache.validate("");
+	}
+
+	private void assertValidationFails(String encodedCert) throws CertificateException {
+		try {
+			cache.validate(encodedCert);
+			fail("Certificate validation was expected to fail");
+		} catch (CertificateValidationException e) {
+			// expected
+		}
+	}
+
+	private CountingValidatorFactory createValidatorFactory() {
+		return new CountingValidatorFactory(new SimpleCertificateBucket(CertificateUtils.getCertificates("blockedcert")),
+				new SimpleCertificateBucket(CertificateUtils.getCertificates("rootcert", "TCA3.crt")),
+				new SimpleCertificateBucket(CertificateUtils.getCertificates("intermediatecert")));
+	}
+
+	private static class CountingValidatorFactory extends CertificateValidatorFactory {
+		private int invocations;
+
+		CountingValidatorFactory(SimpleCertificateBucket blockedCertBucket, SimpleCertificateBucket rootCertificates,
+				SimpleCertificateBucket intermediateCertificates) {
+			super(blockedCertBucket, rootCertificates, intermediateCertificates);
+		}
+
+		@Override
+		public boolean validate(X509Certificate cert) throws CertificateValidationException {
+			invocations++;
+			return super.validate(cert);
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package de.adorsys.psd2.validator.certificate.revocation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.adorsys.psd2.validator.certificate.CRLRuleExt;
+import de.adorsys.psd2.validator.certificate.CertificateErrorMsgCode;
+import de.adorsys.psd2.validator.certificate.FailedCertValidationException;
+import no.difi.certvalidator.util.SimpleCertificateBucket;
+
+public class RevocationStatusStoreTest {
+
+	private static final String DISTRIBUTION_POINT = "http://ca.example.com/crl/ca.crl";
+	private static final String LDAP_DISTRIBUTION_POINT = "ldap://ldap.example.com/cn=Test%20CA?certificateRevocationList";
+	private static final String MISSING_DISTRIBUTION_POINT = "http://mirror.example.com/crl/missing.crl";
+	private static final long HOUR = 3600000;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File crlDirectory;
+	private File storeDirectory;
+	private KeyPair caKeyPair;
+	private X509Certificate caCertificate;
+	private X509Certificate certificate;
+
+	@Before
+	public void init() throws Exception {
+
+		crlDirectory = temporaryFolder.newFolder("crl");
+		storeDirectory = new File(temporaryFolder.getRoot(), "store");
+		caKeyPair = generateKeyPair();
+		caCertificate = createCertificate("CN=Test CA", caKeyPair, "CN=Test CA", caKeyPair.getPublic(), BigInteger.ONE, true);
+		certificate = createCertificate("CN=Test CA", caKeyPair, "CN=Test TPP", generateKeyPair().getPublic(),
+				BigInteger.valueOf(42), false, DISTRIBUTION_POINT);
+	}
+
+	@Test
+	public void when_SerialInCrl_Expected_Revoked() throws Exception {
+
+		writeCrl(certificate.getSerialNumber(), caKeyPair.getPrivate());
+
+		assertEquals(RevocationStatus.REVOKED, createStore().getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT));
+	}
+
+	@Test
+	public void when_SerialNotInCrl_Expected_Good() throws Exception {
+
+		writeCrl(BigInteger.TEN, caKeyPair.getPrivate());
+
+		assertEquals(RevocationStatus.GOOD, createStore().getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT));
+	}
+
+	@Test
+	public void when_CrlNotSignedByIssuer_Expected_Unknown() throws Exception {
+
+		writeCrl(certificate.getSerialNumber(), generateKeyPair().getPrivate());
+		RevocationStatusStore store = createStore();
+
+		assertEquals(RevocationStatus.UNKNOWN, store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT));
+		assertFalse(storeDirectory.exists());
+	}
+
+	@Test
+	public void when_CrlNotAvailable_Expected_Unknown() throws Exception {
+
+		assertEquals(RevocationStatus.UNKNOWN, createStore().getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT));
+	}
+
+	@Test
+	public void when_CrlKnown_Expected_AnsweredWithoutFetch() throws Exception {
+
+		writeCrl(certificate.getSerialNumber(), caKeyPair.getPrivate());
+		AtomicInteger fetches = new AtomicInteger();
+		DirectoryRevocationListFetcher directoryFetcher = new DirectoryRevocationListFetcher(crlDirectory);
+		RevocationStatusStore store = new RevocationStatusStore(distributionPoint -> {
+			fetches.incrementAndGet();
+			return directoryFetcher.fetch(distributionPoint);
+		}, storeDirectory, 60000, 0);
+
+		store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT);
+		store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT);
+
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void when_CrlNotAvailable_Expected_RetriedAfterCheckInterval() throws Exception {
+
+		AtomicInteger fetches = new AtomicInteger();
+		RevocationStatusStore store = new RevocationStatusStore(distributionPoint -> {
+			fetches.incrementAndGet();
+			throw new IOException("CRL is not available");
+		}, storeDirectory, 60000, HOUR);
+
+		store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT);
+		store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT);
+
+		assertEquals(1, fetches.get());
+	}
+
+	@Test
+	public void when_CrlStoredOnDisk_Expected_ReadWithoutFetch() throws Exception {
+
+		byte[] encodedCrl = writeCrl(certificate.getSerialNumber(), caKeyPair.getPrivate());
+		createStore().getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT);
+		FileUtils.cleanDirectory(crlDirectory);
+
+		RevocationStatusStore store = createStore();
+
+		assertEquals(RevocationStatus.REVOKED, store.getRevocationStatus(certificate, caCertificate, DISTRIBUTION_POINT));
+		File[] storedFiles = storeDirectory.listFiles();
+		assertEquals(1, storedFiles.length);
+		assertArrayEquals(encodedCrl, FileUtils.readFileToByteArray(storedFiles[0]));
+	}
+
+	@Test
+	public void when_CertificateRevoked_Expected_RuleFails() throws Exception {
+
+		writeCrl(certificate.getSerialNumber(), caKeyPair.getPrivate());
+
+		assertRuleFails(CertificateErrorMsgCode.CERTIFICATE_REVOKED);
+	}
+
+	@Test
+	public void when_CrlNotAvailable_Expected_RuleFails() throws Exception {
+
+		assertRuleFails(CertificateErrorMsgCode.CERTIFICATE_INVALID);
+	}
+
+	@Test
+	public void when_CertificateNotRevoked_Expected_RulePasses() throws Exception {
+
+		writeCrl(BigInteger.TEN, caKeyPair.getPrivate());
+
+		new CRLRuleExt(createStore(), new SimpleCertificateBucket(caCertificate)).validate(certificate);
+	}
+
+	@Test
+	public void when_LdapAndHttpLocations_Expected_LdapSkippedAndRulePasses() throws Exception {
+
+		writeCrl(BigInteger.TEN, caKeyPair.getPrivate());
+		X509Certificate ldapAndHttpCertificate = createCertificate("CN=Test CA", caKeyPair, "CN=Test TPP",
+				generateKeyPair().getPublic(), BigInteger.valueOf(43), false, LDAP_DISTRIBUTION_POINT, DISTRIBUTION_POINT);
+		List<String> fetched = new ArrayList<>();
+		RevocationListFetcher httpOnlyFetcher = new DirectoryRevocationListFetcher(crlDirectory) {
+			@Override
+			public byte[] fetch(String distributionPoint) throws IOException {
+				fetched.add(distributionPoint);
+				return super.fetch(distributionPoint);
+			}
+
+			@Override
+			public boolean canFetch(String distributionPoint) {
+				return new HttpRevocationListFetcher(0, 0).canFetch(distributionPoint);
+			}
+		};
+
+		new CRLRuleExt(new RevocationStatusStore(httpOnlyFetcher, storeDirectory, 60000, 0),
+				new SimpleCertificateBucket(caCertificate)).validate(ldapAndHttpCertificate);
+
+		assertEquals(Collections.singletonList(DISTRIBUTION_POINT), fetched);
+	}
+
+	@Test
+	public void when_LdapAndHttpLocationsAndCertificateRevoked_Expected_RuleFails() throws Exception {
+
+		writeCrl(BigInteger.valueOf(43), caKeyPair.getPrivate());
+		X509Certificate ldapAndHttpCertificate = createCertificate("CN=Test CA", caKeyPair, "CN=Test TPP",
+				generateKeyPair().getPublic(), BigInteger.valueOf(43), false, LDAP_DISTRIBUTION_POINT, DISTRIBUTION_POINT);
+
+		try {
+			new CRLRuleExt(createStore(), new SimpleCertificateBucket(caCertificate)).validate(ldapAndHttpCertificate);
+			throw new AssertionError("Certificate validation was expected to fail");
+		} catch (FailedCertValidationException e) {
+			assertEquals(CertificateErrorMsgCode.CERTIFICATE_REVOKED.name(), e.getCode());
+		}
+	}
+
+	@Test
+	public void when_FirstLocationNotAvailable_Expected_RulePassesOnNextLocation() throws Exception {
+
+		writeCrl(BigInteger.TEN, caKeyPair.getPrivate());
+		X509Certificate mirroredCertificate = createCertificate("CN=Test CA", caKeyPair, "CN=Test TPP",
+				generateKeyPair().getPublic(), BigInteger.valueOf(43), false, MISSING_DISTRIBUTION_POINT, DISTRIBUTION_POINT);
+
+		new CRLRuleExt(createStore(), new SimpleCertificateBucket(caCertificate)).validate(mirroredCertificate);
+	}
+
+	@Test
+	public void when_HttpFetcher_Expected_OnlyHttpLocationsFetched() {
+
+		HttpRevocationListFetcher fetcher = new HttpRevocationListFetcher(0, 0);
+
+		assertTrue(fetcher.canFetch(DISTRIBUTION_POINT));
+		assertTrue(fetcher.canFetch("HTTPS://ca.example.com/crl/ca.crl"));
+		assertFalse(fetcher.canFetch(LDAP_DISTRIBUTION_POINT));
+	}
+
+	private void assertRuleFails(CertificateErrorMsgCode expectedCode) {
+		try {
+			new CRLRuleExt(createStore(), new SimpleCertificateBucket(caCertificate)).validate(certificate);
+			throw new AssertionError("Certificate validation was expected to fail");
+		} catch (FailedCertValidationException e) {
+			assertEquals(expectedCode.name(), e.getCode());
+		}
+	}
+
+	private RevocationStatusStore createStore() {
+		return new RevocationStatusStore(new DirectoryRevocationListFetcher(crlDirectory), storeDirectory, 60000, 0);
+	}
+
+	private byte[] writeCrl(BigInteger revokedSerial, PrivateKey signingKey) throws Exception {
+		Date now = new Date();
+		X509v2CRLBuilder crlBuilder = new X509v2CRLBuilder(
+				X500Name.getInstance(caCertificate.getSubjectX500Principal().getEncoded()), now);
+		crlBuilder.setNextUpdate(new Date(now.getTime() + HOUR));
+		crlBuilder.addCRLEntry(revokedSerial, now, CRLReason.keyCompromise);
+
+		byte[] encodedCrl = crlBuilder
+				.build(new JcaContentSignerBuilder("SHA256WithRSA").build(signingKey))
+				.getEncoded();
+		FileUtils.writeByteArrayToFile(new File(crlDirectory, "ca.crl"), encodedCrl);
+		return encodedCrl;
+	}
+
+	private X509Certificate createCertificate(String issuer, KeyPair issuerKeyPair, String subject, PublicKey subjectKey,
+			BigInteger serial, boolean ca, String... distributionPoints) throws Exception {
+		Date now = new Date();
+		JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(new X500Name(issuer), serial,
+				new Date(now.getTime() - HOUR), new Date(now.getTime() + HOUR), new X500Name(subject), subjectKey);
+		builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(ca));
+		if (distributionPoints.length > 0) {
+			GeneralName[] locations = new GeneralName[distributionPoints.length];
+			for (int i = 0; i < distributionPoints.length; i++) {
+				locations[i] = new GeneralName(GeneralName.uniformResourceIdentifier, distributionPoints[i]);
+			}
+			DistributionPointName pointName = new DistributionPointName(new GeneralNames(locations));
+			builder.addExtension(Extension.cRLDistributionPoints, false,
+					new CRLDistPoint(new DistributionPoint[]{new DistributionPoint(pointName, null, null)}));
+		}
+		return new JcaX509CertificateConverter().getCertificate(
+				builder.build(new JcaContentSignerBuilder("SHA256WithRSA").build(issuerKeyPair.getPrivate())));
+	}
+
+	private KeyPair generateKeyPair() throws NoSuchAlgorithmException {
+		KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+		keyPairGenerator.initialize(2048);
+		return keyPairGenerator.generateKeyPair();
+	}
+}
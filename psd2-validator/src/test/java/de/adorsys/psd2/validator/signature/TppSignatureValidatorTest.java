@@ -48,6 +48,23 @@ public class TppSignatureValidatorTest {
 				true);
 	}
 
+	@Test
+	public void when_ValidSignatureVerifiedRepeatedly_Expected_true()
+			throws NoSuchAlgorithmException, SignatureException, IOException {
+
+		Map<String, String> headersMap = new HashMap<>();
+		headersMap.put("Digest", new SignatureGeneratorUtil().generateDigest());
+		headersMap.put("TPP-Transaction-ID", "3dc3d5b3-7023-4848-9853-f5400a64e80f");
+		headersMap.put("x-request-id", "99391c7e-ad88-49ec-a2ad-99ddcb1f7721");
+		headersMap.put("PSU-ID", "PSU-1234");
+		headersMap.put("Timestamp", "Sun, 06 Aug 2017 15:02:37 GMT");
+
+		TppSignatureValidator validator = new TppSignatureValidator(new SignatureVerifierRegistry(10));
+		Assert.assertTrue(validator.verifySignature(signature, tppEncodedValidCert, headersMap));
+		Assert.assertTrue(validator.verifySignature(signature, tppEncodedValidCert, headersMap));
+		Assert.assertFalse(validator.verifySignature(signature, tppEncodedInvalidCert, headersMap));
+	}
+
 	@Test(expected = MissingRequiredHeaderException.class)
 	public void when_ValidSignature_And_MissingHeaderAttribute_Expected_MissingRequiredHeaderException()
 			throws NoSuchAlgorithmException, SignatureException, IOException {
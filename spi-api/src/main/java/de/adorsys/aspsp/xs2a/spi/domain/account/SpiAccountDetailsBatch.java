@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.spi.domain.account;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a batch lookup of accounts by account references. A reference matches all accounts with its IBAN and,
+ * if currency of the reference is set, with its currency. Lookup of several references may be partially successful:
+ * details of all matched accounts are returned once in the order of the references, references without any
+ * matched account are returned as missing.
+ */
+@Value
+public class SpiAccountDetailsBatch {
+    private final List<SpiAccountDetails> accountDetails;
+    private final List<SpiAccountReference> missingReferences;
+
+    /**
+     * @return 'true' if every requested reference matched at least one account, 'false' otherwise
+     */
+    @JsonIgnore
+    public boolean isComplete() {
+        return missingReferences.isEmpty();
+    }
+
+    /**
+     * Matches the requested references against the accounts read from ASPSP
+     *
+     * @param references requested account references
+     * @param candidates accounts read from ASPSP, may contain accounts which are not requested
+     * @return batch of matched accounts and missing references
+     */
+    public static SpiAccountDetailsBatch of(Collection<SpiAccountReference> references, Collection<SpiAccountDetails> candidates) {
+        Set<SpiAccountDetails> accountDetails = new LinkedHashSet<>();
+        List<SpiAccountReference> missingReferences = new ArrayList<>();
+        for (SpiAccountReference reference : references) {
+            List<SpiAccountDetails> matched = candidates.stream()
+                                                  .filter(details -> matches(reference, details))
+                                                  .collect(Collectors.toList());
+            if (matched.isEmpty()) {
+                missingReferences.add(reference);
+            }
+            accountDetails.addAll(matched);
+        }
+        return new SpiAccountDetailsBatch(new ArrayList<>(accountDetails), missingReferences);
+    }
+
+    private static boolean matches(SpiAccountReference reference, SpiAccountDetails details) {
+        return reference.getIban() != null
+                   && reference.getIban().equals(details.getIban())
+                   && (reference.getCurrency() == null || Objects.equals(reference.getCurrency(), details.getCurrency()));
+    }
+}
@@ -18,4 +18,15 @@ package de.adorsys.aspsp.xs2a.spi.domain.account;
 
 public enum SpiBookingStatus {
     PENDING, BOOKED, BOTH;
+
+    /**
+     * Checks whether transaction belongs to the transactions with this booking status
+     *
+     * @param transaction transaction to be checked
+     * @return 'true' if transaction is booked/pending as required by this status or the status is BOTH, 'false' otherwise
+     */
+    public boolean includes(SpiTransaction transaction) {
+        return this == BOTH
+                   || (this == PENDING) == transaction.isPendingTransaction();
+    }
 }
@@ -41,6 +41,11 @@ public class SpiTransaction {
     private final String remittanceInformationStructured;
     private final String purposeCode;
     private final String bankTransactionCodeCode;
+    /**
+     * Sequence number assigned by ASPSP, whenever the transaction is booked or changed. Numbers have to become visible
+     * in ascending order, so that transactions not delivered to TPP yet are found after the last delivered number
+     */
+    private Long entrySequence;
 
     public boolean isPendingTransaction() {
         return bookingDate == null;
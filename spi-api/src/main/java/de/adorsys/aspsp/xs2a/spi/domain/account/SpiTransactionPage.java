@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.spi.domain.account;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of transactions ordered by value date and transaction id together with the keys of its neighbour pages.
+ * Page keys are null if there is no page in the corresponding direction.
+ */
+@Value
+public class SpiTransactionPage {
+    private final List<SpiTransaction> transactions;
+    private final String nextPageKey;
+    private final String previousPageKey;
+
+    /**
+     * Creates page from the transactions read from ASPSP in the direction of the page key. To find out whether there
+     * are more transactions in this direction, one transaction more than the page size should be read.
+     *
+     * @param slice    up to pageSize + 1 transactions ordered in the direction of the page key, i.e. in descending order for backward keys
+     * @param pageKey  key the page was read from, null for the first page
+     * @param pageSize maximum number of transactions in the page
+     * @return page of transactions in ascending order
+     */
+    public static SpiTransactionPage fromSlice(List<SpiTransaction> slice, SpiTransactionPageKey pageKey, int pageSize) {
+        boolean hasMore = slice.size() > pageSize;
+        List<SpiTransaction> transactions = new ArrayList<>(hasMore ? slice.subList(0, pageSize) : slice);
+        if (transactions.isEmpty()) {
+            return new SpiTransactionPage(transactions, null, null);
+        }
+
+        boolean forward = pageKey == null || pageKey.isForward();
+        if (!forward) {
+            Collections.reverse(transactions);
+        }
+        SpiTransaction first = transactions.get(0);
+        SpiTransaction last = transactions.get(transactions.size() - 1);
+        boolean hasNext = !forward || hasMore;
+        boolean hasPrevious = forward ? pageKey != null : hasMore;
+        return new SpiTransactionPage(transactions,
+            hasNext ? SpiTransactionPageKey.after(last).encode() : null,
+            hasPrevious ? SpiTransactionPageKey.before(first).encode() : null);
+    }
+}
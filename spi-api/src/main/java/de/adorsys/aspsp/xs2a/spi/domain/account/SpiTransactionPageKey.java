@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.spi.domain.account;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Position in the list of transactions ordered by value date and transaction id, from which the next page
+ * of transactions is read in forward or backward direction. Is passed to TPP as an opaque string.
+ */
+@Value
+public class SpiTransactionPageKey {
+    /**
+     * Order of transactions in paginated transaction lists
+     */
+    public static final Comparator<SpiTransaction> TRANSACTION_ORDER = Comparator.comparing(SpiTransaction::getValueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                                                                           .thenComparing(SpiTransaction::getTransactionId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final String FORWARD = "F";
+    private static final String BACKWARD = "B";
+    private static final String SEPARATOR = ":";
+
+    private final LocalDate valueDate;
+    private final String transactionId;
+    private final boolean forward;
+
+    public static SpiTransactionPageKey after(SpiTransaction transaction) {
+        return new SpiTransactionPageKey(transaction.getValueDate(), transaction.getTransactionId(), true);
+    }
+
+    public static SpiTransactionPageKey before(SpiTransaction transaction) {
+        return new SpiTransactionPageKey(transaction.getValueDate(), transaction.getTransactionId(), false);
+    }
+
+    /**
+     * Checks whether transaction belongs to the pages read from this key, i.e. whether it is placed after the key
+     * for forward keys or before the key for backward keys
+     *
+     * @param transaction transaction to be checked
+     * @return 'true' if transaction is placed in the direction of this key, 'false' otherwise
+     */
+    public boolean includes(SpiTransaction transaction) {
+        int comparison = Objects.compare(valueDate, transaction.getValueDate(), Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()));
+        if (comparison == 0) {
+            comparison = Objects.compare(transactionId, transaction.getTransactionId(), Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        }
+        return forward
+                   ? comparison < 0
+                   : comparison > 0;
+    }
+
+    public String encode() {
+        String key = (forward ? FORWARD : BACKWARD) + SEPARATOR
+                         + (valueDate == null ? "" : valueDate.toString()) + SEPARATOR
+                         + (transactionId == null ? "" : transactionId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes page key, which was created by {@link #encode()}
+     *
+     * @param pageKey encoded page key
+     * @return decoded page key
+     * @throws IllegalArgumentException if page key is malformed
+     */
+    public static SpiTransactionPageKey decode(String pageKey) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(pageKey), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        if (parts.length != 3 || !FORWARD.equals(parts[0]) && !BACKWARD.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed page key: " + pageKey);
+        }
+        try {
+            return new SpiTransactionPageKey(parts[1].isEmpty() ? null : LocalDate.parse(parts[1]),
+                parts[2].isEmpty() ? null : parts[2],
+                FORWARD.equals(parts[0]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed page key: " + pageKey, e);
+        }
+    }
+}
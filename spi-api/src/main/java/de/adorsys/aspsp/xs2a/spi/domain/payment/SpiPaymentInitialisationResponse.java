@@ -24,6 +24,7 @@ import lombok.Data;
 public class SpiPaymentInitialisationResponse {
     private SpiTransactionStatus transactionStatus;
     private String paymentId;
+    private String endToEndIdentification;
     private SpiAmount spiTransactionFees;
     private boolean spiTransactionFeeIndicator;
     private String[] scaMethods;
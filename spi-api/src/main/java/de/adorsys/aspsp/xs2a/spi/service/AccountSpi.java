@@ -18,14 +18,22 @@ package de.adorsys.aspsp.xs2a.spi.service;
 
 import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBookingStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface AccountSpi {
 
@@ -41,6 +49,73 @@ public interface AccountSpi {
      */
     SpiResponse<List<SpiTransaction>> readTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, AspspConsentData aspspConsentData);
 
+    /**
+     * Queries ASPSP to get List of transactions of the account, which were booked or changed after the transaction with
+     * the given entry sequence number, whatever their value date is. Is used to deliver only the transactions, which were
+     * not delivered to TPP yet, including transactions booked later with a value date in the past
+     *
+     * @param accountId     String representation of ASPSP account primary identifier
+     * @param entrySequence Entry sequence number of the last transaction delivered to TPP, 0 if no transaction was delivered yet
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return List of transactions ordered by value date and transaction id
+     */
+    SpiResponse<List<SpiTransaction>> readTransactionsAfter(String accountId, long entrySequence, AspspConsentData aspspConsentData);
+
+    /**
+     * Queries ASPSP to get transactions dependant on period, accountId and booking status as a lazy stream.
+     * Transactions should be read from ASPSP one at a time while the stream is consumed, so that the report is never
+     * kept in memory as a whole. The stream has to be closed by the caller to release underlying resources.<br>
+     * Default implementation reads the whole list with {@link #readTransactionsByPeriod(String, LocalDate, LocalDate, AspspConsentData)}
+     *
+     * @param accountId     String representation of ASPSP account primary identifier
+     * @param dateFrom      Date representing the beginning of the search period
+     * @param dateTo        Date representing the ending of the search period
+     * @param bookingStatus Booking status of transactions to be returned
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return Stream of transactions
+     */
+    default SpiResponse<Stream<SpiTransaction>> streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiBookingStatus bookingStatus, AspspConsentData aspspConsentData) {
+        SpiResponse<List<SpiTransaction>> response = readTransactionsByPeriod(accountId, dateFrom, dateTo, aspspConsentData);
+        Stream<SpiTransaction> transactions = Optional.ofNullable(response.getPayload())
+                                                  .map(List::stream)
+                                                  .orElseGet(Stream::empty)
+                                                  .filter(bookingStatus::includes);
+        return new SpiResponse<>(transactions, response.getAspspConsentData());
+    }
+
+    /**
+     * Queries ASPSP to get a page of transactions dependant on period and accountId. Transactions are ordered by
+     * value date and transaction id, the page starts right after (or ends right before) the position set by the page key,
+     * so that pages stay consistent while new transactions are added to the account.<br>
+     * Default implementation reads the whole list with {@link #readTransactionsByPeriod(String, LocalDate, LocalDate, AspspConsentData)}
+     * and cuts the page out of it
+     *
+     * @param accountId String representation of ASPSP account primary identifier
+     * @param dateFrom  Date representing the beginning of the search period
+     * @param dateTo    Date representing the ending of the search period
+     * @param pageKey   Position of the page in the transaction list, null for the first page
+     * @param pageSize  Maximum number of transactions in the page
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return Page of transactions with the keys of next and previous pages
+     */
+    default SpiResponse<SpiTransactionPage> readTransactionsPageByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiTransactionPageKey pageKey, int pageSize, AspspConsentData aspspConsentData) {
+        SpiResponse<List<SpiTransaction>> response = readTransactionsByPeriod(accountId, dateFrom, dateTo, aspspConsentData);
+        Comparator<SpiTransaction> order = pageKey == null || pageKey.isForward()
+                                               ? SpiTransactionPageKey.TRANSACTION_ORDER
+                                               : SpiTransactionPageKey.TRANSACTION_ORDER.reversed();
+        List<SpiTransaction> slice = Optional.ofNullable(response.getPayload())
+                                         .map(List::stream)
+                                         .orElseGet(Stream::empty)
+                                         .filter(transaction -> pageKey == null || pageKey.includes(transaction))
+                                         .sorted(order)
+                                         .limit(pageSize + 1L)
+                                         .collect(Collectors.toList());
+        return new SpiResponse<>(SpiTransactionPage.fromSlice(slice, pageKey, pageSize), response.getAspspConsentData());
+    }
+
     /**
      * Queries ASPSP to (GET) transaction by its primary identifier and account identifier
      *
@@ -83,14 +158,44 @@ public interface AccountSpi {
     SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIban(String iban, AspspConsentData aspspConsentData);
 
     /**
-     * Queries ASPSP to (GET) list of account details with certain account IBANS
+     * Queries ASPSP to (GET) list of account details with certain account IBANS. IBANs, which are not found at ASPSP,
+     * are skipped, use {@link #readAccountDetailsByReferences(Collection, AspspConsentData)} to find out which ones are missing
      *
      * @param ibans a collection of Strings representing account IBANS
      * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
      *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
-     * @return List of account details
+     * @return List of account details of the found IBANs
+     */
+    default SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
+        List<SpiAccountReference> references = ibans.stream()
+                                                   .map(iban -> new SpiAccountReference(iban, null, null, null, null, null))
+                                                   .collect(Collectors.toList());
+        SpiResponse<SpiAccountDetailsBatch> response = readAccountDetailsByReferences(references, aspspConsentData);
+        return new SpiResponse<>(response.getPayload().getAccountDetails(), response.getAspspConsentData());
+    }
+
+    /**
+     * Queries ASPSP to get account details of several accounts at once. Lookup may be partially successful, see
+     * {@link SpiAccountDetailsBatch} for the matching rules.<br>
+     * Default implementation reads accounts of every IBAN with {@link #readAccountDetailsByIban(String, AspspConsentData)},
+     * ASPSP should provide a single request for all references instead
+     *
+     * @param references a collection of account references, IBAN of every reference has to be set
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return Details of the matched accounts and the references without matched accounts
      */
-    SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData);
+    default SpiResponse<SpiAccountDetailsBatch> readAccountDetailsByReferences(Collection<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        List<SpiAccountDetails> candidates = new ArrayList<>();
+        AspspConsentData responseConsentData = aspspConsentData;
+        for (String iban : references.stream().map(SpiAccountReference::getIban).collect(Collectors.toSet())) {
+            SpiResponse<List<SpiAccountDetails>> response = readAccountDetailsByIban(iban, responseConsentData);
+            Optional.ofNullable(response.getPayload())
+                .ifPresent(candidates::addAll);
+            responseConsentData = response.getAspspConsentData();
+        }
+        return new SpiResponse<>(SpiAccountDetailsBatch.of(references, candidates), responseConsentData);
+    }
 
     /**
      * Queries ASPSP to (GET) list of allowed payment products for current PSU by its account reference
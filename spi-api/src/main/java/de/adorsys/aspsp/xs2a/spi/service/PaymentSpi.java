@@ -53,7 +53,9 @@ public interface PaymentSpi {
      * @param payments bulk payment to be sent for saving at ASPSP
      * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.<br>
      *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
-     * @return Response from ASPSP containing information about carried payment initiation operation
+     * @return Response from ASPSP containing information about carried payment initiation operation. Every response
+     * contains end-to-end identification of its payment, as responses are matched to the payments by it. Payments
+     * rejected by ASPSP may be missing in the response
      */
     SpiResponse<List<SpiPaymentInitialisationResponse>> createBulkPayments(List<SpiSinglePayment> payments, AspspConsentData aspspConsentData);
 
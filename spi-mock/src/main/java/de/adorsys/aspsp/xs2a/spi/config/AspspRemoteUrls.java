@@ -62,6 +62,15 @@ public class AspspRemoteUrls {
         return spiMockBaseUrl + "/account/iban/{iban}";
     }
 
+    /**
+     * Returns URL-string to ASPSP-Mock endpoint that POSTs account references to get AccountDetails of several accounts at once
+     *
+     * @return URL
+     */
+    public String getAccountDetailsByReferences() {
+        return spiMockBaseUrl + "/account/batch";
+    }
+
     //Payments urls
     public String createPayment() {
         return spiMockBaseUrl + "/payments/";
@@ -16,16 +16,22 @@
 
 package de.adorsys.aspsp.xs2a.spi.impl;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import de.adorsys.aspsp.xs2a.spi.config.AspspRemoteUrls;
 import de.adorsys.aspsp.xs2a.spi.domain.ObjectHolder;
 import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBookingStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
 import lombok.AllArgsConstructor;
-import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
@@ -34,15 +40,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Component
 @AllArgsConstructor
 public class AccountSpiImpl implements AccountSpi {
+    private static final String TEST_ASPSP_DATA = "ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg=="; // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
     private final AspspRemoteUrls remoteSpiUrls;
     @Qualifier("aspspRestTemplate")
     private final RestTemplate aspspRestTemplate;
+    private final ObjectMapper objectMapper;
 
     /**
      * For detailed description see {@link AccountSpi#readAccountDetailsByIban(String, AspspConsentData)}
@@ -60,7 +70,7 @@ public class AccountSpiImpl implements AccountSpi {
                 .getBody()
               )
             .orElse(Collections.emptyList());
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
@@ -79,7 +89,69 @@ public class AccountSpiImpl implements AccountSpi {
         List<SpiTransaction> response = aspspRestTemplate.exchange(
             builder.buildAndExpand(uriParams).toUriString(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SpiTransaction>>() {
             }).getBody();
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsAfter(String, long, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<List<SpiTransaction>> readTransactionsAfter(String accountId, long entrySequence, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .getValues();
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(remoteSpiUrls.readTransactionsByPeriod())
+                                           .queryParam("afterEntry", entrySequence);
+
+        List<SpiTransaction> response = aspspRestTemplate.exchange(
+            builder.buildAndExpand(uriParams).toUri(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SpiTransaction>>() {
+            }).getBody();
+        return new SpiResponse<>(Optional.ofNullable(response).orElseGet(Collections::emptyList), new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#streamTransactionsByPeriod(String, LocalDate, LocalDate, SpiBookingStatus, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<Stream<SpiTransaction>> streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiBookingStatus bookingStatus, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .getValues();
+
+        URI uri = UriComponentsBuilder.fromHttpUrl(remoteSpiUrls.readTransactionsByPeriod())
+                      .queryParam("dateFrom", dateFrom)
+                      .queryParam("dateTo", dateTo)
+                      .queryParam("bookingStatus", bookingStatus)
+                      .buildAndExpand(uriParams)
+                      .toUri();
+
+        ObjectReader transactionReader = objectMapper.readerFor(SpiTransaction.class)
+                                             .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        Stream<SpiTransaction> response = JsonArrayResponseSpliterator.<SpiTransaction>stream(aspspRestTemplate.getRequestFactory(), aspspRestTemplate.getErrorHandler(), transactionReader, uri);
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
+    }
+
+    /**
+     * For detailed description see {@link AccountSpi#readTransactionsPageByPeriod(String, LocalDate, LocalDate, SpiTransactionPageKey, int, AspspConsentData)}
+     */
+    @Override
+    public SpiResponse<SpiTransactionPage> readTransactionsPageByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiTransactionPageKey pageKey, int pageSize, AspspConsentData aspspConsentData) {
+        Map<String, String> uriParams = new ObjectHolder<String, String>()
+                                            .addValue("account-id", accountId)
+                                            .getValues();
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(remoteSpiUrls.readTransactionsByPeriod())
+                                           .queryParam("dateFrom", dateFrom)
+                                           .queryParam("dateTo", dateTo)
+                                           .queryParam("pageSize", pageSize);
+        if (pageKey != null) {
+            builder.queryParam("pageKey", pageKey.encode());
+        }
+
+        SpiTransactionPage response = Optional.ofNullable(aspspRestTemplate.getForObject(builder.buildAndExpand(uriParams).toUri(), SpiTransactionPage.class))
+                                          .orElseGet(() -> new SpiTransactionPage(Collections.emptyList(), null, null));
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
@@ -88,7 +160,7 @@ public class AccountSpiImpl implements AccountSpi {
     @Override
     public SpiResponse<Optional<SpiTransaction>> readTransactionById(String transactionId, String accountId, AspspConsentData aspspConsentData) {
         Optional<SpiTransaction> response = Optional.ofNullable(aspspRestTemplate.getForObject(remoteSpiUrls.readTransactionById(), SpiTransaction.class, transactionId, accountId));
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
@@ -97,7 +169,7 @@ public class AccountSpiImpl implements AccountSpi {
     @Override
     public SpiResponse<SpiAccountDetails> readAccountDetails(String accountId, AspspConsentData aspspConsentData) {
         SpiAccountDetails response = aspspRestTemplate.getForObject(remoteSpiUrls.getAccountDetailsById(), SpiAccountDetails.class, accountId);
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
@@ -109,24 +181,17 @@ public class AccountSpiImpl implements AccountSpi {
             remoteSpiUrls.getAccountDetailsByPsuId(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SpiAccountDetails>>() {
             }, psuId).getBody())
                    .orElse(Collections.emptyList());
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
-     * For detailed description see {@link AccountSpi#readAccountDetailsByIbans(Collection, AspspConsentData)}
+     * For detailed description see {@link AccountSpi#readAccountDetailsByReferences(Collection, AspspConsentData)}
      */
     @Override
-    public SpiResponse<List<SpiAccountDetails>> readAccountDetailsByIbans(Collection<String> ibans, AspspConsentData aspspConsentData) {
-        List<SpiAccountDetails> accountDetails = new ArrayList<>();
-        for (String iban : ibans) {
-            List<SpiAccountDetails> det = readAccountDetailsByIban(iban, aspspConsentData).getPayload();
-            if (CollectionUtils.isEmpty(det)) {
-                return new SpiResponse<>(Collections.emptyList(),  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-            }
-            accountDetails.addAll(det);
-        }
-
-        return new SpiResponse<>(accountDetails,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+    public SpiResponse<SpiAccountDetailsBatch> readAccountDetailsByReferences(Collection<SpiAccountReference> references, AspspConsentData aspspConsentData) {
+        SpiAccountDetailsBatch response = Optional.ofNullable(aspspRestTemplate.postForObject(remoteSpiUrls.getAccountDetailsByReferences(), references, SpiAccountDetailsBatch.class))
+                                              .orElseGet(() -> new SpiAccountDetailsBatch(Collections.emptyList(), new ArrayList<>(references)));
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 
     /**
@@ -137,6 +202,6 @@ public class AccountSpiImpl implements AccountSpi {
         List<String> response = Optional.ofNullable(aspspRestTemplate.exchange(remoteSpiUrls.getAllowedPaymentProducts(), HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
         }, reference.getIban()).getBody())
                    .orElse(Collections.emptyList());
-        return new SpiResponse<>(response,  new AspspConsentData("ewogIHBheW1lbnRUb2tlbjogQUJDRDEyMzE0MSwKICBzeXN0ZW1JZDogREVEQUlKRUosCiAgbXVsdGl1c2U6IHRydWUsCiAgZXhwaXJlczogMCwKICB0cmFuc2FjdGlvbnM6IFsKICAgIHsKICAgICAgdHJhbnNhY3Rpb25JZDogaWppZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllamZ3cndpZTIzcjIsCiAgICAgIHN0YXR1czogRkFJTEVECiAgICB9LAogICAgewogICAgICB0cmFuc2FjdGlvbklkOiBpamllcnQyamZpZTIzcjIsCiAgICAgIHN0YXR1czogT0sKICAgIH0sCiAgICB7CiAgICAgIHRyYW5zYWN0aW9uSWQ6IGlqMzI0MzJpZWpmaWUyM3IyLAogICAgICBzdGF0dXM6IE9LCiAgICB9CiAgXQp9Cg==".getBytes())); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return new SpiResponse<>(response, new AspspConsentData(TEST_ASPSP_DATA.getBytes()));
     }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.spi.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads elements of a JSON array returned by ASPSP one at a time.
+ * The request is executed on the first access to the stream, so request factory and error handler have to be
+ * obtained in advance, while request scoped RestTemplate is still available.
+ */
+class JsonArrayResponseSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final ClientHttpRequestFactory requestFactory;
+    private final ResponseErrorHandler errorHandler;
+    private final ObjectReader elementReader;
+    private final URI uri;
+
+    private ClientHttpResponse response;
+    private JsonParser parser;
+    private boolean finished;
+
+    private JsonArrayResponseSpliterator(ClientHttpRequestFactory requestFactory, ResponseErrorHandler errorHandler,
+                                         ObjectReader elementReader, URI uri) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.requestFactory = requestFactory;
+        this.errorHandler = errorHandler;
+        this.elementReader = elementReader;
+        this.uri = uri;
+    }
+
+    /**
+     * Creates lazy stream of array elements, underlying connection is released when the stream is closed
+     *
+     * @param requestFactory factory used to create GET request to ASPSP
+     * @param errorHandler   handler of erroneous ASPSP responses
+     * @param elementReader  reader of a single array element
+     * @param uri            URI of the resource returning JSON array
+     * @return stream of array elements
+     */
+    static <T> Stream<T> stream(ClientHttpRequestFactory requestFactory, ResponseErrorHandler errorHandler,
+                                ObjectReader elementReader, URI uri) {
+        JsonArrayResponseSpliterator<T> spliterator = new JsonArrayResponseSpliterator<>(requestFactory, errorHandler, elementReader, uri);
+        return StreamSupport.stream(spliterator, false)
+                   .onClose(spliterator::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (parser == null && !open()) {
+                finished = true;
+                return false;
+            }
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                finished = true;
+                return false;
+            }
+            action.accept(elementReader.readValue(parser));
+            return true;
+        } catch (IOException e) {
+            finished = true;
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean open() throws IOException {
+        ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+        request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        response = request.execute();
+        if (errorHandler.hasError(response)) {
+            errorHandler.handleError(response);
+        }
+        if (response.getStatusCode() == HttpStatus.NO_CONTENT) {
+            return false;
+        }
+        parser = elementReader.getFactory().createParser(response.getBody());
+        return parser.nextToken() == JsonToken.START_ARRAY;
+    }
+
+    private void close() {
+        finished = true;
+        try {
+            if (parser != null) {
+                parser.close();
+            }
+        } catch (IOException e) {
+            // connection is released below anyway
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+}
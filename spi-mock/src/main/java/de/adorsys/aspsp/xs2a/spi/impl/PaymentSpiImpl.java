@@ -125,6 +125,7 @@ public class PaymentSpiImpl implements PaymentSpi {
         SpiPaymentInitialisationResponse paymentResponse = new SpiPaymentInitialisationResponse();
         paymentResponse.setTransactionStatus(SpiTransactionStatus.RCVD);
         paymentResponse.setPaymentId(spiSinglePayment.getPaymentId());
+        paymentResponse.setEndToEndIdentification(spiSinglePayment.getEndToEndIdentification());
         return paymentResponse;
     }
 }
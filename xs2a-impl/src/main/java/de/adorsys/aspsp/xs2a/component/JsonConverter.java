@@ -16,13 +16,22 @@
 
 package de.adorsys.aspsp.xs2a.component;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @Slf4j
@@ -40,6 +49,26 @@ public class JsonConverter {
         return Optional.empty();
     }
 
+    /**
+     * Checks whether JSON representation of the object is longer than given number of characters.
+     * Serialized characters are only counted and not kept, serialization is aborted as soon as the limit is passed.
+     *
+     * @param object    object to be checked
+     * @param maxLength maximum number of characters
+     * @return 'true' if JSON representation is longer than maxLength, 'false' otherwise or if object can't be converted
+     */
+    public <T> boolean isJsonLongerThan(final T object, final int maxLength) {
+        LengthLimitedWriter writer = new LengthLimitedWriter(maxLength);
+        try {
+            objectMapper.writeValue(writer, object);
+        } catch (IOException e) {
+            if (!writer.isLimitExceeded()) {
+                log.error("Can't convert object to json: {}", e);
+            }
+        }
+        return writer.isLimitExceeded();
+    }
+
     public <T> Optional<T> toObject(final String json, final Class<T> target){
         try {
             return Optional.ofNullable(objectMapper.readValue(json, target));
@@ -48,4 +77,110 @@ public class JsonConverter {
         }
         return Optional.empty();
     }
+
+    /**
+     * Reads elements of JSON array one by one with streaming parser, so that the whole array is never kept in memory.
+     * Input stream is closed as soon as the end of the array is reached.
+     * Errors on reading are thrown as {@link UncheckedIOException} by the iterator.
+     *
+     * @param inputStream JSON array
+     * @param elementType type of array elements
+     * @return iterator over array elements, which reads next element from the stream on demand
+     */
+    public <T> Iterator<T> readArrayElements(final InputStream inputStream, final Class<T> elementType) {
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "JSON array is expected");
+            }
+            return new JsonArrayIterator<>(parser, objectMapper.readerFor(elementType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class JsonArrayIterator<T> implements Iterator<T> {
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private JsonToken nextToken;
+
+        JsonArrayIterator(JsonParser parser, ObjectReader reader) {
+            this.parser = parser;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (nextToken == null && !parser.isClosed()) {
+                    nextToken = parser.nextToken();
+                    if (nextToken == JsonToken.END_ARRAY) {
+                        parser.close();
+                    } else if (nextToken == null) {
+                        throw new JsonParseException(parser, "Unexpected end of JSON array");
+                    }
+                }
+                return nextToken != null && nextToken != JsonToken.END_ARRAY;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return reader.readValue(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                nextToken = null;
+            }
+        }
+    }
+
+    private static class LengthLimitedWriter extends Writer {
+        private final int maxLength;
+        private long length;
+
+        LengthLimitedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int count) throws IOException {
+            add(count);
+        }
+
+        @Override
+        public void write(String str, int offset, int count) throws IOException {
+            add(count);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            add(1);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isLimitExceeded() {
+            return length > maxLength;
+        }
+
+        private void add(int count) throws IOException {
+            length += count;
+            if (isLimitExceeded()) {
+                throw new IOException("JSON is longer than " + maxLength + " characters");
+            }
+        }
+    }
 }
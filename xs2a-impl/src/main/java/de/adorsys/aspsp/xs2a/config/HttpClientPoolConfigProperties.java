@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool of the HTTP clients to CMS, ASPSP, ASPSP profile and Keycloak
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "http-client.pool")
+public class HttpClientPoolConfigProperties {
+    private int maxTotal = 200;
+    private int defaultMaxPerRoute = 50;
+    /**
+     * Max number of connections per downstream, the key is 'host:port' of the downstream, e.g.
+     * 'http-client.pool.max-per-route[localhost\:38080]=100'
+     */
+    private Map<String, Integer> maxPerRoute = new HashMap<>();
+    /**
+     * How long a connection is kept alive, if the server does not send the Keep-Alive header
+     */
+    private long keepAliveMs = 30000;
+    private long idleTimeoutMs = 30000;
+    private long timeToLiveMs = 300000;
+    private int validateAfterInactivityMs = 2000;
+    /**
+     * How long a request waits for a free connection of the pool
+     */
+    private int connectionRequestTimeoutMs = 5000;
+}
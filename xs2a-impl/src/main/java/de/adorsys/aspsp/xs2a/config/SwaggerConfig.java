@@ -16,12 +16,16 @@
 
 package de.adorsys.aspsp.xs2a.config;
 
+import com.fasterxml.classmate.TypeResolver;
 import com.google.common.base.Predicates;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
 import springfox.documentation.builders.*;
+import springfox.documentation.schema.AlternateTypeRules;
+import springfox.documentation.schema.WildcardType;
 import springfox.documentation.service.*;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
@@ -29,6 +33,7 @@ import springfox.documentation.swagger.web.SecurityConfiguration;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Collections.singletonList;
 import static springfox.documentation.swagger.web.SecurityConfigurationBuilder.builder;
@@ -40,6 +45,8 @@ public class SwaggerConfig {
     private String licenseUrl;
     @Autowired
     private KeycloakConfigProperties keycloakConfig;
+    @Autowired
+    private TypeResolver typeResolver;
 
     @Bean(name = "api")
     public Docket apiDocklet() {
@@ -51,7 +58,11 @@ public class SwaggerConfig {
                .paths(Predicates.not(PathSelectors.regex("/connect.*")))
                .paths(Predicates.not(PathSelectors.regex("/management.*")))
                .build()
-            .securitySchemes(singletonList(securitySchema()));
+            .securitySchemes(singletonList(securitySchema()))
+            // responses of async handler methods are documented as their body
+            .alternateTypeRules(AlternateTypeRules.newRule(
+                typeResolver.resolve(CompletableFuture.class, typeResolver.resolve(ResponseEntity.class, WildcardType.class)),
+                typeResolver.resolve(WildcardType.class)));
     }
 
     private ApiInfo getApiInfo() {
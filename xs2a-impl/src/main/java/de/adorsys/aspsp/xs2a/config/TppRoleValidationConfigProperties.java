@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.config;
+
+import de.adorsys.psd2.validator.certificate.util.TppRole;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rules, which TPP role is required to access a path under API base path.
+ * Paths are given relative to API base path, '*' matches exactly one path segment and a trailing '/**' matches
+ * any number of segments. Rules may be extended in configuration, e.g.
+ * 'tpp-role-validation.path-roles[/card-accounts/**]=AISP'.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tpp-role-validation")
+public class TppRoleValidationConfigProperties {
+    private String apiBasePath = "/api/v1";
+    private Map<String, TppRole> pathRoles = defaultPathRoles();
+
+    private static Map<String, TppRole> defaultPathRoles() {
+        Map<String, TppRole> pathRoles = new LinkedHashMap<>();
+        pathRoles.put("/accounts/**", TppRole.AISP);
+        pathRoles.put("/consents/**", TppRole.AISP);
+        pathRoles.put("/funds-confirmations/**", TppRole.PIISP);
+        pathRoles.put("/bulk-payments/**", TppRole.PISP);
+        pathRoles.put("/payments/**", TppRole.PISP);
+        pathRoles.put("/periodic-payments/**", TppRole.PISP);
+        return pathRoles;
+    }
+}
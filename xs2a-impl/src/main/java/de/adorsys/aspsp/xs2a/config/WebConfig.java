@@ -16,27 +16,23 @@
 
 package de.adorsys.aspsp.xs2a.config;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
-import de.adorsys.aspsp.xs2a.component.DateTimeDeserializer;
 import de.adorsys.aspsp.xs2a.component.PaymentTypeEnumConverter;
 import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
 import de.adorsys.aspsp.xs2a.domain.ScaApproach;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import de.adorsys.aspsp.xs2a.service.MessageService;
+import de.adorsys.aspsp.xs2a.service.consent.ais.PendingTransactionWatermark;
 import de.adorsys.aspsp.xs2a.service.consent.pis.PisConsentService;
 import de.adorsys.aspsp.xs2a.service.keycloak.KeycloakInvokerService;
 import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
 import de.adorsys.aspsp.xs2a.service.payment.*;
 import de.adorsys.aspsp.xs2a.service.validator.RequestValidatorService;
-import de.adorsys.aspsp.xs2a.service.validator.parameter.ParametersFactory;
 import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
+import de.adorsys.aspsp.xs2a.web.async.RequestAttributesTaskDecorator;
 import de.adorsys.aspsp.xs2a.web.interceptor.HandlerInterceptor;
+import de.adorsys.aspsp.xs2a.web.interceptor.TransactionWatermarkInterceptor;
+import de.adorsys.aspsp.xs2a.web.stream.SpooledStatementCleanupInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ServiceLocatorFactoryBean;
@@ -49,7 +45,9 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 import org.springframework.format.FormatterRegistry;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
@@ -57,7 +55,6 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Validation;
 import javax.validation.Validator;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,10 +67,20 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     @Value("${application.ais.transaction.max-length}")
     private int maxNumberOfCharInTransactionJson;
 
+    @Value("${streaming.executor.pool-size:20}")
+    private int streamingPoolSize;
+
+    @Value("${streaming.executor.queue-capacity:100}")
+    private int streamingQueueCapacity;
+
     private final AspspProfileService aspspProfileService;
 
     private final KeycloakInvokerService keycloakInvokerService;
 
+    private final ObjectMapper objectMapper;
+
+    private final PendingTransactionWatermark pendingTransactionWatermark;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("swagger-ui.html")
@@ -87,12 +94,37 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
         MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter();
-        jsonConverter.setObjectMapper(objectMapper());
+        jsonConverter.setObjectMapper(objectMapper);
 
         converters.add(jsonConverter);
         super.configureMessageConverters(converters);
     }
 
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+        // no time limit of the container, so that long downloads aren't cut off and async tasks never outlive their request
+        configurer.setDefaultTimeout(-1);
+        configurer.registerCallableInterceptors(new SpooledStatementCleanupInterceptor());
+    }
+
+    /**
+     * Executor writing streaming response bodies, e.g. transaction reports and statements. Requests exceeding the
+     * queue capacity are rejected instead of starting a new thread for every download. Bodies read from ASPSP while
+     * they are written, so they are executed with request attributes of their request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(streamingPoolSize);
+        executor.setMaxPoolSize(streamingPoolSize);
+        executor.setQueueCapacity(streamingQueueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("streaming-response-");
+        executor.setTaskDecorator(new RequestAttributesTaskDecorator());
+        return executor;
+    }
+
     @Bean
     public MessageSource messageSource() {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
@@ -103,31 +135,19 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     }
 
     @Bean
-    public ObjectMapper objectMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
-        objectMapper.registerModule(getDateTimeDeserializerModule());
-        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        objectMapper.registerModule(new Jdk8Module()); // add support for Optionals
-        objectMapper.registerModule(new JavaTimeModule()); // add support for java.time types
-        objectMapper.registerModule(new ParameterNamesModule()); // support for multiargs constructors
-        return objectMapper;
-    }
-
-    @Bean
-    public ParametersFactory parametersFactory(ObjectMapper objectMapper) {
-        return new ParametersFactory(objectMapper);
+    public RequestValidatorService requestValidatorService() {
+        return new RequestValidatorService();
     }
 
     @Bean
-    public RequestValidatorService requestValidatorService() {
-        return new RequestValidatorService();
+    public MessageService messageService() {
+        return new MessageService(messageSource(), objectMapper);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new HandlerInterceptor(requestValidatorService(), objectMapper()));
+        registry.addInterceptor(new HandlerInterceptor(requestValidatorService(), messageService()));
+        registry.addInterceptor(new TransactionWatermarkInterceptor(pendingTransactionWatermark));
     }
 
     @Bean
@@ -143,7 +163,10 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     @Bean
     @Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
     public BearerToken getBearerToken(HttpServletRequest request) {
-        return new BearerToken(getAccessToken(request));
+        // token of Keycloak is cached and refreshed by KeycloakInvokerService, so it is read for every call to ASPSP
+        return REDIRECT == aspspProfileService.readScaApproach()
+                   ? new BearerToken(() -> getAccessToken(request))
+                   : new BearerToken(getAccessToken(request));
     }
 
     private String getAccessToken(HttpServletRequest request) {
@@ -186,11 +209,4 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(new PaymentTypeEnumConverter());
     }
-
-    private SimpleModule getDateTimeDeserializerModule() {
-        SimpleModule dateTimeModule = new SimpleModule();
-        dateTimeModule.addDeserializer(LocalDateTime.class, new DateTimeDeserializer());
-        return dateTimeModule;
-    }
 }
-
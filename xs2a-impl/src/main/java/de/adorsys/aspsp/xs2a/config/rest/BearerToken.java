@@ -16,18 +16,27 @@
 
 package de.adorsys.aspsp.xs2a.config.rest;
 
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.function.Supplier;
+
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
 
-@Getter
-@RequiredArgsConstructor
 public class BearerToken {
-    private final String token;
+    private final Supplier<String> tokenSupplier;
+
+    public BearerToken(String token) {
+        this(() -> token);
+    }
+
+    /**
+     * @param tokenSupplier supplier of the token, which is read on every call, e.g. from a token cache
+     */
+    public BearerToken(Supplier<String> tokenSupplier) {
+        this.tokenSupplier = tokenSupplier;
+    }
 
     public String getToken(){
-        return StringUtils.substringAfter(token, BEARER_TOKEN_PREFIX);
+        return StringUtils.substringAfter(tokenSupplier.get(), BEARER_TOKEN_PREFIX);
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.config.rest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Holds the token of a request for threads, which call ASPSP on behalf of the request without its request attributes,
+ * e.g. parallel SPI calls. The token is read on the thread of the request, so that these threads never access the
+ * request, which may be recycled by the container while a cancelled call is still running.
+ */
+public final class BearerTokenHolder {
+    private static final ThreadLocal<Optional<String>> TOKEN = new ThreadLocal<>();
+
+    private BearerTokenHolder() {
+    }
+
+    /**
+     * @param requestToken token of the current request
+     * @return token bound to the current thread, which may be null, the token of the current request if none is bound
+     */
+    public static String getToken(Supplier<String> requestToken) {
+        Optional<String> token = TOKEN.get();
+        return token != null
+                   ? token.orElse(null)
+                   : requestToken.get();
+    }
+
+    /**
+     * @param token token read from the request on its thread, may be null
+     */
+    public static void setToken(String token) {
+        TOKEN.set(Optional.ofNullable(token));
+    }
+
+    public static void resetToken() {
+        TOKEN.remove();
+    }
+}
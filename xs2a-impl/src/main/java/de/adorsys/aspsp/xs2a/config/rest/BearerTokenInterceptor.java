@@ -22,20 +22,25 @@ import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AUTHORIZATION_HEADER;
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
 
 public class BearerTokenInterceptor implements ClientHttpRequestInterceptor {
-    private String bearerToken;
+    private Supplier<String> bearerToken;
 
-    public BearerTokenInterceptor(String bearerToken) {
+    /**
+     * @param bearerToken supplier of the token, which is read for every request, so that a cached token refreshed
+     *                    in the meantime is sent
+     */
+    public BearerTokenInterceptor(Supplier<String> bearerToken) {
         this.bearerToken = bearerToken;
     }
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
-        request.getHeaders().add(AUTHORIZATION_HEADER, BEARER_TOKEN_PREFIX + this.bearerToken);
+        request.getHeaders().add(AUTHORIZATION_HEADER, BEARER_TOKEN_PREFIX + this.bearerToken.get());
         return execution.execute(request, body);
     }
 }
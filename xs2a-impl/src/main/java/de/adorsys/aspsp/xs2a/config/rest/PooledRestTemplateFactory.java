@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.config.rest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.config.HttpClientPoolConfigProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates REST templates on pooled HTTP clients with keep-alive, so that connections to CMS, ASPSP, ASPSP profile and
+ * Keycloak are reused across requests instead of being opened for every call. Pool size is limited in total and per
+ * downstream, idle and expired connections are evicted in background. Utilisation of every pool is published as
+ * 'httpclient.pool.{pool name}.*' metrics.<br>
+ * All REST templates share one list of message converters, which is built once, with a JSON converter on
+ * the application object mapper, which accepts unknown properties in responses of the downstreams.
+ */
+@Slf4j
+@Component
+public class PooledRestTemplateFactory implements PublicMetrics {
+    public static final String DEFAULT_POOL = "default";
+
+    private final HttpClientPoolConfigProperties poolProperties;
+    private final List<HttpMessageConverter<?>> messageConverters;
+    private final Map<String, PoolingHttpClientConnectionManager> connectionManagers = new ConcurrentHashMap<>();
+    private final Map<String, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    public PooledRestTemplateFactory(HttpClientPoolConfigProperties poolProperties, ObjectMapper objectMapper) {
+        this.poolProperties = poolProperties;
+        MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper.copy()
+                                                                                                        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(new RestTemplate().getMessageConverters());
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter
+                                               ? jsonConverter
+                                               : converter);
+        this.messageConverters = Collections.unmodifiableList(converters);
+    }
+
+    /**
+     * Creates REST template on the shared default pool
+     *
+     * @param connectTimeout timeout of establishing a connection in milliseconds
+     * @param readTimeout    timeout of waiting for data in milliseconds
+     * @return REST template
+     */
+    public RestTemplate createRestTemplate(int connectTimeout, int readTimeout) {
+        return createRestTemplate(DEFAULT_POOL, connectTimeout, readTimeout);
+    }
+
+    /**
+     * Creates REST template on the pool with given name. The pool is created on the first call with default socket
+     * factories
+     *
+     * @param poolName       name of the pool
+     * @param connectTimeout timeout of establishing a connection in milliseconds
+     * @param readTimeout    timeout of waiting for data in milliseconds
+     * @return REST template
+     */
+    public RestTemplate createRestTemplate(String poolName, int connectTimeout, int readTimeout) {
+        return createRestTemplate(poolName, defaultSocketFactoryRegistry(), connectTimeout, readTimeout);
+    }
+
+    /**
+     * Creates REST template on the pool with given name. The pool is created on the first call with given socket
+     * factories, e.g. with custom SSL settings
+     *
+     * @param poolName              name of the pool
+     * @param socketFactoryRegistry socket factories of the pool by URI scheme
+     * @param connectTimeout        timeout of establishing a connection in milliseconds
+     * @param readTimeout           timeout of waiting for data in milliseconds
+     * @return REST template
+     */
+    public RestTemplate createRestTemplate(String poolName, Registry<ConnectionSocketFactory> socketFactoryRegistry, int connectTimeout, int readTimeout) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClients.computeIfAbsent(poolName, name -> createHttpClient(name, socketFactoryRegistry)));
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        requestFactory.setConnectionRequestTimeout(poolProperties.getConnectionRequestTimeoutMs());
+
+        RestTemplate rest = new RestTemplate(messageConverters);
+        rest.setRequestFactory(requestFactory);
+        return rest;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        Collection<Metric<?>> metrics = new ArrayList<>();
+        connectionManagers.forEach((poolName, connectionManager) -> {
+            PoolStats stats = connectionManager.getTotalStats();
+            String prefix = "httpclient.pool." + poolName + ".";
+            metrics.add(new Metric<>(prefix + "leased", stats.getLeased()));
+            metrics.add(new Metric<>(prefix + "available", stats.getAvailable()));
+            metrics.add(new Metric<>(prefix + "pending", stats.getPending()));
+            metrics.add(new Metric<>(prefix + "max", stats.getMax()));
+        });
+        return metrics;
+    }
+
+    @PreDestroy
+    void close() {
+        httpClients.forEach((poolName, httpClient) -> {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.warn("Can't close HTTP client of pool {}: {}", poolName, e.getMessage());
+            }
+        });
+    }
+
+    PoolingHttpClientConnectionManager getConnectionManager(String poolName) {
+        return connectionManagers.get(poolName);
+    }
+
+    private CloseableHttpClient createHttpClient(String poolName, Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null, poolProperties.getTimeToLiveMs(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(poolProperties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(poolProperties.getDefaultMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(poolProperties.getValidateAfterInactivityMs());
+        poolProperties.getMaxPerRoute()
+            .forEach((hostAndPort, max) -> connectionManager.setMaxPerRoute(toRoute(hostAndPort), max));
+        connectionManagers.put(poolName, connectionManager);
+
+        return HttpClients.custom()
+                   .setConnectionManager(connectionManager)
+                   .setKeepAliveStrategy(this::getKeepAliveDuration)
+                   .evictExpiredConnections()
+                   .evictIdleConnections(poolProperties.getIdleTimeoutMs(), TimeUnit.MILLISECONDS)
+                   .build();
+    }
+
+    private long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+        long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return duration > 0
+                   ? duration
+                   : poolProperties.getKeepAliveMs();
+    }
+
+    private HttpRoute toRoute(String hostAndPort) {
+        HttpHost host = HttpHost.create(hostAndPort);
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        int port = host.getPort() < 0
+                       ? secure ? 443 : 80
+                       : host.getPort();
+        return new HttpRoute(new HttpHost(host.getHostName(), port, host.getSchemeName()), null, secure);
+    }
+
+    private Registry<ConnectionSocketFactory> defaultSocketFactoryRegistry() {
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                   .build();
+    }
+}
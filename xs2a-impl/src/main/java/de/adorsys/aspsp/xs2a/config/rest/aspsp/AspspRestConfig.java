@@ -17,15 +17,13 @@ package de.adorsys.aspsp.xs2a.config.rest.aspsp;
 
 import de.adorsys.aspsp.xs2a.config.rest.BearerTokenInterceptor;
 import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
+import de.adorsys.aspsp.xs2a.config.rest.BearerTokenHolder;
+import de.adorsys.aspsp.xs2a.config.rest.PooledRestTemplateFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.*;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.http.converter.StringHttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.context.WebApplicationContext;
 
 @Configuration
 public class AspspRestConfig {
@@ -36,22 +34,18 @@ public class AspspRestConfig {
 
     @Autowired
     private BearerToken bearerToken;
+    @Autowired
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
 
+    /**
+     * REST template is shared by all requests, the token of the current request is read by the interceptor for every call.
+     * A token bound to the calling thread takes precedence, e.g. for parallel SPI calls without request attributes.
+     */
     @Bean(name = "aspspRestTemplate")
-    @Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
     public RestTemplate restTemplate(){
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
-        rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
-        rest.getMessageConverters().add(new StringHttpMessageConverter());
-        rest.getInterceptors().add(new BearerTokenInterceptor(bearerToken.getToken()));
+        RestTemplate rest = pooledRestTemplateFactory.createRestTemplate(connectionTimeout, readTimeout);
+        rest.getInterceptors().add(new BearerTokenInterceptor(() -> BearerTokenHolder.getToken(bearerToken::getToken)));
         rest.setErrorHandler(new AspspRestErrorHandler());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
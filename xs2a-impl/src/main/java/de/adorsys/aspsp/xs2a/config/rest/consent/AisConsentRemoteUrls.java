@@ -61,11 +61,31 @@ public class AisConsentRemoteUrls {
     }
 
     /**
-     * @return VOID
+     * @return AisConsentAccessResponse result of the check and accesses of consent
      * Method: POST
-     * PathVariables: ConsentActionRequest consentActionRequest
+     * PathVariable: String consentId
+     * Body: AisConsentAccessRequest request
+     */
+    public String checkAndConsumeConsentAccess() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/access";
+    }
+
+    /**
+     * @return AisTransactionWatermark watermark
+     * Method: GET
+     * PathVariables: String consentId, String accountId
+     */
+    public String getTransactionWatermark() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/watermark/{account-id}";
+    }
+
+    /**
+     * @return VOID
+     * Method: PUT
+     * PathVariables: String consentId, String accountId
+     * Body: AisTransactionWatermark watermark
      */
-    public String consentActionLog() {
-        return consentServiceBaseUrl + "/ais/consent/action";
+    public String updateTransactionWatermark() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/watermark/{account-id}";
     }
 }
@@ -16,17 +16,18 @@
 
 package de.adorsys.aspsp.xs2a.config.rest.consent;
 
+import de.adorsys.aspsp.xs2a.config.rest.PooledRestTemplateFactory;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.http.converter.StringHttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@RequiredArgsConstructor
 public class ConsentRestConfig {
+    private final PooledRestTemplateFactory pooledRestTemplateFactory;
+
     @Value("${rest-consent-config.read-timeout.ms:10000}")
     private int readTimeout;
     @Value("${rest-consent-config.connection-timeout.ms:10000}")
@@ -34,17 +35,8 @@ public class ConsentRestConfig {
 
     @Bean(name = "consentRestTemplate")
     public RestTemplate consentRestTemplate(){
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
-        rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
-        rest.getMessageConverters().add(new StringHttpMessageConverter());
+        RestTemplate rest = pooledRestTemplateFactory.createRestTemplate(connectionTimeout, readTimeout);
         rest.setErrorHandler(new ConsentRestErrorHandler());
         return rest;
     }
-
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setReadTimeout(readTimeout);
-        factory.setConnectTimeout(connectionTimeout);
-        return factory;
-    }
 }
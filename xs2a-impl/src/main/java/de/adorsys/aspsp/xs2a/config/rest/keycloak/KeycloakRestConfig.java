@@ -16,17 +16,18 @@
 
 package de.adorsys.aspsp.xs2a.config.rest.keycloak;
 
+import de.adorsys.aspsp.xs2a.config.rest.PooledRestTemplateFactory;
+import lombok.RequiredArgsConstructor;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.TrustStrategy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.http.converter.StringHttpMessageConverter;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 import javax.net.ssl.SSLContext;
@@ -36,33 +37,37 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 
 @Configuration
+@RequiredArgsConstructor
 public class KeycloakRestConfig {
+    private static final String POOL_WITHOUT_SSL_VERIFICATION = "keycloak-without-ssl-verification";
+
+    private final PooledRestTemplateFactory pooledRestTemplateFactory;
+
     @Value("${skip.ssl.certificate.verification}")
     private boolean skipSslCertificateVerification;
+    @Value("${http-client.read-timeout.ms:10000}")
+    private int readTimeout;
+    @Value("${http-client.connection-timeout.ms:10000}")
+    private int connectionTimeout;
 
     @Bean(name = "keycloakRestTemplate")
     public RestTemplate keycloakRestTemplate() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
         RestTemplate rest = skipSslCertificateVerification
-                                ? new RestTemplate(buildHttpRequestFactoryWithoutSSLVerification())
-                                : new RestTemplate();
-        rest.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
-        rest.getMessageConverters().add(new StringHttpMessageConverter());
+                                ? pooledRestTemplateFactory.createRestTemplate(POOL_WITHOUT_SSL_VERIFICATION, buildSocketFactoryRegistryWithoutSSLVerification(), connectionTimeout, readTimeout)
+                                : pooledRestTemplateFactory.createRestTemplate(connectionTimeout, readTimeout);
         rest.setErrorHandler(new KeycloakRestErrorHandler());
         return rest;
     }
 
-    private HttpComponentsClientHttpRequestFactory buildHttpRequestFactoryWithoutSSLVerification() throws NoSuchAlgorithmException, KeyManagementException, KeyStoreException {
+    private Registry<ConnectionSocketFactory> buildSocketFactoryRegistryWithoutSSLVerification() throws NoSuchAlgorithmException, KeyManagementException, KeyStoreException {
         TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
         SSLContext sslContext = org.apache.http.ssl.SSLContexts.custom()
                                     .loadTrustMaterial(null, acceptingTrustStrategy)
                                     .build();
-        SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext);
-        CloseableHttpClient httpClient = HttpClients.custom()
-                                             .setSSLSocketFactory(csf)
-                                             .setSSLHostnameVerifier(new NoopHostnameVerifier())
-                                             .build();
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setHttpClient(httpClient);
-        return requestFactory;
+        SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+        return RegistryBuilder.<ConnectionSocketFactory>create()
+                   .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                   .register("https", csf)
+                   .build();
     }
 }
@@ -16,6 +16,7 @@
 
 package de.adorsys.aspsp.xs2a.domain.account;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
@@ -49,4 +50,10 @@ public class AccountReport {
     @NotNull
     @JsonProperty("_links")
     private Links links;
+
+    @JsonIgnore
+    private String nextPageKey;
+
+    @JsonIgnore
+    private String previousPageKey;
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.domain.account;
+
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import lombok.Value;
+
+import java.util.stream.Stream;
+
+/**
+ * Account report whose booked and pending transactions are read from ASPSP lazily, one at a time.
+ * Streams may be consumed only once and have to be released with {@link #close()}.
+ */
+@Value
+public class AccountReportStream implements AutoCloseable {
+    private final Stream<Transactions> booked;
+    private final Stream<Transactions> pending;
+
+    @Override
+    public void close() {
+        try {
+            booked.close();
+        } finally {
+            pending.close();
+        }
+    }
+}
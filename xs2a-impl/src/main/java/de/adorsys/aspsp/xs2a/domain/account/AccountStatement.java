@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.domain.account;
+
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Statement of an account for a period of time, which is generated from transactions read lazily from ASPSP.
+ * Every call of the transaction source opens a new stream of transactions, streams have to be opened while
+ * the request is being handled and closed by the caller.
+ */
+@Value
+public class AccountStatement {
+    private final AccountDetails account;
+    private final LocalDate dateFrom;
+    private final LocalDate dateTo;
+    private final Supplier<Stream<Transactions>> transactionSource;
+}
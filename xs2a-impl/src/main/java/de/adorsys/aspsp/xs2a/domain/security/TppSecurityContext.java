@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.domain.security;
+
+import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import de.adorsys.psd2.validator.certificate.util.TppRole;
+import lombok.Value;
+
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Result of TPP authentication for one request: request headers snapshot, TPP certificate and roles,
+ * TPP information and whether the request signature was verified.
+ * Built once by the security filter and available to later stages as request attribute.
+ */
+@Value
+public class TppSecurityContext {
+    public static final String REQUEST_ATTRIBUTE = "tppSecurityContext";
+
+    private final Map<String, String> headers;
+    private final X509Certificate certificate;
+    private final TppCertificateData certificateData;
+    private final TppInfo tppInfo;
+    private final boolean signatureVerified;
+
+    /**
+     * Creates context for request, which was not authenticated, as TPP signature is not required by ASPSP
+     *
+     * @param headers request headers snapshot
+     * @param tppInfo TPP information sent with the request
+     * @return security context
+     */
+    public static TppSecurityContext unauthenticated(Map<String, String> headers, TppInfo tppInfo) {
+        return new TppSecurityContext(headers, null, null, tppInfo, false);
+    }
+
+    /**
+     * Creates context for request with validated TPP certificate and verified signature
+     *
+     * @param headers         request headers snapshot
+     * @param certificate     validated TPP certificate
+     * @param certificateData data extracted from TPP certificate
+     * @param tppInfo         TPP information sent with the request
+     * @return security context
+     */
+    public static TppSecurityContext authenticated(Map<String, String> headers, X509Certificate certificate,
+                                                   TppCertificateData certificateData, TppInfo tppInfo) {
+        return new TppSecurityContext(headers, certificate, certificateData, tppInfo, true);
+    }
+
+    public List<TppRole> getRoles() {
+        return Optional.ofNullable(certificateData)
+                   .map(TppCertificateData::getPspRoles)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+}
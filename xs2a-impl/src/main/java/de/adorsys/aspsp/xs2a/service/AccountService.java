@@ -17,44 +17,60 @@
 package de.adorsys.aspsp.xs2a.service;
 
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.domain.*;
 import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReportStream;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
 import de.adorsys.aspsp.xs2a.domain.consent.AccountAccess;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.consent.ais.AisConsentService;
+import de.adorsys.aspsp.xs2a.service.consent.ais.PendingTransactionWatermark;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountMapper;
 import de.adorsys.aspsp.xs2a.service.validator.ValidationGroup;
 import de.adorsys.aspsp.xs2a.service.validator.ValueValidatorService;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiBookingStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPage;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiTransactionPageKey;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.CONSENT_INVALID;
+import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.FORMAT_ERROR;
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.RESOURCE_UNKNOWN_404;
 import static de.adorsys.aspsp.xs2a.exception.MessageCategory.ERROR;
 
 @Slf4j
 @Service
 @Validated
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class AccountService {
     private final AccountSpi accountSpi;
     private final AccountMapper accountMapper;
     private final ValueValidatorService validatorService;
     private final ConsentService consentService;
     private final AisConsentService aisConsentService;
+    private final PendingTransactionWatermark pendingTransactionWatermark;
+    private final SpiFanOutExecutor spiFanOutExecutor;
+    private final TransactionPageKeySigner transactionPageKeySigner;
+    @Value("${application.ais.transaction.max-page-size:1000}")
+    private int maxPageSize;
     private final static String TPP_ID = "This is a test TppId"; //TODO v1.1 add corresponding request header Task #149 https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/149
 
     /**
@@ -66,19 +82,17 @@ public class AccountService {
      * @return List of AccountDetails with Balances if requested and granted by consent
      */
     public ResponseObject<Map<String, List<AccountDetails>>> getAccountDetailsList(String consentId, boolean withBalance) {
-        ResponseObject<AccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
+        ResponseObject<AccountAccess> allowedAccountData = consentService.checkAndConsumeConsentAccess(TPP_ID, consentId, null, TypeAccess.ACCOUNT, withBalance);
         if (allowedAccountData.hasError()) {
             return ResponseObject.<Map<String, List<AccountDetails>>>builder()
                        .fail(allowedAccountData.getError()).build();
         }
         List<AccountDetails> accountDetails = getAccountDetailsFromReferences(withBalance, allowedAccountData.getBody());
-        ResponseObject<Map<String, List<AccountDetails>>> response = accountDetails.isEmpty()
-                                                                         ? ResponseObject.<Map<String, List<AccountDetails>>>builder()
-                                                                               .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build()
-                                                                         : ResponseObject.<Map<String, List<AccountDetails>>>builder()
-                                                                               .body(Collections.singletonMap("accountList", accountDetails)).build();
-        aisConsentService.consentActionLog(TPP_ID, consentId, withBalance, TypeAccess.ACCOUNT, response);
-        return response;
+        return accountDetails.isEmpty()
+                   ? ResponseObject.<Map<String, List<AccountDetails>>>builder()
+                         .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build()
+                   : ResponseObject.<Map<String, List<AccountDetails>>>builder()
+                         .body(Collections.singletonMap("accountList", accountDetails)).build();
     }
 
     /**
@@ -91,31 +105,17 @@ public class AccountService {
      * @return AccountDetails based on accountId with Balances if requested and granted by consent
      */
     public ResponseObject<AccountDetails> getAccountDetails(String consentId, String accountId, boolean withBalance) {
-        ResponseObject<AccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.ACCOUNT, withBalance);
         if (allowedAccountData.hasError()) {
             return ResponseObject.<AccountDetails>builder()
                        .fail(allowedAccountData.getError()).build();
         }
-        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-        if (accountDetails == null) {
-            return ResponseObject.<AccountDetails>builder()
-                       .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
-        }
-        boolean isValid = withBalance
-                              ? consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getBalances())
-                              : consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getAccounts());
-
-        ResponseObject.ResponseBuilder<AccountDetails> builder = ResponseObject.builder();
-        if (isValid) {
-            builder = withBalance
-                          ? builder.body(accountDetails)
-                          : builder.body(getAccountDetailNoBalances(accountDetails));
-        } else {
-            builder = builder
-                          .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID)));
-        }
-        aisConsentService.consentActionLog(TPP_ID, consentId, withBalance, TypeAccess.ACCOUNT, builder.build());
-        return builder.build();
+        return ResponseObject.<AccountDetails>builder()
+                   .body(withBalance
+                             ? accountDetails
+                             : getAccountDetailNoBalances(accountDetails))
+                   .build();
     }
 
     /**
@@ -126,30 +126,22 @@ public class AccountService {
      * @return List of AccountBalances based on accountId if granted by consent
      */
     public ResponseObject<List<Balance>> getBalances(String consentId, String accountId) {
-        ResponseObject<AccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.BALANCE, false);
         if (allowedAccountData.hasError()) {
             return ResponseObject.<List<Balance>>builder()
                        .fail(allowedAccountData.getError()).build();
         }
-        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-        if (accountDetails == null) {
-            return ResponseObject.<List<Balance>>builder()
-                       .fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
-        }
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getBalances());
-        ResponseObject<List<Balance>> response = isValid
-                                                     ? ResponseObject.<List<Balance>>builder().body(accountDetails.getBalances()).build()
-                                                     : ResponseObject.<List<Balance>>builder()
-                                                           .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
-
-        aisConsentService.consentActionLog(TPP_ID, consentId, false, TypeAccess.BALANCE, response);
-        return response;
+        return ResponseObject.<List<Balance>>builder().body(accountDetails.getBalances()).build();
     }
 
     /**
      * Gets AccountReport with Booked/Pending or both transactions dependent on request.
      * Uses one of two ways to get transaction from ASPSP: 1. By transactionId, 2. By time period limited with dateFrom/dateTo variables
-     * Checks if all transactions are related to accounts set in AccountConsent Transactions section
+     * Checks if all transactions are related to accounts set in AccountConsent Transactions section.
+     * Delta reports are created only if neither booking status nor period restrict the report: all transactions booked or changed
+     * after the last one delivered with the consent for the account are read from ASPSP, whatever their value date is.
+     * The entry sequence number of the last transaction of the report is stored in CMS only after the report was sent to TPP
      *
      * @param consentId     String representing an AccountConsent identification
      * @param accountId     String representing a PSU`s Account at ASPSP
@@ -165,29 +157,131 @@ public class AccountService {
     public ResponseObject<AccountReport> getAccountReport(String consentId, String accountId, LocalDate dateFrom,
                                                           LocalDate dateTo, String transactionId, boolean psuInvolved,
                                                           BookingStatus bookingStatus, boolean withBalance, boolean deltaList) {
-        ResponseObject<AccountAccess> allowedAccountData = consentService.getValidatedConsent(consentId);
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.TRANSACTION, withBalance);
         if (allowedAccountData.hasError()) {
             return ResponseObject.<AccountReport>builder()
                        .fail(allowedAccountData.getError()).build();
         }
 
-        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-        if (accountDetails == null) {
-            return ResponseObject.<AccountReport>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
-        }
-
-        boolean isValid = consentService.isValidAccountByAccess(accountDetails.getIban(), accountDetails.getCurrency(), allowedAccountData.getBody().getTransactions());
-        Optional<AccountReport> report = getAccountReport(accountId, dateFrom, dateTo, transactionId, bookingStatus);
+        // the watermark of the consent covers all transactions of the account, so filtered reports cannot be delta reports
+        boolean isDeltaReport = deltaList && StringUtils.isBlank(transactionId)
+                                    && bookingStatus == BookingStatus.BOTH && dateFrom == null && dateTo == null;
+        Optional<AccountReport> report = isDeltaReport
+                                             ? getAccountReportDelta(consentId, accountId)
+                                             : getAccountReport(accountId, dateFrom, dateTo, transactionId, bookingStatus);
 
-        ResponseObject<AccountReport> response = isValid && report.isPresent()
+        ResponseObject<AccountReport> response = report.isPresent()
                                                      ? ResponseObject.<AccountReport>builder().body(report.get()).build()
                                                      : ResponseObject.<AccountReport>builder()
                                                            .fail(new MessageError(new TppMessageInformation(ERROR, CONSENT_INVALID))).build();
 
-        aisConsentService.consentActionLog(TPP_ID, consentId, withBalance, TypeAccess.TRANSACTION, response);
         return response;
     }
 
+    /**
+     * Gets a page of AccountReport for a period of time with Booked/Pending or both transactions dependent on request.
+     * Transactions of the period are ordered by value date and transaction id and are read from ASPSP page by page,
+     * the keys of the neighbour pages are returned with the report. Booking status is applied to the transactions of the page.
+     * A usage of the consent is consumed with the first page only, further pages of the report are checked against the consent.
+     * Page keys are signed for the consent, account and period of the report, so keys of other reports are rejected.
+     *
+     * @param consentId     String representing an AccountConsent identification
+     * @param accountId     String representing a PSU`s Account at ASPSP
+     * @param dateFrom      ISO Date representing the value of desired start date of AccountReport
+     * @param dateTo        ISO Date representing the value of desired end date of AccountReport (if omitted is set to current date)
+     * @param pageKey       String representing the position of the page, as returned with the previous page. Null for the first page
+     * @param pageSize      maximum number of transactions in the page, at most application.ais.transaction.max-page-size
+     * @param bookingStatus ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @param withBalance   boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
+     * @return AccountReport of the page with keys of next and previous pages
+     */
+    public ResponseObject<AccountReport> getAccountReportPage(String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo,
+                                                              String pageKey, int pageSize, BookingStatus bookingStatus, boolean withBalance) {
+        Optional<SpiTransactionPageKey> spiPageKey = decodePageKey(pageKey, consentId, accountId, dateFrom, dateTo);
+        if (pageSize < 1 || pageSize > maxPageSize || pageKey != null && !spiPageKey.isPresent()) {
+            return ResponseObject.<AccountReport>builder()
+                       .fail(new MessageError(new TppMessageInformation(ERROR, FORMAT_ERROR))).build();
+        }
+
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = spiPageKey.isPresent()
+                                                               ? checkAccountAccessWithoutUsage(consentId, accountDetails, TypeAccess.TRANSACTION)
+                                                               : checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.TRANSACTION, withBalance);
+        if (allowedAccountData.hasError()) {
+            return ResponseObject.<AccountReport>builder()
+                       .fail(allowedAccountData.getError()).build();
+        }
+
+        AccountReport report = getAccountReportPageByPeriod(accountId, dateFrom, dateTo, spiPageKey.orElse(null), pageSize, bookingStatus);
+        report.setNextPageKey(transactionPageKeySigner.sign(report.getNextPageKey(), consentId, accountId, dateFrom, dateTo));
+        report.setPreviousPageKey(transactionPageKeySigner.sign(report.getPreviousPageKey(), consentId, accountId, dateFrom, dateTo));
+        return ResponseObject.<AccountReport>builder().body(report).build();
+    }
+
+    /**
+     * Gets AccountReport for a period of time as a stream of Booked/Pending transactions dependent on request.
+     * Transactions are read from ASPSP and mapped one at a time while the report is being written, so that memory
+     * consumption doesn't depend on the size of the report. Empty report is returned as empty transaction arrays.
+     *
+     * @param consentId     String representing an AccountConsent identification
+     * @param accountId     String representing a PSU`s Account at ASPSP
+     * @param dateFrom      ISO Date representing the value of desired start date of AccountReport
+     * @param dateTo        ISO Date representing the value of desired end date of AccountReport (if omitted is set to current date)
+     * @param bookingStatus ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @param withBalance   boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
+     * @return AccountReportStream with lazy streams of Booked and Pending transactions, has to be closed by the caller
+     */
+    public ResponseObject<AccountReportStream> getAccountReportStream(String consentId, String accountId, LocalDate dateFrom,
+                                                                      LocalDate dateTo, BookingStatus bookingStatus, boolean withBalance) {
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.TRANSACTION, withBalance);
+        if (allowedAccountData.hasError()) {
+            return ResponseObject.<AccountReportStream>builder()
+                       .fail(allowedAccountData.getError()).build();
+        }
+
+        return ResponseObject.<AccountReportStream>builder().body(getAccountReportStreamByPeriod(accountId, dateFrom, dateTo, bookingStatus)).build();
+    }
+
+    /**
+     * Gets AccountStatement for a period of time, which is used to generate downloadable account statement files.
+     * Transactions with requested booking status are read from ASPSP in one pass, ordered as provided by ASPSP.
+     *
+     * @param consentId     String representing an AccountConsent identification
+     * @param accountId     String representing a PSU`s Account at ASPSP
+     * @param dateFrom      ISO Date representing the value of desired start date of AccountStatement
+     * @param dateTo        ISO Date representing the value of desired end date of AccountStatement (if omitted is set to current date)
+     * @param bookingStatus ENUM representing either one of BOOKED/PENDING or BOTH transaction statuses
+     * @param withBalance   boolean representing if the responded AccountDetails should contain. Not applicable since v1.1
+     * @return AccountStatement with account details and the source of transaction streams
+     */
+    public ResponseObject<AccountStatement> getAccountStatement(String consentId, String accountId, LocalDate dateFrom,
+                                                                LocalDate dateTo, BookingStatus bookingStatus, boolean withBalance) {
+        AccountDetails accountDetails = accountMapper.mapToAccountDetails(accountSpi.readAccountDetails(accountId, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        ResponseObject<AccountAccess> allowedAccountData = checkAndConsumeAccountAccess(consentId, accountDetails, TypeAccess.TRANSACTION, withBalance);
+        if (allowedAccountData.hasError()) {
+            return ResponseObject.<AccountStatement>builder()
+                       .fail(allowedAccountData.getError()).build();
+        }
+
+        return ResponseObject.<AccountStatement>builder().body(getAccountStatementByPeriod(accountId, accountDetails, dateFrom, dateTo, bookingStatus)).build();
+    }
+
+    private ResponseObject<AccountAccess> checkAndConsumeAccountAccess(String consentId, AccountDetails accountDetails, TypeAccess access, boolean withBalance) {
+        return accountDetails == null
+                   ? checkAccountAccessWithoutUsage(consentId, null, access)
+                   : consentService.checkAndConsumeConsentAccess(TPP_ID, consentId, getAccountReference(accountDetails), access, withBalance);
+    }
+
+    // an account unknown at ASPSP is checked without consuming a usage, so consent errors take precedence over 404 and 404 costs no usage
+    private ResponseObject<AccountAccess> checkAccountAccessWithoutUsage(String consentId, AccountDetails accountDetails, TypeAccess access) {
+        ResponseObject<AccountAccess> allowedAccountData = consentService.checkConsentAccessWithoutUsage(TPP_ID, consentId, getAccountReference(accountDetails), access);
+        return allowedAccountData.hasError() || accountDetails != null
+                   ? allowedAccountData
+                   : ResponseObject.<AccountAccess>builder().fail(new MessageError(new TppMessageInformation(ERROR, RESOURCE_UNKNOWN_404))).build();
+    }
+
     private List<AccountDetails> getAccountDetailsFromReferences(boolean withBalance, AccountAccess accountAccess) {
         List<AccountReference> references = withBalance
                                                 ? accountAccess.getBalances()
@@ -201,13 +295,24 @@ public class AccountService {
     private List<AccountDetails> getAccountDetailsFromReferences(List<AccountReference> references) {
         return CollectionUtils.isEmpty(references)
                    ? Collections.emptyList()
-                   : references.stream()
-                         .map(this::getAccountDetailsByAccountReference)
+                   : spiFanOutExecutor.invokeAll(references, this::getAccountDetailsByAccountReference).stream()
+                         .map(details -> details.flatMap(Function.identity()))
                          .filter(Optional::isPresent)
                          .map(Optional::get)
                          .collect(Collectors.toList());
     }
 
+    private AccountReference getAccountReference(AccountDetails accountDetails) {
+        return Optional.ofNullable(accountDetails)
+                   .map(details -> {
+                       AccountReference reference = new AccountReference();
+                       reference.setIban(details.getIban());
+                       reference.setCurrency(details.getCurrency());
+                       return reference;
+                   })
+                   .orElse(null);
+    }
+
     private List<AccountDetails> getAccountDetailsNoBalances(List<AccountDetails> details) {
         return details.stream()
                    .map(this::getAccountDetailNoBalances)
@@ -229,12 +334,34 @@ public class AccountService {
 
     }
 
+    private Optional<AccountReport> getAccountReportDelta(String consentId, String accountId) {
+        validateAccountId(accountId);
+        AspspConsentData aspspConsentData = new AspspConsentData("zzzzzzzzzzzzzz".getBytes()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        long entrySequence = aisConsentService.getTransactionWatermark(consentId, accountId)
+                                 .map(AisTransactionWatermark::getEntrySequence)
+                                 .orElse(0L);
+        List<SpiTransaction> transactions = Optional.ofNullable(accountSpi.readTransactionsAfter(accountId, entrySequence, aspspConsentData).getPayload())
+                                                .orElseGet(Collections::emptyList);
+        AccountReport report = accountMapper.mapToAccountReport(transactions)
+                                   .orElseGet(() -> new AccountReport(new Transactions[]{}, new Transactions[]{}));
+        // watermark is moved after the report was sent, so that transactions of an undelivered report are delivered again
+        transactions.stream()
+            .map(SpiTransaction::getEntrySequence)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .ifPresent(lastEntrySequence -> pendingTransactionWatermark.set(consentId, accountId, new AisTransactionWatermark(lastEntrySequence)));
+        return Optional.of(report);
+    }
+
     private AccountReport filterByBookingStatus(AccountReport report, BookingStatus bookingStatus) {
-        return new AccountReport(
+        AccountReport filteredReport = new AccountReport(
             bookingStatus == BookingStatus.BOOKED || bookingStatus == BookingStatus.BOTH
                 ? report.getBooked() : new Transactions[]{},
             bookingStatus == BookingStatus.PENDING || bookingStatus == BookingStatus.BOTH
                 ? report.getPending() : new Transactions[]{});
+        filteredReport.setNextPageKey(report.getNextPageKey());
+        filteredReport.setPreviousPageKey(report.getPreviousPageKey());
+        return filteredReport;
     }
 
     private Optional<AccountReport> getAccountReportByTransaction(String transactionId, String accountId) {
@@ -253,6 +380,53 @@ public class AccountService {
         return accountMapper.mapToAccountReport(accountSpi.readTransactionsByPeriod(accountId, dateFrom, dateTo, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
     }
 
+    private AccountReport getAccountReportPageByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiTransactionPageKey pageKey,
+                                                       int pageSize, BookingStatus bookingStatus) {
+        LocalDate dateToChecked = Optional.ofNullable(dateTo)
+                                      .orElseGet(LocalDate::now);
+        validateAccountIdPeriod(accountId, dateFrom, dateToChecked);
+        SpiTransactionPage page = accountSpi.readTransactionsPageByPeriod(accountId, dateFrom, dateToChecked, pageKey, pageSize, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload(); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return filterByBookingStatus(accountMapper.mapToAccountReport(page), bookingStatus);
+    }
+
+    private Optional<SpiTransactionPageKey> decodePageKey(String pageKey, String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        try {
+            return Optional.ofNullable(pageKey)
+                       .flatMap(key -> transactionPageKeySigner.verify(key, consentId, accountId, dateFrom, dateTo))
+                       .map(SpiTransactionPageKey::decode);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid page key: {}", pageKey);
+            return Optional.empty();
+        }
+    }
+
+    private AccountReportStream getAccountReportStreamByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, BookingStatus bookingStatus) {
+        LocalDate dateToChecked = Optional.ofNullable(dateTo)
+                                      .orElseGet(LocalDate::now);
+        validateAccountIdPeriod(accountId, dateFrom, dateToChecked);
+        Stream<Transactions> booked = bookingStatus == BookingStatus.BOOKED || bookingStatus == BookingStatus.BOTH
+                                          ? streamTransactionsByPeriod(accountId, dateFrom, dateToChecked, SpiBookingStatus.BOOKED)
+                                          : Stream.empty();
+        Stream<Transactions> pending = bookingStatus == BookingStatus.PENDING || bookingStatus == BookingStatus.BOTH
+                                           ? streamTransactionsByPeriod(accountId, dateFrom, dateToChecked, SpiBookingStatus.PENDING)
+                                           : Stream.empty();
+        return new AccountReportStream(booked, pending);
+    }
+
+    private AccountStatement getAccountStatementByPeriod(String accountId, AccountDetails accountDetails, LocalDate dateFrom, LocalDate dateTo, BookingStatus bookingStatus) {
+        LocalDate dateToChecked = Optional.ofNullable(dateTo)
+                                      .orElseGet(LocalDate::now);
+        validateAccountIdPeriod(accountId, dateFrom, dateToChecked);
+        SpiBookingStatus spiBookingStatus = accountMapper.mapToSpiBookingStatus(bookingStatus);
+        return new AccountStatement(accountDetails, dateFrom, dateToChecked,
+            () -> streamTransactionsByPeriod(accountId, dateFrom, dateToChecked, spiBookingStatus));
+    }
+
+    private Stream<Transactions> streamTransactionsByPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo, SpiBookingStatus bookingStatus) {
+        return accountSpi.streamTransactionsByPeriod(accountId, dateFrom, dateTo, bookingStatus, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload() // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+                   .map(accountMapper::mapToTransaction);
+    }
+
     public Optional<AccountDetails> getAccountDetailsByAccountReference(AccountReference reference) {
         return Optional.ofNullable(reference) // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Refactor to procedure style - we read data inside the stream here
                    .map(ref -> accountSpi.readAccountDetailsByIban(ref.getIban(), new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload()) // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
@@ -264,6 +438,13 @@ public class AccountService {
     }
 
     // Validation
+    private void validateAccountId(String accountId) {
+        ValidationGroup fieldValidator = new ValidationGroup();
+        fieldValidator.setAccountId(accountId);
+
+        validatorService.validate(fieldValidator, ValidationGroup.AccountIdIsValid.class);
+    }
+
     private void validateAccountIdPeriod(String accountId, LocalDate dateFrom, LocalDate dateTo) {
         ValidationGroup fieldValidator = new ValidationGroup();
         fieldValidator.setAccountId(accountId);
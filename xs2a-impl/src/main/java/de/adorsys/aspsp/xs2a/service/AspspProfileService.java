@@ -21,18 +21,36 @@ import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
 import de.adorsys.aspsp.xs2a.domain.ScaApproach;
 import de.adorsys.aspsp.xs2a.domain.account.SupportedAccountReferenceField;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
+import de.adorsys.aspsp.xs2a.service.profile.AspspProfileSnapshot;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Provides values of ASPSP profile. All getters are served from in-memory {@link AspspProfileSnapshot},
+ * which is read from ASPSP profile service on first access and then refreshed in background.
+ * While refresh is in progress or if ASPSP profile service is not available, previous snapshot is served.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AspspProfileService {
@@ -40,19 +58,42 @@ public class AspspProfileService {
     private final RestTemplate aspspProfileRestTemplate;
     private final AspspProfileRemoteUrls aspspProfileRemoteUrls;
 
+    private final AtomicReference<AspspProfileSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private ScheduledExecutorService refreshExecutor;
+
+    @Value("${aspsp-profile.cache.refresh-interval.ms:60000}")
+    private long refreshInterval;
+    @Value("${aspsp-profile.cache.max-age.ms:300000}")
+    private long maxAge;
+
+    @PostConstruct
+    void startRefresh() {
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aspsp-profile-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (refreshInterval > 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::refreshProfile, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopRefresh() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
     /**
      * Gets a list of payment products allowed by current ASPSP from ASPSP profile service
      *
      * @return List of payment products supported by current ASPSP
      */
     public List<PaymentProduct> getAvailablePaymentProducts() {
-        return Optional.ofNullable(readAvailablePaymentProducts())
-                   .map(list -> list.stream()
-                                    .map(PaymentProduct::getByCode)
-                                    .filter(Optional::isPresent)
-                                    .map(Optional::get)
-                                    .collect(Collectors.toList()))
-                   .orElseGet(Collections::emptyList);
+        return getProfileSnapshot().getAvailablePaymentProducts();
     }
 
     /**
@@ -61,13 +102,7 @@ public class AspspProfileService {
      * @return List of payment types allowed by ASPSP
      */
     public List<PisPaymentType> getAvailablePaymentTypes() {
-        return Optional.ofNullable(readAvailablePaymentTypes())
-                   .map(list -> list.stream()
-                                    .map(PisPaymentType::getByValue)
-                                    .filter(Optional::isPresent)
-                                    .map(Optional::get)
-                                    .collect(Collectors.toList()))
-                   .orElseGet(Collections::emptyList);
+        return getProfileSnapshot().getAvailablePaymentTypes();
     }
 
     /**
@@ -81,20 +116,13 @@ public class AspspProfileService {
                    || scaApproach == ScaApproach.DECOUPLED;
     }
 
-    private List<String> readAvailablePaymentProducts() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getAvailablePaymentProducts(), HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
-            }).getBody();
-    }
-
     /**
      * Read sca approach from ASPSP profile service
      *
      * @return Available SCA approach for tpp
      */
     public ScaApproach readScaApproach() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getScaApproach(), HttpMethod.GET, null, ScaApproach.class).getBody();
+        return getProfileSnapshot().getScaApproach();
     }
 
     /**
@@ -103,19 +131,16 @@ public class AspspProfileService {
      * @return 'true' if tpp signature is required, 'false' if not
      */
     public Boolean getTppSignatureRequired() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getTppSignatureRequired(), HttpMethod.GET, null, Boolean.class).getBody();
+        return getProfileSnapshot().isTppSignatureRequired();
     }
 
-
     /**
      * Read get PIS redirect url to aspsp from ASPSP profile service
      *
      * @return Url in order to redirect SCA approach
      */
     public String getPisRedirectUrlToAspsp() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getPisRedirectUrlToAspsp(), HttpMethod.GET, null, String.class).getBody();
+        return getProfileSnapshot().getPisRedirectUrlToAspsp();
     }
 
     /**
@@ -124,8 +149,7 @@ public class AspspProfileService {
      * @return Url in order to redirect SCA approach
      */
     public String getAisRedirectUrlToAspsp() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getAisRedirectUrlToAspsp(), HttpMethod.GET, null, String.class).getBody();
+        return getProfileSnapshot().getAisRedirectUrlToAspsp();
     }
 
     /**
@@ -134,8 +158,97 @@ public class AspspProfileService {
      * @return List of supported fields
      */
     public List<SupportedAccountReferenceField> getSupportedAccountReferenceFields() {
+        return getProfileSnapshot().getSupportedAccountReferenceFields();
+    }
+
+    /**
+     * Returns current snapshot of ASPSP profile. On first call the snapshot is read synchronously,
+     * afterwards the current one is returned immediately and an expired snapshot is refreshed in background.
+     *
+     * @return Current ASPSP profile snapshot
+     */
+    public AspspProfileSnapshot getProfileSnapshot() {
+        AspspProfileSnapshot current = snapshot.get();
+        if (current == null) {
+            return loadInitialSnapshot();
+        }
+        if (current.isOlderThan(maxAge, System.currentTimeMillis()) && refreshExecutor != null
+                && refreshInProgress.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(this::refreshAcquiredProfile);
+            } catch (RejectedExecutionException e) {
+                refreshInProgress.set(false);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reads ASPSP profile from ASPSP profile service and replaces current snapshot.
+     * Concurrent refreshes are skipped, failed refresh keeps current snapshot in use.
+     */
+    public void refreshProfile() {
+        if (refreshInProgress.compareAndSet(false, true)) {
+            refreshAcquiredProfile();
+        }
+    }
+
+    private void refreshAcquiredProfile() {
+        try {
+            snapshot.set(readProfileSnapshot());
+        } catch (RuntimeException e) {
+            log.warn("ASPSP profile refresh failed, previous snapshot is kept: {}", e.getMessage());
+        } finally {
+            refreshInProgress.set(false);
+        }
+    }
+
+    private synchronized AspspProfileSnapshot loadInitialSnapshot() {
+        AspspProfileSnapshot current = snapshot.get();
+        if (current == null) {
+            current = readProfileSnapshot();
+            snapshot.compareAndSet(null, current);
+        }
+        return snapshot.get();
+    }
+
+    private AspspProfileSnapshot readProfileSnapshot() {
+        return new AspspProfileSnapshot(
+            versionCounter.incrementAndGet(),
+            System.currentTimeMillis(),
+            Collections.unmodifiableList(mapAvailablePaymentProducts(readAvailablePaymentProducts())),
+            Collections.unmodifiableList(mapAvailablePaymentTypes(readAvailablePaymentTypes())),
+            readRemoteScaApproach(),
+            Boolean.TRUE.equals(readTppSignatureRequired()),
+            readPisRedirectUrlToAspsp(),
+            readAisRedirectUrlToAspsp(),
+            Collections.unmodifiableList(Optional.ofNullable(readSupportedAccountReferenceFields())
+                                             .orElseGet(Collections::emptyList)));
+    }
+
+    private List<PaymentProduct> mapAvailablePaymentProducts(List<String> paymentProducts) {
+        return Optional.ofNullable(paymentProducts)
+                   .map(list -> list.stream()
+                                    .map(PaymentProduct::getByCode)
+                                    .filter(Optional::isPresent)
+                                    .map(Optional::get)
+                                    .collect(Collectors.toList()))
+                   .orElseGet(Collections::emptyList);
+    }
+
+    private List<PisPaymentType> mapAvailablePaymentTypes(List<String> paymentTypes) {
+        return Optional.ofNullable(paymentTypes)
+                   .map(list -> list.stream()
+                                    .map(PisPaymentType::getByValue)
+                                    .filter(Optional::isPresent)
+                                    .map(Optional::get)
+                                    .collect(Collectors.toList()))
+                   .orElseGet(Collections::emptyList);
+    }
+
+    private List<String> readAvailablePaymentProducts() {
         return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getSupportedAccountReferenceFields(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SupportedAccountReferenceField>>() {
+            aspspProfileRemoteUrls.getAvailablePaymentProducts(), HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
             }).getBody();
     }
 
@@ -144,4 +257,30 @@ public class AspspProfileService {
             aspspProfileRemoteUrls.getAvailablePaymentTypes(), HttpMethod.GET, null, new ParameterizedTypeReference<List<String>>() {
             }).getBody();
     }
+
+    private ScaApproach readRemoteScaApproach() {
+        return aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getScaApproach(), HttpMethod.GET, null, ScaApproach.class).getBody();
+    }
+
+    private Boolean readTppSignatureRequired() {
+        return aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getTppSignatureRequired(), HttpMethod.GET, null, Boolean.class).getBody();
+    }
+
+    private String readPisRedirectUrlToAspsp() {
+        return aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getPisRedirectUrlToAspsp(), HttpMethod.GET, null, String.class).getBody();
+    }
+
+    private String readAisRedirectUrlToAspsp() {
+        return aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getAisRedirectUrlToAspsp(), HttpMethod.GET, null, String.class).getBody();
+    }
+
+    private List<SupportedAccountReferenceField> readSupportedAccountReferenceFields() {
+        return aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getSupportedAccountReferenceFields(), HttpMethod.GET, null, new ParameterizedTypeReference<List<SupportedAccountReferenceField>>() {
+            }).getBody();
+    }
 }
@@ -16,6 +16,9 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
 import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.TppMessageInformation;
@@ -27,6 +30,8 @@ import de.adorsys.aspsp.xs2a.service.consent.ais.AisConsentService;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountMapper;
 import de.adorsys.aspsp.xs2a.service.mapper.ConsentMapper;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.service.AccountSpi;
 import lombok.RequiredArgsConstructor;
@@ -119,28 +124,44 @@ public class ConsentService { //TODO change format of consentRequest to mandator
                    : ResponseObject.<AccountConsent>builder().body(consent).build();
     }
 
-    ResponseObject<AccountAccess> getValidatedConsent(String consentId) {
-        AccountConsent consent = consentMapper.mapToAccountConsent(aisConsentService.getAccountConsentById(consentId));
-        if (consent == null) {
-            return ResponseObject.<AccountAccess>builder()
-                       .fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_UNKNOWN_400))).build();
-        }
-        if (!consent.isValidStatus()) {
-            return ResponseObject.<AccountAccess>builder()
-                       .fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_EXPIRED))).build();
-        }
-        if (!consent.isValidFrequency()) {
-            return ResponseObject.<AccountAccess>builder()
-                       .fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.ACCESS_EXCEEDED))).build();
-        }
-        return ResponseObject.<AccountAccess>builder().body(consent.getAccess()).build();
+    /**
+     * Checks at CMS, that the consent is valid and grants the requested access, and consumes one usage of the consent
+     * with a single call to CMS
+     *
+     * @param tppId       String representation of TPP`s identifier from TPP Certificate
+     * @param consentId   String representation of AccountConsent identification
+     * @param account     Account to be accessed, null if the list of accounts of the consent is requested
+     * @param access      Type of access requested (Access to Accounts/Balances/Transactions)
+     * @param withBalance boolean representing if balances are requested together with account details
+     * @return AccountAccess of the consent if requested access is granted
+     */
+    ResponseObject<AccountAccess> checkAndConsumeConsentAccess(String tppId, String consentId, AccountReference account, TypeAccess access, boolean withBalance) {
+        return checkConsentAccess(tppId, consentId, account, access, withBalance, false);
     }
 
-    boolean isValidAccountByAccess(String iban, Currency currency, List<AccountReference> allowedAccountData) {
-        return CollectionUtils.isNotEmpty(allowedAccountData)
-                   && allowedAccountData.stream()
-                          .anyMatch(a -> a.getIban().equals(iban)
-                                             && a.getCurrency() == currency);
+    /**
+     * Checks at CMS, that the consent is valid and grants the requested access, without consuming a usage of the consent.
+     * Used for a further page of a report, which usage has been consumed with the first page, and for an account unknown at ASPSP
+     *
+     * @param tppId     String representation of TPP`s identifier from TPP Certificate
+     * @param consentId String representation of AccountConsent identification
+     * @param account   Account to be accessed, null if the account is unknown at ASPSP
+     * @param access    Type of access requested (Access to Accounts/Balances/Transactions)
+     * @return AccountAccess of the consent if requested access is granted
+     */
+    ResponseObject<AccountAccess> checkConsentAccessWithoutUsage(String tppId, String consentId, AccountReference account, TypeAccess access) {
+        return checkConsentAccess(tppId, consentId, account, access, false, true);
+    }
+
+    private ResponseObject<AccountAccess> checkConsentAccess(String tppId, String consentId, AccountReference account, TypeAccess access,
+                                                             boolean withBalance, boolean continuation) {
+        Optional<AisConsentAccessResponse> response = aisConsentService.checkAndConsumeConsentAccess(tppId, consentId, account, access, withBalance, continuation);
+        ActionStatus actionStatus = response.map(AisConsentAccessResponse::getActionStatus)
+                                        .orElse(ActionStatus.CONSENT_NOT_FOUND);
+        return actionStatus == ActionStatus.SUCCESS
+                   ? ResponseObject.<AccountAccess>builder().body(consentMapper.mapToAccountAccess(response.get().getAccess())).build()
+                   : ResponseObject.<AccountAccess>builder()
+                         .fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, consentMapper.mapToMessageErrorCode(actionStatus)))).build();
     }
 
     private Set<String> getIbansFromAccountReference(List<AccountReference> references) {
@@ -159,16 +180,28 @@ public class ConsentService { //TODO change format of consentRequest to mandator
 
     private AccountAccess getAccessByRequestedAccess(AccountAccess requestedAccess) {
         Set<String> ibansFromAccess = getIbansFromAccess(requestedAccess);
-        List<SpiAccountDetails> accountDetailsList = accountSpi.readAccountDetailsByIbans(
-            ibansFromAccess,
-            new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload();
-        List<AccountReference> aspspReferences = accountMapper.mapToAccountReferencesFromDetails(accountDetailsList); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        List<SpiAccountDetails> accountDetailsList = readAccountDetailsByIbans(ibansFromAccess);
+        List<AccountReference> aspspReferences = accountMapper.mapToAccountReferencesFromDetails(accountDetailsList);
         List<AccountReference> balances = getFilteredReferencesByAccessReferences(requestedAccess.getBalances(), aspspReferences);
         List<AccountReference> transaction = getRequestedReferences(requestedAccess.getTransactions(), aspspReferences);
         List<AccountReference> accounts = getRequestedReferences(requestedAccess.getAccounts(), aspspReferences);
         return new AccountAccess(getAccountsForAccess(balances, transaction, accounts), balances, transaction, null, null);
     }
 
+    /**
+     * Reads account details of all IBANs with one batch request. As soon as one of the IBANs is not found at ASPSP,
+     * no account details are returned
+     */
+    private List<SpiAccountDetails> readAccountDetailsByIbans(Set<String> ibans) {
+        List<SpiAccountReference> references = ibans.stream()
+                                                   .map(iban -> new SpiAccountReference(iban, null, null, null, null, null))
+                                                   .collect(Collectors.toList());
+        SpiAccountDetailsBatch batch = accountSpi.readAccountDetailsByReferences(references, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload(); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
+        return batch.isComplete()
+                   ? batch.getAccountDetails()
+                   : Collections.emptyList();
+    }
+
     private List<AccountReference> getFilteredReferencesByAccessReferences(List<AccountReference> requestedReferences, List<AccountReference> refs) {
         return Optional.ofNullable(requestedReferences)
                    .map(reqRefs -> getRequestedReferences(reqRefs, refs))
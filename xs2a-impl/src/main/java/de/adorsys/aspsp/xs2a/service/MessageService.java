@@ -16,20 +16,104 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
+import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
+import de.adorsys.aspsp.xs2a.service.message.ErrorMessageTable;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
-import org.springframework.stereotype.Service;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Locale.forLanguageTag;
 
+/**
+ * Provides error texts and pre-rendered error bodies. Both are rendered into {@link ErrorMessageTable} on startup
+ * and each time the message bundle is reloaded, so that error paths do not touch message source or object mapper.
+ * The bean is defined in {@link de.adorsys.aspsp.xs2a.config.WebConfig}.
+ */
 @Slf4j
-@Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class MessageService {
     private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+
+    // 0 or less disables reloading of the message bundle
+    @Value("${error-message.reload-interval.ms:3600000}")
+    private long reloadInterval;
+
+    private volatile ErrorMessageTable errorMessageTable;
+    private ScheduledExecutorService reloadExecutor;
+
+    @PostConstruct
+    void startReload() throws JsonProcessingException {
+        errorMessageTable = ErrorMessageTable.render(this::resolveMessage, objectMapper);
+        if (reloadInterval <= 0) {
+            return;
+        }
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "error-message-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloadExecutor.scheduleWithFixedDelay(this::reloadMessages, reloadInterval, reloadInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopReload() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reloads message bundle and renders error texts and bodies anew. Previous table is kept if rendering fails.
+     */
+    public void reloadMessages() {
+        if (messageSource instanceof ReloadableResourceBundleMessageSource) {
+            ((ReloadableResourceBundleMessageSource) messageSource).clearCache();
+        }
+        try {
+            errorMessageTable = ErrorMessageTable.render(this::resolveMessage, objectMapper);
+        } catch (Exception e) {
+            log.warn("Can't render error messages, previous ones are kept: {}", e.getMessage());
+        }
+    }
 
     public String getMessage(String code){
+        return MessageErrorCode.getByName(code)
+                   .map(this::getMessage)
+                   .orElseGet(() -> resolveMessage(code));
+    }
+
+    public String getMessage(MessageErrorCode code) {
+        return errorMessageTable.getText(code);
+    }
+
+    /**
+     * Returns pre-rendered JSON body of error response with given code and transaction status
+     *
+     * @param code   message error code
+     * @param status transaction status
+     * @return UTF-8 encoded JSON body, shared between calls and must not be modified
+     */
+    public byte[] getErrorBody(MessageErrorCode code, TransactionStatus status) {
+        return errorMessageTable.getBody(code, status);
+    }
+
+    private String resolveMessage(MessageErrorCode code) {
+        return resolveMessage(code.name());
+    }
+
+    private String resolveMessage(String code){
         try{
             return messageSource.getMessage(code, null, forLanguageTag("en"));
         }catch (Exception e){
@@ -16,6 +16,8 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
+import com.google.common.collect.Iterators;
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.TppMessageInformation;
 import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
@@ -24,11 +26,13 @@ import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentType;
 import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
+import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
 import de.adorsys.aspsp.xs2a.service.payment.ReadPayment;
 import de.adorsys.aspsp.xs2a.service.payment.ReadPaymentFactory;
 import de.adorsys.aspsp.xs2a.service.payment.ScaPaymentService;
+import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
 import lombok.AllArgsConstructor;
@@ -37,6 +41,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +56,7 @@ public class PaymentService {
     private final PaymentMapper paymentMapper;
     private final ScaPaymentService scaPaymentService;
     private final ReadPaymentFactory readPaymentFactory;
+    private final AccountReferenceValidationService referenceValidationService;
 
     /**
      * Retrieves payment status from ASPSP
@@ -72,64 +78,77 @@ public class PaymentService {
      * Initiates periodic payment
      *
      * @param periodicPayment Periodic payment information
+     * @param tppInfo         Information about TPP, taken from request security context
      * @param paymentProduct  The addressed payment product
      * @return Response containing information about created periodic payment or corresponding error
      */
-    public ResponseObject<PaymentInitialisationResponse> initiatePeriodicPayment(PeriodicPayment periodicPayment, String tppSignatureCertificate, String paymentProduct) {
+    public ResponseObject<PaymentInitialisationResponse> initiatePeriodicPayment(PeriodicPayment periodicPayment, TppInfo tppInfo, String paymentProduct) {
         return periodicPayment.areValidExecutionAndPeriodDates()
-                   ? scaPaymentService.createPeriodicPayment(periodicPayment, paymentMapper.mapToTppInfo(tppSignatureCertificate), paymentProduct)
+                   ? scaPaymentService.createPeriodicPayment(periodicPayment, tppInfo, paymentProduct)
                          .map(resp -> ResponseObject.<PaymentInitialisationResponse>builder().body(resp).build())
                          .orElseGet(() -> getPaymentFailedErrorResponse())
                    : getExecutionDateInvalidErrorResponse();
     }
 
     /**
-     * Initiates a bulk payment
+     * Initiates a bulk payment. Payments are validated one by one and valid payments are passed on to ASPSP in chunks,
+     * invalid payments are rejected with the reason of rejection
      *
-     * @param payments       List of single payments forming bulk payment
+     * @param payments       Single payments forming bulk payment, which are read one by one while the chunks are passed on,
+     *                       so the caller has to check the whole bulk before
+     * @param tppInfo        Information about TPP, taken from request security context
      * @param paymentProduct The addressed payment product
      * @return List of payment initiation responses containing information about created payments or an error if non of the payments could pass the validation
      */
-    public ResponseObject<List<PaymentInitialisationResponse>> createBulkPayments(List<SinglePayment> payments, String tppSignatureCertificate, String paymentProduct) {
-        if (CollectionUtils.isEmpty(payments)) {
+    public ResponseObject<List<PaymentInitialisationResponse>> createBulkPayments(Iterator<SinglePayment> payments, TppInfo tppInfo, String paymentProduct) {
+        if (!payments.hasNext()) {
             return ResponseObject.<List<PaymentInitialisationResponse>>builder()
                        .fail(new MessageError(new TppMessageInformation(ERROR, FORMAT_ERROR)))
                        .build();
         }
-        List<SinglePayment> validPayments = new ArrayList<>();
         List<PaymentInitialisationResponse> invalidPayments = new ArrayList<>();
-        for (SinglePayment payment : payments) {
-            if (!payment.isValidExecutionDateAndTime()) {
-                log.warn("Bulk payment initiation has an error: {}. Payment : {}", EXECUTION_DATE_INVALID, payment);
-                paymentMapper.mapToPaymentInitResponseFailedPayment(payment, EXECUTION_DATE_INVALID)
-                    .map(invalidPayments::add);
-            } else {
-                validPayments.add(payment);
-            }
-        }
-        if (CollectionUtils.isNotEmpty(validPayments)) {
-            List<PaymentInitialisationResponse> paymentResponses = scaPaymentService.createBulkPayment(validPayments, paymentMapper.mapToTppInfo(tppSignatureCertificate), paymentProduct);
-            if (CollectionUtils.isNotEmpty(paymentResponses) && paymentResponses.stream()
-                                                                    .anyMatch(pr -> pr.getTransactionStatus() != TransactionStatus.RJCT)) {
-                paymentResponses.addAll(invalidPayments);
-                return ResponseObject.<List<PaymentInitialisationResponse>>builder()
-                           .body(paymentResponses).build();
-            }
+        Iterator<SinglePayment> validPayments = Iterators.filter(payments, payment -> {
+            Optional<MessageErrorCode> error = validateBulkPaymentItem(payment);
+            error.ifPresent(code -> {
+                log.warn("Bulk payment initiation has an error: {}. Payment : {}", code, payment);
+                paymentMapper.mapToPaymentInitResponseFailedPayment(payment, code)
+                    .ifPresent(invalidPayments::add);
+            });
+            return !error.isPresent();
+        });
+        List<PaymentInitialisationResponse> paymentResponses = scaPaymentService.createBulkPayment(validPayments, tppInfo, paymentProduct);
+        if (CollectionUtils.isNotEmpty(paymentResponses) && paymentResponses.stream()
+                                                                .anyMatch(pr -> pr.getTransactionStatus() != TransactionStatus.RJCT)) {
+            paymentResponses.addAll(invalidPayments);
+            return ResponseObject.<List<PaymentInitialisationResponse>>builder()
+                       .body(paymentResponses).build();
         }
         return ResponseObject.<List<PaymentInitialisationResponse>>builder()
                    .fail(new MessageError(new TppMessageInformation(ERROR, PAYMENT_FAILED))).build();
     }
 
+    private Optional<MessageErrorCode> validateBulkPaymentItem(SinglePayment payment) {
+        Optional<MessageErrorCode> referenceError = referenceValidationService.validateAccountReferences(payment.getAccountReferences())
+                                                        .map(error -> error.getTppMessage().getMessageErrorCode());
+        if (referenceError.isPresent()) {
+            return referenceError;
+        }
+        return payment.isValidExecutionDateAndTime()
+                   ? Optional.empty()
+                   : Optional.of(EXECUTION_DATE_INVALID);
+    }
+
     /**
      * Initiates a single payment
      *
      * @param singlePayment  Single payment information
+     * @param tppInfo        Information about TPP, taken from request security context
      * @param paymentProduct The addressed payment product
      * @return Response containing information about created single payment or corresponding error
      */
-    public ResponseObject<PaymentInitialisationResponse> createPaymentInitiation(SinglePayment singlePayment, String tppSignatureCertificate, String paymentProduct) {
+    public ResponseObject<PaymentInitialisationResponse> createPaymentInitiation(SinglePayment singlePayment, TppInfo tppInfo, String paymentProduct) {
         return singlePayment.isValidExecutionDateAndTime()
-                   ? scaPaymentService.createSinglePayment(singlePayment, paymentMapper.mapToTppInfo(tppSignatureCertificate), paymentProduct)
+                   ? scaPaymentService.createSinglePayment(singlePayment, tppInfo, paymentProduct)
                          .map(resp -> ResponseObject.<PaymentInitialisationResponse>builder().body(resp).build())
                          .orElseGet(this::getPaymentFailedErrorResponse)
                    : getExecutionDateInvalidErrorResponse();
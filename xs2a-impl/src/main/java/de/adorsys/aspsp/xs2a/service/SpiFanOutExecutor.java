@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
+import de.adorsys.aspsp.xs2a.config.rest.BearerTokenHolder;
+import de.adorsys.aspsp.xs2a.exception.RestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executes independent SPI calls of one request in parallel on a bounded pool of dedicated threads, so that
+ * reading several accounts takes about as long as the slowest single call.
+ * Pool threads get no request attributes, since a call cancelled after the timeout may still run, when the container
+ * already recycled the request. The bearer token of the request is read on the calling thread instead and bound to
+ * the pool threads for the ASPSP REST template.
+ * If the queue of the pool is full, the fan-out is rejected with status 503 instead of running calls on the calling
+ * thread, where they were not limited by the call timeout.
+ * A failed or timed out call fails the whole fan-out, so that an unavailable ASPSP is never reported as missing data.
+ */
+@Slf4j
+@Component
+public class SpiFanOutExecutor {
+    private final BearerToken bearerToken;
+    private final ThreadPoolExecutor executor;
+    private final long callTimeout;
+
+    public SpiFanOutExecutor(BearerToken bearerToken,
+                             @Value("${spi.fan-out.pool-size:8}") int poolSize,
+                             @Value("${spi.fan-out.queue-capacity:64}") int queueCapacity,
+                             @Value("${spi.fan-out.call-timeout.ms:10000}") long callTimeout) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "spi-fan-out-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.bearerToken = bearerToken;
+        this.callTimeout = callTimeout;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Applies given call to every argument in parallel and waits for all results.
+     * Every call has to be completed within the call timeout counted from the start of the fan-out. As soon as a call
+     * fails or is not completed in time, the remaining calls are cancelled and the failure is thrown.
+     *
+     * @param arguments arguments of the calls
+     * @param call      SPI call to be executed for each argument
+     * @return results in the order of the arguments, empty Optional if the call returned null
+     * @throws RestException with status 504 if a call is not completed in time, with status 503 if the pool is
+     *                       saturated, the runtime exception thrown by a failed call otherwise
+     */
+    public <T, R> List<Optional<R>> invokeAll(List<T> arguments, Function<T, R> call) {
+        if (arguments.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String token = bearerToken.getToken();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(callTimeout);
+        List<Future<R>> futures = new ArrayList<>(arguments.size());
+        List<Optional<R>> results = new ArrayList<>(arguments.size());
+        try {
+            for (T argument : arguments) {
+                futures.add(executor.submit(() -> callWithToken(token, call, argument)));
+            }
+            for (Future<R> future : futures) {
+                results.add(getResult(future, deadline));
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("SPI calls are rejected, all {} threads are busy", executor.getMaximumPoolSize());
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, "SPI calls are rejected, too many requests");
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private <T, R> R callWithToken(String token, Function<T, R> call, T argument) {
+        BearerTokenHolder.setToken(token);
+        try {
+            return call.apply(argument);
+        } finally {
+            BearerTokenHolder.resetToken();
+        }
+    }
+
+    private <R> Optional<R> getResult(Future<R> future, long deadline) {
+        try {
+            return Optional.ofNullable(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            log.warn("SPI call is not completed within {} ms", callTimeout);
+            throw new RestException(HttpStatus.GATEWAY_TIMEOUT, "SPI call is not completed in time");
+        } catch (ExecutionException e) {
+            log.warn("SPI call failed: {}", e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RestException(HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException(HttpStatus.SERVICE_UNAVAILABLE, "SPI call is interrupted");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Signs page keys of transaction reports given to TPP with HMAC-SHA256 over the key of ASPSP, the consent, the account
+ * and the period of the report, so that further pages, which consume no usage of the consent, are only read with keys
+ * issued for the same report. Keys of ASPSP are plain positions in the transaction list and could be forged otherwise.<br>
+ * Signed key has the form '&lt;key of ASPSP&gt;.&lt;signature&gt;'. If no secret is configured, a random secret is
+ * generated on startup, so that keys are valid on this instance only.
+ */
+@Slf4j
+@Component
+public class TransactionPageKeySigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = ".";
+
+    private final SecretKeySpec secretKey;
+
+    public TransactionPageKeySigner(@Value("${application.ais.transaction.page-key-secret:}") String secret) {
+        byte[] secretBytes;
+        if (StringUtils.isBlank(secret)) {
+            log.warn("No secret of transaction page keys configured, page keys are valid on this instance only");
+            secretBytes = new byte[32];
+            new SecureRandom().nextBytes(secretBytes);
+        } else {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.secretKey = new SecretKeySpec(secretBytes, ALGORITHM);
+    }
+
+    /**
+     * @param pageKey   key of the page as given by ASPSP, may be null
+     * @param consentId id of the consent the report is read with
+     * @param accountId id of the account of the report
+     * @param dateFrom  start date of the report as requested
+     * @param dateTo    end date of the report as requested, may be null
+     * @return signed page key given to TPP, null if the page key is null
+     */
+    public String sign(String pageKey, String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        return pageKey == null
+                   ? null
+                   : pageKey + SEPARATOR + getSignature(pageKey, consentId, accountId, dateFrom, dateTo);
+    }
+
+    /**
+     * @param signedPageKey page key sent by TPP
+     * @return key of the page as given by ASPSP, empty if the key is malformed or was issued for another report
+     */
+    public Optional<String> verify(String signedPageKey, String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        int separatorIndex = StringUtils.lastIndexOf(signedPageKey, SEPARATOR);
+        if (separatorIndex < 1) {
+            return Optional.empty();
+        }
+        String pageKey = signedPageKey.substring(0, separatorIndex);
+        byte[] expected = getSignature(pageKey, consentId, accountId, dateFrom, dateTo).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signedPageKey.substring(separatorIndex + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual)
+                   ? Optional.of(pageKey)
+                   : Optional.empty();
+    }
+
+    private String getSignature(String pageKey, String consentId, String accountId, LocalDate dateFrom, LocalDate dateTo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            for (String value : new String[]{pageKey, consentId, accountId, Objects.toString(dateFrom, ""), Objects.toString(dateTo, "")}) {
+                mac.update(StringUtils.defaultString(value).getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -17,12 +17,13 @@
 package de.adorsys.aspsp.xs2a.service.consent.ais;
 
 import de.adorsys.aspsp.xs2a.config.rest.consent.AisConsentRemoteUrls;
-import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
 import de.adorsys.aspsp.xs2a.consent.api.AisConsentStatusResponse;
-import de.adorsys.aspsp.xs2a.consent.api.ConsentActionRequest;
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessRequest;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentResponse;
-import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.consent.CreateConsentReq;
 import de.adorsys.aspsp.xs2a.service.mapper.ConsentMapper;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountConsent;
@@ -93,19 +94,44 @@ public class AisConsentService {
     }
 
     /**
-     * Sends a POST request to CMS to perform decrement of consent usages and report status of the operation held with certain AIS consent
+     * Requests CMS to check requested access to account information against AIS consent and to consume one usage of
+     * the consent, unless a further page of a report is requested. CMS saves the result of the check to the action log of
+     * the consent, so no separate action log is needed
      *
      * @param tppId       String representation of TPP`s identifier from TPP Certificate
      * @param consentId   String representation of identifier of stored consent
-     * @param withBalance Boolean representation of request to include Balances
-     * @param access      Type of access initially requested(Access to Accounts/Balances/Transactions)
-     * @param response    AIS Service response
+     * @param account     Account to be accessed, null if the list of accounts of the consent is requested
+     * @param access      Type of access requested (Access to Accounts/Balances/Transactions)
+     * @param withBalance  Boolean representation of request to include Balances
+     * @param continuation Boolean representation of request of a further page of a report, which consumes no usage
+     * @return Result of the check with accesses of AIS consent
      */
-    public void consentActionLog(String tppId, String consentId, boolean withBalance, TypeAccess access, ResponseObject response) {
-        ActionStatus status = response.hasError()
-                                  ? consentMapper.mapActionStatusError(response.getError().getTppMessage().getMessageErrorCode(), withBalance, access)
-                                  : ActionStatus.SUCCESS;
+    public Optional<AisConsentAccessResponse> checkAndConsumeConsentAccess(String tppId, String consentId, AccountReference account, TypeAccess access,
+                                                                           boolean withBalance, boolean continuation) {
+        AisConsentAccessRequest request = consentMapper.mapToAisConsentAccessRequest(tppId, account, access, withBalance, continuation);
+        return Optional.ofNullable(consentRestTemplate.postForEntity(remoteAisConsentUrls.checkAndConsumeConsentAccess(), request, AisConsentAccessResponse.class, consentId).getBody());
+    }
 
-        consentRestTemplate.postForEntity(remoteAisConsentUrls.consentActionLog(), new ConsentActionRequest(tppId, consentId, status), Void.class);
+    /**
+     * Requests CMS to retrieve position of the last transaction delivered within AIS consent for an account
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @param accountId String representation of ASPSP identifier of account
+     * @return Position of the last delivered transaction or empty if no transactions were delivered yet
+     */
+    public Optional<AisTransactionWatermark> getTransactionWatermark(String consentId, String accountId) {
+        return Optional.ofNullable(consentRestTemplate.getForEntity(remoteAisConsentUrls.getTransactionWatermark(), AisTransactionWatermark.class, consentId, accountId).getBody());
+    }
+
+    /**
+     * Requests CMS to move position of the last transaction delivered within AIS consent for an account forward.
+     * CMS ignores positions before the stored one, so that the position never moves back on concurrent requests
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @param accountId String representation of ASPSP identifier of account
+     * @param watermark Position of the last delivered transaction
+     */
+    public void updateTransactionWatermark(String consentId, String accountId, AisTransactionWatermark watermark) {
+        consentRestTemplate.put(remoteAisConsentUrls.updateTransactionWatermark(), watermark, consentId, accountId);
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.consent.ais;
+
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Position of the last transaction of a delta report created within the request. It is stored in CMS only after the report
+ * was sent to TPP, so that transactions of a report that was not delivered are delivered again with the next delta report
+ */
+@Component
+@Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+@RequiredArgsConstructor
+public class PendingTransactionWatermark {
+    private final AisConsentService aisConsentService;
+    private String consentId;
+    private String accountId;
+    private AisTransactionWatermark watermark;
+
+    /**
+     * Keeps the position of the last transaction of the report until the report is sent
+     *
+     * @param consentId id of the consent
+     * @param accountId ASPSP id of the account
+     * @param watermark position of the last transaction of the report
+     */
+    public void set(String consentId, String accountId, AisTransactionWatermark watermark) {
+        this.consentId = consentId;
+        this.accountId = accountId;
+        this.watermark = watermark;
+    }
+
+    /**
+     * Moves the watermark in CMS to the position kept with {@link #set(String, String, AisTransactionWatermark)}, if any
+     */
+    public void commit() {
+        if (watermark != null) {
+            aisConsentService.updateTransactionWatermark(consentId, accountId, watermark);
+            watermark = null;
+        }
+    }
+}
@@ -16,19 +16,19 @@
 
 package de.adorsys.aspsp.xs2a.service.consent.pis;
 
-import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
+import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitiationResult;
 import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
 import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import lombok.Value;
 
-import java.util.Map;
+import java.util.List;
 
 @Value
 public class CreateConsentRequest {
     private SinglePayment singlePayment;
-    private Map<SinglePayment, PaymentInitialisationResponse> paymentIdentifierMap;
+    private List<PaymentInitiationResult> paymentInitiationResults;
     private PeriodicPayment periodicPayment;
     private TppInfo tppInfo;
     private String paymentProduct;
@@ -39,12 +39,12 @@ public class CreateConsentRequest {
         this.tppInfo = tppInfo;
         this.paymentProduct = paymentProduct;
         this.aspspConsentData = aspspConsentData;
-        this.paymentIdentifierMap = null;
+        this.paymentInitiationResults = null;
         this.periodicPayment = null;
     }
 
-    public CreateConsentRequest(Map<SinglePayment, PaymentInitialisationResponse> paymentIdentifierMap, TppInfo tppInfo, String paymentProduct, AspspConsentData aspspConsentData) {
-        this.paymentIdentifierMap = paymentIdentifierMap;
+    public CreateConsentRequest(List<PaymentInitiationResult> paymentInitiationResults, TppInfo tppInfo, String paymentProduct, AspspConsentData aspspConsentData) {
+        this.paymentInitiationResults = paymentInitiationResults;
         this.tppInfo = tppInfo;
         this.paymentProduct = paymentProduct;
         this.aspspConsentData = aspspConsentData;
@@ -57,7 +57,7 @@ public class CreateConsentRequest {
         this.tppInfo = tppInfo;
         this.paymentProduct = paymentProduct;
         this.aspspConsentData = aspspConsentData;
-        this.paymentIdentifierMap = null;
+        this.paymentInitiationResults = null;
         this.singlePayment = null;
     }
 }
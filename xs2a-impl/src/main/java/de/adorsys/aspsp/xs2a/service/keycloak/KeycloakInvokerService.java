@@ -18,6 +18,10 @@ package de.adorsys.aspsp.xs2a.service.keycloak;
 
 import de.adorsys.aspsp.xs2a.config.KeycloakConfigProperties;
 import de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,14 +30,34 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.BEARER_TOKEN_PREFIX;
 
+/**
+ * Obtains access tokens from Keycloak. Tokens are cached per client and user and refreshed with the refresh token
+ * shortly before they expire, so that Keycloak is not called for every request.<br>
+ * A token is fetched by one thread at a time. While the cached token is still valid, other threads keep using it
+ * instead of waiting for the new one.
+ */
+@Slf4j
 @Service
 public class KeycloakInvokerService {
+    private static final String TOKEN_PATH = "/protocol/openid-connect/token";
+    private static final String REFRESH_TOKEN = "refresh_token";
+    private static final String EXPIRES_IN = "expires_in";
+    private static final String REFRESH_EXPIRES_IN = "refresh_expires_in";
+
     @Autowired
     private KeycloakConfigProperties keycloakConfig;
     @Autowired
@@ -44,27 +68,132 @@ public class KeycloakInvokerService {
     private String keycloakUsername;
     @Value("${keycloak-password}")
     private String keycloakPassword;
+    @Value("${keycloak-token.refresh-ahead.ms:30000}")
+    private long refreshAhead;
 
+    private final ConcurrentMap<String, CachedToken> cachedTokens = new ConcurrentHashMap<>();
+    private Clock clock = Clock.systemUTC();
+
+    /**
+     * Returns access token of the configured user from the cache, the token is fetched from Keycloak if it is not
+     * cached yet or is about to expire
+     *
+     * @return authorization header with the access token, null if no token is obtained
+     */
     public String obtainAccessToken() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        return Optional.ofNullable(getToken(keycloakConfig.getResource(), keycloakUsername))
+                   .map(token -> AuthorizationConstant.AUTHORIZATION_HEADER + ": " + BEARER_TOKEN_PREFIX + token.getAccessToken())
+                   .orElse(null);
+    }
+
+    private KeycloakToken getToken(String clientId, String username) {
+        CachedToken cachedToken = cachedTokens.computeIfAbsent(clientId + ":" + username, key -> new CachedToken());
+        KeycloakToken token = cachedToken.token;
+        if (token != null && !token.isRefreshDue(clock.instant(), refreshAhead)) {
+            return token;
+        }
+        boolean cachedTokenValid = token != null && token.isValid(clock.instant());
+        if (cachedTokenValid) {
+            if (!cachedToken.lock.tryLock()) {
+                return token;
+            }
+        } else {
+            cachedToken.lock.lock();
+        }
+        try {
+            return updateToken(cachedToken);
+        } finally {
+            cachedToken.lock.unlock();
+        }
+    }
+
+    private KeycloakToken updateToken(CachedToken cachedToken) {
+        KeycloakToken token = cachedToken.token;
+        Instant now = clock.instant();
+        if (token != null && !token.isRefreshDue(now, refreshAhead)) {
+            return token;
+        }
+        try {
+            KeycloakToken newToken = fetchToken(token, now);
+            if (newToken != null) {
+                cachedToken.token = newToken;
+                return newToken;
+            }
+        } catch (RestClientException e) {
+            if (token == null || !token.isValid(now)) {
+                throw e;
+            }
+            log.warn("Keycloak token can't be refreshed, cached token is used until it expires: {}", e.getMessage());
+        }
+        return token != null && token.isValid(now)
+                   ? token
+                   : null;
+    }
 
+    private KeycloakToken fetchToken(KeycloakToken token, Instant now) {
+        if (token != null && token.isRefreshTokenValid(now)) {
+            MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+            map.add("grant_type", REFRESH_TOKEN);
+            map.add(REFRESH_TOKEN, token.getRefreshToken());
+            try {
+                KeycloakToken refreshedToken = requestToken(map, now);
+                if (refreshedToken != null) {
+                    return refreshedToken;
+                }
+            } catch (RestClientException e) {
+                log.info("Keycloak token can't be refreshed with refresh token: {}", e.getMessage());
+            }
+        }
         MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
         map.add("grant_type", "password");
         map.add("username", keycloakUsername);
         map.add("password", keycloakPassword);
+        return requestToken(map, now);
+    }
+
+    private KeycloakToken requestToken(MultiValueMap<String, String> map, Instant requestTime) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
         map.add("client_id", keycloakConfig.getResource());
         map.add("client_secret", keycloakConfig.getCredentials().getSecret());
 
-        ResponseEntity<HashMap<String, String>> response = keycloakRestTemplate.exchange(keycloakConfig.getRootPath() + "/protocol/openid-connect/token", HttpMethod.POST, new HttpEntity<>(map, headers),
+        ResponseEntity<HashMap<String, String>> response = keycloakRestTemplate.exchange(keycloakConfig.getRootPath() + TOKEN_PATH, HttpMethod.POST, new HttpEntity<>(map, headers),
             new ParameterizedTypeReference<HashMap<String, String>>() {
             });
 
-        String accessToken = null;
-        if(response.getBody() != null){
-            accessToken = AuthorizationConstant.AUTHORIZATION_HEADER + ": " + BEARER_TOKEN_PREFIX + response.getBody()
-                                                                                                        .get(AuthorizationConstant.ACCESS_TOKEN);
+        Map<String, String> body = response.getBody();
+        if (body == null || body.get(AuthorizationConstant.ACCESS_TOKEN) == null) {
+            return null;
+        }
+        return new KeycloakToken(body.get(AuthorizationConstant.ACCESS_TOKEN),
+            body.get(REFRESH_TOKEN),
+            requestTime.plusSeconds(NumberUtils.toLong(body.get(EXPIRES_IN))),
+            requestTime.plusSeconds(NumberUtils.toLong(body.get(REFRESH_EXPIRES_IN))));
+    }
+
+    private static class CachedToken {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile KeycloakToken token;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class KeycloakToken {
+        private final String accessToken;
+        private final String refreshToken;
+        private final Instant expiresAt;
+        private final Instant refreshExpiresAt;
+
+        boolean isValid(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+
+        boolean isRefreshDue(Instant now, long refreshAhead) {
+            return !now.isBefore(expiresAt.minusMillis(refreshAhead));
+        }
+
+        boolean isRefreshTokenValid(Instant now) {
+            return refreshToken != null && now.isBefore(refreshExpiresAt);
         }
-        return accessToken;
     }
 }
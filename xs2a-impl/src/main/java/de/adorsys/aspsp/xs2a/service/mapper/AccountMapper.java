@@ -84,6 +84,18 @@ public class AccountMapper {
         return Optional.of(new AccountReport(booked, pending));
     }
 
+    public AccountReport mapToAccountReport(SpiTransactionPage spiTransactionPage) {
+        AccountReport report = mapToAccountReport(spiTransactionPage.getTransactions())
+                                   .orElseGet(() -> new AccountReport(new Transactions[]{}, new Transactions[]{}));
+        report.setNextPageKey(spiTransactionPage.getNextPageKey());
+        report.setPreviousPageKey(spiTransactionPage.getPreviousPageKey());
+        return report;
+    }
+
+    public SpiBookingStatus mapToSpiBookingStatus(BookingStatus bookingStatus) {
+        return SpiBookingStatus.valueOf(bookingStatus.name());
+    }
+
     public AccountReference mapToAccountReference(SpiAccountReference spiAccountReference) {
         return Optional.ofNullable(spiAccountReference)
                    .map(ar -> getAccountReference(ar.getIban(), ar.getBban(), ar.getPan(), ar.getMaskedPan(), ar.getMsisdn(), ar.getCurrency()))
@@ -119,7 +131,7 @@ public class AccountMapper {
                    .orElseGet(Collections::emptyList);
     }
 
-    private Transactions mapToTransaction(SpiTransaction spiTransaction) {
+    public Transactions mapToTransaction(SpiTransaction spiTransaction) {
         return Optional.ofNullable(spiTransaction)
                    .map(t -> {
                        Transactions transactions = new Transactions();
@@ -18,9 +18,12 @@ package de.adorsys.aspsp.xs2a.service.mapper;
 
 import de.adorsys.aspsp.xs2a.consent.api.AccountInfo;
 import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
 import de.adorsys.aspsp.xs2a.consent.api.CmsConsentStatus;
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccess;
 import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccessInfo;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessRequest;
 import de.adorsys.aspsp.xs2a.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
@@ -59,6 +62,25 @@ public class ConsentMapper {
                    .orElse(null);
     }
 
+    public AisConsentAccessRequest mapToAisConsentAccessRequest(String tppId, AccountReference account, TypeAccess access, boolean withBalance,
+                                                                boolean continuation) {
+        return new AisConsentAccessRequest(tppId,
+            Optional.ofNullable(account)
+                .map(this::mapToAccountInfo)
+                .orElse(null),
+            access, withBalance, continuation);
+    }
+
+    public AccountAccess mapToAccountAccess(AisAccountAccess access) {
+        return Optional.ofNullable(access)
+                   .map(aa -> new AccountAccess(
+                       mapToAccountReferences(aa.getAccounts()),
+                       mapToAccountReferences(aa.getBalances()),
+                       mapToAccountReferences(aa.getTransactions()),
+                       null, null))
+                   .orElse(null);
+    }
+
     public SpiCreateConsentRequest mapToSpiCreateConsentRequest(CreateConsentReq consentReq) {
         return Optional.ofNullable(consentReq)
                    .map(cr -> new SpiCreateConsentRequest(mapToSpiAccountAccess(cr.getAccess()),
@@ -110,6 +132,18 @@ public class ConsentMapper {
         return actionStatus;
     }
 
+    public MessageErrorCode mapToMessageErrorCode(ActionStatus actionStatus) {
+        MessageErrorCode error = MessageErrorCode.CONSENT_INVALID;
+        if (actionStatus == ActionStatus.CONSENT_LIMIT_EXCEEDED) {
+            error = MessageErrorCode.ACCESS_EXCEEDED;
+        } else if (actionStatus == ActionStatus.CONSENT_INVALID_STATUS) {
+            error = MessageErrorCode.CONSENT_EXPIRED;
+        } else if (actionStatus == ActionStatus.CONSENT_NOT_FOUND || actionStatus == ActionStatus.BAD_PAYLOAD) {
+            error = MessageErrorCode.CONSENT_UNKNOWN_400;
+        }
+        return error;
+    }
+
     //Domain
     private AccountAccess mapToAccountAccess(SpiAccountAccess access) {
         return Optional.ofNullable(access)
@@ -124,6 +158,25 @@ public class ConsentMapper {
                    .orElse(null);
     }
 
+    private List<AccountReference> mapToAccountReferences(List<CmsAccountReference> references) {
+        return Optional.ofNullable(references)
+                   .map(refs -> refs.stream()
+                                    .map(this::mapToAccountReference)
+                                    .collect(Collectors.toList()))
+                   .orElseGet(Collections::emptyList);
+    }
+
+    private AccountReference mapToAccountReference(CmsAccountReference cmsReference) {
+        AccountReference reference = new AccountReference();
+        reference.setIban(cmsReference.getIban());
+        reference.setBban(cmsReference.getBban());
+        reference.setPan(cmsReference.getPan());
+        reference.setMaskedPan(cmsReference.getMaskedPan());
+        reference.setMsisdn(cmsReference.getMsisdn());
+        reference.setCurrency(cmsReference.getCurrency());
+        return reference;
+    }
+
     private AccountAccessType mapToAccountAccessType(SpiAccountAccessType accessType) {
         return Optional.ofNullable(accessType)
                    .map(at -> AccountAccessType.valueOf(at.name()))
@@ -31,6 +31,8 @@ import de.adorsys.aspsp.xs2a.domain.pis.*;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiAmount;
 import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
 import de.adorsys.aspsp.xs2a.spi.domain.payment.*;
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import de.adorsys.psd2.validator.certificate.util.TppRole;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -310,4 +312,23 @@ public class PaymentMapper {
             return null;
         }
     }
+
+    public TppInfo mapToTppInfo(TppCertificateData tppCertificateData, String redirectUri, String nokRedirectUri) {
+        return Optional.ofNullable(tppCertificateData)
+                   .map(data -> {
+                       TppInfo tppInfo = new TppInfo();
+                       tppInfo.setRegistrationNumber(data.getPspAuthorzationNumber());
+                       tppInfo.setTppName(data.getPspName());
+                       tppInfo.setTppRole(Optional.ofNullable(data.getPspRoles())
+                                              .map(roles -> roles.stream()
+                                                                .map(TppRole::name)
+                                                                .collect(Collectors.joining(",")))
+                                              .orElse(null));
+                       tppInfo.setNationalCompetentAuthority(data.getPspAuthorityName());
+                       tppInfo.setRedirectUri(redirectUri);
+                       tppInfo.setNokRedirectUri(nokRedirectUri);
+                       return tppInfo;
+                   })
+                   .orElse(null);
+    }
 }
@@ -37,7 +37,6 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -61,7 +60,7 @@ public class PisConsentMapper {
 
     public PisConsentRequest mapToPisConsentRequestForBulkPayment(CreateConsentRequest createConsentRequest) {
         PisConsentRequest request = new PisConsentRequest();
-        request.setPayments(mapToPisPaymentForBulkPayment(createConsentRequest.getPaymentIdentifierMap()));
+        request.setPayments(mapToPisPaymentForBulkPayment(createConsentRequest.getPaymentInitiationResults()));
         request.setPaymentProduct(PisPaymentProduct.getByCode(createConsentRequest.getPaymentProduct()).orElse(null));
         request.setPaymentType(PisPaymentType.BULK);
         request.setTppInfo(mapToTppInfo(createConsentRequest.getTppInfo()));
@@ -74,9 +73,9 @@ public class PisConsentMapper {
         return request;
     }
 
-    private List<PisPayment> mapToPisPaymentForBulkPayment(Map<SinglePayment, PaymentInitialisationResponse> paymentIdentifierMap) {
-        return paymentIdentifierMap.entrySet().stream()
-                   .map(etr -> mapToPisPaymentForSinglePayment(etr.getKey(), etr.getValue().getPaymentId()))
+    private List<PisPayment> mapToPisPaymentForBulkPayment(List<PaymentInitiationResult> paymentInitiationResults) {
+        return paymentInitiationResults.stream()
+                   .map(result -> mapToPisPaymentForSinglePayment(result.getPayment(), result.getResponse().getPaymentId()))
                    .collect(Collectors.toList());
 
     }
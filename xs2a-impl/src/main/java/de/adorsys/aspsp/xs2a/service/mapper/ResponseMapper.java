@@ -16,18 +16,24 @@
 
 package de.adorsys.aspsp.xs2a.service.mapper;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Function;
 
 import static org.springframework.http.HttpStatus.*;
 
 @Component
 @AllArgsConstructor
 public class ResponseMapper {
+    private final ObjectMapper objectMapper;
 
     public ResponseEntity ok() {  //NOPMD short method name ok corresponds to status code
         return ResponseEntity.ok().build();
@@ -45,6 +51,35 @@ public class ResponseMapper {
         return getEntity(response, NO_CONTENT);
     }
 
+    /**
+     * Creates response, whose body is written directly to the output stream after the handler method has returned.
+     * Errors are written as usual JSON error messages.
+     *
+     * @param response   response object with the source of the body
+     * @param bodyWriter function creating writer of the body from the source
+     * @return response entity with streaming body
+     */
+    public <T> ResponseEntity<StreamingResponseBody> okStreaming(ResponseObject<T> response, Function<T, StreamingResponseBody> bodyWriter) {
+        if (response.hasError()) {
+            return streamingError(response.getError());
+        }
+        return ResponseEntity.ok()
+                   .contentType(MediaType.APPLICATION_JSON_UTF8)
+                   .body(bodyWriter.apply(response.getBody()));
+    }
+
+    /**
+     * Creates error response for handler methods with streaming body
+     *
+     * @param error error to be written as JSON error message
+     * @return response entity with streaming body
+     */
+    public ResponseEntity<StreamingResponseBody> streamingError(MessageError error) {
+        return ResponseEntity.status(error.getTppMessage().getMessageErrorCode().getCode())
+                   .contentType(MediaType.APPLICATION_JSON_UTF8)
+                   .body(outputStream -> objectMapper.writeValue(outputStream, error));
+    }
+
     private <T> ResponseEntity<T> getEntity(ResponseObject<T> response, HttpStatus status) {
         return response.hasError()
             ? enrichError(response.getError())
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.message;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
+import de.adorsys.aspsp.xs2a.domain.TppMessageInformation;
+import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
+import de.adorsys.aspsp.xs2a.exception.MessageError;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static de.adorsys.aspsp.xs2a.exception.MessageCategory.ERROR;
+
+/**
+ * Immutable table of error texts and pre-rendered JSON error bodies for every {@link MessageErrorCode}
+ * and {@link TransactionStatus} combination. Is rendered once from message bundle, error paths only look values up.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ErrorMessageTable {
+    private final Map<MessageErrorCode, String> texts;
+    private final Map<MessageErrorCode, Map<TransactionStatus, byte[]>> bodies;
+
+    /**
+     * Renders texts and error bodies for all message error codes
+     *
+     * @param textResolver resolves text of message error code, may return null
+     * @param objectMapper mapper, used to render error bodies
+     * @return rendered table
+     * @throws JsonProcessingException if error body can not be rendered
+     */
+    public static ErrorMessageTable render(Function<MessageErrorCode, String> textResolver, ObjectMapper objectMapper) throws JsonProcessingException {
+        Map<MessageErrorCode, String> texts = new EnumMap<>(MessageErrorCode.class);
+        Map<MessageErrorCode, Map<TransactionStatus, byte[]>> bodies = new EnumMap<>(MessageErrorCode.class);
+        for (MessageErrorCode code : MessageErrorCode.values()) {
+            String text = textResolver.apply(code);
+            if (text != null) {
+                texts.put(code, text);
+            }
+            Map<TransactionStatus, byte[]> codeBodies = new EnumMap<>(TransactionStatus.class);
+            for (TransactionStatus status : TransactionStatus.values()) {
+                MessageError messageError = new MessageError(status, new TppMessageInformation(ERROR, code).text(text));
+                codeBodies.put(status, objectMapper.writeValueAsBytes(messageError));
+            }
+            bodies.put(code, Collections.unmodifiableMap(codeBodies));
+        }
+        return new ErrorMessageTable(Collections.unmodifiableMap(texts), Collections.unmodifiableMap(bodies));
+    }
+
+    public String getText(MessageErrorCode code) {
+        return texts.get(code);
+    }
+
+    /**
+     * Returns pre-rendered JSON body of error response. The returned array is shared and must not be modified.
+     *
+     * @param code   message error code
+     * @param status transaction status
+     * @return UTF-8 encoded JSON body
+     */
+    public byte[] getBody(MessageErrorCode code, TransactionStatus status) {
+        return bodies.get(code).get(status);
+    }
+}
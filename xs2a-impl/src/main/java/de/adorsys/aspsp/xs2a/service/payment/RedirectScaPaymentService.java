@@ -16,14 +16,16 @@
 
 package de.adorsys.aspsp.xs2a.service.payment;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.Iterators;
 import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
+import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitiationResult;
 import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
 import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.aspsp.xs2a.service.SpiFanOutExecutor;
 import de.adorsys.aspsp.xs2a.service.consent.pis.CreateConsentRequest;
 import de.adorsys.aspsp.xs2a.service.consent.pis.PisConsentService;
 import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
@@ -33,11 +35,12 @@ import de.adorsys.aspsp.xs2a.spi.domain.payment.SpiPeriodicPayment;
 import de.adorsys.aspsp.xs2a.spi.domain.payment.SpiSinglePayment;
 import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.PAYMENT_FAILED;
@@ -48,6 +51,12 @@ public class RedirectScaPaymentService implements ScaPaymentService {
     private final PisConsentService pisConsentService;
     private final PaymentMapper paymentMapper;
     private final PaymentSpi paymentSpi;
+    private final SpiFanOutExecutor spiFanOutExecutor;
+
+    @Value("${bulk-payment.spi.chunk-size:100}")
+    private int bulkPaymentChunkSize;
+    @Value("${bulk-payment.spi.parallel-chunks:1}")
+    private int parallelBulkPaymentChunks;
 
     @Override
     public Optional<PaymentInitialisationResponse> createPeriodicPayment(PeriodicPayment periodicPayment, TppInfo tppInfo, String paymentProduct) {
@@ -72,66 +81,114 @@ public class RedirectScaPaymentService implements ScaPaymentService {
                    : extendPaymentResponseFields(response, iban, pisConsentId);
     }
 
+    /**
+     * Initiates payments of the bulk with batched SPI calls of up to the configured number of payments. Payments are
+     * read from the iterator chunk by chunk, so that a chunk is sent to ASPSP as soon as it is complete.
+     * Responses are matched to the payments by end-to-end identification, payments without unique end-to-end
+     * identification within the chunk are initiated one by one. Payments, which are missing in the response of ASPSP,
+     * are returned as rejected. A chunk, which fails or is not answered in time, fails the whole request, whether chunks
+     * are sent one by one or in parallel, since the status of its payments at ASPSP is unknown
+     */
     @Override
-    public List<PaymentInitialisationResponse> createBulkPayment(List<SinglePayment> payments, TppInfo tppInfo, String paymentProduct) {
+    public List<PaymentInitialisationResponse> createBulkPayment(Iterator<SinglePayment> payments, TppInfo tppInfo, String paymentProduct) {
         AspspConsentData aspspConsentData = new AspspConsentData("zzzzzzzzzzzzzz".getBytes()); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-        Map<SinglePayment, PaymentInitialisationResponse> paymentIdentifierMap = createBulkPaymentAndGetResponseMap(payments, aspspConsentData);
-
-        return MapUtils.isNotEmpty(paymentIdentifierMap)
-                   ? createConsentForBulkPaymentAndExtendPaymentResponses(new CreateConsentRequest(paymentIdentifierMap, tppInfo, paymentProduct, aspspConsentData))
+        List<PaymentInitiationResult> results = createBulkPaymentAndGetResults(payments, aspspConsentData);
+        List<PaymentInitiationResult> initiatedPayments = results.stream()
+                                                              .filter(result -> result.getResponse() != null)
+                                                              .collect(Collectors.toList());
+
+        return !initiatedPayments.isEmpty()
+                   && createConsentForBulkPaymentAndExtendPaymentResponses(new CreateConsentRequest(initiatedPayments, tppInfo, paymentProduct, aspspConsentData))
+                   ? results.stream()
+                         .map(this::getResponseOrFailedResponse)
+                         .collect(Collectors.toList())
                    : Collections.emptyList();
     }
 
-    private Map<SinglePayment, PaymentInitialisationResponse> createBulkPaymentAndGetResponseMap(List<SinglePayment> payments, AspspConsentData aspspConsentData) {
-        HashMap<SinglePayment, PaymentInitialisationResponse> paymentIdentifierMap = new HashMap<>();
+    private List<PaymentInitiationResult> createBulkPaymentAndGetResults(Iterator<SinglePayment> payments, AspspConsentData aspspConsentData) {
+        List<PaymentInitiationResult> results = new ArrayList<>();
+        Iterator<List<List<SinglePayment>>> chunkGroups = Iterators.partition(Iterators.partition(payments, bulkPaymentChunkSize), parallelBulkPaymentChunks);
+        while (chunkGroups.hasNext()) {
+            List<List<SinglePayment>> chunks = chunkGroups.next();
+            if (chunks.size() > 1) {
+                spiFanOutExecutor.invokeAll(chunks, chunk -> createBulkPaymentChunk(chunk, aspspConsentData))
+                    .forEach(chunkResults -> chunkResults.ifPresent(results::addAll));
+            } else {
+                results.addAll(createBulkPaymentChunk(chunks.get(0), aspspConsentData));
+            }
+        }
+        return results;
+    }
 
-        for (SinglePayment payment : payments) {
-            Optional<PaymentInitialisationResponse> paymentInitialisationResponse = createSinglePaymentAndGetResponse(payment, aspspConsentData);
-            paymentInitialisationResponse.ifPresent(resp -> paymentIdentifierMap.put(payment, resp));
+    private List<PaymentInitiationResult> createBulkPaymentChunk(List<SinglePayment> chunk, AspspConsentData aspspConsentData) {
+        Set<String> uniqueEndToEndIds = getUniqueEndToEndIds(chunk);
+        List<SinglePayment> batchPayments = chunk.stream()
+                                                .filter(payment -> uniqueEndToEndIds.contains(payment.getEndToEndIdentification()))
+                                                .collect(Collectors.toList());
+        Map<String, SpiPaymentInitialisationResponse> batchResponses = batchPayments.isEmpty()
+                                                                           ? Collections.emptyMap()
+                                                                           : createBulkPaymentAndGetResponses(batchPayments, aspspConsentData);
+
+        List<PaymentInitiationResult> results = new ArrayList<>(chunk.size());
+        for (SinglePayment payment : chunk) {
+            SpiPaymentInitialisationResponse spiResponse = uniqueEndToEndIds.contains(payment.getEndToEndIdentification())
+                                                               ? batchResponses.get(payment.getEndToEndIdentification())
+                                                               : paymentSpi.createPaymentInitiation(paymentMapper.mapToSpiSinglePayment(payment), aspspConsentData).getPayload();
+            PaymentInitialisationResponse response = paymentMapper.mapToPaymentInitializationResponse(spiResponse)
+                                                         .map(this::markAsFailedIfRejected)
+                                                         .orElse(null);
+            results.add(new PaymentInitiationResult(payment, response));
         }
+        return results;
+    }
 
-        paymentIdentifierMap.forEach((sp, resp) -> {
-            if (StringUtils.isBlank(resp.getPaymentId())
-                    || resp.getTransactionStatus() == TransactionStatus.RJCT) {
-                resp.setTppMessages(new MessageErrorCode[]{PAYMENT_FAILED});
-                resp.setTransactionStatus(TransactionStatus.RJCT);
-            }
-        });
-        return paymentIdentifierMap;
+    private Set<String> getUniqueEndToEndIds(List<SinglePayment> payments) {
+        Map<String, Long> endToEndIdCounts = payments.stream()
+                                                 .map(SinglePayment::getEndToEndIdentification)
+                                                 .filter(StringUtils::isNotBlank)
+                                                 .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return endToEndIdCounts.entrySet().stream()
+                   .filter(entry -> entry.getValue() == 1)
+                   .map(Map.Entry::getKey)
+                   .collect(Collectors.toSet());
     }
 
-    private List<PaymentInitialisationResponse> createBulkPaymentAndGetResponse(List<SinglePayment> payments) {  // NOPMD return when we make storing payment info with payment ID
+    private Map<String, SpiPaymentInitialisationResponse> createBulkPaymentAndGetResponses(List<SinglePayment> payments, AspspConsentData aspspConsentData) {
         List<SpiSinglePayment> spiPayments = paymentMapper.mapToSpiSinglePaymentList(payments);
-        List<SpiPaymentInitialisationResponse> spiPaymentInitiations = paymentSpi.createBulkPayments(spiPayments, new AspspConsentData("zzzzzzzzzzzzzz".getBytes())).getPayload(); // TODO https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/191 Put a real data here
-
-        List<PaymentInitialisationResponse> paymentResponses = spiPaymentInitiations.stream()
-                                                                   .map(paymentMapper::mapToPaymentInitializationResponse)
-                                                                   .filter(Optional::isPresent)
-                                                                   .map(Optional::get)
-                                                                   .collect(Collectors.toList());
-
-        for (PaymentInitialisationResponse resp : paymentResponses) {
-            if (StringUtils.isBlank(resp.getPaymentId())
-                    || resp.getTransactionStatus() == TransactionStatus.RJCT) {
-                resp.setTppMessages(new MessageErrorCode[]{PAYMENT_FAILED});
-                resp.setTransactionStatus(TransactionStatus.RJCT);
-            }
+        List<SpiPaymentInitialisationResponse> spiResponses = Optional.ofNullable(paymentSpi.createBulkPayments(spiPayments, aspspConsentData).getPayload())
+                                                                  .orElseGet(Collections::emptyList);
+
+        Map<String, SpiPaymentInitialisationResponse> responses = new HashMap<>();
+        spiResponses.stream()
+            .filter(response -> response.getEndToEndIdentification() != null)
+            .forEach(response -> responses.putIfAbsent(response.getEndToEndIdentification(), response));
+        return responses;
+    }
+
+    private PaymentInitialisationResponse markAsFailedIfRejected(PaymentInitialisationResponse response) {
+        if (StringUtils.isBlank(response.getPaymentId())
+                || response.getTransactionStatus() == TransactionStatus.RJCT) {
+            response.setTppMessages(new MessageErrorCode[]{PAYMENT_FAILED});
+            response.setTransactionStatus(TransactionStatus.RJCT);
         }
+        return response;
+    }
 
-        return paymentResponses;
+    private PaymentInitialisationResponse getResponseOrFailedResponse(PaymentInitiationResult result) {
+        return Optional.ofNullable(result.getResponse())
+                   .orElseGet(() -> paymentMapper.mapToPaymentInitResponseFailedPayment(result.getPayment(), PAYMENT_FAILED).orElse(null));
     }
 
-    private List<PaymentInitialisationResponse> createConsentForBulkPaymentAndExtendPaymentResponses(CreateConsentRequest createConsentRequest) {
+    private boolean createConsentForBulkPaymentAndExtendPaymentResponses(CreateConsentRequest createConsentRequest) {
         String pisConsentId = pisConsentService.createPisConsentForBulkPaymentAndGetId(createConsentRequest);
-
-        List<SinglePayment> singlePayments = Lists.newArrayList(createConsentRequest.getPaymentIdentifierMap().keySet());
-        List<PaymentInitialisationResponse> responses = Lists.newArrayList(createConsentRequest.getPaymentIdentifierMap().values());
-
-        return getDebtorIbanFromPayments(singlePayments)
-                   .map(iban -> responses.stream()
-                                    .map(resp -> extendPaymentResponseFields(resp, iban, pisConsentId))
-                                    .collect(Collectors.toList()))
-                   .orElseGet(Collections::emptyList);
+        List<PaymentInitiationResult> results = createConsentRequest.getPaymentInitiationResults();
+
+        return getDebtorIbanFromPayments(results)
+                   .map(iban -> {
+                       results.forEach(result -> extendPaymentResponseFields(result.getResponse(), iban, pisConsentId));
+                       return true;
+                   })
+                   .orElse(false);
     }
 
     @Override
@@ -165,8 +222,8 @@ public class RedirectScaPaymentService implements ScaPaymentService {
         return response;
     }
 
-    private Optional<String> getDebtorIbanFromPayments(List<SinglePayment> payments) {
-        return Optional.ofNullable(payments.get(0).getDebtorAccount())
+    private Optional<String> getDebtorIbanFromPayments(List<PaymentInitiationResult> results) {
+        return Optional.ofNullable(results.get(0).getPayment().getDebtorAccount())
                    .map(AccountReference::getIban);
     }
 }
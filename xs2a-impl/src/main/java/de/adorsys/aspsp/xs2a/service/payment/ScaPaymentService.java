@@ -21,13 +21,14 @@ import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
 import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 public interface ScaPaymentService {
     Optional<PaymentInitialisationResponse> createPeriodicPayment(PeriodicPayment periodicPayment, TppInfo tppInfo, String paymentProduct);
 
-    List<PaymentInitialisationResponse> createBulkPayment(List<SinglePayment> payments, TppInfo tppInfo, String paymentProduct);
+    List<PaymentInitialisationResponse> createBulkPayment(Iterator<SinglePayment> payments, TppInfo tppInfo, String paymentProduct);
 
     Optional<PaymentInitialisationResponse> createSinglePayment(SinglePayment singlePayment, TppInfo tppInfo, String paymentProduct);
 }
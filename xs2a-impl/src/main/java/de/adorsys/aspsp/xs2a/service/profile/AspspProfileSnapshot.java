@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.profile;
+
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.domain.ScaApproach;
+import de.adorsys.aspsp.xs2a.domain.account.SupportedAccountReferenceField;
+import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable view of the ASPSP profile as it was read from ASPSP profile service at one point of time.
+ * Snapshots are never modified, a refresh always produces a new snapshot with increased version.
+ */
+@Value
+public class AspspProfileSnapshot {
+    private final long version;
+    private final long fetchedAt;
+    private final List<PaymentProduct> availablePaymentProducts;
+    private final List<PisPaymentType> availablePaymentTypes;
+    private final ScaApproach scaApproach;
+    private final boolean tppSignatureRequired;
+    private final String pisRedirectUrlToAspsp;
+    private final String aisRedirectUrlToAspsp;
+    private final List<SupportedAccountReferenceField> supportedAccountReferenceFields;
+
+    /**
+     * Checks whether this snapshot was fetched earlier than given amount of milliseconds ago
+     *
+     * @param maxAge maximum age of snapshot in milliseconds
+     * @param now    current time in milliseconds
+     * @return 'true' if snapshot is older than maxAge, 'false' otherwise
+     */
+    public boolean isOlderThan(long maxAge, long now) {
+        return now - fetchedAt > maxAge;
+    }
+}
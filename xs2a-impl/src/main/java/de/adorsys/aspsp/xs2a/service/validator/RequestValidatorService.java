@@ -20,50 +20,79 @@ package de.adorsys.aspsp.xs2a.service.validator;
 import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
 import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
 import de.adorsys.aspsp.xs2a.service.validator.header.HeadersFactory;
-import de.adorsys.aspsp.xs2a.service.validator.header.RequestHeader;
-import de.adorsys.aspsp.xs2a.service.validator.header.impl.ErrorMessageHeaderImpl;
 import de.adorsys.aspsp.xs2a.service.validator.parameter.ParametersFactory;
-import de.adorsys.aspsp.xs2a.service.validator.parameter.RequestParameter;
-import de.adorsys.aspsp.xs2a.service.validator.parameter.impl.ErrorMessageParameterImpl;
+import de.adorsys.aspsp.xs2a.service.validator.plan.FieldCheck;
+import de.adorsys.aspsp.xs2a.service.validator.plan.ValidationPlan;
+import de.adorsys.aspsp.xs2a.service.validator.plan.ValidationPlanCompiler;
 import de.adorsys.aspsp.xs2a.web.BulkPaymentInitiationController;
 import de.adorsys.aspsp.xs2a.web.PaymentInitiationController;
 import de.adorsys.aspsp.xs2a.web.PeriodicPaymentsController;
 import lombok.extern.log4j.Log4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Validates request headers, parameters and path variables against validation plan of the handler method.
+ * Plans are compiled once per handler method, so that only headers and parameters known to the handler are read
+ * and no intermediate header or parameter beans are created.
+ */
 @Log4j
 @Service
 public class RequestValidatorService {
-    @Autowired
-    private ParametersFactory parametersFactory;
     @Autowired
     private Validator validator;
     @Autowired
     private AspspProfileService aspspProfileService;
+    @Autowired
+    private ValidationPlanCompiler validationPlanCompiler;
 
     private static final String PAYMENT_PRODUCT_PATH_VAR = "payment-product";
+    private static final String WRONG_HEADERS_KEY = "Wrong header arguments: ";
+    private static final String WRONG_PARAMETERS_KEY = "Wrong parameters : ";
+    private static final String NOT_NULL_MESSAGE = "may not be null";
+    private static final Map<String, String> DEFAULT_HEADER_VALUES = Collections.singletonMap("date", "Sun, 11 Aug 2019 15:02:37 GMT");
     private final static Map<Object, PisPaymentType> classMap = new HashMap<>();
 
+    private final Map<Method, ValidationPlan> validationPlans = new ConcurrentHashMap<>();
+
     static {
         classMap.put(PaymentInitiationController.class, PisPaymentType.FUTURE_DATED);
         classMap.put(BulkPaymentInitiationController.class, PisPaymentType.BULK);
         classMap.put(PeriodicPaymentsController.class, PisPaymentType.PERIODIC);
     }
 
+    /**
+     * Compiles validation plans of all request mappings on startup, so that the first requests do not pay for it
+     *
+     * @param event context refreshed event
+     */
+    @EventListener
+    public void compileValidationPlans(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values().stream()
+            .flatMap(mapping -> mapping.getHandlerMethods().values().stream())
+            .forEach(this::getValidationPlan);
+    }
+
     public Map<String, String> getRequestViolationMap(HttpServletRequest request, Object handler) {
-        Map<String, String> violationMap = new HashMap<>();
+        Map<String, String> violationMap = new LinkedHashMap<>();
 
         if (handler instanceof CorsConfigurationSource) { // TODO delete after creation original 'Tpp Demo app' https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/156
             return violationMap;
@@ -77,16 +106,9 @@ public class RequestValidatorService {
     }
 
     private Map<String, String> getRequestParametersViolationMap(HttpServletRequest request, Object handler) {
+        List<FieldCheck> parameterChecks = getValidationPlan((HandlerMethod) handler).getParameterChecks();
 
-        Map<String, String> requestParameterMap = getRequestParametersMap(request);
-
-        RequestParameter parameterImpl = parametersFactory.getParameterImpl(requestParameterMap, ((HandlerMethod) handler).getBeanType());
-
-        if (parameterImpl instanceof ErrorMessageParameterImpl) {
-            return Collections.singletonMap("Wrong parameters : ", ((ErrorMessageParameterImpl) parameterImpl).getErrorMessage());
-        }
-
-        return getViolationMessagesMap(validator.validate(parameterImpl));
+        return checkFields(parameterChecks, name -> getParameter(request, name), WRONG_PARAMETERS_KEY);
     }
 
     Map<String, String> getRequestPathVariablesViolationMap(HttpServletRequest request, Object handler) {
@@ -98,51 +120,62 @@ public class RequestValidatorService {
     }
 
     Map<String, String> getPaymentTypeViolationMap(Object handler) {
-        return Optional.ofNullable(classMap.get(((HandlerMethod) handler).getBeanType()))
+        return Optional.ofNullable(getValidationPlan((HandlerMethod) handler).getPaymentType())
                    .map(this::getViolationMapForPaymentType)
                    .orElseGet(Collections::emptyMap);
     }
 
     Map<String, String> getRequestHeaderViolationMap(HttpServletRequest request, Object handler) {
+        List<FieldCheck> headerChecks = getValidationPlan((HandlerMethod) handler).getHeaderChecks();
+        Function<String, String> headerReader = getHeaderReader(request);
 
-        Map<String, String> requestHeadersMap = getRequestHeadersMap(request);
-
-        RequestHeader headerImpl = HeadersFactory.getHeadersImpl(requestHeadersMap, ((HandlerMethod) handler).getBeanType());
-
-        if (headerImpl instanceof ErrorMessageHeaderImpl) {
-            return Collections.singletonMap("Wrong header arguments: ",
-                ((ErrorMessageHeaderImpl) headerImpl).getErrorMessage()
-            );
-        }
+        return checkFields(headerChecks, name -> Optional.ofNullable(headerReader.apply(name))
+                                                     .orElseGet(() -> DEFAULT_HEADER_VALUES.get(name)), WRONG_HEADERS_KEY);
+    }
 
-        return getViolationMessagesMap(validator.validate(headerImpl));
+    private ValidationPlan getValidationPlan(HandlerMethod handlerMethod) {
+        return validationPlans.computeIfAbsent(handlerMethod.getMethod(), method -> compileValidationPlan(handlerMethod.getBeanType()));
     }
 
-    private Map<String, String> getRequestHeadersMap(HttpServletRequest request) {
+    private ValidationPlan compileValidationPlan(Class<?> controllerClass) {
+        return validationPlanCompiler.compile(HeadersFactory.getHeaderClass(controllerClass),
+            ParametersFactory.getParameterClass(controllerClass), classMap.get(controllerClass));
+    }
 
-        Map<String, String> requestHeaderMap = new HashMap<>();
-        if (request == null) {
-            return requestHeaderMap;
+    private Map<String, String> checkFields(List<FieldCheck> checks, Function<String, String> valueReader, String conversionErrorKey) {
+        Map<String, String> violationMap = new LinkedHashMap<>();
+        for (FieldCheck check : checks) {
+            String rawValue = valueReader.apply(check.getName());
+            Object value;
+            try {
+                value = rawValue == null ? null : check.getConverter().convert(rawValue);
+            } catch (IllegalArgumentException e) {
+                log.error("Error request value conversion: " + e.getMessage());
+                return Collections.singletonMap(conversionErrorKey, e.getMessage());
+            }
+
+            if (check.isRequired() && value == null) {
+                violationMap.put(check.getPropertyName(), "'" + check.getPropertyName() + "' " + NOT_NULL_MESSAGE);
+            } else if (check.isValidatedByValidator()) {
+                //noinspection unchecked
+                violationMap.putAll(getViolationMessagesMap(validator.validateValue((Class<Object>) check.getBeanClass(), check.getPropertyName(), value)));
+            }
         }
+        return violationMap;
+    }
 
-        Enumeration<String> headerNames = request.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-            String key = headerNames.nextElement();
-            String value = request.getHeader(key);
-            requestHeaderMap.put(key, value);
+    private Function<String, String> getHeaderReader(HttpServletRequest request) {
+        Object securityContext = request.getAttribute(TppSecurityContext.REQUEST_ATTRIBUTE);
+        if (securityContext instanceof TppSecurityContext) {
+            return ((TppSecurityContext) securityContext)::getHeader;
         }
-
-        requestHeaderMap.putIfAbsent("date", "Sun, 11 Aug 2019 15:02:37 GMT");
-        return requestHeaderMap;
+        return request::getHeader;
     }
 
-    private Map<String, String> getRequestParametersMap(HttpServletRequest request) {
-        return request.getParameterMap().entrySet().stream()
-                   .collect(Collectors.toMap(
-                       Map.Entry::getKey,
-                       e -> String.join(",", e.getValue())));
+    private String getParameter(HttpServletRequest request, String name) {
+        String[] values = request.getParameterValues(name);
+        return values == null ? null : String.join(",", values);
     }
-
     private Map<String, String> checkPaymentProductByRequest(HttpServletRequest request) {
         //noinspection unchecked
         Map<String, String> pathVariableMap = (Map) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
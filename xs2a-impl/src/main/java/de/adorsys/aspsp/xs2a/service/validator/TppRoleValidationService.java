@@ -16,48 +16,43 @@
 
 package de.adorsys.aspsp.xs2a.service.validator;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
 
 import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import de.adorsys.aspsp.xs2a.config.TppRoleValidationConfigProperties;
 import de.adorsys.psd2.validator.certificate.util.TppRole;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * Checks TPP roles against requested path. Path rules are compiled at startup into a trie keyed on path segments
+ * under API base path, so that a lookup is a single walk over the request path segments.
+ * If several rules match, the most specific (longest) one wins.
+ */
 @Service
+@RequiredArgsConstructor
 public class TppRoleValidationService {
+	private static final String ANY_SEGMENT = "*";
+	private static final String ANY_SUBPATH = "**";
 
-	private Map<String, TppRole> patternRoleMap;
-	private List<AntPathRequestMatcher> matchers;
-	// NOPMD TODO API_BASE_PATH should not be define here,
-	// https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/140
-	private final static String API_BASE_PATH = "/api/v1";
+	private final TppRoleValidationConfigProperties configProperties;
+	private String apiBasePath;
+	private PathNode root;
 
 	@PostConstruct
-	void initCertificatePathMatchers() {
-		patternRoleMap = new HashMap<>();
-		patternRoleMap.put(API_BASE_PATH + "/accounts/**", TppRole.AISP);
-		patternRoleMap.put(API_BASE_PATH + "/consents/**", TppRole.AISP);
-		patternRoleMap.put(API_BASE_PATH + "/funds-confirmations/**", TppRole.PIISP);
-		patternRoleMap.put(API_BASE_PATH + "/bulk-payments/**", TppRole.PISP);
-		patternRoleMap.put(API_BASE_PATH + "/payments/**", TppRole.PISP);
-		patternRoleMap.put(API_BASE_PATH + "/periodic-payments/**", TppRole.PISP);
-
-		regexMatchers(patternRoleMap.keySet());
-	}
-
-	private void regexMatchers(Set<String> regexPatterns) {
-		matchers = new ArrayList<AntPathRequestMatcher>();
-		for (String pattern : regexPatterns) {
-			matchers.add(new AntPathRequestMatcher(pattern));
+	void compileRoleRules() {
+		apiBasePath = StringUtils.removeEnd(configProperties.getApiBasePath(), "/");
+		PathNode compiledRoot = new PathNode();
+		for (Map.Entry<String, TppRole> rule : configProperties.getPathRoles().entrySet()) {
+			compiledRoot.addRule(StringUtils.split(rule.getKey(), '/'), 0, rule.getValue());
 		}
+		root = compiledRoot;
 	}
 
 	/**
@@ -68,14 +63,88 @@ public class TppRoleValidationService {
 	 * @return true or false
 	 */
 	public boolean validate(HttpServletRequest request, List<TppRole> roles) {
+		TppRole tppRole = findRequiredRole(request.getServletPath(), request.getPathInfo());
+		return tppRole == null || (roles != null && roles.contains(tppRole));
+	}
 
-		for (AntPathRequestMatcher matcher : matchers) {
-			if (matcher.matches(request)) {
-				TppRole tppRole = patternRoleMap.get(matcher.getPattern());
-				return Optional.ofNullable(roles).map(r -> r.contains(tppRole)).orElse(false);
+	private TppRole findRequiredRole(String servletPath, String pathInfo) {
+		String path = StringUtils.defaultString(servletPath) + StringUtils.defaultString(pathInfo);
+		if (!path.startsWith(apiBasePath)
+				|| (path.length() > apiBasePath.length() && path.charAt(apiBasePath.length()) != '/')) {
+			return null;
+		}
+		PathNode current = root;
+		TppRole matchedRole = current.subpathRole;
+		int segmentStart = apiBasePath.length();
+		while (segmentStart < path.length()) {
+			if (path.charAt(segmentStart) == '/') {
+				segmentStart++;
+				continue;
 			}
+			int segmentEnd = path.indexOf('/', segmentStart);
+			if (segmentEnd < 0) {
+				segmentEnd = path.length();
+			}
+			current = current.findChild(path, segmentStart, segmentEnd);
+			if (current == null) {
+				return matchedRole;
+			}
+			if (current.subpathRole != null) {
+				matchedRole = current.subpathRole;
+			}
+			segmentStart = segmentEnd;
 		}
-		return true;
+		return current.exactRole != null ? current.exactRole : matchedRole;
 	}
 
+	private static class PathNode {
+		private String[] segments = new String[0];
+		private PathNode[] children = new PathNode[0];
+		private PathNode anySegmentChild;
+		private TppRole exactRole;
+		private TppRole subpathRole;
+
+		void addRule(String[] ruleSegments, int index, TppRole role) {
+			if (index == ruleSegments.length) {
+				exactRole = role;
+				return;
+			}
+			String segment = ruleSegments[index];
+			if (ANY_SUBPATH.equals(segment) && index == ruleSegments.length - 1) {
+				subpathRole = role;
+				return;
+			}
+			getOrCreateChild(segment).addRule(ruleSegments, index + 1, role);
+		}
+
+		PathNode findChild(String path, int segmentStart, int segmentEnd) {
+			int length = segmentEnd - segmentStart;
+			for (int i = 0; i < segments.length; i++) {
+				if (segments[i].length() == length && path.regionMatches(segmentStart, segments[i], 0, length)) {
+					return children[i];
+				}
+			}
+			return anySegmentChild;
+		}
+
+		private PathNode getOrCreateChild(String segment) {
+			if (ANY_SEGMENT.equals(segment)) {
+				if (anySegmentChild == null) {
+					anySegmentChild = new PathNode();
+				}
+				return anySegmentChild;
+			}
+			for (int i = 0; i < segments.length; i++) {
+				if (segments[i].equals(segment)) {
+					return children[i];
+				}
+			}
+			PathNode child = new PathNode();
+			segments = Arrays.copyOf(segments, segments.length + 1);
+			children = Arrays.copyOf(children, children.length + 1);
+			segments[segments.length - 1] = segment;
+			children[children.length - 1] = child;
+			return child;
+		}
+	}
 }
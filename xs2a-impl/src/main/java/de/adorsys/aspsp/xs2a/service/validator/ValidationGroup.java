@@ -42,6 +42,10 @@ public class ValidationGroup {
     interface TransactionIdGroup {
     }
 
+    @GroupSequence({AccountIdGroup.class})
+    public interface AccountIdIsValid {
+    }
+
     @GroupSequence({AccountIdGroup.class, PeriodGroup.class})
     public interface AccountIdAndPeriodIsValid {
     }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.validator.plan;
+
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Validation plan of one handler method: exact headers and parameters to be read and checked,
+ * and payment type, that has to be supported by ASPSP (null if handler is not related to payments initiation).
+ */
+@Value
+public class ValidationPlan {
+    private final List<FieldCheck> headerChecks;
+    private final List<FieldCheck> parameterChecks;
+    private final PisPaymentType paymentType;
+}
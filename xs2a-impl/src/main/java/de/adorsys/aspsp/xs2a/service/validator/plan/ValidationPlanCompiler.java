@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.validator.plan;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import javax.validation.Constraint;
+import javax.validation.constraints.NotNull;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+/**
+ * Compiles header and parameter classes into lists of {@link FieldCheck}.
+ * Property names are taken from Jackson annotations, so that compiled checks read exactly the same headers and
+ * parameters, that were bound by Jackson before. Conversion errors are reported in the same form as Jackson does.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationPlanCompiler {
+    private static final String UTC = "UTC";
+    private static final int UUID_LENGTH = 36;
+
+    private final ObjectMapper objectMapper;
+
+    public ValidationPlan compile(Class<?> headerClass, Class<?> parameterClass, PisPaymentType paymentType) {
+        return new ValidationPlan(compileChecks(headerClass), compileChecks(parameterClass), paymentType);
+    }
+
+    List<FieldCheck> compileChecks(Class<?> beanClass) {
+        if (beanClass == null) {
+            return Collections.emptyList();
+        }
+        List<FieldCheck> checks = new ArrayList<>();
+        for (Class<?> current = beanClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    checks.add(compileCheck(beanClass, field));
+                }
+            }
+        }
+        return Collections.unmodifiableList(checks);
+    }
+
+    private FieldCheck compileCheck(Class<?> beanClass, Field field) {
+        JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+        String name = jsonProperty != null && StringUtils.isNotEmpty(jsonProperty.value())
+                          ? jsonProperty.value()
+                          : field.getName();
+        boolean required = field.isAnnotationPresent(NotNull.class);
+        boolean validatedByValidator = Arrays.stream(field.getAnnotations())
+                                           .map(Annotation::annotationType)
+                                           .anyMatch(type -> type != NotNull.class && type.isAnnotationPresent(Constraint.class));
+        return new FieldCheck(name, beanClass, field.getName(), compileConverter(field), required, validatedByValidator);
+    }
+
+    private ValueConverter compileConverter(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return ValueConverter.IDENTITY;
+        } else if (type == UUID.class) {
+            return value -> convertUuid(value);
+        } else if (type.isEnum()) {
+            return compileEnumConverter(type);
+        } else if (type == Date.class && field.isAnnotationPresent(JsonFormat.class)) {
+            return compileDateConverter(field.getAnnotation(JsonFormat.class));
+        }
+        return value -> convertWithObjectMapper(value, type);
+    }
+
+    private Object convertUuid(String value) {
+        if (value.length() != UUID_LENGTH) {
+            throw conversionError(UUID.class, value, "UUID has to be represented by standard 36-char representation");
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw conversionError(UUID.class, value, e.getMessage());
+        }
+    }
+
+    private ValueConverter compileEnumConverter(Class<?> type) {
+        Method valueMethod = Arrays.stream(type.getMethods())
+                                 .filter(m -> m.isAnnotationPresent(JsonValue.class) && m.getParameterCount() == 0)
+                                 .findFirst()
+                                 .orElse(null);
+        Map<String, Object> constants = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            constants.put(valueMethod != null ? String.valueOf(invoke(valueMethod, constant)) : ((Enum) constant).name(), constant);
+        }
+        return value -> {
+            Object constant = constants.get(value);
+            if (constant == null) {
+                throw conversionError(type, value, "value not one of declared Enum instance names: " + constants.keySet());
+            }
+            return constant;
+        };
+    }
+
+    private ValueConverter compileDateConverter(JsonFormat format) {
+        String timezone = JsonFormat.DEFAULT_TIMEZONE.equals(format.timezone()) ? UTC : format.timezone();
+        ThreadLocal<DateFormat> dateFormat = ThreadLocal.withInitial(() -> {
+            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format.pattern());
+            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(timezone));
+            return simpleDateFormat;
+        });
+        return value -> {
+            try {
+                return dateFormat.get().parse(value);
+            } catch (ParseException e) {
+                throw conversionError(Date.class, value, "expected format \"" + format.pattern() + "\"");
+            }
+        };
+    }
+
+    private Object convertWithObjectMapper(String value, Class<?> type) {
+        return objectMapper.convertValue(value, type);
+    }
+
+    private Object invoke(Method method, Object target) {
+        try {
+            return method.invoke(target);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not read value of " + target, e);
+        }
+    }
+
+    private IllegalArgumentException conversionError(Class<?> type, String value, String reason) {
+        return new IllegalArgumentException("Can not deserialize value of type " + type.getName() + " from String \"" + value + "\": " + reason);
+    }
+}
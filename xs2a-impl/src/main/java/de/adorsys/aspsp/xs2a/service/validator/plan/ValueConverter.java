@@ -0,0 +1,29 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service.validator.plan;
+
+/**
+ * Converts raw header or parameter value to the type of related property.
+ * Is compiled once per property, throws {@link IllegalArgumentException} if value can not be converted.
+ */
+@FunctionalInterface
+public interface ValueConverter {
+    ValueConverter IDENTITY = value -> value;
+
+    Object convert(String value);
+}
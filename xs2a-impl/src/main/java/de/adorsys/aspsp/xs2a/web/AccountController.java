@@ -16,22 +16,35 @@
 
 package de.adorsys.aspsp.xs2a.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.aspsp.xs2a.domain.Balance;
 import de.adorsys.aspsp.xs2a.domain.BookingStatus;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReportStream;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
 import de.adorsys.aspsp.xs2a.service.AccountService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
+import de.adorsys.aspsp.xs2a.web.stream.AccountReportStreamingBody;
+import de.adorsys.aspsp.xs2a.web.stream.AccountStatementResponseFactory;
+import de.adorsys.aspsp.xs2a.web.stream.StatementFormat;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @AllArgsConstructor
@@ -40,6 +53,9 @@ import java.util.Map;
 public class AccountController {
     private final AccountService accountService;
     private final ResponseMapper responseMapper;
+    private final ObjectMapper objectMapper;
+    private final AccountStatementResponseFactory accountStatementResponseFactory;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @ApiOperation(value = "Reads a list of accounts, with balances where required . It is assumed that a consent of the Psu to this access is already given and stored on the ASPSP system. The addressed list of accounts depends then on the Psu ID and the stored consent addressed by consent-id, respectively the OAuth2 token", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
     @ApiResponses(value = {
@@ -55,12 +71,11 @@ public class AccountController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", dataType = "String", paramType = "header")})
-    public ResponseEntity<Map<String, List<AccountDetails>>> getAccounts(
+    public CompletableFuture<ResponseEntity<Map<String, List<AccountDetails>>>> getAccounts(
         @RequestHeader(name = "consent-id") String consentId,
         @ApiParam(name = "with-balance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
         @RequestParam(name = "with-balance", required = false) boolean withBalance) {
-        ResponseObject<Map<String, List<AccountDetails>>> responseObject = accountService.getAccountDetailsList(consentId, withBalance);
-        return responseMapper.ok(responseObject);
+        return asyncRequestExecutor.execute(() -> responseMapper.ok(accountService.getAccountDetailsList(consentId, withBalance)));
     }
 
     @ApiOperation(value = "Reads details about an account, with balances where required. It is assumed that a consent of the PSU to this access is already given and stored on the ASPSP system. The addressed details of this account depends then on the stored consent addressed by consentId, respectively the OAuth2 access token", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
@@ -78,14 +93,13 @@ public class AccountController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", dataType = "String", paramType = "header")})
-    public ResponseEntity<AccountDetails> readAccountDetails(
+    public CompletableFuture<ResponseEntity<AccountDetails>> readAccountDetails(
         @RequestHeader(name = "consent-id") String consentId,
         @ApiParam(name = "account-id", required = true, value = "This identification is denoting the addressed account, where the transaction has been performed", example = "11111-999999999")
         @PathVariable(name = "account-id") String accountId,
         @ApiParam(name = "with-balance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
         @RequestParam(name = "with-balance", required = false) boolean withBalance) {
-        ResponseObject<AccountDetails> responseObject = accountService.getAccountDetails(consentId, accountId, withBalance);
-        return responseMapper.ok(responseObject);
+        return asyncRequestExecutor.execute(() -> responseMapper.ok(accountService.getAccountDetails(consentId, accountId, withBalance)));
     }
 
     @ApiOperation(value = "Read a list of the balances for the given account", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
@@ -103,12 +117,11 @@ public class AccountController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", dataType = "String", paramType = "header")})
-    public ResponseEntity<List<Balance>> getBalances(
+    public CompletableFuture<ResponseEntity<List<Balance>>> getBalances(
         @RequestHeader(name = "consent-id") String consentId,
         @ApiParam(name = "account-id", required = true, value = "This identification is denoting the addressed account, where the transaction has been performed")
         @PathVariable(name = "account-id") String accountId) {
-        ResponseObject<List<Balance>> responseObject = accountService.getBalances(consentId, accountId);
-        return responseMapper.ok(responseObject);
+        return asyncRequestExecutor.execute(() -> responseMapper.ok(accountService.getBalances(consentId, accountId)));
     }
 
     @ApiOperation(value = "Reads account data from a given account addressed by \"account-id\".", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
@@ -126,25 +139,111 @@ public class AccountController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", required = false, dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", required = false, dataType = "String", paramType = "header")})
-    public ResponseEntity<AccountReport> getTransactions(@ApiParam(name = "account-id", required = true, value = "The account consent identification assigned to the created resource")
-                                                         @PathVariable(name = "account-id") String accountId,
-                                                         @RequestHeader(name = "consent-id", required = false) String consentId,
-                                                         @ApiParam(name = "dateFrom", value = "Starting date of the account statement", example = "2017-10-30")
-                                                         @RequestParam(name = "dateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
-                                                         @ApiParam(name = "dateTo", value = "End date of the account statement", example = "2017-11-30")
-                                                         @RequestParam(name = "dateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
-                                                         @ApiParam(name = "transactionId", value = "Transaction identification", example = "1234567")
-                                                         @RequestParam(name = "transactionId", required = false) String transactionId,
-                                                         @ApiParam(name = "psuInvolved", value = "If contained, it is indicating that a Psu has directly asked this account access in real-time. The Psu then might be involved in an additional consent process, if the given consent is not any more sufficient.")
-                                                         @RequestParam(name = "psuInvolved", required = false) boolean psuInvolved,
-                                                         @ApiParam(name = "bookingStatus", example = "both", required = true, allowableValues = "booked, pending, both")
-                                                         @RequestParam(name = "bookingStatus") String bookingStatus,
-                                                         @ApiParam(name = "withBalance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
-                                                         @RequestParam(name = "withBalance", required = false) boolean withBalance,
-                                                         @ApiParam(name = "deltaList", value = "This data attribute is indicating that the AISP is in favour to get all transactions after the last report access for this PSU")
-                                                         @RequestParam(name = "deltaList", required = false) boolean deltaList) {
-        ResponseObject<AccountReport> responseObject =
-            accountService.getAccountReport(consentId, accountId, dateFrom, dateTo, transactionId, psuInvolved, BookingStatus.forValue(bookingStatus), withBalance, deltaList);
-        return responseMapper.ok(responseObject);
+    public CompletableFuture<ResponseEntity<AccountReport>> getTransactions(@ApiParam(name = "account-id", required = true, value = "The account consent identification assigned to the created resource")
+                                                                            @PathVariable(name = "account-id") String accountId,
+                                                                            @RequestHeader(name = "consent-id", required = false) String consentId,
+                                                                            @ApiParam(name = "dateFrom", value = "Starting date of the account statement", example = "2017-10-30")
+                                                                            @RequestParam(name = "dateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                                                            @ApiParam(name = "dateTo", value = "End date of the account statement", example = "2017-11-30")
+                                                                            @RequestParam(name = "dateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                                                                            @ApiParam(name = "transactionId", value = "Transaction identification", example = "1234567")
+                                                                            @RequestParam(name = "transactionId", required = false) String transactionId,
+                                                                            @ApiParam(name = "psuInvolved", value = "If contained, it is indicating that a Psu has directly asked this account access in real-time. The Psu then might be involved in an additional consent process, if the given consent is not any more sufficient.")
+                                                                            @RequestParam(name = "psuInvolved", required = false) boolean psuInvolved,
+                                                                            @ApiParam(name = "bookingStatus", example = "both", required = true, allowableValues = "booked, pending, both")
+                                                                            @RequestParam(name = "bookingStatus") String bookingStatus,
+                                                                            @ApiParam(name = "withBalance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
+                                                                            @RequestParam(name = "withBalance", required = false) boolean withBalance,
+                                                                            @ApiParam(name = "deltaList", value = "This data attribute is indicating that the AISP is in favour to get all transactions after the last report access for this PSU. Applies only if neither dateFrom, dateTo nor a bookingStatus other than both is given")
+                                                                            @RequestParam(name = "deltaList", required = false) boolean deltaList,
+                                                                            @ApiParam(name = "pageSize", value = "If contained, transactions of the period are returned page by page with at most this number of transactions per page, which must not exceed the maximum page size of the ASPSP. Next and previous pages are linked in the report", example = "100")
+                                                                            @RequestParam(name = "pageSize", required = false) Integer pageSize,
+                                                                            @ApiParam(name = "pageKey", value = "Position of the page as given in next/previous links of the report")
+                                                                            @RequestParam(name = "pageKey", required = false) String pageKey) {
+        return asyncRequestExecutor.execute(() -> {
+            ResponseObject<AccountReport> responseObject = pageSize == null || StringUtils.isNotBlank(transactionId)
+                                                               ? accountService.getAccountReport(consentId, accountId, dateFrom, dateTo, transactionId, psuInvolved, BookingStatus.forValue(bookingStatus), withBalance, deltaList)
+                                                               : accountService.getAccountReportPage(consentId, accountId, dateFrom, dateTo, pageKey, pageSize, BookingStatus.forValue(bookingStatus), withBalance);
+            return responseMapper.ok(responseObject);
+        });
+    }
+
+    @ApiOperation(value = "Reads account data from a given account addressed by \"account-id\" for a period of time. Transactions are streamed to the response one at a time, so that reports of any size can be read.", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AccountReport.class),
+        @ApiResponse(code = 400, message = "Bad request"),
+        @ApiResponse(code = 401, message = "Consent invalid or expired"),
+        @ApiResponse(code = 429, message = "Access exceeded")})
+    @GetMapping(path = "/{account-id}/transactions", params = "streaming=true")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "consent-id", value = "7f53031f-3cd8-4270-b07f-4ea1456ba124", required = true, paramType = "header"),
+        @ApiImplicitParam(name = "tpp-transaction-id", value = "16d40f49-a110-4344-a949-f99828ae13c9", required = true, dataType = "UUID", paramType = "header"),
+        @ApiImplicitParam(name = "x-request-id", value = "2f77a125-aa7a-45c0-b414-cea25a116035", required = true, dataType = "UUID", paramType = "header"),
+        @ApiImplicitParam(name = "date", value = "Sun, 11 Aug 2019 15:02:37 GMT", required = true, dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "signature", value = "98c0", required = false, dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", required = false, dataType = "String", paramType = "header")})
+    public ResponseEntity<StreamingResponseBody> getTransactionsStreaming(@ApiParam(name = "account-id", required = true, value = "The account consent identification assigned to the created resource")
+                                                                          @PathVariable(name = "account-id") String accountId,
+                                                                          @RequestHeader(name = "consent-id", required = false) String consentId,
+                                                                          @ApiParam(name = "dateFrom", value = "Starting date of the account statement", example = "2017-10-30")
+                                                                          @RequestParam(name = "dateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                                                          @ApiParam(name = "dateTo", value = "End date of the account statement", example = "2017-11-30")
+                                                                          @RequestParam(name = "dateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                                                                          @ApiParam(name = "bookingStatus", example = "both", required = true, allowableValues = "booked, pending, both")
+                                                                          @RequestParam(name = "bookingStatus") String bookingStatus,
+                                                                          @ApiParam(name = "withBalance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
+                                                                          @RequestParam(name = "withBalance", required = false) boolean withBalance) {
+        ResponseObject<AccountReportStream> responseObject =
+            accountService.getAccountReportStream(consentId, accountId, dateFrom, dateTo, BookingStatus.forValue(bookingStatus), withBalance);
+        return responseMapper.okStreaming(responseObject, report -> new AccountReportStreamingBody(report, objectMapper));
+    }
+
+    @ApiOperation(value = "Downloads account statement of a given account addressed by \"account-id\" for a period of time as camt.053 XML or MT940 file. Supports gzip content encoding and resuming of interrupted downloads with \"Range\" header.", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = String.class),
+        @ApiResponse(code = 206, message = "Partial content", response = String.class),
+        @ApiResponse(code = 400, message = "Bad request"),
+        @ApiResponse(code = 401, message = "Consent invalid or expired"),
+        @ApiResponse(code = 416, message = "Requested range not satisfiable"),
+        @ApiResponse(code = 429, message = "Access exceeded")})
+    @GetMapping(path = "/{account-id}/transactions/download")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "consent-id", value = "7f53031f-3cd8-4270-b07f-4ea1456ba124", required = true, paramType = "header"),
+        @ApiImplicitParam(name = "tpp-transaction-id", value = "16d40f49-a110-4344-a949-f99828ae13c9", required = true, dataType = "UUID", paramType = "header"),
+        @ApiImplicitParam(name = "x-request-id", value = "2f77a125-aa7a-45c0-b414-cea25a116035", required = true, dataType = "UUID", paramType = "header"),
+        @ApiImplicitParam(name = "date", value = "Sun, 11 Aug 2019 15:02:37 GMT", required = true, dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "signature", value = "98c0", required = false, dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", required = false, dataType = "String", paramType = "header")})
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadTransactions(@ApiParam(name = "account-id", required = true, value = "The account consent identification assigned to the created resource")
+                                                                      @PathVariable(name = "account-id") String accountId,
+                                                                      @RequestHeader(name = "consent-id", required = false) String consentId,
+                                                                      @ApiParam(name = "dateFrom", value = "Starting date of the account statement", example = "2017-10-30")
+                                                                      @RequestParam(name = "dateFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                                                      @ApiParam(name = "dateTo", value = "End date of the account statement", example = "2017-11-30")
+                                                                      @RequestParam(name = "dateTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                                                                      @ApiParam(name = "bookingStatus", example = "both", allowableValues = "booked, pending, both")
+                                                                      @RequestParam(name = "bookingStatus", defaultValue = "both") String bookingStatus,
+                                                                      @ApiParam(name = "format", value = "Format of the account statement file. MT940 statements contain booked transactions only", example = "camt.053", allowableValues = "camt.053, mt940")
+                                                                      @RequestParam(name = "format", defaultValue = "camt.053") String format,
+                                                                      @ApiParam(name = "withBalance", value = "If contained, this function reads the list of accessible payment accounts including the balance.")
+                                                                      @RequestParam(name = "withBalance", required = false) boolean withBalance,
+                                                                      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                      @RequestHeader(name = HttpHeaders.RANGE, required = false) String range,
+                                                                      @RequestHeader(name = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+        StatementFormat statementFormat = StatementFormat.forValue(format);
+        BookingStatus statementBookingStatus = statementFormat.isPendingSupported()
+                                                   ? BookingStatus.forValue(bookingStatus)
+                                                   : BookingStatus.BOOKED;
+        return asyncRequestExecutor.execute(() -> {
+            ResponseObject<AccountStatement> responseObject =
+                accountService.getAccountStatement(consentId, accountId, dateFrom, dateTo, statementBookingStatus, withBalance);
+            try {
+                return accountStatementResponseFactory.createResponse(responseObject, statementFormat, acceptEncoding, range, ifRange);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 }
@@ -17,21 +17,36 @@
 
 package de.adorsys.aspsp.xs2a.web;
 
-import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.component.JsonConverter;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
-import de.adorsys.aspsp.xs2a.exception.MessageError;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.service.PaymentService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
-import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.TeeInputStream;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
+import springfox.documentation.annotations.ApiIgnore;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @RestController
 @AllArgsConstructor
 @RequestMapping(path = "api/v1/bulk-payments/{payment-product}")
@@ -42,12 +57,13 @@ public class BulkPaymentInitiationController {
                                                "IxMjM0X3JlZ2lzdHJhdGlvbk51bWJlciIsCiAgICAidHBwTmFtZSI6ICJUcHAgY29tcGFueSIsCiAgICAidHBwUm9sZSI6ICJUcHAgcm9sZSIKICB9";
     private final ResponseMapper responseMapper;
     private final PaymentService paymentService;
-    private final AccountReferenceValidationService referenceValidationService;
+    private final JsonConverter jsonConverter;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @ApiOperation(value = "Creates a bulk payment initiation request at the ASPSP", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
     @ApiResponses(value = {@ApiResponse(code = 201, message = "transactions_status received, a list of hyperlinks to be recognized by the Tpp."),
         @ApiResponse(code = 400, message = "Bad request")})
-    @PostMapping
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ApiImplicitParams({
         @ApiImplicitParam(name = "psu-ip-address", value = "192.168.0.26", required = true, paramType = "header"), //NOPMD value is correct according to specification
         @ApiImplicitParam(name = "x-request-id", value = "2f77a125-aa7a-45c0-b414-cea25a116035", required = true, dataType = "UUID", paramType = "header"),
@@ -55,19 +71,61 @@ public class BulkPaymentInitiationController {
         @ApiImplicitParam(name = "tpp-redirect-uri", value = "Uri of TPP", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
-        @ApiImplicitParam(name = "tpp-signature-certificate", defaultValue = TPP_INFO, dataType = "String", paramType = "header")})
-    public ResponseEntity<List<PaymentInitialisationResponse>> createBulkPaymentInitiation(
+        @ApiImplicitParam(name = "tpp-signature-certificate", defaultValue = TPP_INFO, dataType = "String", paramType = "header"),
+        @ApiImplicitParam(name = "Bulk Payment", value = "All data relevant for the corresponding payment product and necessary for execution of the standing order.", required = true, dataType = "SinglePayment", allowMultiple = true, paramType = "body")})
+    public CompletableFuture<ResponseEntity<List<PaymentInitialisationResponse>>> createBulkPaymentInitiation(
         @ApiParam(name = "payment-product", value = "The addressed payment product endpoint for bulk payments e.g. for a bulk SEPA Credit Transfers", allowableValues = "sepa-credit-transfers, target-2-payments,instant-sepa-credit-transfers, cross-border-credit-transfers")
         @PathVariable("payment-product") String paymentProduct,
-        @RequestHeader(name = "tpp-signature-certificate", required = false) String tppSignatureCertificate,
-        @ApiParam(name = "Bulk Payment", value = "All data relevant for the corresponding payment product and necessary for execution of the standing order.", required = true)
-        @RequestBody List<SinglePayment> payments) {
-        for (SinglePayment payment : payments) {
-            Optional<MessageError> error = referenceValidationService.validateAccountReferences(payment.getAccountReferences());
-            if (error.isPresent()) {
-                return responseMapper.created(ResponseObject.<List<PaymentInitialisationResponse>>builder().fail(error.get()).build());
+        @ApiIgnore @RequestAttribute(TppSecurityContext.REQUEST_ATTRIBUTE) TppSecurityContext tppSecurityContext,
+        @ApiIgnore InputStream body) {
+        return asyncRequestExecutor.execute(() -> {
+            Path spool = spoolBulk(body);
+            try (InputStream spooledBody = new BufferedInputStream(Files.newInputStream(spool))) {
+                Iterator<SinglePayment> payments = jsonConverter.readArrayElements(spooledBody, SinglePayment.class);
+                return responseMapper.created(paymentService.createBulkPayments(payments, tppSecurityContext.getTppInfo(), paymentProduct));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                deleteSpool(spool);
             }
+        });
+    }
+
+    /**
+     * The whole bulk is read and checked before the first payment is sent to ASPSP, so that a malformed body, or a body
+     * of a signed request not matching its digest, is rejected before any payment of the bulk is initiated.
+     * Payments are not kept in memory meanwhile, the body is copied to a temporary file to read the payments from afterwards
+     */
+    private Path spoolBulk(InputStream body) {
+        Path spool = createSpool();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spool))) {
+            Iterator<SinglePayment> payments = jsonConverter.readArrayElements(new TeeInputStream(body, out), SinglePayment.class);
+            while (payments.hasNext()) {
+                payments.next();
+            }
+            return spool;
+        } catch (UncheckedIOException e) {
+            deleteSpool(spool);
+            throw new HttpMessageNotReadableException("Bulk payment can't be read: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            deleteSpool(spool);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path createSpool() {
+        try {
+            return Files.createTempFile("bulk-payment-", ".json");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Spooled bulk payment {} could not be deleted: {}", spool, e.getMessage());
         }
-        return responseMapper.created(paymentService.createBulkPayments(payments, tppSignatureCertificate, paymentProduct));
     }
 }
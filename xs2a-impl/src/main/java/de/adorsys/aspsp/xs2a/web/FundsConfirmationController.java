@@ -23,6 +23,7 @@ import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.FundsConfirmationService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +34,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @AllArgsConstructor
@@ -42,6 +44,7 @@ public class FundsConfirmationController {
     private final FundsConfirmationService fundsConfirmationService;
     private final ResponseMapper responseMapper;
     private final AccountReferenceValidationService referenceValidationService;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @PostMapping
     @ApiOperation(value = "Create a confirmation of funds request ", notes = "debtor account, creditor account, creditor name, remittance information unstructured", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
@@ -54,11 +57,11 @@ public class FundsConfirmationController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", dataType = "String", paramType = "header")})
-    public ResponseEntity<FundsConfirmationResponse> fundConfirmation(@RequestBody @Valid FundsConfirmationRequest request) {
+    public CompletableFuture<ResponseEntity<FundsConfirmationResponse>> fundConfirmation(@RequestBody @Valid FundsConfirmationRequest request) {
         Optional<MessageError> error = referenceValidationService.validateAccountReferences(request.getAccountReferences());
-        return responseMapper.ok(
-            error
-                .map(e -> ResponseObject.<FundsConfirmationResponse>builder().fail(e).build())
-                .orElseGet(() -> fundsConfirmationService.fundsConfirmation(request)));
+        if (error.isPresent()) {
+            return CompletableFuture.completedFuture(responseMapper.ok(ResponseObject.<FundsConfirmationResponse>builder().fail(error.get()).build()));
+        }
+        return asyncRequestExecutor.execute(() -> responseMapper.ok(fundsConfirmationService.fundsConfirmation(request)));
     }
 }
@@ -21,18 +21,22 @@ import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
 import de.adorsys.aspsp.xs2a.domain.TransactionStatusResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.PaymentService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -46,6 +50,7 @@ public class PaymentInitiationController {
     private final ResponseMapper responseMapper;
     private final PaymentService paymentService;
     private final AccountReferenceValidationService referenceValidationService;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @ApiOperation(value = "Initialises a new payment ", notes = "debtor account, creditor accout, creditor name, remittance information unstructured", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
     @ApiResponses(value = {@ApiResponse(code = 201, message = "Created"),
@@ -66,17 +71,17 @@ public class PaymentInitiationController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "A signature of the request by TPP", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", defaultValue = TPP_INFO, dataType = "String", paramType = "header")})
-    public ResponseEntity<PaymentInitialisationResponse> createPaymentInitiation(
+    public CompletableFuture<ResponseEntity<PaymentInitialisationResponse>> createPaymentInitiation(
         @ApiParam(name = "payment-product", value = "The addressed payment product endpoint for payments e.g. for a SEPA Credit Transfers", allowableValues = "sepa-credit-transfers, target-2-payments,instant-sepa-credit-transfers, cross-border-credit-transfers")
         @PathVariable("payment-product") String paymentProduct,
-        @RequestHeader(name = "tpp-signature-certificate", required = false) String tppSignatureCertificate,
+        @ApiIgnore @RequestAttribute(TppSecurityContext.REQUEST_ATTRIBUTE) TppSecurityContext tppSecurityContext,
         @ApiParam(name = "singlePayment", required = true)
         @RequestBody @Valid SinglePayment singlePayment) {
         Optional<MessageError> error = referenceValidationService.validateAccountReferences(singlePayment.getAccountReferences());
-        return responseMapper.created(
-            error
-                .map(e -> ResponseObject.<PaymentInitialisationResponse>builder().fail(e).build())
-                .orElseGet(() -> paymentService.createPaymentInitiation(singlePayment, tppSignatureCertificate, paymentProduct)));
+        if (error.isPresent()) {
+            return CompletableFuture.completedFuture(responseMapper.created(ResponseObject.<PaymentInitialisationResponse>builder().fail(error.get()).build()));
+        }
+        return asyncRequestExecutor.execute(() -> responseMapper.created(paymentService.createPaymentInitiation(singlePayment, tppSecurityContext.getTppInfo(), paymentProduct)));
     }
 
     @ApiOperation(value = "Get information  about the status of a payment initialisation ", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
@@ -89,11 +94,11 @@ public class PaymentInitiationController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", value = "some certificate", dataType = "String", paramType = "header")})
-    public ResponseEntity<TransactionStatusResponse> getPaymentInitiationStatusById(
+    public CompletableFuture<ResponseEntity<TransactionStatusResponse>> getPaymentInitiationStatusById(
         @ApiParam(name = "payment-product", value = "The addressed payment product endpoint for payments e.g. for a SEPA Credit Transfers", allowableValues = "sepa-credit-transfers, target-2-payments,instant-sepa-credit-transfers, cross-border-credit-transfers")
         @PathVariable("payment-product") String paymentProduct,
         @ApiParam(name = "paymentId", value = "529e0507-7539-4a65-9b74-bdf87061e99b")
         @PathVariable("paymentId") String paymentId) {
-        return responseMapper.ok(paymentService.getPaymentStatusById(paymentId, paymentProduct));
+        return asyncRequestExecutor.execute(() -> responseMapper.ok(paymentService.getPaymentStatusById(paymentId, paymentProduct)));
     }
 }
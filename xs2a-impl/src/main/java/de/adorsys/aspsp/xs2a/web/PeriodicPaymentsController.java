@@ -19,17 +19,21 @@ package de.adorsys.aspsp.xs2a.web;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.PaymentService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @AllArgsConstructor
@@ -42,6 +46,7 @@ public class PeriodicPaymentsController {
     private final PaymentService paymentService;
     private final ResponseMapper responseMapper;
     private final AccountReferenceValidationService referenceValidationService;
+    private final AsyncRequestExecutor asyncRequestExecutor;
 
     @ApiOperation(value = "The TPP can submit a recurring payment initiation where the starting date, frequency and conditionally an end date is provided. Once authorised by the PSU, the payment then will be executed by the ASPSP, if possible, following this “standing order” as submitted by the TPP.", authorizations = {@Authorization(value = "oauth2", scopes = {@AuthorizationScope(scope = "read", description = "Access read API")})})
     @ApiResponses(value = {
@@ -56,16 +61,16 @@ public class PeriodicPaymentsController {
         @ApiImplicitParam(name = "digest", value = "730f75dafd73e047b86acb2dbd74e75dcb93272fa084a9082848f2341aa1abb6", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "signature", value = "98c0", dataType = "String", paramType = "header"),
         @ApiImplicitParam(name = "tpp-signature-certificate", defaultValue = TPP_INFO, dataType = "String", paramType = "header")})
-    public ResponseEntity<PaymentInitialisationResponse> createPeriodicPayment(
+    public CompletableFuture<ResponseEntity<PaymentInitialisationResponse>> createPeriodicPayment(
         @ApiParam(name = "payment-product", value = "The addressed payment product endpoint for periodic payments e.g. for a periodic SEPA Credit Transfers", allowableValues = "sepa-credit-transfers, target-2-payments,instant-sepa-credit-transfers, cross-border-credit-transfers", required = true)
         @PathVariable("payment-product") String paymentProduct,
-        @RequestHeader(name = "tpp-signature-certificate", required = false) String tppSignatureCertificate,
+        @ApiIgnore @RequestAttribute(TppSecurityContext.REQUEST_ATTRIBUTE) TppSecurityContext tppSecurityContext,
         @ApiParam(name = "Periodic Payment", value = "All data relevant for the corresponding payment product and necessary for execution of the standing order.", required = true)
         @RequestBody @Valid PeriodicPayment periodicPayment) {
         Optional<MessageError> error = referenceValidationService.validateAccountReferences(periodicPayment.getAccountReferences());
-        return responseMapper.created(
-            error
-                .map(e -> ResponseObject.<PaymentInitialisationResponse>builder().fail(e).build())
-                .orElseGet(() -> paymentService.initiatePeriodicPayment(periodicPayment, tppSignatureCertificate, paymentProduct)));
+        if (error.isPresent()) {
+            return CompletableFuture.completedFuture(responseMapper.created(ResponseObject.<PaymentInitialisationResponse>builder().fail(error.get()).build()));
+        }
+        return asyncRequestExecutor.execute(() -> responseMapper.created(paymentService.initiatePeriodicPayment(periodicPayment, tppSecurityContext.getTppInfo(), paymentProduct)));
     }
 }
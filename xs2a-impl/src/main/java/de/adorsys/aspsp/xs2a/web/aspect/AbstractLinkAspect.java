@@ -19,12 +19,17 @@ package de.adorsys.aspsp.xs2a.web.aspect;
 import de.adorsys.aspsp.xs2a.component.JsonConverter;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.ParameterizedType;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 
 @Component
 public abstract class AbstractLinkAspect<T> {
@@ -35,15 +40,42 @@ public abstract class AbstractLinkAspect<T> {
     @Autowired
     protected JsonConverter jsonConverter;
 
+    private final Class<T> controller = resolveController();
+
     protected Class<T> getController() {
-        try {
-            String className = ((ParameterizedType) getClass().getGenericSuperclass())
-                                   .getActualTypeArguments()[0]
-                                   .getTypeName();
-            return (Class<T>) Class.forName(className);
-        } catch (Exception e) {
-            throw new IllegalStateException("Class isn't parametrized with generic type! Use <>");
+        return controller;
+    }
+
+    /**
+     * Builds link to the controller mapping for the current request. Should be called once per response,
+     * links of single elements are then built from it with {@link #buildLink(String, Object...)}
+     *
+     * @param parameters values of controller mapping path variables
+     * @return link to the controller mapping
+     */
+    protected String linkToController(Object... parameters) {
+        return linkTo(controller, parameters).toString();
+    }
+
+    protected static String buildLink(String controllerLink, Object... segments) {
+        StringBuilder link = new StringBuilder(controllerLink);
+        for (Object segment : segments) {
+            link.append('/').append(segment);
         }
+        return link.toString();
+    }
+
+    /**
+     * Proceeds with the asynchronous handler method and enriches its response as soon as it is completed, before it
+     * is written. The response is enriched by the thread completing it within the request attributes of the request
+     *
+     * @param joinPoint  handler method returning future of the response
+     * @param enrichment function enriching the response, e.g. with links
+     * @return future of the enriched response
+     */
+    @SuppressWarnings("unchecked")
+    protected <B> CompletableFuture<ResponseEntity<B>> proceedAndEnrich(ProceedingJoinPoint joinPoint, UnaryOperator<ResponseEntity<B>> enrichment) throws Throwable {
+        return ((CompletableFuture<ResponseEntity<B>>) joinPoint.proceed()).thenApply(enrichment);
     }
 
     protected <B> boolean hasError(ResponseEntity<B> target) {
@@ -51,4 +83,13 @@ public abstract class AbstractLinkAspect<T> {
         return body.isPresent() && body.get().getClass()
                                        .isAssignableFrom(MessageError.class);
     }
+
+    private Class<T> resolveController() {
+        try {
+            //noinspection unchecked
+            return (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+        } catch (Exception e) {
+            throw new IllegalStateException("Class isn't parametrized with generic type! Use <>");
+        }
+    }
 }
@@ -21,20 +21,22 @@ import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 
 import java.util.Base64;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-
 public abstract class AbstractPaymentLink<T> extends AbstractLinkAspect<T> {
 
     protected Links buildPaymentLinks(PaymentInitialisationResponse body, String paymentProduct) {
-        Class controller = getController();
+        return buildPaymentLinks(body, linkToController(paymentProduct), aspspProfileService.getPisRedirectUrlToAspsp());
+    }
+
+    protected Links buildPaymentLinks(PaymentInitialisationResponse body, String paymentsLink, String redirectUrlToAspsp) {
         String encodedPaymentId = Base64.getEncoder().encodeToString(body.getPaymentId().getBytes());
+        String paymentLink = buildLink(paymentsLink, body.getPaymentId());
 
         Links links = new Links();
-        links.setScaRedirect(aspspProfileService.getPisRedirectUrlToAspsp() + body.getIban() + "/" + body.getPisConsentId() + "/" + encodedPaymentId);
-        links.setSelf(linkTo(controller, paymentProduct).slash(body.getPaymentId()).toString());
-        links.setUpdatePsuIdentification(linkTo(controller, paymentProduct).slash(body.getPaymentId()).toString());
-        links.setUpdatePsuAuthentication(linkTo(controller, paymentProduct).slash(body.getPaymentId()).toString());
-        links.setStatus(linkTo(controller, paymentProduct).slash("status").toString());
+        links.setScaRedirect(redirectUrlToAspsp + body.getIban() + "/" + body.getPisConsentId() + "/" + encodedPaymentId);
+        links.setSelf(paymentLink);
+        links.setUpdatePsuIdentification(paymentLink);
+        links.setUpdatePsuAuthentication(paymentLink);
+        links.setStatus(buildLink(paymentsLink, "status"));
         return links;
     }
 
@@ -20,94 +20,123 @@ import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReport;
 import de.adorsys.aspsp.xs2a.domain.Links;
 import de.adorsys.aspsp.xs2a.web.AccountController;
+import de.adorsys.aspsp.xs2a.web.stream.AccountReportStreamingBody;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-
 @Slf4j
 @Aspect
 @Component
 @AllArgsConstructor
 public class AccountAspect extends AbstractLinkAspect<AccountController> {
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.AccountController.readAccountDetails(..)) && args(consentId, accountId, withBalance, ..)", returning = "result")
-    public ResponseEntity<AccountDetails> invokeReadAccountDetailsAspect(ResponseEntity<AccountDetails> result, String consentId, String accountId, boolean withBalance) {
-        if (!hasError(result)) {
-            AccountDetails body = result.getBody();
-            body.setLinks(buildLinksForAccountDetails(body, withBalance));
-        }
-        return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+    @Around("execution(* de.adorsys.aspsp.xs2a.web.AccountController.readAccountDetails(..)) && args(consentId, accountId, withBalance, ..)")
+    public CompletableFuture<ResponseEntity<AccountDetails>> invokeReadAccountDetailsAspect(ProceedingJoinPoint joinPoint, String consentId, String accountId, boolean withBalance) throws Throwable {
+        return proceedAndEnrich(joinPoint, (ResponseEntity<AccountDetails> result) -> {
+            if (!hasError(result)) {
+                AccountDetails body = result.getBody();
+                body.setLinks(buildLinksForAccountDetails(body, withBalance, linkToController()));
+            }
+            return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        });
     }
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.AccountController.getAccounts(..)) && args(consentId, withBalance, ..)", returning = "result")
-    public ResponseEntity<Map<String, List<AccountDetails>>> invokeGetAccountsAspect(ResponseEntity<Map<String, List<AccountDetails>>> result, String consentId, boolean withBalance) {
-        if (!hasError(result)) {
-            Map<String, List<AccountDetails>> body = result.getBody();
-            setLinksToAccountsMap(body, withBalance);
-        }
-        return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+    @Around("execution(* de.adorsys.aspsp.xs2a.web.AccountController.getAccounts(..)) && args(consentId, withBalance, ..)")
+    public CompletableFuture<ResponseEntity<Map<String, List<AccountDetails>>>> invokeGetAccountsAspect(ProceedingJoinPoint joinPoint, String consentId, boolean withBalance) throws Throwable {
+        return proceedAndEnrich(joinPoint, (ResponseEntity<Map<String, List<AccountDetails>>> result) -> {
+            if (!hasError(result)) {
+                Map<String, List<AccountDetails>> body = result.getBody();
+                setLinksToAccountsMap(body, withBalance, linkToController());
+            }
+            return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        });
     }
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.AccountController.getTransactions(..)) && args(accountId,..)", returning = "result")
-    public ResponseEntity<AccountReport> invokeGetTransactionsAspect(ResponseEntity<AccountReport> result, String accountId) {
-        if (!hasError(result)) {
-            AccountReport body = result.getBody();
-            body.setLinks(buildLinksForAccountReport(body, accountId));
-        }
-        return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+    @Around("execution(* de.adorsys.aspsp.xs2a.web.AccountController.getTransactions(..)) && args(accountId,..)")
+    public CompletableFuture<ResponseEntity<AccountReport>> invokeGetTransactionsAspect(ProceedingJoinPoint joinPoint, String accountId) throws Throwable {
+        return proceedAndEnrich(joinPoint, (ResponseEntity<AccountReport> result) -> {
+            if (!hasError(result)) {
+                AccountReport body = result.getBody();
+                body.setLinks(buildLinksForAccountReport(body, accountId));
+            }
+            return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        });
     }
 
-    private Links buildLinksForAccountDetails(AccountDetails accountDetails, boolean withBalance) {
-        Class controller = getController();
+    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.AccountController.getTransactionsStreaming(..)) && args(accountId,..)", returning = "result")
+    public ResponseEntity<StreamingResponseBody> invokeGetTransactionsStreamingAspect(ResponseEntity<StreamingResponseBody> result, String accountId) {
+        if (result.getBody() instanceof AccountReportStreamingBody) {
+            String accountsLink = linkToController();
+            AccountReportStreamingBody body = (AccountReportStreamingBody) result.getBody();
+            Links links = new Links();
+            links.setViewAccount(buildLink(accountsLink, accountId));
+            body.setLinks(links);
+            body.setDownloadLink(buildLink(accountsLink, accountId, "transactions/download"));
+            body.setMaxJsonLength(maxNumberOfCharInTransactionJson);
+        }
+        return result;
+    }
 
+    private Links buildLinksForAccountDetails(AccountDetails accountDetails, boolean withBalance, String accountsLink) {
         Links links = new Links();
         if (withBalance) {
-            links.setViewBalances(linkTo(controller).slash(accountDetails.getId()).slash("balances").toString());
+            links.setViewBalances(buildLink(accountsLink, accountDetails.getId(), "balances"));
         }
-        links.setViewTransactions(linkTo(controller).slash(accountDetails.getId()).slash("transactions").toString());
+        links.setViewTransactions(buildLink(accountsLink, accountDetails.getId(), "transactions"));
 
         return links;
     }
 
     private Links buildLinksForAccountReport(AccountReport accountReport, String accountId) {
-        Class controller = getController();
+        String accountsLink = linkToController();
 
         Links links = new Links();
-        links.setViewAccount(linkTo(controller).slash(accountId).toString());
+        links.setViewAccount(buildLink(accountsLink, accountId));
 
-        Optional<String> optionalAccount = jsonConverter.toJson(accountReport);
-        String jsonReport = optionalAccount.orElse("");
-
-        if (jsonReport.length() > maxNumberOfCharInTransactionJson) {
-            // todo further we should implement real flow for downloading file
-            links.setDownload(linkTo(controller).slash(accountId).slash("transactions/download").toString());
+        if (jsonConverter.isJsonLongerThan(accountReport, maxNumberOfCharInTransactionJson)) {
+            links.setDownload(buildLink(accountsLink, accountId, "transactions/download"));
+        }
+        if (accountReport.getNextPageKey() != null) {
+            links.setNext(buildPageLink(accountReport.getNextPageKey()));
+        }
+        if (accountReport.getPreviousPageKey() != null) {
+            links.setPrevious(buildPageLink(accountReport.getPreviousPageKey()));
         }
         return links;
     }
 
-    private Map<String, List<AccountDetails>> setLinksToAccountsMap(Map<String, List<AccountDetails>> map, boolean withBalance) {
-        map.entrySet().forEach(list -> updateAccountLinks(list.getValue(), withBalance));
+    private String buildPageLink(String pageKey) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                   .replaceQueryParam("pageKey", pageKey)
+                   .toUriString();
+    }
+
+    private Map<String, List<AccountDetails>> setLinksToAccountsMap(Map<String, List<AccountDetails>> map, boolean withBalance, String accountsLink) {
+        map.entrySet().forEach(list -> updateAccountLinks(list.getValue(), withBalance, accountsLink));
         return map;
     }
 
-    private List<AccountDetails> updateAccountLinks(List<AccountDetails> accountDetailsList, boolean withBalance) {
+    private List<AccountDetails> updateAccountLinks(List<AccountDetails> accountDetailsList, boolean withBalance, String accountsLink) {
         return accountDetailsList.stream()
-                   .map(acc -> setLinksToAccount(acc, withBalance))
+                   .map(acc -> setLinksToAccount(acc, withBalance, accountsLink))
                    .collect(Collectors.toList());
     }
 
-    private AccountDetails setLinksToAccount(AccountDetails accountDetails, boolean withBalance) {
-        accountDetails.setLinks(buildLinksForAccountDetails(accountDetails, withBalance));
+    private AccountDetails setLinksToAccount(AccountDetails accountDetails, boolean withBalance, String accountsLink) {
+        accountDetails.setLinks(buildLinksForAccountDetails(accountDetails, withBalance, accountsLink));
         return accountDetails;
     }
 }
@@ -19,32 +19,35 @@ package de.adorsys.aspsp.xs2a.web.aspect;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.web.BulkPaymentInitiationController;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Aspect
 @Component
 public class BulkPaymentInitiationAspect extends AbstractPaymentLink<BulkPaymentInitiationController> {
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.BulkPaymentInitiationController.createBulkPaymentInitiation(..)) && args(paymentProduct,..)", returning = "result")
-    public ResponseEntity<List<PaymentInitialisationResponse>> invokeAspect(ResponseEntity<List<PaymentInitialisationResponse>> result, String paymentProduct) {
-        if (!hasError(result)) {
-            result.getBody().stream()
-                .map(paym -> setLinksAndReturnResponse(paym, paymentProduct))
-                .collect(Collectors.toList());
-        }
+    @Around("execution(* de.adorsys.aspsp.xs2a.web.BulkPaymentInitiationController.createBulkPaymentInitiation(..)) && args(paymentProduct,..)")
+    public CompletableFuture<ResponseEntity<List<PaymentInitialisationResponse>>> invokeAspect(ProceedingJoinPoint joinPoint, String paymentProduct) throws Throwable {
+        return proceedAndEnrich(joinPoint, (ResponseEntity<List<PaymentInitialisationResponse>> result) -> {
+            if (!hasError(result)) {
+                String paymentsLink = linkToController(paymentProduct);
+                String redirectUrlToAspsp = aspspProfileService.getPisRedirectUrlToAspsp();
+                result.getBody()
+                    .forEach(paym -> setLinks(paym, paymentsLink, redirectUrlToAspsp));
+            }
 
-        return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+            return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        });
     }
 
-    private PaymentInitialisationResponse setLinksAndReturnResponse(PaymentInitialisationResponse response, String paymentProduct) {
-        response.setLinks(buildPaymentLinks(response, paymentProduct));
-        return response;
+    private void setLinks(PaymentInitialisationResponse response, String paymentsLink, String redirectUrlToAspsp) {
+        response.setLinks(buildPaymentLinks(response, paymentsLink, redirectUrlToAspsp));
     }
 }
@@ -48,7 +48,7 @@ public class FailResponseAspect {
     private ResponseObject doEnrich(ResponseObject response) {
         MessageError error = response.getError();
         TppMessageInformation tppMessage = error.getTppMessage();
-        tppMessage.setText(messageService.getMessage(tppMessage.getMessageErrorCode().name()));
+        tppMessage.setText(messageService.getMessage(tppMessage.getMessageErrorCode()));
         error.addTppMessage(tppMessage);
         return ResponseObject.builder()
                    .fail(error)
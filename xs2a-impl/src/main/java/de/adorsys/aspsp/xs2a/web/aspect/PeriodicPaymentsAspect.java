@@ -19,22 +19,27 @@ package de.adorsys.aspsp.xs2a.web.aspect;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.web.PeriodicPaymentsController;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Aspect
 @Component
 public class PeriodicPaymentsAspect extends AbstractPaymentLink<PeriodicPaymentsController> {
 
-    @AfterReturning(pointcut = "execution(* de.adorsys.aspsp.xs2a.web.PeriodicPaymentsController.createPeriodicPayment(..)) && args(paymentProduct,..)", returning = "result")
-    public ResponseEntity<PaymentInitialisationResponse> invokeAspect(ResponseEntity<PaymentInitialisationResponse> result, String paymentProduct) {
-        if (!hasError(result)) {
-            PaymentInitialisationResponse body = result.getBody();
-            body.setLinks(buildPaymentLinks(body, paymentProduct));
-        }
-        return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+    @Around("execution(* de.adorsys.aspsp.xs2a.web.PeriodicPaymentsController.createPeriodicPayment(..)) && args(paymentProduct,..)")
+    public CompletableFuture<ResponseEntity<PaymentInitialisationResponse>> invokeAspect(ProceedingJoinPoint joinPoint, String paymentProduct) throws Throwable {
+        return proceedAndEnrich(joinPoint, (ResponseEntity<PaymentInitialisationResponse> result) -> {
+            if (!hasError(result)) {
+                PaymentInitialisationResponse body = result.getBody();
+                body.setLinks(buildPaymentLinks(body, paymentProduct));
+            }
+            return new ResponseEntity<>(result.getBody(), result.getHeaders(), result.getStatusCode());
+        });
     }
 }
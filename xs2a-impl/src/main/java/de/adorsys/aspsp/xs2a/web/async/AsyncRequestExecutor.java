@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes handler methods bound to CMS and SPI on a bounded pool of dedicated threads, so that the servlet container
+ * thread is released as soon as the request is started asynchronously and the response is written when the returned
+ * future is completed. SPI and CMS clients are blocking, so at most async-request.pool-size tasks call them at
+ * a time, further requests wait in the queue without holding a thread.<br>
+ * Request scoped beans and links to the current request are used by services and aspects, so the task is executed
+ * with request attributes of the current request. The request attributes are completed as soon as the task returns,
+ * before the future is completed, since the container may recycle the request as soon as the response is written.
+ * Stages added to the future before its completion are executed with the request, e.g. to build links.<br>
+ * Tasks have no time limit, neither of the container nor of this executor, so the response is never written while
+ * the task still uses the request. Tasks are limited by the timeouts of SPI and CMS clients.<br>
+ * If the queue of the pool is full, the task is executed by the calling thread. If async execution is disabled, all
+ * tasks are executed by the calling thread and completed futures are returned.
+ */
+@Slf4j
+@Component
+public class AsyncRequestExecutor {
+    private final ThreadPoolExecutor executor;
+
+    public AsyncRequestExecutor(@Value("${async-request.enabled:true}") boolean enabled,
+                                @Value("${async-request.pool-size:200}") int poolSize,
+                                @Value("${async-request.queue-capacity:2000}") int queueCapacity) {
+        if (enabled) {
+            AtomicInteger threadCounter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "async-request-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+            this.executor.allowCoreThreadTimeOut(true);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes given task of the current request
+     *
+     * @param task task to be executed, e.g. service call and mapping of its result to the response
+     * @return future completed with the result of the task or exceptionally with the exception thrown by the task
+     */
+    public <T> CompletableFuture<T> execute(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (executor == null || !(requestAttributes instanceof ServletRequestAttributes)) {
+            complete(result, task, () -> {
+            });
+            return result;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        HttpServletResponse response = ((ServletRequestAttributes) requestAttributes).getResponse();
+        executor.execute(() -> executeWithRequest(request, response, task, result));
+        return result;
+    }
+
+    private <T> void executeWithRequest(HttpServletRequest request, HttpServletResponse response, Supplier<T> task, CompletableFuture<T> result) {
+        // request attributes of the handler thread are completed as soon as the handler method returns
+        ServletRequestAttributes requestAttributes = new ServletRequestAttributes(request, response);
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            complete(result, task, requestAttributes::requestCompleted);
+        } finally {
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+    }
+
+    private <T> void complete(CompletableFuture<T> result, Supplier<T> task, Runnable beforeCompletion) {
+        T value;
+        try {
+            value = task.get();
+        } catch (RuntimeException e) {
+            log.debug("Async request failed: {}", e.getMessage());
+            beforeCompletion.run();
+            result.completeExceptionally(e);
+            return;
+        }
+        beforeCompletion.run();
+        result.complete(value);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Executes tasks with request attributes of the request, which submitted them, e.g. writing of streaming response
+ * bodies, which read from ASPSP with request scoped beans like the bearer token. The task gets own attributes of
+ * the request, since attributes of the submitting thread are completed as soon as its handler method returns.<br>
+ * Is only used for tasks, which are completed before the response of their request, so the request is never
+ * accessed after the container recycled it.
+ */
+public class RequestAttributesTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestAttributes currentAttributes = RequestContextHolder.getRequestAttributes();
+        if (!(currentAttributes instanceof ServletRequestAttributes)) {
+            return runnable;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) currentAttributes).getRequest();
+        HttpServletResponse response = ((ServletRequestAttributes) currentAttributes).getResponse();
+        return () -> {
+            ServletRequestAttributes requestAttributes = new ServletRequestAttributes(request, response);
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                runnable.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                requestAttributes.requestCompleted();
+            }
+        };
+    }
+}
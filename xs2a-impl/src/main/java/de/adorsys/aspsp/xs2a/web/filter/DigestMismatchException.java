@@ -14,13 +14,16 @@
  * limitations under the License.
  */
 
-package de.adorsys.aspsp.xs2a.service.validator.parameter.impl;
 
-import de.adorsys.aspsp.xs2a.service.validator.parameter.RequestParameter;
-import io.swagger.annotations.ApiModel;
+package de.adorsys.aspsp.xs2a.web.filter;
 
+import java.io.IOException;
 
-@ApiModel(description = "Is used when handler is not matched", value = "NotMatchedParameterImpl")
-public class NotMatchedParameterImpl implements RequestParameter {
-
+/**
+ * Thrown at the end of request body, if digest of the body read does not match 'digest' header
+ */
+public class DigestMismatchException extends IOException {
+    public DigestMismatchException() {
+        super("Digest of request body does not match digest header");
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.filter;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Request wrapper, that calculates digest of request body while it is being read by message converters.
+ * Body bytes are passed through without buffering, expected digest is compared once the end of stream is reached
+ * or the stream is closed. On mismatch {@link DigestMismatchException} is thrown to the reader.
+ */
+class DigestVerifyingRequestWrapper extends HttpServletRequestWrapper {
+    private final RequestDigest requestDigest;
+    private DigestVerifyingInputStream inputStream;
+    private BufferedReader reader;
+
+    DigestVerifyingRequestWrapper(HttpServletRequest request, RequestDigest requestDigest) {
+        super(request);
+        this.requestDigest = requestDigest;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (reader != null) {
+            throw new IllegalStateException("getReader() has already been called for this request");
+        }
+        return obtainInputStream();
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            if (inputStream != null) {
+                throw new IllegalStateException("getInputStream() has already been called for this request");
+            }
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(obtainInputStream(), charset));
+        }
+        return reader;
+    }
+
+    private DigestVerifyingInputStream obtainInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new DigestVerifyingInputStream(super.getInputStream(), requestDigest.createMessageDigest());
+        }
+        return inputStream;
+    }
+
+    private class DigestVerifyingInputStream extends ServletInputStream {
+        private static final int DRAIN_BUFFER_SIZE = 1024;
+
+        private final ServletInputStream delegate;
+        private final MessageDigest messageDigest;
+        private boolean verified;
+
+        DigestVerifyingInputStream(ServletInputStream delegate, MessageDigest messageDigest) {
+            this.delegate = delegate;
+            this.messageDigest = messageDigest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value < 0) {
+                verify();
+            } else {
+                messageDigest.update((byte) value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = delegate.read(buffer, offset, length);
+            if (count < 0) {
+                verify();
+            } else {
+                messageDigest.update(buffer, offset, count);
+            }
+            return count;
+        }
+
+        /**
+         * Parsers may stop reading right after the last token, so the rest of the body (usually trailing whitespace)
+         * is consumed here to have the complete body digested.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+                while (!verified && read(buffer, 0, buffer.length) >= 0) {
+                    // body bytes are digested in read()
+                }
+            } finally {
+                delegate.close();
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        private void verify() throws DigestMismatchException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+            if (!requestDigest.matches(messageDigest.digest())) {
+                throw new DigestMismatchException();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.filter;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.xml.bind.DatatypeConverter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Expected digest of request body, parsed from 'digest' header.
+ * Both 'SHA-256=&lt;base64&gt;' / 'SHA-512=&lt;base64&gt;' form and plain hex encoded SHA-256 or SHA-512 value are accepted.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class RequestDigest {
+    private static final String SHA_256 = "SHA-256";
+    private static final String SHA_512 = "SHA-512";
+    private static final int SHA_256_LENGTH = 32;
+    private static final int SHA_512_LENGTH = 64;
+
+    private final String algorithm;
+    private final byte[] expectedValue;
+
+    /**
+     * Parses digest header value
+     *
+     * @param header value of 'digest' header
+     * @return parsed digest or null if header is absent or has wrong format
+     */
+    static RequestDigest parse(String header) {
+        if (StringUtils.isBlank(header)) {
+            return null;
+        }
+        String value = header.trim();
+        try {
+            if (isHex(value)) {
+                byte[] decoded = DatatypeConverter.parseHexBinary(value);
+                return create(decoded.length == SHA_256_LENGTH ? SHA_256 : SHA_512, decoded);
+            }
+            int separator = value.indexOf('=');
+            if (separator <= 0) {
+                return null;
+            }
+            return create(value.substring(0, separator).toUpperCase(), Base64.getDecoder().decode(value.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm is not supported: " + algorithm, e);
+        }
+    }
+
+    boolean matches(byte[] actualValue) {
+        return MessageDigest.isEqual(expectedValue, actualValue);
+    }
+
+    private static RequestDigest create(String algorithm, byte[] expectedValue) {
+        boolean supported = SHA_256.equals(algorithm) && expectedValue.length == SHA_256_LENGTH
+                                || SHA_512.equals(algorithm) && expectedValue.length == SHA_512_LENGTH;
+        return supported ? new RequestDigest(algorithm, expectedValue) : null;
+    }
+
+    private static boolean isHex(String value) {
+        return value.chars().allMatch(c -> Character.digit(c, 16) >= 0);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.filter;
+
+import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
+import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
+import de.adorsys.aspsp.xs2a.service.validator.TppRoleValidationService;
+import de.adorsys.psd2.validator.certificate.CertificateErrorMsgCode;
+import de.adorsys.psd2.validator.certificate.CertificateValidatorFactory;
+import de.adorsys.psd2.validator.certificate.CertificateVerificationCache;
+import de.adorsys.psd2.validator.certificate.VerifiedCertificate;
+import de.adorsys.psd2.validator.certificate.util.CertificateUtils;
+import de.adorsys.psd2.validator.signature.TppSignatureValidator;
+import lombok.extern.slf4j.Slf4j;
+import no.difi.certvalidator.api.CertificateValidationException;
+import no.difi.certvalidator.util.SimpleCertificateBucket;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SignatureException;
+import java.security.cert.CertificateException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Authenticates TPP in a single pass: takes one snapshot of request headers, validates TPP certificate,
+ * checks TPP roles against requested resource and verifies request signature.
+ * Request body is checked against 'digest' header while it is being read, see {@link DigestVerifyingRequestWrapper}.
+ * The result is stored as {@link TppSecurityContext} request attribute for later stages.
+ */
+@Slf4j
+@Component
+@Order(1)
+public class TppSecurityFilter implements Filter {
+    private static final String TPP_CERTIFICATE_HEADER = "tpp-certificate";
+    private static final String TPP_SIGNATURE_CERTIFICATE_HEADER = "tpp-signature-certificate";
+    private static final String SIGNATURE_HEADER = "signature";
+    private static final String DIGEST_HEADER = "digest";
+    private static final String TPP_REDIRECT_URI_HEADER = "tpp-redirect-uri";
+    private static final String TPP_NOK_REDIRECT_URI_HEADER = "tpp-nok-redirect-uri";
+    private static final String ACCESS_FORBIDDEN = "Returned if the resource that was referenced in the path exists but cannot be accessed by the TPP or the PSU";
+
+    @Autowired
+    private AspspProfileService aspspProfileService;
+    @Autowired
+    private TppRoleValidationService tppRoleValidationService;
+    @Autowired
+    private PaymentMapper paymentMapper;
+
+    @Value("${tpp-certificate.cache.max-size:1000}")
+    private int cacheMaxSize;
+    @Value("${tpp-certificate.cache.ttl.ms:600000}")
+    private long cacheTtl;
+    @Value("${tpp-certificate.cache.negative-ttl.ms:5000}")
+    private long cacheNegativeTtl;
+
+    private CertificateVerificationCache certificateVerificationCache;
+    private final TppSignatureValidator tppSignatureValidator = new TppSignatureValidator();
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        certificateVerificationCache = new CertificateVerificationCache(createValidatorFactory(), cacheMaxSize, cacheTtl, cacheNegativeTtl);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            throw new ServletException("TppSecurityFilter just supports HTTP requests");
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+
+        Map<String, String> headers = obtainRequestHeaders(httpRequest);
+
+        TppSecurityContext securityContext;
+        HttpServletRequest filteredRequest = httpRequest;
+        if (aspspProfileService.getTppSignatureRequired()) {
+            RequestDigest requestDigest = RequestDigest.parse(headers.get(DIGEST_HEADER));
+            securityContext = authenticate(httpRequest, httpResponse, headers, requestDigest);
+            if (securityContext == null) {
+                return;
+            }
+            filteredRequest = new DigestVerifyingRequestWrapper(httpRequest, requestDigest);
+        } else {
+            // without signatures TPP information is sent as base64 encoded JSON instead of a certificate
+            TppInfo tppInfo = paymentMapper.mapToTppInfo(headers.get(TPP_SIGNATURE_CERTIFICATE_HEADER));
+            securityContext = TppSecurityContext.unauthenticated(headers, tppInfo);
+        }
+
+        filteredRequest.setAttribute(TppSecurityContext.REQUEST_ATTRIBUTE, securityContext);
+        chain.doFilter(filteredRequest, response);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private TppSecurityContext authenticate(HttpServletRequest request, HttpServletResponse response,
+                                            Map<String, String> headers, RequestDigest requestDigest) throws IOException {
+        VerifiedCertificate verifiedCertificate;
+        try {
+            verifiedCertificate = certificateVerificationCache.validate(headers.get(TPP_CERTIFICATE_HEADER));
+        } catch (CertificateException | CertificateValidationException e) {
+            log.debug(e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+            return null;
+        }
+
+        if (!tppRoleValidationService.validate(request, verifiedCertificate.getTppCertificateData().getPspRoles())) {
+            log.debug(ACCESS_FORBIDDEN);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, ACCESS_FORBIDDEN);
+            return null;
+        }
+
+        String signature = headers.get(SIGNATURE_HEADER);
+        if (StringUtils.isBlank(signature)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, CertificateErrorMsgCode.SIGNATURE_MISSING.toString());
+            return null;
+        }
+
+        if (requestDigest == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, CertificateErrorMsgCode.FORMAT_ERROR.toString());
+            return null;
+        }
+
+        try {
+            if (!tppSignatureValidator.verifySignature(signature, headers.get(TPP_SIGNATURE_CERTIFICATE_HEADER), headers)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, CertificateErrorMsgCode.SIGNATURE_INVALID.toString());
+                return null;
+            }
+        } catch (NoSuchAlgorithmException | SignatureException e) {
+            log.debug(e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, CertificateErrorMsgCode.SIGNATURE_INVALID.toString());
+            return null;
+        }
+
+        TppInfo tppInfo = paymentMapper.mapToTppInfo(verifiedCertificate.getTppCertificateData(),
+            headers.get(TPP_REDIRECT_URI_HEADER), headers.get(TPP_NOK_REDIRECT_URI_HEADER));
+        return TppSecurityContext.authenticated(headers, verifiedCertificate.getCertificate(),
+            verifiedCertificate.getTppCertificateData(), tppInfo);
+    }
+
+    private Map<String, String> obtainRequestHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String name = headerNames.nextElement();
+            headers.put(name, request.getHeader(name));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    private CertificateValidatorFactory createValidatorFactory() {
+        SimpleCertificateBucket blockedCertBucket = new SimpleCertificateBucket(CertificateUtils.getCertificates("blockedcert"));
+        SimpleCertificateBucket rootCertBucket = new SimpleCertificateBucket(CertificateUtils.getCertificates("rootcert", "MyRootCA.pem"));
+        SimpleCertificateBucket intermediateCertBucket = new SimpleCertificateBucket(CertificateUtils.getCertificates("intermediatecert"));
+        return new CertificateValidatorFactory(blockedCertBucket, rootCertBucket, intermediateCertBucket);
+    }
+}
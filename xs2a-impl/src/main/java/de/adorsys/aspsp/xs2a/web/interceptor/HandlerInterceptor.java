@@ -16,39 +16,38 @@
 
 package de.adorsys.aspsp.xs2a.web.interceptor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
-import de.adorsys.aspsp.xs2a.domain.TppMessageInformation;
 import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
-import de.adorsys.aspsp.xs2a.exception.MessageError;
+import de.adorsys.aspsp.xs2a.service.MessageService;
 import de.adorsys.aspsp.xs2a.service.validator.RequestValidatorService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Map;
 
-import static de.adorsys.aspsp.xs2a.exception.MessageCategory.ERROR;
-
 @Slf4j
 @Component
 public class HandlerInterceptor extends HandlerInterceptorAdapter {
     private final RequestValidatorService requestValidatorService;
-    private final ObjectMapper objectMapper;
+    private final MessageService messageService;
 
     @Autowired
-    public HandlerInterceptor(RequestValidatorService requestValidatorService, ObjectMapper objectMapper) {
+    public HandlerInterceptor(RequestValidatorService requestValidatorService, MessageService messageService) {
         this.requestValidatorService = requestValidatorService;
-        this.objectMapper = objectMapper;
+        this.messageService = messageService;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
-        return isRequestValidAndSendRespIfError(request, response, handler);
+        // request is validated once before the handler is started, not again when the async result is dispatched
+        return DispatcherType.ASYNC == request.getDispatcherType()
+                   || isRequestValidAndSendRespIfError(request, response, handler);
     }
 
     private boolean isRequestValidAndSendRespIfError(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
@@ -61,13 +60,14 @@ public class HandlerInterceptor extends HandlerInterceptorAdapter {
             Map.Entry<String, String> firstError = violationsMap.entrySet().iterator().next();
             MessageErrorCode messageCode = getActualMessageErrorCode(firstError.getKey());
 
-            log.debug("Handled error {}", messageCode.name() + ": " + firstError.getValue());
+            log.debug("Handled error {}: {}", messageCode.name(), firstError.getValue());
+            byte[] body = messageService.getErrorBody(messageCode, TransactionStatus.RJCT);
             response.resetBuffer();
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             response.setCharacterEncoding("UTF-8");
             response.setHeader("Content-Type", "application/json");
-            response.getWriter().write(objectMapper.writeValueAsString(
-                new MessageError(TransactionStatus.RJCT, new TppMessageInformation(ERROR, messageCode))));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
             response.flushBuffer();
             return false;
         }
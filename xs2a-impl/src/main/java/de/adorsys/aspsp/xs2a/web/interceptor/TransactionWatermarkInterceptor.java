@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.interceptor;
+
+import de.adorsys.aspsp.xs2a.service.consent.ais.PendingTransactionWatermark;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Stores the watermark of a delta transaction report in CMS once the report was written to the response.
+ * The original dispatch of an async request is not completed with this callback, only the dispatch writing the result is
+ */
+@RequiredArgsConstructor
+public class TransactionWatermarkInterceptor extends HandlerInterceptorAdapter {
+    private final PendingTransactionWatermark pendingTransactionWatermark;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex == null && HttpStatus.valueOf(response.getStatus()).is2xxSuccessful()) {
+            pendingTransactionWatermark.commit();
+        }
+    }
+}
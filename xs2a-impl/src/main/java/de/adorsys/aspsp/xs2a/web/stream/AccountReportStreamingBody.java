@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.adorsys.aspsp.xs2a.domain.Links;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReportStream;
+import lombok.Setter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes account report in the same JSON form as {@link de.adorsys.aspsp.xs2a.domain.account.AccountReport},
+ * mapping and serializing booked and pending transactions one at a time as they are read from ASPSP.
+ * Download link is added to the report links only if the written transactions exceed the maximum JSON length.
+ */
+public class AccountReportStreamingBody implements StreamingResponseBody {
+    private final AccountReportStream report;
+    private final ObjectWriter objectWriter;
+
+    @Setter
+    private Links links;
+    @Setter
+    private String downloadLink;
+    @Setter
+    private int maxJsonLength = Integer.MAX_VALUE;
+
+    public AccountReportStreamingBody(AccountReportStream report, ObjectMapper objectMapper) {
+        this.report = report;
+        this.objectWriter = objectMapper.writer()
+                                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        try (AccountReportStream source = report;
+             JsonGenerator generator = objectWriter.getFactory().createGenerator(countingStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // a report broken by a failure in the middle must not be completed to a valid JSON
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartObject();
+            writeTransactions(generator, "booked", source.getBooked());
+            writeTransactions(generator, "pending", source.getPending());
+            generator.flush();
+
+            Links reportLinks = links;
+            if (reportLinks != null && downloadLink != null && countingStream.getCount() > maxJsonLength) {
+                reportLinks.setDownload(downloadLink);
+            }
+            if (reportLinks != null) {
+                generator.writeFieldName("_links");
+                objectWriter.writeValue(generator, reportLinks);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeTransactions(JsonGenerator generator, String fieldName, Stream<Transactions> transactions) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        Iterator<Transactions> iterator = transactions.iterator();
+        while (iterator.hasNext()) {
+            objectWriter.writeValue(generator, iterator.next());
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.aspsp.xs2a.web.stream.StatementSnapshotStore.SnapshotOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static de.adorsys.aspsp.xs2a.web.stream.SpooledStatementCleanupInterceptor.SPOOLED_STATEMENT_ATTRIBUTE;
+
+/**
+ * Creates responses for account statement downloads.
+ * Statement is streamed without known length (chunked transfer), optionally compressed with gzip if accepted by TPP.
+ * The ETag contains the statement creation time and the id of a snapshot, which records the bytes actually written
+ * to the response, so the transactions are read once while the statement is generated.<br>
+ * Interrupted downloads may be resumed with 'Range' header, if the ETag of the first response is sent back in
+ * 'If-Range' header. The statement is then generated once with the same creation time into a temporary file and
+ * the requested part is written only if the new file starts with the bytes sent with the snapshot, otherwise the whole
+ * new statement is written. 'Range' without 'If-Range' is ignored, as parts of different statements must not be
+ * combined.<br>
+ * Responses are created by tasks of the async request executor, so that the statement is spooled off the container
+ * thread. The spooled file is deleted after writing or on completion of the request.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountStatementResponseFactory {
+    private static final Pattern ETAG_PATTERN = Pattern.compile("^\"([a-z0-9.]+)-(gz-)?(\\d{1,12})-([0-9a-f-]{36})\"$");
+    private static final String GZIP = "gzip";
+    private static final String BYTES = "bytes";
+
+    private final ResponseMapper responseMapper;
+    private final StatementSnapshotStore snapshotStore;
+
+    /**
+     * @param response       response object with account statement
+     * @param format         format of the statement file
+     * @param acceptEncoding value of 'Accept-Encoding' header, may be null
+     * @param range          value of 'Range' header, may be null
+     * @param ifRange        value of 'If-Range' header, may be null
+     * @return response entity, which streams the statement file or its requested part
+     */
+    public ResponseEntity<StreamingResponseBody> createResponse(ResponseObject<AccountStatement> response, StatementFormat format,
+                                                                String acceptEncoding, String range, String ifRange) throws IOException {
+        if (response.hasError()) {
+            return responseMapper.streamingError(response.getError());
+        }
+        AccountStatement statement = response.getBody();
+        boolean gzip = isGzipAccepted(acceptEncoding);
+
+        ByteRange byteRange = ByteRange.parse(range);
+        Matcher requestedETag = byteRange != null
+                                    ? matchETag(ifRange, format, gzip)
+                                    : null;
+        if (requestedETag == null) {
+            Instant creationTime = Instant.ofEpochSecond(Instant.now().getEpochSecond());
+            String snapshotId = snapshotStore.createSnapshotId();
+            HttpHeaders headers = getHeaders(statement, format, gzip, creationTime, snapshotId);
+            return new ResponseEntity<>(AccountStatementStreamingBody.whole(statement, format, creationTime, gzip, getSnapshotRecorder(snapshotId)), headers, HttpStatus.OK);
+        }
+
+        Instant creationTime = Instant.ofEpochSecond(Long.parseLong(requestedETag.group(3)));
+        Path file = Files.createTempFile("statement-", ".tmp");
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(SPOOLED_STATEMENT_ATTRIBUTE, file, RequestAttributes.SCOPE_REQUEST);
+        }
+        try {
+            AccountStatementStreamingBody.spool(statement, format, creationTime, gzip, file);
+            long totalLength = Files.size(file);
+            OptionalLong sentLength = snapshotStore.getSentLength(requestedETag.group(4), file);
+            if (!sentLength.isPresent()
+                    || byteRange.isSatisfiable(totalLength) && byteRange.getStart(totalLength) > sentLength.getAsLong()) {
+                String snapshotId = snapshotStore.createSnapshotId();
+                HttpHeaders headers = getHeaders(statement, format, gzip, creationTime, snapshotId);
+                return new ResponseEntity<>(new SpooledStatementBody(file, 0, totalLength, getSnapshotRecorder(snapshotId)), headers, HttpStatus.OK);
+            }
+            HttpHeaders headers = getHeaders(statement, format, gzip, creationTime, requestedETag.group(4));
+            if (!byteRange.isSatisfiable(totalLength)) {
+                Files.deleteIfExists(file);
+                headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " */" + totalLength);
+                return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            }
+            long start = byteRange.getStart(totalLength);
+            long end = byteRange.getEnd(totalLength);
+            headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + totalLength);
+            headers.setContentLength(end - start + 1);
+            return new ResponseEntity<>(new SpooledStatementBody(file, start, end - start + 1, null), headers, HttpStatus.PARTIAL_CONTENT);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private Function<OutputStream, SnapshotOutputStream> getSnapshotRecorder(String snapshotId) {
+        return outputStream -> snapshotStore.record(snapshotId, outputStream);
+    }
+
+    private HttpHeaders getHeaders(AccountStatement statement, StatementFormat format, boolean gzip, Instant creationTime, String snapshotId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + getFileName(statement, format, gzip) + "\"");
+        headers.setETag(getETag(format, gzip, creationTime, snapshotId));
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES);
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return headers;
+    }
+
+    private boolean isGzipAccepted(String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private Matcher matchETag(String ifRange, StatementFormat format, boolean gzip) {
+        if (ifRange == null) {
+            return null;
+        }
+        Matcher matcher = ETAG_PATTERN.matcher(ifRange.trim());
+        return matcher.matches()
+                   && format.getDescription().equals(matcher.group(1))
+                   && gzip == (matcher.group(2) != null)
+                   ? matcher
+                   : null;
+    }
+
+    private String getETag(StatementFormat format, boolean gzip, Instant creationTime, String snapshotId) {
+        return "\"" + format.getDescription() + "-" + (gzip ? "gz-" : "") + creationTime.getEpochSecond() + "-" + snapshotId + "\"";
+    }
+
+    private String getFileName(AccountStatement statement, StatementFormat format, boolean gzip) {
+        return "statement-" + statement.getDateFrom() + "-" + statement.getDateTo() + "." + format.getFileExtension() + (gzip ? ".gz" : "");
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+import de.adorsys.aspsp.xs2a.web.stream.StatementSnapshotStore.SnapshotOutputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates account statement file in a single pass over the transactions, while it is written to the response.
+ * The file may be compressed with gzip. Bytes written to the response are recorded as snapshot of the statement.
+ */
+class AccountStatementStreamingBody implements StreamingResponseBody {
+    private final AccountStatement statement;
+    private final StatementFormat format;
+    private final Instant creationTime;
+    private final boolean gzip;
+    private final Function<OutputStream, SnapshotOutputStream> snapshotRecorder;
+
+    private AccountStatementStreamingBody(AccountStatement statement, StatementFormat format, Instant creationTime, boolean gzip,
+                                          Function<OutputStream, SnapshotOutputStream> snapshotRecorder) {
+        this.statement = statement;
+        this.format = format;
+        this.creationTime = creationTime;
+        this.gzip = gzip;
+        this.snapshotRecorder = snapshotRecorder;
+    }
+
+    /**
+     * @param snapshotRecorder wraps the response stream, so that the bytes sent are saved as snapshot of the ETag
+     */
+    static AccountStatementStreamingBody whole(AccountStatement statement, StatementFormat format, Instant creationTime, boolean gzip,
+                                               Function<OutputStream, SnapshotOutputStream> snapshotRecorder) {
+        return new AccountStatementStreamingBody(statement, format, creationTime, gzip, snapshotRecorder);
+    }
+
+    /**
+     * Generates the whole statement file once into the given file, so that any part of it may be written afterwards
+     */
+    static void spool(AccountStatement statement, StatementFormat format, Instant creationTime, boolean gzip, Path file) throws IOException {
+        try (Stream<Transactions> source = statement.getTransactionSource().get();
+             OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(statement, format, creationTime, gzip, source, outputStream);
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        SnapshotOutputStream snapshotStream = snapshotRecorder.apply(outputStream);
+        try (Stream<Transactions> source = statement.getTransactionSource().get()) {
+            write(statement, format, creationTime, gzip, source, snapshotStream);
+        } finally {
+            snapshotStream.finish();
+        }
+        outputStream.flush();
+    }
+
+    private static void write(AccountStatement statement, StatementFormat format, Instant creationTime, boolean gzip,
+                              Stream<Transactions> transactions, OutputStream outputStream) throws IOException {
+        if (gzip) {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+            format.getWriter().write(statement, transactions.iterator(), creationTime, gzipStream);
+            gzipStream.finish();
+        } else {
+            format.getWriter().write(statement, transactions.iterator(), creationTime, outputStream);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+
+/**
+ * Writes account statement file in one pass over the transactions.
+ * The output has to depend on the given arguments only, so that the same statement can be generated again
+ * to resume an interrupted download.
+ */
+interface AccountStatementWriter {
+
+    /**
+     * @param statement    account and period of the statement
+     * @param transactions transactions of the statement, read one at a time
+     * @param creationTime creation time of the statement
+     * @param outputStream stream to write the statement to, is not closed by the writer
+     */
+    void write(AccountStatement statement, Iterator<Transactions> transactions, Instant creationTime, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single byte range requested with HTTP 'Range' header, e.g. "bytes=100-199", "bytes=100-" or "bytes=-100"
+ */
+class ByteRange {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final Long firstPosition;
+    private final Long lastPosition;
+    private final Long suffixLength;
+
+    private ByteRange(Long firstPosition, Long lastPosition, Long suffixLength) {
+        this.firstPosition = firstPosition;
+        this.lastPosition = lastPosition;
+        this.suffixLength = suffixLength;
+    }
+
+    /**
+     * Parses value of 'Range' header. Multiple ranges and other units are not supported.
+     *
+     * @param header value of 'Range' header
+     * @return parsed range or null, if the header is absent or not supported, so that it should be ignored
+     */
+    static ByteRange parse(String header) {
+        if (StringUtils.isBlank(header)) {
+            return null;
+        }
+        Matcher matcher = RANGE_PATTERN.matcher(header.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        try {
+            if (first.isEmpty()) {
+                return last.isEmpty()
+                           ? null
+                           : new ByteRange(null, null, Long.parseLong(last));
+            }
+            ByteRange range = new ByteRange(Long.parseLong(first), last.isEmpty() ? null : Long.parseLong(last), null);
+            return range.lastPosition != null && range.lastPosition < range.firstPosition
+                       ? null
+                       : range;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    boolean isSatisfiable(long totalLength) {
+        return suffixLength != null
+                   ? suffixLength > 0 && totalLength > 0
+                   : firstPosition < totalLength;
+    }
+
+    long getStart(long totalLength) {
+        return suffixLength != null
+                   ? Math.max(0, totalLength - suffixLength)
+                   : firstPosition;
+    }
+
+    long getEnd(long totalLength) {
+        return suffixLength != null || lastPosition == null
+                   ? totalLength - 1
+                   : Math.min(lastPosition, totalLength - 1);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.Amount;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+import de.adorsys.aspsp.xs2a.domain.code.BankTransactionCode;
+import de.adorsys.aspsp.xs2a.domain.code.PurposeCode;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Writes ISO 20022 Bank to Customer Statement (camt.053.001.02) with StAX, one entry per transaction.
+ */
+class Camt053StatementWriter implements AccountStatementWriter {
+    private static final String NAMESPACE = "urn:iso:std:iso:20022:tech:xsd:camt.053.001.02";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    @Override
+    public void write(AccountStatement statement, Iterator<Transactions> transactions, Instant creationTime, OutputStream outputStream) throws IOException {
+        try {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("Document");
+            writer.writeDefaultNamespace(NAMESPACE);
+            writer.writeStartElement("BkToCstmrStmt");
+
+            String statementId = getStatementId(statement, creationTime);
+            writer.writeStartElement("GrpHdr");
+            writeElement(writer, "MsgId", statementId);
+            writeElement(writer, "CreDtTm", DATE_TIME_FORMATTER.format(creationTime));
+            writer.writeEndElement();
+
+            writer.writeStartElement("Stmt");
+            writeElement(writer, "Id", statementId);
+            writeElement(writer, "CreDtTm", DATE_TIME_FORMATTER.format(creationTime));
+            writePeriod(writer, statement.getDateFrom(), statement.getDateTo());
+            writeAccount(writer, statement.getAccount());
+            while (transactions.hasNext()) {
+                writeEntry(writer, transactions.next());
+            }
+            writer.writeEndElement();
+
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Can't write camt.053 statement", e);
+        }
+    }
+
+    private void writePeriod(XMLStreamWriter writer, LocalDate dateFrom, LocalDate dateTo) throws XMLStreamException {
+        writer.writeStartElement("FrToDt");
+        writeElement(writer, "FrDtTm", dateFrom.atStartOfDay().toString() + ":00");
+        writeElement(writer, "ToDtTm", dateTo.atTime(23, 59, 59).toString());
+        writer.writeEndElement();
+    }
+
+    private void writeAccount(XMLStreamWriter writer, AccountDetails account) throws XMLStreamException {
+        writer.writeStartElement("Acct");
+        writeAccountId(writer, account.getIban(), account.getId());
+        if (account.getCurrency() != null) {
+            writeElement(writer, "Ccy", account.getCurrency().getCurrencyCode());
+        }
+        writer.writeEndElement();
+    }
+
+    private void writeEntry(XMLStreamWriter writer, Transactions transaction) throws XMLStreamException {
+        BigDecimal amount = Optional.ofNullable(transaction.getAmount())
+                                .map(Amount::getContent)
+                                .map(BigDecimal::new)
+                                .orElse(BigDecimal.ZERO);
+
+        writer.writeStartElement("Ntry");
+        writeElement(writer, "NtryRef", transaction.getTransactionId());
+        writer.writeStartElement("Amt");
+        if (transaction.getAmount() != null && transaction.getAmount().getCurrency() != null) {
+            writer.writeAttribute("Ccy", transaction.getAmount().getCurrency().getCurrencyCode());
+        }
+        writer.writeCharacters(amount.abs().toPlainString());
+        writer.writeEndElement();
+        writeElement(writer, "CdtDbtInd", amount.signum() < 0 ? "DBIT" : "CRDT");
+        writeElement(writer, "Sts", transaction.getBookingDate() != null ? "BOOK" : "PDNG");
+        writeDate(writer, "BookgDt", transaction.getBookingDate());
+        writeDate(writer, "ValDt", transaction.getValueDate());
+
+        writer.writeStartElement("BkTxCd");
+        writer.writeStartElement("Prtry");
+        writeElement(writer, "Cd", Optional.ofNullable(transaction.getBankTransactionCodeCode())
+                                       .map(BankTransactionCode::getCode)
+                                       .orElse("NOTPROVIDED"));
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeStartElement("NtryDtls");
+        writer.writeStartElement("TxDtls");
+        writeReferences(writer, transaction);
+        writeRelatedParties(writer, transaction);
+        Optional<String> purposeCode = Optional.ofNullable(transaction.getPurposeCode())
+                                           .map(PurposeCode::getCode);
+        if (purposeCode.isPresent()) {
+            writer.writeStartElement("Purp");
+            writeElement(writer, "Prtry", purposeCode.get());
+            writer.writeEndElement();
+        }
+        if (StringUtils.isNotBlank(transaction.getRemittanceInformationUnstructured())) {
+            writer.writeStartElement("RmtInf");
+            writeElement(writer, "Ustrd", transaction.getRemittanceInformationUnstructured());
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+    }
+
+    private void writeReferences(XMLStreamWriter writer, Transactions transaction) throws XMLStreamException {
+        if (StringUtils.isAllBlank(transaction.getEndToEndId(), transaction.getMandateId())) {
+            return;
+        }
+        writer.writeStartElement("Refs");
+        writeElement(writer, "EndToEndId", transaction.getEndToEndId());
+        writeElement(writer, "MndtId", transaction.getMandateId());
+        writer.writeEndElement();
+    }
+
+    private void writeRelatedParties(XMLStreamWriter writer, Transactions transaction) throws XMLStreamException {
+        writer.writeStartElement("RltdPties");
+        writeParty(writer, "Dbtr", transaction.getDebtorName());
+        writeAccountReference(writer, "DbtrAcct", transaction.getDebtorAccount());
+        writeParty(writer, "UltmtDbtr", transaction.getUltimateDebtor());
+        writeParty(writer, "Cdtr", transaction.getCreditorName());
+        writeAccountReference(writer, "CdtrAcct", transaction.getCreditorAccount());
+        writeParty(writer, "UltmtCdtr", transaction.getUltimateCreditor());
+        writer.writeEndElement();
+    }
+
+    private void writeParty(XMLStreamWriter writer, String name, String partyName) throws XMLStreamException {
+        if (StringUtils.isNotBlank(partyName)) {
+            writer.writeStartElement(name);
+            writeElement(writer, "Nm", partyName);
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeAccountReference(XMLStreamWriter writer, String name, AccountReference reference) throws XMLStreamException {
+        if (reference != null && StringUtils.isNotBlank(Optional.ofNullable(reference.getIban()).orElse(reference.getBban()))) {
+            writer.writeStartElement(name);
+            writeAccountId(writer, reference.getIban(), reference.getBban());
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeAccountId(XMLStreamWriter writer, String iban, String otherId) throws XMLStreamException {
+        writer.writeStartElement("Id");
+        if (StringUtils.isNotBlank(iban)) {
+            writeElement(writer, "IBAN", iban);
+        } else {
+            writer.writeStartElement("Othr");
+            writeElement(writer, "Id", otherId);
+            writer.writeEndElement();
+        }
+        writer.writeEndElement();
+    }
+
+    private void writeDate(XMLStreamWriter writer, String name, LocalDate date) throws XMLStreamException {
+        if (date != null) {
+            writer.writeStartElement(name);
+            writeElement(writer, "Dt", date.toString());
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeElement(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        if (value != null) {
+            writer.writeStartElement(name);
+            writer.writeCharacters(value);
+            writer.writeEndElement();
+        }
+    }
+
+    private String getStatementId(AccountStatement statement, Instant creationTime) {
+        return StringUtils.left(StringUtils.defaultString(statement.getAccount().getId()), 20) + "-" + creationTime.getEpochSecond();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.Amount;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Writes SWIFT MT940 customer statement, one statement line per booked transaction.
+ * Historical balances are not provided by ASPSP, so opening balance is written as zero and closing balance
+ * is the net turnover of the period, which is summed up while the transactions are written.
+ */
+class Mt940StatementWriter implements AccountStatementWriter {
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final DateTimeFormatter ENTRY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMdd");
+    private static final int REFERENCE_LENGTH = 16;
+    private static final int INFORMATION_LINE_LENGTH = 65;
+    private static final int INFORMATION_LINES = 6;
+
+    @Override
+    public void write(AccountStatement statement, Iterator<Transactions> transactions, Instant creationTime, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.US_ASCII));
+        AccountDetails account = statement.getAccount();
+        String currency = Optional.ofNullable(account.getCurrency())
+                              .map(Currency::getCurrencyCode)
+                              .orElse("EUR");
+
+        writeField(writer, "20", toSwiftCharacters(String.valueOf(creationTime.getEpochSecond()), REFERENCE_LENGTH));
+        writeField(writer, "25", toSwiftCharacters(StringUtils.defaultIfBlank(account.getIban(), account.getId()), 35));
+        writeField(writer, "28C", "1");
+        writeField(writer, "60F", "C" + DATE_FORMATTER.format(statement.getDateFrom()) + currency + formatAmount(BigDecimal.ZERO));
+
+        BigDecimal turnover = BigDecimal.ZERO;
+        while (transactions.hasNext()) {
+            Transactions transaction = transactions.next();
+            if (transaction.getBookingDate() == null) {
+                continue;
+            }
+            BigDecimal amount = Optional.ofNullable(transaction.getAmount())
+                                    .map(Amount::getContent)
+                                    .map(BigDecimal::new)
+                                    .orElse(BigDecimal.ZERO);
+            turnover = turnover.add(amount);
+            writeStatementLine(writer, transaction, amount);
+        }
+
+        writeField(writer, "62F", getMark(turnover) + DATE_FORMATTER.format(statement.getDateTo()) + currency + formatAmount(turnover));
+        writer.write("-");
+        writer.write(LINE_SEPARATOR);
+        writer.flush();
+    }
+
+    private void writeStatementLine(Writer writer, Transactions transaction, BigDecimal amount) throws IOException {
+        LocalDate valueDate = Optional.ofNullable(transaction.getValueDate())
+                                  .orElse(transaction.getBookingDate());
+        String customerReference = StringUtils.defaultIfBlank(toSwiftCharacters(transaction.getEndToEndId(), REFERENCE_LENGTH), "NONREF");
+        writeField(writer, "61", DATE_FORMATTER.format(valueDate)
+                                     + ENTRY_DATE_FORMATTER.format(transaction.getBookingDate())
+                                     + getMark(amount)
+                                     + formatAmount(amount)
+                                     + "NTRF"
+                                     + customerReference
+                                     + "//" + toSwiftCharacters(transaction.getTransactionId(), REFERENCE_LENGTH));
+
+        String information = toSwiftCharacters(StringUtils.defaultIfBlank(transaction.getRemittanceInformationUnstructured(),
+            transaction.getRemittanceInformationStructured()), INFORMATION_LINE_LENGTH * INFORMATION_LINES);
+        if (StringUtils.isNotBlank(information)) {
+            writer.write(":86:");
+            for (int start = 0; start < information.length(); start += INFORMATION_LINE_LENGTH) {
+                if (start > 0) {
+                    writer.write(LINE_SEPARATOR);
+                }
+                writer.write(information, start, Math.min(INFORMATION_LINE_LENGTH, information.length() - start));
+            }
+            writer.write(LINE_SEPARATOR);
+        }
+    }
+
+    private void writeField(Writer writer, String tag, String value) throws IOException {
+        writer.write(':');
+        writer.write(tag);
+        writer.write(':');
+        writer.write(value);
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private String getMark(BigDecimal amount) {
+        return amount.signum() < 0 ? "D" : "C";
+    }
+
+    private String formatAmount(BigDecimal amount) {
+        String formatted = amount.abs().toPlainString().replace('.', ',');
+        return formatted.indexOf(',') < 0
+                   ? formatted + ","
+                   : formatted;
+    }
+
+    /**
+     * Replaces characters, which are not allowed in SWIFT messages, with spaces and truncates the value
+     */
+    private String toSwiftCharacters(String value, int maxLength) {
+        if (value == null) {
+            return "";
+        }
+        String truncated = StringUtils.left(value, maxLength);
+        StringBuilder result = new StringBuilder(truncated.length());
+        for (int i = 0; i < truncated.length(); i++) {
+            char c = truncated.charAt(i);
+            result.append(isSwiftCharacter(c) ? c : ' ');
+        }
+        return result.toString().trim();
+    }
+
+    private boolean isSwiftCharacter(char c) {
+        return c >= 'a' && c <= 'z'
+                   || c >= 'A' && c <= 'Z'
+                   || c >= '0' && c <= '9'
+                   || "/-?:().,'+ ".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.web.stream.StatementSnapshotStore.SnapshotOutputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * Writes the given part of a statement file spooled to disk and deletes the file afterwards. If the file is not
+ * written, e.g. as the executor of streaming bodies is saturated, the file is deleted on completion of the request
+ * by {@link SpooledStatementCleanupInterceptor}.
+ */
+class SpooledStatementBody implements StreamingResponseBody {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path file;
+    private final long start;
+    private final long length;
+    private final Function<OutputStream, SnapshotOutputStream> snapshotRecorder;
+
+    /**
+     * @param file             spooled statement file, which is deleted after writing
+     * @param start            position of the first byte to be written, inclusive
+     * @param length           number of bytes to be written
+     * @param snapshotRecorder wraps the response stream, if the whole file is sent with a new ETag, may be null
+     */
+    SpooledStatementBody(Path file, long start, long length, Function<OutputStream, SnapshotOutputStream> snapshotRecorder) {
+        this.file = file;
+        this.start = start;
+        this.length = length;
+        this.snapshotRecorder = snapshotRecorder;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        SnapshotOutputStream snapshotStream = snapshotRecorder != null
+                                                  ? snapshotRecorder.apply(outputStream)
+                                                  : null;
+        OutputStream targetStream = snapshotStream != null
+                                        ? snapshotStream
+                                        : outputStream;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            long skipped = 0;
+            while (skipped < start) {
+                long count = inputStream.skip(start - skipped);
+                if (count <= 0) {
+                    throw new IOException("Spooled statement is shorter than expected");
+                }
+                skipped += count;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = length;
+            while (remaining > 0) {
+                int count = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (count < 0) {
+                    throw new IOException("Spooled statement is shorter than expected");
+                }
+                targetStream.write(buffer, 0, count);
+                remaining -= count;
+            }
+            outputStream.flush();
+        } finally {
+            if (snapshotStream != null) {
+                snapshotStream.finish();
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+}
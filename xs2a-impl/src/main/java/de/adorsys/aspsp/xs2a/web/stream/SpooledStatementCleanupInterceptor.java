@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptorAdapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Deletes the statement file spooled for a request, when the async processing of its streaming body is completed.
+ * The body deletes the file itself after writing, this callback covers bodies, which are never written, e.g. if
+ * the executor of streaming bodies rejected them or the request failed before.
+ */
+@Slf4j
+public class SpooledStatementCleanupInterceptor extends CallableProcessingInterceptorAdapter {
+    static final String SPOOLED_STATEMENT_ATTRIBUTE = SpooledStatementCleanupInterceptor.class.getName() + ".FILE";
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        Object file = request.getAttribute(SPOOLED_STATEMENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (file instanceof Path) {
+            try {
+                Files.deleteIfExists((Path) file);
+            } catch (IOException e) {
+                log.warn("Spooled statement {} could not be deleted: {}", file, e.getMessage());
+            }
+        }
+    }
+}
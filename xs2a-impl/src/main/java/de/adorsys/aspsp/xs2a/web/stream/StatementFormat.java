@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+public enum StatementFormat {
+    CAMT_053("camt.053", new MediaType("application", "xml", StandardCharsets.UTF_8), "xml", true, new Camt053StatementWriter()),
+    MT940("mt940", new MediaType("text", "plain", StandardCharsets.US_ASCII), "sta", false, new Mt940StatementWriter());
+
+    private final String description;
+    private final MediaType mediaType;
+    private final String fileExtension;
+    private final boolean pendingSupported;
+    private final AccountStatementWriter writer;
+
+    StatementFormat(String description, MediaType mediaType, String fileExtension, boolean pendingSupported, AccountStatementWriter writer) {
+        this.description = description;
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+        this.pendingSupported = pendingSupported;
+        this.writer = writer;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @return 'true' if pending transactions may be contained in statement of this format, 'false' if only booked ones
+     */
+    public boolean isPendingSupported() {
+        return pendingSupported;
+    }
+
+    AccountStatementWriter getWriter() {
+        return writer;
+    }
+
+    public static StatementFormat forValue(String description) {
+        for (StatementFormat format : values()) {
+            if (format.description.equals(description)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown statement format: " + description);
+    }
+}
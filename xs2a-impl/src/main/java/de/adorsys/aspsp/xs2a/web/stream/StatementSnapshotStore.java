@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Snapshots of statement files sent to TPPs, used as strong validators of resumed downloads. A snapshot holds the
+ * number and the digest of the bytes, which were actually written to the response with the ETag of the snapshot,
+ * also if the download was interrupted. A resumed download is only served from a newly generated statement, if the
+ * new file starts with exactly these bytes.<br>
+ * Snapshots are kept in memory of this instance, the least recently used ones are dropped beyond the maximum number.
+ * Downloads resumed without a snapshot, e.g. on another instance, get the whole statement.
+ */
+@Component
+class StatementSnapshotStore {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Map<String, Snapshot> snapshots;
+
+    StatementSnapshotStore(@Value("${statement.snapshot.max-entries:10000}") int maxEntries) {
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    String createSnapshotId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * @param snapshotId   id of the snapshot, which is saved when the returned stream is finished
+     * @param outputStream stream of the response, which is not closed by the returned stream
+     * @return stream digesting all bytes written to the response
+     */
+    SnapshotOutputStream record(String snapshotId, OutputStream outputStream) {
+        return new SnapshotOutputStream(snapshotId, outputStream);
+    }
+
+    /**
+     * @param snapshotId id of the snapshot given in the ETag of the resumed download
+     * @param file       newly generated statement file
+     * @return number of bytes sent with the snapshot, if the file starts with exactly these bytes
+     */
+    OptionalLong getSentLength(String snapshotId, Path file) throws IOException {
+        Snapshot snapshot = snapshots.get(snapshotId);
+        if (snapshot == null || Files.size(file) < snapshot.getLength()) {
+            return OptionalLong.empty();
+        }
+        MessageDigest digest = createDigest();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = snapshot.getLength();
+            while (remaining > 0) {
+                int count = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (count < 0) {
+                    return OptionalLong.empty();
+                }
+                digest.update(buffer, 0, count);
+                remaining -= count;
+            }
+        }
+        return MessageDigest.isEqual(digest.digest(), snapshot.getDigest())
+                   ? OptionalLong.of(snapshot.getLength())
+                   : OptionalLong.empty();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Snapshot {
+        private final long length;
+        private final byte[] digest;
+    }
+
+    /**
+     * Digests the bytes written to the response, the snapshot is saved by {@link #finish()}
+     */
+    class SnapshotOutputStream extends FilterOutputStream {
+        private final String snapshotId;
+        private final MessageDigest digest = createDigest();
+        private long count;
+
+        private SnapshotOutputStream(String snapshotId, OutputStream out) {
+            super(out);
+            this.snapshotId = snapshotId;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            digest.update((byte) b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            digest.update(b, off, len);
+            count += len;
+        }
+
+        /**
+         * Saves the snapshot of the bytes written so far, also after a failed write, as the TPP may have received them
+         */
+        void finish() {
+            snapshots.put(snapshotId, new Snapshot(count, digest.digest()));
+        }
+    }
+}
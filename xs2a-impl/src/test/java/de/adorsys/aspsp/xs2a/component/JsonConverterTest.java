@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonConverterTest {
+    private static final Map<String, String> OBJECT = Collections.singletonMap("key", "value");
+    private static final int JSON_LENGTH = "{\"key\":\"value\"}".length();
+
+    private final JsonConverter jsonConverter = new JsonConverter(new ObjectMapper());
+
+    @Test
+    public void isJsonLongerThan() {
+        assertThat(jsonConverter.isJsonLongerThan(OBJECT, JSON_LENGTH - 1)).isTrue();
+        assertThat(jsonConverter.isJsonLongerThan(OBJECT, JSON_LENGTH)).isFalse();
+        assertThat(jsonConverter.isJsonLongerThan(OBJECT, 0)).isTrue();
+    }
+
+    @Test
+    public void readArrayElements_Success_ElementsAreReadOnDemand() {
+        //Given:
+        CloseTrackingInputStream inputStream = new CloseTrackingInputStream("[{\"key\":\"1\"}, {\"key\":\"2\"}] ");
+
+        //When:
+        Iterator<Map> elements = jsonConverter.readArrayElements(inputStream, Map.class);
+
+        //Then:
+        assertThat(elements.next()).isEqualTo(Collections.singletonMap("key", "1"));
+        assertThat(inputStream.closed).isFalse();
+        assertThat(elements.next()).isEqualTo(Collections.singletonMap("key", "2"));
+        assertThat(elements.hasNext()).isFalse();
+        assertThat(inputStream.closed).isTrue();
+    }
+
+    @Test
+    public void readArrayElements_Success_EmptyArray() {
+        assertThat(jsonConverter.readArrayElements(new CloseTrackingInputStream("[]"), Map.class).hasNext()).isFalse();
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void readArrayElements_Failure_NotArray() {
+        jsonConverter.readArrayElements(new CloseTrackingInputStream("{\"key\":\"value\"}"), Map.class);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void readArrayElements_Failure_TruncatedArray() {
+        Iterator<Map> elements = jsonConverter.readArrayElements(new CloseTrackingInputStream("[{\"key\":\"1\"}, {\"key\""), Map.class);
+        elements.next();
+        elements.next();
+    }
+
+    private static class CloseTrackingInputStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        CloseTrackingInputStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
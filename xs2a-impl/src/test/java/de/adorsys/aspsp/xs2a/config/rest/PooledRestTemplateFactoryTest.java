@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.config.rest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.config.HttpClientPoolConfigProperties;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PooledRestTemplateFactoryTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Before
+    public void setUp() {
+        HttpClientPoolConfigProperties poolProperties = new HttpClientPoolConfigProperties();
+        poolProperties.setMaxTotal(100);
+        poolProperties.setDefaultMaxPerRoute(10);
+        poolProperties.getMaxPerRoute().put("localhost:38080", 40);
+        pooledRestTemplateFactory = new PooledRestTemplateFactory(poolProperties, objectMapper);
+    }
+
+    @After
+    public void tearDown() {
+        pooledRestTemplateFactory.close();
+    }
+
+    @Test
+    public void createRestTemplate_Success_SharedPoolWithRouteLimits() {
+        //When:
+        RestTemplate first = pooledRestTemplateFactory.createRestTemplate(1000, 2000);
+        RestTemplate second = pooledRestTemplateFactory.createRestTemplate(1000, 2000);
+
+        //Then:
+        assertThat(first.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+        assertThat(((HttpComponentsClientHttpRequestFactory) first.getRequestFactory()).getHttpClient())
+            .isSameAs(((HttpComponentsClientHttpRequestFactory) second.getRequestFactory()).getHttpClient());
+        PoolingHttpClientConnectionManager connectionManager = pooledRestTemplateFactory.getConnectionManager(PooledRestTemplateFactory.DEFAULT_POOL);
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(100);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("localhost", 38080, "http")))).isEqualTo(40);
+        assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("localhost", 48080, "http")))).isEqualTo(10);
+    }
+
+    @Test
+    public void createRestTemplate_Success_SharedJsonConverterIgnoresUnknownProperties() {
+        //When:
+        RestTemplate first = pooledRestTemplateFactory.createRestTemplate(1000, 2000);
+        RestTemplate second = pooledRestTemplateFactory.createRestTemplate("other", 1000, 2000);
+
+        //Then:
+        MappingJackson2HttpMessageConverter jsonConverter = getJsonConverter(first);
+        assertThat(getJsonConverter(second)).isSameAs(jsonConverter);
+        assertThat(jsonConverter.getObjectMapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+        assertThat(objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isTrue();
+    }
+
+    @Test
+    public void metrics_Success_PerPool() {
+        //Given:
+        pooledRestTemplateFactory.createRestTemplate(1000, 2000);
+        pooledRestTemplateFactory.createRestTemplate("other", 1000, 2000);
+
+        //When:
+        List<String> metricNames = pooledRestTemplateFactory.metrics().stream()
+                                       .map(Metric::getName)
+                                       .collect(Collectors.toList());
+
+        //Then:
+        assertThat(metricNames).contains("httpclient.pool.default.leased", "httpclient.pool.default.available",
+            "httpclient.pool.default.pending", "httpclient.pool.default.max", "httpclient.pool.other.leased");
+    }
+
+    private MappingJackson2HttpMessageConverter getJsonConverter(RestTemplate restTemplate) {
+        return restTemplate.getMessageConverters().stream()
+                   .filter(converter -> converter instanceof MappingJackson2HttpMessageConverter)
+                   .map(converter -> (MappingJackson2HttpMessageConverter) converter)
+                   .findFirst()
+                   .orElseThrow(IllegalStateException::new);
+    }
+}
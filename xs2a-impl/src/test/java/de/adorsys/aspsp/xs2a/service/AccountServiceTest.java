@@ -16,16 +16,21 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
+import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisTransactionWatermark;
 import de.adorsys.aspsp.xs2a.domain.*;
 import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReport;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReportStream;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
 import de.adorsys.aspsp.xs2a.domain.consent.AccountAccess;
 import de.adorsys.aspsp.xs2a.domain.consent.AccountAccessType;
 import de.adorsys.aspsp.xs2a.exception.MessageCategory;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.consent.ais.AisConsentService;
+import de.adorsys.aspsp.xs2a.service.consent.ais.PendingTransactionWatermark;
 import de.adorsys.aspsp.xs2a.service.mapper.AccountMapper;
 import de.adorsys.aspsp.xs2a.service.validator.ValueValidatorService;
 import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
@@ -38,17 +43,20 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.*;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AccountServiceTest {
@@ -77,12 +85,19 @@ public class AccountServiceTest {
     @Mock
     private AisConsentService aisConsentService;
     @Mock
+    private PendingTransactionWatermark pendingTransactionWatermark;
+    @Mock
     private AccountMapper accountMapper;
     @Mock
     private ValueValidatorService valueValidatorService;
+    @Spy
+    private SpiFanOutExecutor spiFanOutExecutor = new SpiFanOutExecutor(new BearerToken("Bearer 11111-22222"), 2, 10, 1000);
+    @Spy
+    private TransactionPageKeySigner transactionPageKeySigner = new TransactionPageKeySigner("page-key-secret");
 
     @Before
     public void setUp() {
+        ReflectionTestUtils.setField(accountService, "maxPageSize", 1000);
         //Validation
         doNothing().when(valueValidatorService).validate(any(), any());
         //AccountMapping
@@ -90,19 +105,22 @@ public class AccountServiceTest {
         when(accountMapper.mapToAccountDetails(getSpiAccountDetails(ACCOUNT_ID_1, IBAN_1))).thenReturn(getAccountDetails(ACCOUNT_ID_1, IBAN_1));
         when(accountMapper.mapToAccountDetails(null)).thenReturn(null);
         when(accountMapper.mapToAccountReport(Collections.singletonList(getSpiTransaction()))).thenReturn(Optional.of(getReport()));
-        //AisReporting
-        doNothing().when(aisConsentService).consentActionLog(anyString(), anyString(), anyBoolean(), any(TypeAccess.class), any(ResponseObject.class));
         //getAccountDetailsByAccountId_WoB_Success
         when(accountSpi.readAccountDetails(ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(getSpiAccountDetails(ACCOUNT_ID, IBAN), ASPSP_CONSENT_DATA));
-        when(consentService.getValidatedConsent(CONSENT_ID_WOB)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, null, false, false));
-        when(consentService.isValidAccountByAccess(IBAN, CURRENCY, getReferences(IBAN, IBAN_1))).thenReturn(true);
+        when(consentService.checkAndConsumeConsentAccess(anyString(), eq(CONSENT_ID_WOB), any(AccountReference.class), any(TypeAccess.class), anyBoolean())).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, null, false, false));
+        //getBalances_Failure_Consent_WOB
+        when(consentService.checkAndConsumeConsentAccess(anyString(), eq(CONSENT_ID_WOB), any(AccountReference.class), eq(TypeAccess.BALANCE), anyBoolean()))
+            .thenReturn(ResponseObject.<AccountAccess>builder().fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_INVALID))).build());
         //getAccountDetailsByAccountId_WB_Success
-        when(consentService.getValidatedConsent(CONSENT_ID_WB)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), getReferences(IBAN, IBAN_1), null, false, false));
-        when(consentService.isValidAccountByAccess(IBAN, CURRENCY, getReferences(IBAN, IBAN_1))).thenReturn(true);
+        when(consentService.checkAndConsumeConsentAccess(anyString(), eq(CONSENT_ID_WB), any(AccountReference.class), any(TypeAccess.class), anyBoolean())).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), getReferences(IBAN, IBAN_1), null, false, false));
         //getAccountDetailsByAccountId_Failure_wrongAccount
         when(accountSpi.readAccountDetails(WRONG_ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(null, ASPSP_CONSENT_DATA));
         //getAccountDetailsByAccountId_Failure_wrongConsent
-        when(consentService.getValidatedConsent(WRONG_CONSENT_ID)).thenReturn(ResponseObject.<AccountAccess>builder().fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_UNKNOWN_403))).build());
+        when(consentService.checkAndConsumeConsentAccess(anyString(), eq(WRONG_CONSENT_ID), any(AccountReference.class), any(TypeAccess.class), anyBoolean())).thenReturn(ResponseObject.<AccountAccess>builder().fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_UNKNOWN_403))).build());
+        //Unknown account
+        when(consentService.checkConsentAccessWithoutUsage(anyString(), eq(CONSENT_ID_WOB), any(AccountReference.class), any(TypeAccess.class))).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, null, false, false));
+        when(consentService.checkConsentAccessWithoutUsage(anyString(), eq(CONSENT_ID_WB), any(AccountReference.class), any(TypeAccess.class))).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), getReferences(IBAN, IBAN_1), null, false, false));
+        when(consentService.checkConsentAccessWithoutUsage(anyString(), eq(WRONG_CONSENT_ID), any(AccountReference.class), any(TypeAccess.class))).thenReturn(ResponseObject.<AccountAccess>builder().fail(new MessageError(new TppMessageInformation(MessageCategory.ERROR, MessageErrorCode.CONSENT_UNKNOWN_403))).build());
 
         //getAccountDetailsListByConsent_Success
         when(accountSpi.readAccountDetailsByIban(IBAN, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(getSpiAccountDetails(ACCOUNT_ID, IBAN)), ASPSP_CONSENT_DATA));
@@ -111,7 +129,8 @@ public class AccountServiceTest {
         when(accountSpi.readAccountDetails(WRONG_ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(null, ASPSP_CONSENT_DATA));
 
         //getAccountReport_ByTransactionId_Success
-        when(consentService.getValidatedConsent(CONSENT_ID_WT)).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, getReferences(IBAN, IBAN_1), false, false));
+        when(consentService.checkAndConsumeConsentAccess(anyString(), eq(CONSENT_ID_WT), any(AccountReference.class), any(TypeAccess.class), anyBoolean())).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, getReferences(IBAN, IBAN_1), false, false));
+        when(consentService.checkConsentAccessWithoutUsage(anyString(), eq(CONSENT_ID_WT), any(AccountReference.class), any(TypeAccess.class))).thenReturn(getAccessResponse(getReferences(IBAN, IBAN_1), null, getReferences(IBAN, IBAN_1), false, false));
         when(accountSpi.readTransactionById(TRANSACTION_ID, ACCOUNT_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Optional.of(getSpiTransaction()), ASPSP_CONSENT_DATA));
 
         when(accountSpi.readTransactionsByPeriod(ACCOUNT_ID, DATE, DATE, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(getSpiTransaction()), ASPSP_CONSENT_DATA));
@@ -149,6 +168,26 @@ public class AccountServiceTest {
         assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(RESOURCE_UNKNOWN_404);
     }
 
+    @Test
+    public void getAccountDetailsByAccountId_Failure_wrongAccount_NoUsageConsumed() {
+        //When:
+        accountService.getAccountDetails(CONSENT_ID_WB, WRONG_ACCOUNT_ID, true);
+
+        //Then:
+        verify(consentService).checkConsentAccessWithoutUsage(anyString(), eq(CONSENT_ID_WB), eq(null), eq(TypeAccess.ACCOUNT));
+        verify(consentService, never()).checkAndConsumeConsentAccess(anyString(), anyString(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void getAccountDetailsByAccountId_Failure_wrongAccount_wrongConsent() {
+        //When:
+        ResponseObject<AccountDetails> response = accountService.getAccountDetails(WRONG_CONSENT_ID, WRONG_ACCOUNT_ID, true);
+
+        //Then:
+        assertThat(response.hasError()).isEqualTo(true);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+    }
+
     @Test
     public void getAccountDetailsByAccountId_Failure_wrongConsent() {
         //When:
@@ -307,6 +346,211 @@ public class AccountServiceTest {
         assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
     }
 
+    @Test
+    public void getAccountReport_DeltaList_Success() {
+        //Given:
+        SpiTransaction spiTransaction = getSpiTransaction();
+        spiTransaction.setEntrySequence(42L);
+        when(aisConsentService.getTransactionWatermark(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(new AisTransactionWatermark(41L)));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, 41L, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(spiTransaction), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.singletonList(spiTransaction))).thenReturn(Optional.of(getReport()));
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReport(CONSENT_ID_WT, ACCOUNT_ID, null, null, null, false, BookingStatus.BOTH, false, true);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getBooked()).containsExactly(getTransaction());
+        verify(accountSpi, never()).readTransactionsByPeriod(anyString(), any(), any(), any());
+        verify(pendingTransactionWatermark).set(CONSENT_ID_WT, ACCOUNT_ID, new AisTransactionWatermark(42L));
+        verify(aisConsentService, never()).updateTransactionWatermark(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void getAccountReport_DeltaList_FirstReport() {
+        //Given:
+        SpiTransaction spiTransaction = getSpiTransaction();
+        spiTransaction.setEntrySequence(42L);
+        when(aisConsentService.getTransactionWatermark(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.empty());
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, 0L, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.singletonList(spiTransaction), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.singletonList(spiTransaction))).thenReturn(Optional.of(getReport()));
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReport(CONSENT_ID_WT, ACCOUNT_ID, null, null, null, false, BookingStatus.BOTH, false, true);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getBooked()).containsExactly(getTransaction());
+        verify(pendingTransactionWatermark).set(CONSENT_ID_WT, ACCOUNT_ID, new AisTransactionWatermark(42L));
+    }
+
+    @Test
+    public void getAccountReport_DeltaList_NoNewTransactions() {
+        //Given:
+        when(aisConsentService.getTransactionWatermark(CONSENT_ID_WT, ACCOUNT_ID)).thenReturn(Optional.of(new AisTransactionWatermark(42L)));
+        when(accountSpi.readTransactionsAfter(ACCOUNT_ID, 42L, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.emptyList(), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(Collections.<SpiTransaction>emptyList())).thenReturn(Optional.empty());
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReport(CONSENT_ID_WT, ACCOUNT_ID, null, null, null, false, BookingStatus.BOTH, false, true);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getBooked()).isEmpty();
+        assertThat(response.getBody().getPending()).isEmpty();
+        verify(pendingTransactionWatermark, never()).set(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void getAccountReport_DeltaList_FilteredReport() {
+        //When:
+        ResponseObject<AccountReport> byPeriod = accountService.getAccountReport(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, null, false, BookingStatus.BOTH, false, true);
+        ResponseObject<AccountReport> byStatus = accountService.getAccountReport(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, null, false, BookingStatus.BOOKED, false, true);
+
+        //Then:
+        assertThat(byPeriod.hasError()).isFalse();
+        assertThat(byPeriod.getBody().getBooked()).containsExactly(getTransaction());
+        assertThat(byStatus.hasError()).isFalse();
+        assertThat(byStatus.getBody().getBooked()).containsExactly(getTransaction());
+        verify(accountSpi, never()).readTransactionsAfter(anyString(), anyLong(), any());
+        verify(aisConsentService, never()).getTransactionWatermark(anyString(), anyString());
+        verify(pendingTransactionWatermark, never()).set(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void getAccountReportPage_Success() {
+        //Given:
+        SpiTransactionPageKey pageKey = SpiTransactionPageKey.after(getSpiTransaction());
+        SpiTransactionPage page = new SpiTransactionPage(Collections.singletonList(getSpiTransaction()), "next", "previous");
+        AccountReport report = getReport();
+        report.setNextPageKey("next");
+        report.setPreviousPageKey("previous");
+        when(accountSpi.readTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, pageKey, 10, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(page, ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(page)).thenReturn(report);
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, signPageKey(pageKey.encode(), CONSENT_ID_WT), 10, BookingStatus.BOOKED, false);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getBooked()).containsExactly(getTransaction());
+        assertThat(response.getBody().getNextPageKey()).isEqualTo(signPageKey("next", CONSENT_ID_WT));
+        assertThat(response.getBody().getPreviousPageKey()).isEqualTo(signPageKey("previous", CONSENT_ID_WT));
+        verify(consentService).checkConsentAccessWithoutUsage(anyString(), eq(CONSENT_ID_WT), any(AccountReference.class), eq(TypeAccess.TRANSACTION));
+        verify(consentService, never()).checkAndConsumeConsentAccess(anyString(), anyString(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    public void getAccountReportPage_FirstPage_ConsumesUsage() {
+        //Given:
+        SpiTransactionPage page = new SpiTransactionPage(Collections.singletonList(getSpiTransaction()), "next", null);
+        when(accountSpi.readTransactionsPageByPeriod(ACCOUNT_ID, DATE, DATE, null, 10, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(page, ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToAccountReport(page)).thenReturn(getReport());
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, null, 10, BookingStatus.BOOKED, false);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        verify(consentService).checkAndConsumeConsentAccess(anyString(), eq(CONSENT_ID_WT), any(AccountReference.class), eq(TypeAccess.TRANSACTION), eq(false));
+        verify(consentService, never()).checkConsentAccessWithoutUsage(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportPage_Failure_Wrong_PageKey() {
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, "not a key", 10, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isTrue();
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(FORMAT_ERROR);
+        verify(accountSpi, never()).readTransactionsPageByPeriod(anyString(), any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void getAccountReportPage_Failure_PageSizeAboveMaximum() {
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, null, Integer.MAX_VALUE, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isTrue();
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(FORMAT_ERROR);
+        verify(accountSpi, never()).readTransactionsPageByPeriod(anyString(), any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void getAccountReportPage_Failure_UnsignedPageKey() {
+        //Given:
+        String pageKey = SpiTransactionPageKey.after(getSpiTransaction()).encode();
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, pageKey, 10, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isTrue();
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(FORMAT_ERROR);
+        verify(consentService, never()).checkConsentAccessWithoutUsage(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportPage_Failure_PageKeyOfOtherConsent() {
+        //Given:
+        String pageKey = signPageKey(SpiTransactionPageKey.after(getSpiTransaction()).encode(), "other consent");
+
+        //When:
+        ResponseObject<AccountReport> response = accountService.getAccountReportPage(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, pageKey, 10, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isTrue();
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(FORMAT_ERROR);
+        verify(accountSpi, never()).readTransactionsPageByPeriod(anyString(), any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void getAccountReportStream_Success() {
+        //Given:
+        when(accountSpi.streamTransactionsByPeriod(ACCOUNT_ID, DATE, DATE, SpiBookingStatus.BOOKED, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Stream.of(getSpiTransaction()), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToTransaction(getSpiTransaction())).thenReturn(getTransaction());
+
+        //When:
+        ResponseObject<AccountReportStream> response = accountService.getAccountReportStream(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, BookingStatus.BOOKED, false);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getBooked().collect(Collectors.toList())).containsExactly(getTransaction());
+        assertThat(response.getBody().getPending().count()).isEqualTo(0);
+        verify(accountSpi, never()).streamTransactionsByPeriod(anyString(), any(), any(), eq(SpiBookingStatus.PENDING), any());
+        verify(accountSpi, never()).readTransactionsByPeriod(anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void getAccountReportStream_Failure_Wrong_Consent() {
+        //When:
+        ResponseObject<AccountReportStream> response = accountService.getAccountReportStream(WRONG_CONSENT_ID, ACCOUNT_ID, DATE, DATE, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isTrue();
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(CONSENT_UNKNOWN_403);
+        verify(accountSpi, never()).streamTransactionsByPeriod(anyString(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getAccountStatement_Success() {
+        //Given:
+        when(accountMapper.mapToSpiBookingStatus(BookingStatus.BOTH)).thenReturn(SpiBookingStatus.BOTH);
+        when(accountSpi.streamTransactionsByPeriod(ACCOUNT_ID, DATE, DATE, SpiBookingStatus.BOTH, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Stream.of(getSpiTransaction()), ASPSP_CONSENT_DATA));
+        when(accountMapper.mapToTransaction(getSpiTransaction())).thenReturn(getTransaction());
+
+        //When:
+        ResponseObject<AccountStatement> response = accountService.getAccountStatement(CONSENT_ID_WT, ACCOUNT_ID, DATE, DATE, BookingStatus.BOTH, false);
+
+        //Then:
+        assertThat(response.hasError()).isFalse();
+        assertThat(response.getBody().getAccount().getIban()).isEqualTo(IBAN);
+        verify(accountSpi, never()).streamTransactionsByPeriod(anyString(), any(), any(), any(), any());
+        assertThat(response.getBody().getTransactionSource().get().collect(Collectors.toList())).containsExactly(getTransaction());
+    }
+
     //Test Stuff
     private ResponseObject<AccountAccess> getAccessResponse(List<AccountReference> accounts, List<AccountReference> balances, List<AccountReference> transactions, boolean allAccounts, boolean allPsd2) {
         return ResponseObject.<AccountAccess>builder().body(getAccessForMock(accounts, balances, transactions, allAccounts, allPsd2)).build();
@@ -393,6 +637,10 @@ public class AccountServiceTest {
         return transaction;
     }
 
+    private String signPageKey(String pageKey, String consentId) {
+        return transactionPageKeySigner.sign(pageKey, consentId, ACCOUNT_ID, DATE, DATE);
+    }
+
     private SpiTransaction getSpiTransaction() {
         Transactions t = getTransaction();
         return new SpiTransaction(t.getTransactionId(), null, null, null, t.getBookingDate(),
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.config.rest.profile.AspspProfileRemoteUrls;
+import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
+import de.adorsys.aspsp.xs2a.domain.ScaApproach;
+import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
+import de.adorsys.aspsp.xs2a.exception.RestException;
+import de.adorsys.aspsp.xs2a.service.profile.AspspProfileSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AspspProfileServiceTest {
+    private static final String PRODUCTS_URL = "products";
+    private static final String TYPES_URL = "types";
+    private static final String SCA_URL = "sca";
+    private static final String SIGNATURE_URL = "signature";
+    private static final String PIS_REDIRECT_URL = "pis";
+    private static final String AIS_REDIRECT_URL = "ais";
+    private static final String REFERENCE_FIELDS_URL = "fields";
+
+    @Mock
+    private RestTemplate aspspProfileRestTemplate;
+    @Mock
+    private AspspProfileRemoteUrls aspspProfileRemoteUrls;
+
+    private AspspProfileService aspspProfileService;
+
+    @Before
+    public void setUp() {
+        when(aspspProfileRemoteUrls.getAvailablePaymentProducts()).thenReturn(PRODUCTS_URL);
+        when(aspspProfileRemoteUrls.getAvailablePaymentTypes()).thenReturn(TYPES_URL);
+        when(aspspProfileRemoteUrls.getScaApproach()).thenReturn(SCA_URL);
+        when(aspspProfileRemoteUrls.getTppSignatureRequired()).thenReturn(SIGNATURE_URL);
+        when(aspspProfileRemoteUrls.getPisRedirectUrlToAspsp()).thenReturn(PIS_REDIRECT_URL);
+        when(aspspProfileRemoteUrls.getAisRedirectUrlToAspsp()).thenReturn(AIS_REDIRECT_URL);
+        when(aspspProfileRemoteUrls.getSupportedAccountReferenceFields()).thenReturn(REFERENCE_FIELDS_URL);
+
+        when(aspspProfileRestTemplate.exchange(eq(PRODUCTS_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+            .thenReturn(new ResponseEntity<>(Arrays.asList("sepa-credit-transfers", "unknown"), HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(TYPES_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+            .thenReturn(new ResponseEntity<>(Collections.singletonList("bulk"), HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(REFERENCE_FIELDS_URL), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+            .thenReturn(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(SCA_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(ScaApproach.class)))
+            .thenReturn(new ResponseEntity<>(ScaApproach.REDIRECT, HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(SIGNATURE_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(Boolean.class)))
+            .thenReturn(new ResponseEntity<>(true, HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(PIS_REDIRECT_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(new ResponseEntity<>("http://pis", HttpStatus.OK));
+        when(aspspProfileRestTemplate.exchange(eq(AIS_REDIRECT_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(String.class)))
+            .thenReturn(new ResponseEntity<>("http://ais", HttpStatus.OK));
+
+        aspspProfileService = new AspspProfileService(aspspProfileRestTemplate, aspspProfileRemoteUrls);
+        ReflectionTestUtils.setField(aspspProfileService, "maxAge", 300000L);
+    }
+
+    @Test
+    public void getProfileValues_readFromSingleSnapshot() {
+        //When:
+        Boolean signatureRequired = aspspProfileService.getTppSignatureRequired();
+        aspspProfileService.getTppSignatureRequired();
+        boolean redirectMode = aspspProfileService.isRedirectMode();
+
+        //Then:
+        assertThat(signatureRequired).isTrue();
+        assertThat(redirectMode).isTrue();
+        assertThat(aspspProfileService.getAvailablePaymentProducts()).containsExactly(PaymentProduct.SCT);
+        assertThat(aspspProfileService.getAvailablePaymentTypes()).containsExactly(PisPaymentType.BULK);
+        assertThat(aspspProfileService.getPisRedirectUrlToAspsp()).isEqualTo("http://pis");
+        verify(aspspProfileRestTemplate, times(1)).exchange(eq(SIGNATURE_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(Boolean.class));
+    }
+
+    @Test
+    public void refreshProfile_replacesSnapshot() {
+        //Given:
+        AspspProfileSnapshot initial = aspspProfileService.getProfileSnapshot();
+
+        //When:
+        aspspProfileService.refreshProfile();
+
+        //Then:
+        AspspProfileSnapshot refreshed = aspspProfileService.getProfileSnapshot();
+        assertThat(refreshed.getVersion()).isGreaterThan(initial.getVersion());
+    }
+
+    @Test
+    public void refreshProfile_failure_keepsPreviousSnapshot() {
+        //Given:
+        AspspProfileSnapshot initial = aspspProfileService.getProfileSnapshot();
+        when(aspspProfileRestTemplate.exchange(eq(SIGNATURE_URL), eq(HttpMethod.GET), any(HttpEntity.class), eq(Boolean.class)))
+            .thenThrow(new RestException(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable"));
+
+        //When:
+        aspspProfileService.refreshProfile();
+
+        //Then:
+        assertThat(aspspProfileService.getProfileSnapshot()).isSameAs(initial);
+    }
+
+    @Test
+    public void getProfileSnapshot_stale_singleRefreshIsSubmitted() {
+        //Given:
+        ScheduledExecutorService refreshExecutor = mock(ScheduledExecutorService.class);
+        ReflectionTestUtils.setField(aspspProfileService, "refreshExecutor", refreshExecutor);
+        AspspProfileSnapshot initial = aspspProfileService.getProfileSnapshot();
+        ReflectionTestUtils.setField(aspspProfileService, "maxAge", -1L);
+
+        //When:
+        AspspProfileSnapshot stale = aspspProfileService.getProfileSnapshot();
+        aspspProfileService.getProfileSnapshot();
+        aspspProfileService.getProfileSnapshot();
+
+        //Then:
+        assertThat(stale).isSameAs(initial);
+        ArgumentCaptor<Runnable> refreshTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(refreshExecutor, times(1)).execute(refreshTask.capture());
+
+        //When:
+        refreshTask.getValue().run();
+        AspspProfileSnapshot refreshed = aspspProfileService.getProfileSnapshot();
+
+        //Then:
+        assertThat(refreshed.getVersion()).isGreaterThan(initial.getVersion());
+        verify(refreshExecutor, times(2)).execute(any(Runnable.class));
+    }
+}
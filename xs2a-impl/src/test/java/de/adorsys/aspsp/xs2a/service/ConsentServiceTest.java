@@ -16,7 +16,12 @@
 
 package de.adorsys.aspsp.xs2a.service;
 
+import de.adorsys.aspsp.xs2a.consent.api.ActionStatus;
+import de.adorsys.aspsp.xs2a.consent.api.CmsAccountReference;
 import de.adorsys.aspsp.xs2a.consent.api.TypeAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisAccountAccess;
+import de.adorsys.aspsp.xs2a.consent.api.ais.AisConsentAccessResponse;
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
 import de.adorsys.aspsp.xs2a.domain.ResponseObject;
 import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
@@ -27,6 +32,7 @@ import de.adorsys.aspsp.xs2a.service.mapper.ConsentMapper;
 import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountConsent;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountDetailsBatch;
 import de.adorsys.aspsp.xs2a.spi.domain.account.SpiAccountReference;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
 import de.adorsys.aspsp.xs2a.spi.domain.consent.SpiAccountAccess;
@@ -88,7 +94,6 @@ public class ConsentServiceTest {
         when(consentMapper.mapToConsentStatus(null)).thenReturn(Optional.empty());
 
         //AisReportMock
-        doNothing().when(aisConsentService).consentActionLog(anyString(), anyString(), anyBoolean(), any(TypeAccess.class), any(ResponseObject.class));
         when(accountSpi.readAccountsByPsuId(CORRECT_PSU_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(getSpiDetailsList(), ASPSP_CONSENT_DATA));
         when(accountSpi.readAccountsByPsuId(WRONG_PSU_ID, ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.emptyList(), ASPSP_CONSENT_DATA));
         //ByPSU-ID
@@ -116,8 +121,10 @@ public class ConsentServiceTest {
             .thenReturn(CONSENT_ID);
 
         //GetAccDetails
-        when(accountSpi.readAccountDetailsByIbans(new HashSet<>(Arrays.asList(CORRECT_IBAN, CORRECT_IBAN_1)), ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(getSpiDetailsList(), ASPSP_CONSENT_DATA));
-        when(accountSpi.readAccountDetailsByIbans(new HashSet<>(Arrays.asList(WRONG_IBAN)), ASPSP_CONSENT_DATA)).thenReturn(new SpiResponse<>(Collections.emptyList(), ASPSP_CONSENT_DATA));
+        when(accountSpi.readAccountDetailsByReferences(Arrays.asList(getSpiReference(CORRECT_IBAN, null), getSpiReference(CORRECT_IBAN_1, null)), ASPSP_CONSENT_DATA))
+            .thenReturn(new SpiResponse<>(new SpiAccountDetailsBatch(getSpiDetailsList(), Collections.emptyList()), ASPSP_CONSENT_DATA));
+        when(accountSpi.readAccountDetailsByReferences(Collections.singletonList(getSpiReference(WRONG_IBAN, null)), ASPSP_CONSENT_DATA))
+            .thenReturn(new SpiResponse<>(new SpiAccountDetailsBatch(Collections.emptyList(), Collections.singletonList(getSpiReference(WRONG_IBAN, null))), ASPSP_CONSENT_DATA));
 
         //GetConsentById
         when(aisConsentService.getAccountConsentById(CONSENT_ID)).thenReturn(getSpiConsent(CONSENT_ID, getSpiAccountAccess(Collections.singletonList(getSpiReference(CORRECT_IBAN, CURRENCY)), null, null, false, false), false));
@@ -269,6 +276,39 @@ public class ConsentServiceTest {
         assertThat(response.getError().getTransactionStatus()).isEqualTo(TransactionStatus.RJCT);
     }
 
+    @Test
+    public void checkAndConsumeConsentAccess_Success() {
+        //Given:
+        AisAccountAccess cmsAccess = new AisAccountAccess(Collections.singletonList(new CmsAccountReference(CORRECT_IBAN, CURRENCY)), null, null);
+        AccountAccess access = getAccess(Collections.singletonList(getReference(CORRECT_IBAN, CURRENCY)), null, null, false, false);
+        when(aisConsentService.checkAndConsumeConsentAccess(TPP_ID, CONSENT_ID, null, TypeAccess.ACCOUNT, false, false))
+            .thenReturn(Optional.of(new AisConsentAccessResponse(ActionStatus.SUCCESS, cmsAccess)));
+        when(consentMapper.mapToAccountAccess(cmsAccess)).thenReturn(access);
+
+        //When:
+        ResponseObject<AccountAccess> response = consentService.checkAndConsumeConsentAccess(TPP_ID, CONSENT_ID, null, TypeAccess.ACCOUNT, false);
+
+        //Then:
+        assertThat(response.hasError()).isEqualTo(false);
+        assertThat(response.getBody()).isEqualTo(access);
+    }
+
+    @Test
+    public void checkAndConsumeConsentAccess_Failure_LimitExceeded() {
+        //Given:
+        AccountReference reference = getReference(CORRECT_IBAN, CURRENCY);
+        when(aisConsentService.checkAndConsumeConsentAccess(TPP_ID, CONSENT_ID, reference, TypeAccess.BALANCE, false, false))
+            .thenReturn(Optional.of(new AisConsentAccessResponse(ActionStatus.CONSENT_LIMIT_EXCEEDED, null)));
+        when(consentMapper.mapToMessageErrorCode(ActionStatus.CONSENT_LIMIT_EXCEEDED)).thenReturn(MessageErrorCode.ACCESS_EXCEEDED);
+
+        //When:
+        ResponseObject<AccountAccess> response = consentService.checkAndConsumeConsentAccess(TPP_ID, CONSENT_ID, reference, TypeAccess.BALANCE, false);
+
+        //Then:
+        assertThat(response.hasError()).isEqualTo(true);
+        assertThat(response.getError().getTppMessage().getMessageErrorCode()).isEqualTo(MessageErrorCode.ACCESS_EXCEEDED);
+    }
+
     /**
      * Basic test AccountDetails used in all cases
      */
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
+import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MessageServiceTest {
+    private static final String CONSENT_EXPIRED_TEXT = "The consent has expired";
+
+    private StaticMessageSource messageSource;
+    private MessageService messageService;
+
+    @Before
+    public void setUp() throws Exception {
+        messageSource = new StaticMessageSource();
+        messageSource.addMessage(MessageErrorCode.CONSENT_EXPIRED.name(), Locale.forLanguageTag("en"), CONSENT_EXPIRED_TEXT);
+        messageService = new MessageService(messageSource, new ObjectMapper());
+        messageService.startReload();
+    }
+
+    @Test
+    public void getMessage_fromRenderedTable() {
+        assertThat(messageService.getMessage(MessageErrorCode.CONSENT_EXPIRED.name())).isEqualTo(CONSENT_EXPIRED_TEXT);
+        assertThat(messageService.getMessage(MessageErrorCode.FORMAT_ERROR)).isNull();
+    }
+
+    @Test
+    public void getErrorBody_containsCodeAndText() {
+        //When:
+        byte[] body = messageService.getErrorBody(MessageErrorCode.CONSENT_EXPIRED, TransactionStatus.RJCT);
+
+        //Then:
+        String json = new String(body, StandardCharsets.UTF_8);
+        assertThat(json).contains("\"code\":\"CONSENT_EXPIRED\"");
+        assertThat(json).contains(CONSENT_EXPIRED_TEXT);
+        assertThat(messageService.getErrorBody(MessageErrorCode.CONSENT_EXPIRED, TransactionStatus.RJCT)).isSameAs(body);
+    }
+
+    @Test
+    public void reloadMessages_rendersChangedTexts() {
+        //Given:
+        messageSource.addMessage(MessageErrorCode.FORMAT_ERROR.name(), Locale.forLanguageTag("en"), "Wrong format");
+
+        //When:
+        messageService.reloadMessages();
+
+        //Then:
+        assertThat(messageService.getMessage(MessageErrorCode.FORMAT_ERROR)).isEqualTo("Wrong format");
+        assertThat(new String(messageService.getErrorBody(MessageErrorCode.FORMAT_ERROR, TransactionStatus.RJCT), StandardCharsets.UTF_8))
+            .contains("Wrong format");
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service;
+
+import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
+import de.adorsys.aspsp.xs2a.config.rest.BearerTokenHolder;
+import de.adorsys.aspsp.xs2a.exception.RestException;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpiFanOutExecutorTest {
+    private static final String TOKEN = "11111-22222";
+
+    private final SpiFanOutExecutor spiFanOutExecutor = new SpiFanOutExecutor(new BearerToken("Bearer " + TOKEN), 4, 10, 500);
+
+    @After
+    public void tearDown() {
+        spiFanOutExecutor.shutdown();
+    }
+
+    @Test
+    public void invokeAll_Success_ResultsInOrderOfArguments() {
+        //When:
+        List<Optional<String>> results = spiFanOutExecutor.invokeAll(Arrays.asList(30, 0, 10), delay -> {
+            sleep(delay);
+            return "result" + delay;
+        });
+
+        //Then:
+        assertThat(results).containsExactly(Optional.of("result30"), Optional.of("result0"), Optional.of("result10"));
+    }
+
+    @Test
+    public void invokeAll_Success_CallsAreParallel() {
+        //Given:
+        CountDownLatch latch = new CountDownLatch(3);
+
+        //When:
+        List<Optional<Boolean>> results = spiFanOutExecutor.invokeAll(Arrays.asList("a", "b", "c"), argument -> {
+            latch.countDown();
+            return await(latch);
+        });
+
+        //Then:
+        assertThat(results).containsExactly(Optional.of(true), Optional.of(true), Optional.of(true));
+    }
+
+    @Test
+    public void invokeAll_Success_NullResult() {
+        //When:
+        List<Optional<String>> results = spiFanOutExecutor.invokeAll(Arrays.asList("ok", "null"), argument -> "null".equals(argument)
+                                                                                                        ? null
+                                                                                                        : argument);
+
+        //Then:
+        assertThat(results).containsExactly(Optional.of("ok"), Optional.empty());
+    }
+
+    @Test
+    public void invokeAll_Success_TokenOfRequestOnPoolThreads() {
+        //When:
+        List<Optional<String>> results = spiFanOutExecutor.invokeAll(Arrays.asList("a", "b"), argument -> BearerTokenHolder.getToken(() -> "request"));
+
+        //Then:
+        assertThat(results).containsExactly(Optional.of(TOKEN), Optional.of(TOKEN));
+        assertThat(BearerTokenHolder.getToken(() -> "request")).isEqualTo("request");
+    }
+
+    @Test
+    public void invokeAll_Failure_PoolSaturated() {
+        //Given:
+        SpiFanOutExecutor saturatedExecutor = new SpiFanOutExecutor(new BearerToken("Bearer " + TOKEN), 1, 1, 500);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger callerRunCalls = new AtomicInteger();
+        String callingThread = Thread.currentThread().getName();
+
+        //When:
+        RestException exception = null;
+        try {
+            saturatedExecutor.invokeAll(Arrays.asList("a", "b", "c"), argument -> {
+                if (callingThread.equals(Thread.currentThread().getName())) {
+                    callerRunCalls.incrementAndGet();
+                }
+                return await(release);
+            });
+        } catch (RestException e) {
+            exception = e;
+        } finally {
+            release.countDown();
+            saturatedExecutor.shutdown();
+        }
+
+        //Then:
+        assertThat(exception).isNotNull();
+        assertThat(exception.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(callerRunCalls.get()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invokeAll_Failure_CallFailed() {
+        //When:
+        spiFanOutExecutor.invokeAll(Arrays.asList("ok", "error"), argument -> {
+            if ("error".equals(argument)) {
+                throw new IllegalStateException("SPI is not available");
+            }
+            return argument;
+        });
+    }
+
+    @Test
+    public void invokeAll_Failure_Timeout() {
+        //When:
+        RestException exception = null;
+        try {
+            spiFanOutExecutor.invokeAll(Arrays.asList("ok", "timeout"), argument -> {
+                if ("timeout".equals(argument)) {
+                    sleep(2000);
+                }
+                return argument;
+            });
+        } catch (RestException e) {
+            exception = e;
+        }
+
+        //Then:
+        assertThat(exception).isNotNull();
+        assertThat(exception.getHttpStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
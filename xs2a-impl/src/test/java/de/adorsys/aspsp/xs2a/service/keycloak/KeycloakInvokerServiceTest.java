@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.keycloak;
+
+import de.adorsys.aspsp.xs2a.config.KeycloakConfigProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KeycloakInvokerServiceTest {
+    private static final Instant NOW = Instant.parse("2018-06-01T10:00:00Z");
+
+    @InjectMocks
+    private KeycloakInvokerService keycloakInvokerService;
+    @Mock
+    private RestTemplate keycloakRestTemplate;
+
+    @Before
+    public void setUp() {
+        KeycloakConfigProperties keycloakConfig = new KeycloakConfigProperties();
+        keycloakConfig.setAuthServerUrl("http://localhost:8081/auth");
+        keycloakConfig.setRealm("xs2a");
+        keycloakConfig.setResource("aspsp-mock");
+        keycloakConfig.setCredentials(new KeycloakConfigProperties.Credentials());
+        ReflectionTestUtils.setField(keycloakInvokerService, "keycloakConfig", keycloakConfig);
+        ReflectionTestUtils.setField(keycloakInvokerService, "keycloakUsername", "aspsp");
+        ReflectionTestUtils.setField(keycloakInvokerService, "keycloakPassword", "zzz");
+        ReflectionTestUtils.setField(keycloakInvokerService, "refreshAhead", 30000L);
+        setTime(NOW);
+    }
+
+    @Test
+    public void obtainAccessToken_Success_CachedUntilRefreshIsDue() {
+        //Given:
+        when(exchange()).thenReturn(tokenResponse("token-1", "refresh-1"));
+
+        //When:
+        String first = keycloakInvokerService.obtainAccessToken();
+        setTime(NOW.plusSeconds(250));
+        String second = keycloakInvokerService.obtainAccessToken();
+
+        //Then:
+        assertThat(first).isEqualTo("Authorization: Bearer token-1");
+        assertThat(second).isEqualTo(first);
+        verify(keycloakRestTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), Matchers.<ParameterizedTypeReference<HashMap<String, String>>>any());
+    }
+
+    @Test
+    public void obtainAccessToken_Success_RefreshedAheadOfExpiryWithRefreshToken() {
+        //Given:
+        when(exchange()).thenReturn(tokenResponse("token-1", "refresh-1"), tokenResponse("token-2", "refresh-2"));
+        keycloakInvokerService.obtainAccessToken();
+        setTime(NOW.plusSeconds(280));
+
+        //When:
+        String result = keycloakInvokerService.obtainAccessToken();
+
+        //Then:
+        assertThat(result).isEqualTo("Authorization: Bearer token-2");
+        List<MultiValueMap<String, String>> grantRequests = getGrantRequests();
+        assertThat(grantRequests.get(0).getFirst("grant_type")).isEqualTo("password");
+        assertThat(grantRequests.get(1).getFirst("grant_type")).isEqualTo("refresh_token");
+        assertThat(grantRequests.get(1).getFirst("refresh_token")).isEqualTo("refresh-1");
+    }
+
+    @Test
+    public void obtainAccessToken_Failure_CachedTokenUsedWhileValid() {
+        //Given:
+        when(exchange()).thenReturn(tokenResponse("token-1", "refresh-1"))
+            .thenThrow(new ResourceAccessException("Keycloak is not available"));
+        keycloakInvokerService.obtainAccessToken();
+        setTime(NOW.plusSeconds(280));
+
+        //When:
+        String result = keycloakInvokerService.obtainAccessToken();
+
+        //Then:
+        assertThat(result).isEqualTo("Authorization: Bearer token-1");
+    }
+
+    private ResponseEntity<HashMap<String, String>> exchange() {
+        return keycloakRestTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), Matchers.<ParameterizedTypeReference<HashMap<String, String>>>any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MultiValueMap<String, String>> getGrantRequests() {
+        ArgumentCaptor<HttpEntity> captor = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(keycloakRestTemplate, times(2)).exchange(anyString(), eq(HttpMethod.POST), captor.capture(), Matchers.<ParameterizedTypeReference<HashMap<String, String>>>any());
+        List<MultiValueMap<String, String>> requests = new ArrayList<>();
+        captor.getAllValues().forEach(entity -> requests.add((MultiValueMap<String, String>) entity.getBody()));
+        return requests;
+    }
+
+    private ResponseEntity<HashMap<String, String>> tokenResponse(String accessToken, String refreshToken) {
+        HashMap<String, String> body = new HashMap<>();
+        body.put("access_token", accessToken);
+        body.put("refresh_token", refreshToken);
+        body.put("expires_in", "300");
+        body.put("refresh_expires_in", "1800");
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(keycloakInvokerService, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
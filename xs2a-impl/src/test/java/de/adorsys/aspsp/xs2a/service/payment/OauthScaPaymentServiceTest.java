@@ -85,7 +85,7 @@ public class OauthScaPaymentServiceTest {
         //Given
         List<SinglePayment> payments = getBulk(true, true);
         //When
-        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments, TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
         assertNotNull(actualResponse);
         assertTrue(actualResponse.get(0).getPaymentId().equals(PAYMENT_ID) && actualResponse.get(1).getPaymentId().equals(PAYMENT_ID));
         assertTrue(actualResponse.get(0).getTransactionStatus().equals(TransactionStatus.RCVD) && actualResponse.get(1).getTransactionStatus().equals(TransactionStatus.RCVD));
@@ -97,7 +97,7 @@ public class OauthScaPaymentServiceTest {
         //Given
         List<SinglePayment> payments = getBulk(true, false);
         //When
-        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments, TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
         assertNotNull(actualResponse);
         assertTrue(actualResponse.get(0).getPaymentId().equals(PAYMENT_ID) && actualResponse.get(1).getPaymentId() == null);
         assertTrue(actualResponse.get(0).getTransactionStatus().equals(TransactionStatus.RCVD) && actualResponse.get(1).getTransactionStatus().equals(TransactionStatus.RJCT));
@@ -109,7 +109,7 @@ public class OauthScaPaymentServiceTest {
         //Given
         List<SinglePayment> payments = getBulk(false, false);
         //When
-        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments, TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+        List<PaymentInitialisationResponse> actualResponse = oauthScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
         assertNotNull(actualResponse);
         assertTrue(actualResponse.get(0).getPaymentId() == null && actualResponse.get(1).getPaymentId() == null);
         assertTrue(actualResponse.get(0).getTransactionStatus().equals(TransactionStatus.RJCT) && actualResponse.get(1).getTransactionStatus().equals(TransactionStatus.RJCT));
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.service.payment;
+
+import de.adorsys.aspsp.xs2a.domain.MessageErrorCode;
+import de.adorsys.aspsp.xs2a.domain.TransactionStatus;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReference;
+import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
+import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
+import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.aspsp.xs2a.exception.RestException;
+import de.adorsys.aspsp.xs2a.service.SpiFanOutExecutor;
+import de.adorsys.aspsp.xs2a.service.consent.pis.CreateConsentRequest;
+import de.adorsys.aspsp.xs2a.service.consent.pis.PisConsentService;
+import de.adorsys.aspsp.xs2a.service.mapper.PaymentMapper;
+import de.adorsys.aspsp.xs2a.spi.domain.SpiResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.common.SpiTransactionStatus;
+import de.adorsys.aspsp.xs2a.spi.domain.consent.AspspConsentData;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.SpiPaymentInitialisationResponse;
+import de.adorsys.aspsp.xs2a.spi.domain.payment.SpiSinglePayment;
+import de.adorsys.aspsp.xs2a.spi.service.PaymentSpi;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.PAYMENT_FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RedirectScaPaymentServiceTest {
+    private static final String ALLOWED_PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String IBAN = "DE123456789";
+    private static final String PIS_CONSENT_ID = "pis consent";
+    private static final String REJECTED_END_TO_END_ID = "rejected";
+    private static final TppInfo TPP_INFO = new TppInfo();
+
+    @InjectMocks
+    private RedirectScaPaymentService redirectScaPaymentService;
+    @Mock
+    private PisConsentService pisConsentService;
+    @Mock
+    private PaymentMapper paymentMapper;
+    @Mock
+    private PaymentSpi paymentSpi;
+    @Mock
+    private SpiFanOutExecutor spiFanOutExecutor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ReflectionTestUtils.setField(redirectScaPaymentService, "bulkPaymentChunkSize", 2);
+        ReflectionTestUtils.setField(redirectScaPaymentService, "parallelBulkPaymentChunks", 1);
+        when(paymentMapper.mapToSpiSinglePayment(any(SinglePayment.class)))
+            .thenAnswer(invocation -> getSpiPayment((SinglePayment) invocation.getArguments()[0]));
+        when(paymentMapper.mapToSpiSinglePaymentList(anyListOf(SinglePayment.class)))
+            .thenAnswer(invocation -> ((List<SinglePayment>) invocation.getArguments()[0]).stream()
+                                          .map(this::getSpiPayment)
+                                          .collect(Collectors.toList()));
+        when(paymentMapper.mapToPaymentInitializationResponse(any(SpiPaymentInitialisationResponse.class)))
+            .thenAnswer(invocation -> Optional.ofNullable((SpiPaymentInitialisationResponse) invocation.getArguments()[0])
+                                          .map(this::getResponse));
+        when(paymentMapper.mapToPaymentInitResponseFailedPayment(any(SinglePayment.class), eq(PAYMENT_FAILED)))
+            .thenAnswer(invocation -> Optional.of(getFailedResponse((SinglePayment) invocation.getArguments()[0])));
+        when(paymentSpi.createBulkPayments(anyListOf(SpiSinglePayment.class), any(AspspConsentData.class)))
+            .thenAnswer(invocation -> new SpiResponse<>(getSpiResponses((List<SpiSinglePayment>) invocation.getArguments()[0]), null));
+        when(paymentSpi.createPaymentInitiation(any(SpiSinglePayment.class), any(AspspConsentData.class)))
+            .thenAnswer(invocation -> new SpiResponse<>(getSpiResponse((SpiSinglePayment) invocation.getArguments()[0]), null));
+        when(pisConsentService.createPisConsentForBulkPaymentAndGetId(any(CreateConsentRequest.class))).thenReturn(PIS_CONSENT_ID);
+    }
+
+    @Test
+    public void createBulkPayment_Success_PaymentsAreInitiatedInChunks() {
+        //Given:
+        List<SinglePayment> payments = getPayments("e1", "e2", "e3", "e4", "e5");
+
+        //When:
+        List<PaymentInitialisationResponse> responses = redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+
+        //Then:
+        verify(paymentSpi, times(3)).createBulkPayments(anyListOf(SpiSinglePayment.class), any(AspspConsentData.class));
+        verify(paymentSpi, never()).createPaymentInitiation(any(SpiSinglePayment.class), any(AspspConsentData.class));
+        assertThat(getPaymentIds(responses)).containsExactly("id-e1", "id-e2", "id-e3", "id-e4", "id-e5");
+        assertThat(responses).extracting("pisConsentId").containsOnly(PIS_CONSENT_ID);
+        assertThat(responses).extracting("iban").containsOnly(IBAN);
+    }
+
+    @Test
+    public void createBulkPayment_Success_MissingPaymentIsRejected() {
+        //Given:
+        List<SinglePayment> payments = getPayments("e1", REJECTED_END_TO_END_ID, "e3");
+
+        //When:
+        List<PaymentInitialisationResponse> responses = redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+
+        //Then:
+        assertThat(getPaymentIds(responses)).containsExactly("id-e1", REJECTED_END_TO_END_ID, "id-e3");
+        assertThat(responses.get(1).getTransactionStatus()).isEqualTo(TransactionStatus.RJCT);
+        assertThat(responses.get(1).getPisConsentId()).isNull();
+        assertThat(responses.get(2).getTransactionStatus()).isEqualTo(TransactionStatus.RCVD);
+    }
+
+    @Test
+    public void createBulkPayment_Success_PaymentsWithoutUniqueEndToEndIdAreInitiatedSingly() {
+        //Given:
+        List<SinglePayment> payments = getPayments("e1", "e1", "e2", null);
+
+        //When:
+        List<PaymentInitialisationResponse> responses = redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+
+        //Then:
+        verify(paymentSpi, times(1)).createBulkPayments(anyListOf(SpiSinglePayment.class), any(AspspConsentData.class));
+        verify(paymentSpi, times(3)).createPaymentInitiation(any(SpiSinglePayment.class), any(AspspConsentData.class));
+        assertThat(getPaymentIds(responses)).containsExactly("id-e1", "id-e1", "id-e2", "id-null");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createBulkPayment_Success_ChunksAreSentInParallel() {
+        //Given:
+        ReflectionTestUtils.setField(redirectScaPaymentService, "parallelBulkPaymentChunks", 2);
+        when(spiFanOutExecutor.invokeAll(anyListOf(Object.class), any(Function.class))).thenAnswer(invocation -> {
+            List<List<SinglePayment>> chunks = (List<List<SinglePayment>>) invocation.getArguments()[0];
+            Function<List<SinglePayment>, Object> call = (Function<List<SinglePayment>, Object>) invocation.getArguments()[1];
+            return chunks.stream()
+                       .map(chunk -> Optional.ofNullable(call.apply(chunk)))
+                       .collect(Collectors.toList());
+        });
+        List<SinglePayment> payments = getPayments("e1", "e2", "e3", "e4", "e5");
+
+        //When:
+        List<PaymentInitialisationResponse> responses = redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+
+        //Then:
+        verify(spiFanOutExecutor, times(1)).invokeAll(anyListOf(Object.class), any(Function.class));
+        assertThat(getPaymentIds(responses)).containsExactly("id-e1", "id-e2", "id-e3", "id-e4", "id-e5");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createBulkPayment_Failure_ParallelChunkNotAnsweredInTime() {
+        //Given:
+        ReflectionTestUtils.setField(redirectScaPaymentService, "parallelBulkPaymentChunks", 2);
+        when(spiFanOutExecutor.invokeAll(anyListOf(Object.class), any(Function.class)))
+            .thenThrow(new RestException(HttpStatus.GATEWAY_TIMEOUT, "SPI call is not completed in time"));
+        List<SinglePayment> payments = getPayments("e1", "e2", "e3", "e4");
+
+        //When:
+        try {
+            redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+            fail("Bulk payment with a chunk not answered in time should fail");
+        } catch (RestException e) {
+            //Then:
+            assertThat(e.getHttpStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        }
+        verify(pisConsentService, never()).createPisConsentForBulkPaymentAndGetId(any(CreateConsentRequest.class));
+    }
+
+    @Test
+    public void createBulkPayment_Failure_NoPaymentInitiated() {
+        //Given:
+        List<SinglePayment> payments = getPayments(REJECTED_END_TO_END_ID);
+
+        //When:
+        List<PaymentInitialisationResponse> responses = redirectScaPaymentService.createBulkPayment(payments.iterator(), TPP_INFO, ALLOWED_PAYMENT_PRODUCT);
+
+        //Then:
+        assertThat(responses).isEmpty();
+        verify(pisConsentService, never()).createPisConsentForBulkPaymentAndGetId(any(CreateConsentRequest.class));
+    }
+
+    private List<SinglePayment> getPayments(String... endToEndIds) {
+        return Arrays.stream(endToEndIds)
+                   .map(endToEndId -> {
+                       AccountReference debtorAccount = new AccountReference();
+                       debtorAccount.setIban(IBAN);
+                       SinglePayment payment = new SinglePayment();
+                       payment.setEndToEndIdentification(endToEndId);
+                       payment.setDebtorAccount(debtorAccount);
+                       return payment;
+                   })
+                   .collect(Collectors.toList());
+    }
+
+    private SpiSinglePayment getSpiPayment(SinglePayment payment) {
+        SpiSinglePayment spiPayment = new SpiSinglePayment();
+        spiPayment.setEndToEndIdentification(payment.getEndToEndIdentification());
+        return spiPayment;
+    }
+
+    private List<SpiPaymentInitialisationResponse> getSpiResponses(List<SpiSinglePayment> payments) {
+        List<SpiPaymentInitialisationResponse> responses = payments.stream()
+                                                               .filter(payment -> !REJECTED_END_TO_END_ID.equals(payment.getEndToEndIdentification()))
+                                                               .map(this::getSpiResponse)
+                                                               .collect(Collectors.toCollection(ArrayList::new));
+        Collections.reverse(responses);
+        return responses;
+    }
+
+    private SpiPaymentInitialisationResponse getSpiResponse(SpiSinglePayment payment) {
+        SpiPaymentInitialisationResponse response = new SpiPaymentInitialisationResponse();
+        response.setPaymentId("id-" + payment.getEndToEndIdentification());
+        response.setEndToEndIdentification(payment.getEndToEndIdentification());
+        response.setTransactionStatus(SpiTransactionStatus.RCVD);
+        return response;
+    }
+
+    private PaymentInitialisationResponse getResponse(SpiPaymentInitialisationResponse spiResponse) {
+        PaymentInitialisationResponse response = new PaymentInitialisationResponse();
+        response.setPaymentId(spiResponse.getPaymentId());
+        response.setTransactionStatus(TransactionStatus.RCVD);
+        return response;
+    }
+
+    private PaymentInitialisationResponse getFailedResponse(SinglePayment payment) {
+        PaymentInitialisationResponse response = new PaymentInitialisationResponse();
+        response.setPaymentId(payment.getEndToEndIdentification());
+        response.setTransactionStatus(TransactionStatus.RJCT);
+        response.setTppMessages(new MessageErrorCode[]{PAYMENT_FAILED});
+        return response;
+    }
+
+    private List<String> getPaymentIds(List<PaymentInitialisationResponse> responses) {
+        return responses.stream()
+                   .map(PaymentInitialisationResponse::getPaymentId)
+                   .collect(Collectors.toList());
+    }
+}
@@ -16,10 +16,14 @@
 
 package de.adorsys.aspsp.xs2a.service.validator;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.aspsp.xs2a.consent.api.pis.PisPaymentType;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
 import de.adorsys.aspsp.xs2a.domain.pis.PeriodicPayment;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
+import de.adorsys.aspsp.xs2a.service.validator.plan.ValidationPlanCompiler;
+import de.adorsys.aspsp.xs2a.web.AccountController;
 import de.adorsys.aspsp.xs2a.web.ConsentInformationController;
 import de.adorsys.aspsp.xs2a.web.PaymentInitiationController;
 import de.adorsys.aspsp.xs2a.web.PeriodicPaymentsController;
@@ -28,6 +32,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.method.HandlerMethod;
@@ -39,6 +44,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.PARAMETER_NOT_SUPPORTED;
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.PRODUCT_UNKNOWN;
@@ -58,7 +64,11 @@ public class RequestValidatorServiceTest {
     @Mock
     private PeriodicPaymentsController periodicPaymentsController;
     @Mock
+    private AccountController accountController;
+    @Mock
     private AspspProfileService aspspProfileService;
+    @Spy
+    private ValidationPlanCompiler validationPlanCompiler = new ValidationPlanCompiler(new ObjectMapper());
 
     @Mock
     private Validator validator;
@@ -114,6 +124,54 @@ public class RequestValidatorServiceTest {
         assertThat(actualViolations.get("Wrong header arguments: ")).contains("Can not deserialize value");
     }
 
+    @Test
+    public void shouldFail_getRequestHeaderViolationMap_missingRequiredHeader() throws Exception {
+        //Given:
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("x-request-id", "21d40f65-a150-8343-b539-b9a822ae98c0");
+        Object handler = getAccountControllerHandler();
+
+        //When:
+        Map<String, String> actualViolations = requestValidatorService.getRequestHeaderViolationMap(request, handler);
+
+        //Then:
+        assertThat(actualViolations).containsOnlyKeys("consentId");
+        assertThat(actualViolations.get("consentId")).isEqualTo("'consentId' may not be null");
+    }
+
+    @Test
+    public void getRequestHeaderViolationMap_headersFromSecurityContext() throws Exception {
+        //Given:
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("X-Request-ID", "21d40f65-a150-8343-b539-b9a822ae98c0");
+        headers.put("Consent-ID", "21d40f65-a150-8343-b539-b9a822ae98c0");
+        headers.put("Accept", "application/json");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(TppSecurityContext.REQUEST_ATTRIBUTE, TppSecurityContext.unauthenticated(headers, null));
+        Object handler = getAccountControllerHandler();
+
+        //When:
+        Map<String, String> actualViolations = requestValidatorService.getRequestHeaderViolationMap(request, handler);
+
+        //Then:
+        assertThat(actualViolations).isEmpty();
+    }
+
+    @Test
+    public void shouldFail_getRequestViolationMap_wrongParameterFormat() throws Exception {
+        //Given:
+        MockHttpServletRequest request = (MockHttpServletRequest) getCorrectRequest();
+        request.addParameter("dateFrom", "30.10.2017");
+        Object handler = getAccountControllerHandler();
+
+        //When:
+        Map<String, String> actualViolations = requestValidatorService.getRequestViolationMap(request, handler);
+
+        //Then:
+        assertThat(actualViolations).containsOnlyKeys("Wrong parameters : ");
+        assertThat(actualViolations.get("Wrong parameters : ")).contains("Can not deserialize value");
+    }
+
     @Test
     public void getRequestPathVariablesViolationMap_WrongProduct() throws Exception {
         //Given:
@@ -201,6 +259,10 @@ public class RequestValidatorServiceTest {
         return new HandlerMethod(consentInformationController, "getAccountConsentsInformationById", String.class);
     }
 
+    private Object getAccountControllerHandler() throws NoSuchMethodException {
+        return new HandlerMethod(accountController, "getAccounts", String.class, boolean.class);
+    }
+
     private Object getPaymentInitiationControllerHandler() throws NoSuchMethodException {
         return new HandlerMethod(paymentInitiationController, "getPaymentInitiationStatusById", String.class, String.class);
     }
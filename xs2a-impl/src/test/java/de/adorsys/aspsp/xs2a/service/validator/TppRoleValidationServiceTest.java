@@ -1,27 +1,26 @@
 package de.adorsys.aspsp.xs2a.service.validator;
 
+import de.adorsys.aspsp.xs2a.config.TppRoleValidationConfigProperties;
 import de.adorsys.psd2.validator.certificate.util.TppRole;
 import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@RunWith(MockitoJUnitRunner.class)
 public class TppRoleValidationServiceTest {
-
-    @InjectMocks
+    private TppRoleValidationConfigProperties configProperties;
     private TppRoleValidationService tppRoleValidationService;
 
     @Before
     public void setUp() {
-        tppRoleValidationService.initCertificatePathMatchers();
+        configProperties = new TppRoleValidationConfigProperties();
+        tppRoleValidationService = new TppRoleValidationService(configProperties);
+        tppRoleValidationService.compileRoleRules();
     }
 
     @Test
@@ -53,4 +52,33 @@ public class TppRoleValidationServiceTest {
         assertThat(tppRoleValidationService.validate(request, roles)).isFalse();
 
     }
+
+    @Test
+    public void shouldSuccess_when_pathNotCoveredByRules() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/api/v1");
+        request.setPathInfo("/accountsx");
+
+        assertThat(tppRoleValidationService.validate(request, Collections.emptyList())).isTrue();
+    }
+
+    @Test
+    public void shouldUseMostSpecificRule_when_severalRulesMatch() {
+        configProperties.getPathRoles().put("/accounts/*/card-transactions/**", TppRole.PIISP);
+        tppRoleValidationService.compileRoleRules();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/api/v1/accounts/11111/card-transactions");
+
+        assertThat(tppRoleValidationService.validate(request, Collections.singletonList(TppRole.PIISP))).isTrue();
+        assertThat(tppRoleValidationService.validate(request, Collections.singletonList(TppRole.AISP))).isFalse();
+    }
+
+    @Test
+    public void shouldFail_when_noRoles() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/api/v1/consents/12345/status");
+
+        assertThat(tppRoleValidationService.validate(request, null)).isFalse();
+    }
 }
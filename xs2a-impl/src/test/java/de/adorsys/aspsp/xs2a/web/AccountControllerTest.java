@@ -25,12 +25,14 @@ import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
 import de.adorsys.aspsp.xs2a.domain.account.AccountReport;
 import de.adorsys.aspsp.xs2a.service.AccountService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -64,6 +66,8 @@ public class AccountControllerTest {
     private AccountService accountService;
     @Mock
     private ResponseMapper responseMapper;
+    @Spy
+    private AsyncRequestExecutor asyncRequestExecutor = new AsyncRequestExecutor(false, 1, 1);
 
     @Before
     public void setUp() throws Exception {
@@ -82,7 +86,7 @@ public class AccountControllerTest {
         ResponseObject<AccountDetails> expectedResult = getAccountDetails();
 
         //When
-        AccountDetails result = accountController.readAccountDetails(CONSENT_ID, ACCOUNT_ID, withBalance).getBody();
+        AccountDetails result = accountController.readAccountDetails(CONSENT_ID, ACCOUNT_ID, withBalance).join().getBody();
 
         //Then:
         assertThat(result).isEqualTo(expectedResult.getBody());
@@ -96,7 +100,7 @@ public class AccountControllerTest {
         Map<String, List<AccountDetails>> expectedResult = createAccountDetailsList(ACCOUNT_DETAILS_SOURCE).getBody();
 
         //When:
-        Map<String, List<AccountDetails>> result = accountController.getAccounts("id", withBalance).getBody();
+        Map<String, List<AccountDetails>> result = accountController.getAccounts("id", withBalance).join().getBody();
 
         //Then:
         assertThat(result).isEqualTo(expectedResult);
@@ -111,7 +115,7 @@ public class AccountControllerTest {
         expectedResult.add(expectedBalances);
 
         //When:
-        List<Balance> result = accountController.getBalances(CONSENT_ID, ACCOUNT_ID).getBody();
+        List<Balance> result = accountController.getBalances(CONSENT_ID, ACCOUNT_ID).join().getBody();
 
         //Then:
         assertThat(result).isEqualTo(expectedResult);
@@ -125,7 +129,7 @@ public class AccountControllerTest {
         AccountReport expectedResult = jsonConverter.toObject(IOUtils.resourceToString(ACCOUNT_REPORT_SOURCE, UTF_8), AccountReport.class).get();
 
         //When
-        AccountReport result = accountController.getTransactions(ACCOUNT_ID, "123", null, null, TRANSACTION_ID, psuInvolved, "both", false, false).getBody();
+        AccountReport result = accountController.getTransactions(ACCOUNT_ID, "123", null, null, TRANSACTION_ID, psuInvolved, "both", false, false, null, null).join().getBody();
 
         //Then:
         assertThat(result).isEqualTo(expectedResult);
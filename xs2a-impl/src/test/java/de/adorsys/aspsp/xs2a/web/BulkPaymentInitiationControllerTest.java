@@ -24,30 +24,43 @@ import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
 import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
 import de.adorsys.aspsp.xs2a.service.PaymentService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
-import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -57,12 +70,13 @@ public class BulkPaymentInitiationControllerTest {
     private final Charset UTF_8 = Charset.forName("utf-8");
     private final PaymentProduct PAYMENT_PRODUCT = PaymentProduct.SCT;
     private static final String REDIRECT_LINK = "http://localhost:28080/payment/confirmation/";
-    private static final String TPP_INFO = "";
+    private static final TppSecurityContext SECURITY_CONTEXT = TppSecurityContext.unauthenticated(Collections.emptyMap(), null);
 
     @InjectMocks
     private BulkPaymentInitiationController bulkPaymentInitiationController;
 
     private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    @Spy
     private JsonConverter jsonConverter = new JsonConverter(objectMapper);
 
     @Mock
@@ -71,30 +85,91 @@ public class BulkPaymentInitiationControllerTest {
     private AspspProfileService aspspProfileService;
     @Mock
     private ResponseMapper responseMapper;
-    @Mock
-    private AccountReferenceValidationService referenceValidationService;
+    @Spy
+    private AsyncRequestExecutor asyncRequestExecutor = new AsyncRequestExecutor(false, 1, 1);
+
+    private final List<SinglePayment> receivedPayments = new ArrayList<>();
 
     @Before
+    @SuppressWarnings("unchecked")
     public void setUp() throws IOException {
-        when(paymentService.createBulkPayments(any(), anyString(), any())).thenReturn(readResponseObject());
+        when(paymentService.createBulkPayments(any(), any(), any())).thenAnswer(invocation -> {
+            Iterator<SinglePayment> payments = (Iterator<SinglePayment>) invocation.getArguments()[0];
+            payments.forEachRemaining(receivedPayments::add);
+            return readResponseObject();
+        });
         when(aspspProfileService.getPisRedirectUrlToAspsp()).thenReturn(REDIRECT_LINK);
         when(responseMapper.created(any())).thenReturn(new ResponseEntity<>(readPaymentInitialisationResponse(), HttpStatus.CREATED));
-        when(referenceValidationService.validateAccountReferences(any())).thenReturn(Optional.empty());
     }
 
     @Test
     public void createBulkPaymentInitiation() throws IOException {
         //Given
-        List<SinglePayment> payments = readBulkPayments();
+        InputStream body = new ByteArrayInputStream(IOUtils.resourceToByteArray(BULK_PAYMENT_DATA));
         ResponseEntity<List<PaymentInitialisationResponse>> expectedResult = new ResponseEntity<>(readPaymentInitialisationResponse(), HttpStatus.CREATED);
 
         //When:
         ResponseEntity<List<PaymentInitialisationResponse>> actualResult = bulkPaymentInitiationController
-                                                                               .createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), TPP_INFO, payments);
+                                                                               .createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), SECURITY_CONTEXT, body).join();
 
         //Then:
         assertThat(actualResult.getStatusCode()).isEqualTo(expectedResult.getStatusCode());
         assertThat(actualResult.getBody()).isEqualTo(expectedResult.getBody());
+        assertThat(receivedPayments).isEqualTo(readBulkPayments());
+    }
+
+    @Test
+    public void createBulkPaymentInitiation_Failure_BodyIsNotArray() {
+        //Given
+        InputStream body = new ByteArrayInputStream("{\"endToEndIdentification\": \"RI-123456789\"}".getBytes(UTF_8));
+
+        //When:
+        CompletableFuture<ResponseEntity<List<PaymentInitialisationResponse>>> actualResult = bulkPaymentInitiationController
+                                                                                                  .createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), SECURITY_CONTEXT, body);
+
+        //Then:
+        assertThat(actualResult.isCompletedExceptionally()).isTrue();
+        assertThat(actualResult.handle((result, error) -> error).join()).isInstanceOf(HttpMessageNotReadableException.class);
+        assertThat(receivedPayments).isEmpty();
+    }
+
+    @Test
+    public void createBulkPaymentInitiation_Failure_MalformedBodyNoPaymentInitiated() {
+        //Given
+        InputStream body = new ByteArrayInputStream("[{\"endToEndIdentification\": \"RI-123456789\"}, {\"endToEndIdentification\": ".getBytes(UTF_8));
+
+        //When:
+        CompletableFuture<ResponseEntity<List<PaymentInitialisationResponse>>> actualResult = bulkPaymentInitiationController
+                                                                                                  .createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), SECURITY_CONTEXT, body);
+
+        //Then:
+        assertThat(actualResult.handle((result, error) -> error).join()).isInstanceOf(HttpMessageNotReadableException.class);
+        verify(paymentService, never()).createBulkPayments(any(), any(), any());
+    }
+
+    @Test
+    public void createBulkPaymentInitiation_SpooledBodyDeleted() throws IOException {
+        //Given
+        List<Path> spoolsBefore = listSpools();
+        InputStream body = new ByteArrayInputStream(IOUtils.resourceToByteArray(BULK_PAYMENT_DATA));
+        InputStream malformedBody = new ByteArrayInputStream("[{\"endToEndIdentification\": ".getBytes(UTF_8));
+
+        //When:
+        bulkPaymentInitiationController.createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), SECURITY_CONTEXT, body).join();
+        bulkPaymentInitiationController.createBulkPaymentInitiation(PAYMENT_PRODUCT.getCode(), SECURITY_CONTEXT, malformedBody)
+            .handle((result, error) -> error).join();
+
+        //Then:
+        assertThat(receivedPayments).isEqualTo(readBulkPayments());
+        assertThat(listSpools()).isEqualTo(spoolsBefore);
+    }
+
+    private List<Path> listSpools() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("bulk-payment-"))
+                       .sorted()
+                       .collect(Collectors.toList());
+        }
     }
 
     private ResponseObject<List<PaymentInitialisationResponse>> readResponseObject() throws IOException {
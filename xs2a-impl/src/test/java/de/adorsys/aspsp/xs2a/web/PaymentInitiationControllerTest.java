@@ -24,17 +24,20 @@ import de.adorsys.aspsp.xs2a.domain.pis.PaymentInitialisationResponse;
 import de.adorsys.aspsp.xs2a.domain.pis.PaymentProduct;
 import de.adorsys.aspsp.xs2a.domain.pis.SinglePayment;
 import de.adorsys.aspsp.xs2a.domain.pis.TppInfo;
+import de.adorsys.aspsp.xs2a.domain.security.TppSecurityContext;
 import de.adorsys.aspsp.xs2a.exception.MessageError;
 import de.adorsys.aspsp.xs2a.service.AspspProfileService;
 import de.adorsys.aspsp.xs2a.service.PaymentService;
 import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.aspsp.xs2a.service.validator.AccountReferenceValidationService;
+import de.adorsys.aspsp.xs2a.web.async.AsyncRequestExecutor;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -42,6 +45,7 @@ import org.springframework.http.ResponseEntity;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Optional;
 
 import static de.adorsys.aspsp.xs2a.domain.MessageErrorCode.RESOURCE_UNKNOWN_403;
@@ -61,6 +65,7 @@ public class PaymentInitiationControllerTest {
     private static final String PAYMENT_ID = "12345";
     private static final String WRONG_PAYMENT_ID = "Really wrong id";
     private static final String REDIRECT_LINK = "http://localhost:28080/payment/confirmation/";
+    private static final TppSecurityContext SECURITY_CONTEXT = TppSecurityContext.unauthenticated(Collections.emptyMap(), null);
 
     @InjectMocks
     private PaymentInitiationController paymentInitiationController;
@@ -76,6 +81,8 @@ public class PaymentInitiationControllerTest {
     private ResponseMapper responseMapper;
     @Mock
     private AccountReferenceValidationService referenceValidationService;
+    @Spy
+    private AsyncRequestExecutor asyncRequestExecutor = new AsyncRequestExecutor(false, 1, 1);
 
     @Before
     public void setUpPaymentServiceMock() throws IOException {
@@ -95,7 +102,7 @@ public class PaymentInitiationControllerTest {
         TransactionStatus expectedTransactionStatus = TransactionStatus.ACCP;
 
         //When:
-        ResponseEntity<TransactionStatusResponse> actualResponse = paymentInitiationController.getPaymentInitiationStatusById(PaymentProduct.SCT.getCode(), PAYMENT_ID);
+        ResponseEntity<TransactionStatusResponse> actualResponse = paymentInitiationController.getPaymentInitiationStatusById(PaymentProduct.SCT.getCode(), PAYMENT_ID).join();
 
         //Then:
         HttpStatus actualHttpStatus = actualResponse.getStatusCode();
@@ -111,7 +118,7 @@ public class PaymentInitiationControllerTest {
         HttpStatus expectedHttpStatus = FORBIDDEN;
 
         //When:
-        ResponseEntity<TransactionStatusResponse> actualResponse = paymentInitiationController.getPaymentInitiationStatusById(PaymentProduct.SCT.getCode(), WRONG_PAYMENT_ID);
+        ResponseEntity<TransactionStatusResponse> actualResponse = paymentInitiationController.getPaymentInitiationStatusById(PaymentProduct.SCT.getCode(), WRONG_PAYMENT_ID).join();
 
         //Then:
         assertThat(actualResponse.getStatusCode()).isEqualTo(expectedHttpStatus);
@@ -128,7 +135,7 @@ public class PaymentInitiationControllerTest {
 
         //When:
         ResponseEntity<PaymentInitialisationResponse> actualResult = paymentInitiationController
-                                                                         .createPaymentInitiation(paymentProduct.getCode(),"", payment);
+                                                                         .createPaymentInitiation(paymentProduct.getCode(), SECURITY_CONTEXT, payment).join();
 
         //Then:
         assertThat(actualResult.getStatusCode()).isEqualTo(expectedResult.getStatusCode());
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncRequestExecutorTest {
+    private static final String ATTRIBUTE_NAME = "consent-id";
+    private static final String ATTRIBUTE_VALUE = "12345";
+
+    private final AsyncRequestExecutor asyncRequestExecutor = new AsyncRequestExecutor(true, 2, 10);
+
+    @Before
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(ATTRIBUTE_NAME, ATTRIBUTE_VALUE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        asyncRequestExecutor.shutdown();
+    }
+
+    @Test
+    public void execute_Success_OnPoolThreadWithRequestAttributes() {
+        //When:
+        String result = asyncRequestExecutor.execute(() -> Thread.currentThread().getName() + ":" + readRequestAttribute())
+                            .join();
+
+        //Then:
+        assertThat(result).startsWith("async-request-")
+            .endsWith(":" + ATTRIBUTE_VALUE);
+    }
+
+    @Test
+    public void execute_Success_StagesAddedBeforeCompletionHaveRequest() {
+        //When:
+        CompletableFuture<Object> result = asyncRequestExecutor.execute(() -> {
+            sleep(100);
+            return "result";
+        }).thenApply(ignored -> ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest().getAttribute(ATTRIBUTE_NAME));
+
+        //Then:
+        assertThat(result.join()).isEqualTo(ATTRIBUTE_VALUE);
+    }
+
+    @Test
+    public void execute_Success_RequestAttributesCompletedBeforeFuture() {
+        //Given:
+        AtomicBoolean destroyed = new AtomicBoolean();
+
+        //When:
+        CompletableFuture<Boolean> result = asyncRequestExecutor.execute(() -> {
+            RequestContextHolder.currentRequestAttributes().registerDestructionCallback("bean", () -> destroyed.set(true), RequestAttributes.SCOPE_REQUEST);
+            sleep(100);
+            return "result";
+        }).thenApply(ignored -> destroyed.get());
+
+        //Then:
+        assertThat(result.join()).isTrue();
+    }
+
+    @Test
+    public void execute_Success_NotLimitedInTime() {
+        //When:
+        String result = asyncRequestExecutor.execute(() -> {
+            sleep(400);
+            return "result";
+        }).join();
+
+        //Then:
+        assertThat(result).isEqualTo("result");
+    }
+
+    @Test
+    public void execute_Failure_CompletedExceptionally() {
+        //When:
+        Throwable thrown = asyncRequestExecutor.execute(() -> {
+            throw new IllegalStateException("SPI is not available");
+        }).handle((result, exception) -> exception)
+                               .join();
+
+        //Then:
+        assertThat(thrown).isInstanceOf(IllegalStateException.class)
+            .hasMessage("SPI is not available");
+    }
+
+    @Test
+    public void execute_Disabled_OnCallingThread() {
+        //Given:
+        AsyncRequestExecutor disabledExecutor = new AsyncRequestExecutor(false, 2, 10);
+
+        //When:
+        CompletableFuture<String> result = disabledExecutor.execute(() -> Thread.currentThread().getName());
+
+        //Then:
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.join()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    private Object readRequestAttribute() {
+        return RequestContextHolder.currentRequestAttributes().getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
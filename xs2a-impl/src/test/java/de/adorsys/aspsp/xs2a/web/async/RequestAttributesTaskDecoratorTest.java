@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.async;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.config.HttpClientPoolConfigProperties;
+import de.adorsys.aspsp.xs2a.config.rest.BearerToken;
+import de.adorsys.aspsp.xs2a.config.rest.PooledRestTemplateFactory;
+import de.adorsys.aspsp.xs2a.config.rest.aspsp.AspspRestConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.concurrent.Future;
+
+import static de.adorsys.aspsp.xs2a.spi.domain.constant.AuthorizationConstant.AUTHORIZATION_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class RequestAttributesTaskDecoratorTest {
+    private static final String ASPSP_URL = "http://localhost:28080/api/v1/accounts/33333-999999999/transactions";
+    private static final String BEARER_TOKEN = "Bearer 11111-22222";
+
+    private AnnotationConfigWebApplicationContext context;
+    private ThreadPoolTaskExecutor streamingTaskExecutor;
+    private ServletRequestAttributes requestAttributes;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(TestConfig.class, AspspRestConfig.class);
+        context.refresh();
+
+        streamingTaskExecutor = new ThreadPoolTaskExecutor();
+        streamingTaskExecutor.setThreadNamePrefix("streaming-response-");
+        streamingTaskExecutor.setTaskDecorator(new RequestAttributesTaskDecorator());
+        streamingTaskExecutor.initialize();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(AUTHORIZATION_HEADER, BEARER_TOKEN);
+        requestAttributes = new ServletRequestAttributes(request, new MockHttpServletResponse());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        streamingTaskExecutor.shutdown();
+        context.close();
+    }
+
+    @Test
+    public void decorate_Success_AspspStreamOpenedOnStreamingThreadWithTokenOfRequest() throws Exception {
+        //Given:
+        RestTemplate aspspRestTemplate = context.getBean("aspspRestTemplate", RestTemplate.class);
+        MockRestServiceServer aspspServer = MockRestServiceServer.createServer(aspspRestTemplate);
+        aspspServer.expect(requestTo(ASPSP_URL))
+            .andExpect(method(HttpMethod.GET))
+            .andExpect(header(AUTHORIZATION_HEADER, BEARER_TOKEN))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        //When:
+        // the handler method returns before the body is written, so the request attributes of its thread are completed
+        Future<Integer> status = streamingTaskExecutor.submit(() -> openAspspStream(aspspRestTemplate));
+        requestAttributes.requestCompleted();
+        RequestContextHolder.resetRequestAttributes();
+
+        //Then:
+        assertThat(status.get()).isEqualTo(200);
+        aspspServer.verify();
+    }
+
+    @Test
+    public void decorate_Success_WithoutRequestTaskUnchanged() {
+        //Given:
+        RequestContextHolder.resetRequestAttributes();
+        Runnable task = () -> {
+        };
+
+        //When:
+        Runnable decorated = new RequestAttributesTaskDecorator().decorate(task);
+
+        //Then:
+        assertThat(decorated).isSameAs(task);
+    }
+
+    /**
+     * Opens the stream like the lazy JSON array stream of SPI, which sends the request on the first read
+     */
+    private int openAspspStream(RestTemplate aspspRestTemplate) throws Exception {
+        try (ClientHttpResponse response = aspspRestTemplate.getRequestFactory()
+                                               .createRequest(URI.create(ASPSP_URL), HttpMethod.GET)
+                                               .execute()) {
+            return response.getRawStatusCode();
+        }
+    }
+
+    @Configuration
+    static class TestConfig {
+        @Bean
+        public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        public PooledRestTemplateFactory pooledRestTemplateFactory() {
+            return new PooledRestTemplateFactory(new HttpClientPoolConfigProperties(), new ObjectMapper());
+        }
+
+        @Bean
+        @Scope(scopeName = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+        public BearerToken bearerToken(HttpServletRequest request) {
+            return new BearerToken(request.getHeader(AUTHORIZATION_HEADER));
+        }
+    }
+}
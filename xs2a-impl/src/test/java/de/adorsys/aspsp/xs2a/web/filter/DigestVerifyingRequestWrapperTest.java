@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.aspsp.xs2a.web.filter;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.ServletInputStream;
+import javax.xml.bind.DatatypeConverter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DigestVerifyingRequestWrapperTest {
+    private static final String BODY = "{\"endToEndIdentification\": \"RI-123456789\"}  \n";
+
+    @Test
+    public void read_success_base64Digest() throws Exception {
+        RequestDigest digest = RequestDigest.parse("SHA-256=" + Base64.getEncoder().encodeToString(digest("SHA-256", BODY)));
+
+        String read = IOUtils.toString(wrap(BODY, digest).getInputStream(), StandardCharsets.UTF_8);
+
+        assertThat(read).isEqualTo(BODY);
+    }
+
+    @Test
+    public void read_success_hexDigest() throws Exception {
+        RequestDigest digest = RequestDigest.parse(DatatypeConverter.printHexBinary(digest("SHA-512", BODY)).toLowerCase());
+
+        String read = IOUtils.toString(wrap(BODY, digest).getReader());
+
+        assertThat(read).isEqualTo(BODY);
+    }
+
+    @Test(expected = DigestMismatchException.class)
+    public void read_failure_modifiedBody() throws Exception {
+        RequestDigest digest = RequestDigest.parse("SHA-256=" + Base64.getEncoder().encodeToString(digest("SHA-256", BODY)));
+
+        IOUtils.toString(wrap(BODY.replace("RI-", "XX-"), digest).getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    @Test(expected = DigestMismatchException.class)
+    public void close_failure_unreadRestOfBodyVerified() throws Exception {
+        RequestDigest digest = RequestDigest.parse("SHA-256=" + Base64.getEncoder().encodeToString(digest("SHA-256", BODY)));
+        ServletInputStream inputStream = wrap(BODY + "garbage", digest).getInputStream();
+        byte[] buffer = new byte[BODY.length()];
+
+        IOUtils.readFully(inputStream, buffer);
+        inputStream.close();
+    }
+
+    @Test
+    public void parse_wrongFormat() {
+        assertThat(RequestDigest.parse(null)).isNull();
+        assertThat(RequestDigest.parse("730f75dafd73e047b86acb2dbd74e75d")).isNull();
+        assertThat(RequestDigest.parse("MD5=" + Base64.getEncoder().encodeToString(new byte[16]))).isNull();
+        assertThat(RequestDigest.parse("SHA-256=not base64")).isNull();
+    }
+
+    private DigestVerifyingRequestWrapper wrap(String body, RequestDigest digest) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/bulk-payments/sepa-credit-transfers");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.setCharacterEncoding("UTF-8");
+        return new DigestVerifyingRequestWrapper(request, digest);
+    }
+
+    private byte[] digest(String algorithm, String body) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance(algorithm).digest(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
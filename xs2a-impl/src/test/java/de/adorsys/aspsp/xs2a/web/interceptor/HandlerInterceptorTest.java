@@ -17,7 +17,7 @@
 package de.adorsys.aspsp.xs2a.web.interceptor;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.aspsp.xs2a.service.MessageService;
 import de.adorsys.aspsp.xs2a.service.validator.RequestValidatorService;
 import de.adorsys.aspsp.xs2a.web.ConsentInformationController;
 import org.junit.Test;
@@ -29,6 +29,7 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.method.HandlerMethod;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.HashMap;
@@ -36,6 +37,8 @@ import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -46,7 +49,7 @@ public class HandlerInterceptorTest {
     @Mock
     RequestValidatorService requestValidatorService;
     @Mock
-    private ObjectMapper objectMapper;
+    private MessageService messageService;
 
     @InjectMocks
     private ConsentInformationController consentInformationController;
@@ -69,7 +72,7 @@ public class HandlerInterceptorTest {
     @Test
     public void shouldFail_preHandle_wrongRequest() throws Exception {
         when(requestValidatorService.getRequestViolationMap(any(), any())).thenReturn(getErrorMap());
-        when(objectMapper.writeValueAsString(any())).thenReturn("400");
+        when(messageService.getErrorBody(any(), any())).thenReturn("400".getBytes());
         //Given:
         HttpServletRequest wrongRequest = getWrongRequest();
         HttpServletResponse response = getResponse();
@@ -87,7 +90,7 @@ public class HandlerInterceptorTest {
     @Test
     public void shouldFail_preHandle_wrongRequestHeaderFormat() throws Exception {
         when(requestValidatorService.getRequestViolationMap(any(), any())).thenReturn(getErrorMap());
-        when(objectMapper.writeValueAsString(any())).thenReturn("400");
+        when(messageService.getErrorBody(any(), any())).thenReturn("400".getBytes());
         //Given:
         HttpServletRequest wrongRequest = getWrongRequestWrongTppRequestIdFormat();
         HttpServletResponse response = getResponse();
@@ -102,6 +105,22 @@ public class HandlerInterceptorTest {
         assertThat(response.getStatus()).isEqualTo(expectedResponseHttpStatusCode);
     }
 
+    @Test
+    public void preHandle_AsyncDispatch_NotValidatedAgain() throws Exception {
+        //Given:
+        MockHttpServletRequest request = (MockHttpServletRequest) getWrongRequest();
+        request.setDispatcherType(DispatcherType.ASYNC);
+        HttpServletResponse response = getResponse();
+        Object handler = getHandler();
+
+        //When:
+        boolean actualResponse = handlerInterceptor.preHandle(request, response, handler);
+
+        //Then:
+        assertThat(actualResponse).isTrue();
+        verify(requestValidatorService, never()).getRequestViolationMap(any(), any());
+    }
+
     @Test(expected = NullPointerException.class)
     public void shouldFail_preHandle_NPE() throws Exception {
         when(requestValidatorService.getRequestViolationMap(any(), any())).thenReturn(null);
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.interceptor;
+
+import de.adorsys.aspsp.xs2a.service.consent.ais.PendingTransactionWatermark;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionWatermarkInterceptorTest {
+    @InjectMocks
+    private TransactionWatermarkInterceptor interceptor;
+
+    @Mock
+    private PendingTransactionWatermark pendingTransactionWatermark;
+
+    @Test
+    public void afterCompletion_Success_WatermarkCommitted() {
+        //When:
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), null, null);
+
+        //Then:
+        verify(pendingTransactionWatermark).commit();
+    }
+
+    @Test
+    public void afterCompletion_Failure_ResponseNotWritten() {
+        //When:
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), null, new IOException("Broken pipe"));
+
+        //Then:
+        verify(pendingTransactionWatermark, never()).commit();
+    }
+
+    @Test
+    public void afterCompletion_Failure_ErrorResponse() {
+        //Given:
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(500);
+
+        //When:
+        interceptor.afterCompletion(new MockHttpServletRequest(), response, null, null);
+
+        //Then:
+        verify(pendingTransactionWatermark, never()).commit();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.adorsys.aspsp.xs2a.domain.Links;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountReportStream;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccountReportStreamingBodyTest {
+    private static final String VIEW_ACCOUNT_LINK = "http://localhost/api/v1/accounts/11111-999999999";
+    private static final String DOWNLOAD_LINK = VIEW_ACCOUNT_LINK + "/transactions/download";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+                                                  .registerModule(new JavaTimeModule())
+                                                  .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                                                  .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @Test
+    public void writeTo_writesReportAndClosesStreams() throws IOException {
+        //Given:
+        AtomicBoolean closed = new AtomicBoolean();
+        AccountReportStream report = new AccountReportStream(Stream.of(getTransaction("1", LocalDate.of(2018, 1, 1)), getTransaction("2", LocalDate.of(2018, 1, 2))),
+            Stream.of(getTransaction("3", null)).onClose(() -> closed.set(true)));
+        AccountReportStreamingBody body = new AccountReportStreamingBody(report, objectMapper);
+        body.setLinks(getLinks());
+        body.setDownloadLink(DOWNLOAD_LINK);
+
+        //When:
+        JsonNode json = write(body);
+
+        //Then:
+        assertThat(json.get("booked")).hasSize(2);
+        assertThat(json.get("booked").get(1).get("transactionId").asText()).isEqualTo("2");
+        assertThat(json.get("booked").get(0).get("bookingDate").asText()).isEqualTo("2018-01-01");
+        assertThat(json.get("pending")).hasSize(1);
+        assertThat(json.get("_links").get("viewAccount").asText()).isEqualTo(VIEW_ACCOUNT_LINK);
+        assertThat(json.get("_links").has("download")).isFalse();
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void writeTo_longReport_addsDownloadLink() throws IOException {
+        //Given:
+        AccountReportStream report = new AccountReportStream(Stream.of(getTransaction("1", LocalDate.of(2018, 1, 1))), Stream.empty());
+        AccountReportStreamingBody body = new AccountReportStreamingBody(report, objectMapper);
+        body.setLinks(getLinks());
+        body.setDownloadLink(DOWNLOAD_LINK);
+        body.setMaxJsonLength(10);
+
+        //When:
+        JsonNode json = write(body);
+
+        //Then:
+        assertThat(json.get("pending")).hasSize(0);
+        assertThat(json.get("_links").get("download").asText()).isEqualTo(DOWNLOAD_LINK);
+    }
+
+    private JsonNode write(AccountReportStreamingBody body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return objectMapper.readTree(outputStream.toByteArray());
+    }
+
+    private Links getLinks() {
+        Links links = new Links();
+        links.setViewAccount(VIEW_ACCOUNT_LINK);
+        return links;
+    }
+
+    private Transactions getTransaction(String transactionId, LocalDate bookingDate) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId(transactionId);
+        transaction.setBookingDate(bookingDate);
+        return transaction;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import de.adorsys.aspsp.xs2a.domain.Amount;
+import de.adorsys.aspsp.xs2a.domain.ResponseObject;
+import de.adorsys.aspsp.xs2a.domain.Transactions;
+import de.adorsys.aspsp.xs2a.domain.account.AccountDetails;
+import de.adorsys.aspsp.xs2a.domain.account.AccountStatement;
+import de.adorsys.aspsp.xs2a.service.mapper.ResponseMapper;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountStatementResponseFactoryTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final LocalDate DATE_FROM = LocalDate.of(2018, 1, 1);
+    private static final LocalDate DATE_TO = LocalDate.of(2018, 12, 31);
+
+    @Mock
+    private ResponseMapper responseMapper;
+
+    private AccountStatementResponseFactory responseFactory;
+
+    private final AtomicInteger openedStreams = new AtomicInteger();
+    private int transactionCount = 100;
+
+    @Before
+    public void setUp() {
+        responseFactory = new AccountStatementResponseFactory(responseMapper, new StatementSnapshotStore(100));
+    }
+
+    @Test
+    public void createResponse_camt053() throws IOException {
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.CAMT_053, null, null, null);
+        String content = new String(write(response), StandardCharsets.UTF_8);
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).startsWith("\"camt.053-");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(-1);
+        assertThat(content).contains("<IBAN>DE89370400440532013000</IBAN>");
+        assertThat(content).contains("<NtryRef>tx-2</NtryRef><Amt Ccy=\"EUR\">12.50</Amt><CdtDbtInd>DBIT</CdtDbtInd><Sts>BOOK</Sts>");
+        assertThat(content).contains("<Sts>PDNG</Sts>");
+        assertThat(openedStreams.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void createResponse_mt940_gzip() throws IOException {
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, "deflate, gzip;q=0.8", null, null);
+        String content = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(write(response))), StandardCharsets.US_ASCII);
+
+        //Then:
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(content).contains(":25:DE89370400440532013000\r\n");
+        assertThat(content).contains(":61:1801020102D12,50NTRFNONREF//tx-2\r\n");
+        assertThat(content).contains(":62F:C181231EUR1112,50\r\n");
+        assertThat(content).endsWith("-\r\n");
+    }
+
+    @Test
+    public void createResponse_range_resumesSameStatement() throws IOException {
+        //Given:
+        ResponseEntity<StreamingResponseBody> full = responseFactory.createResponse(getStatement(), StatementFormat.CAMT_053, "gzip", null, null);
+        byte[] fullContent = write(full);
+        String eTag = full.getHeaders().getETag();
+
+        //When:
+        ResponseEntity<StreamingResponseBody> partial = responseFactory.createResponse(getStatement(), StatementFormat.CAMT_053, "gzip", "bytes=100-", eTag);
+
+        //Then:
+        assertThat(partial.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(partial.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-" + (fullContent.length - 1) + "/" + fullContent.length);
+        assertThat(partial.getHeaders().getContentLength()).isEqualTo(fullContent.length - 100);
+        assertThat(write(partial)).isEqualTo(Arrays.copyOfRange(fullContent, 100, fullContent.length));
+        assertThat(openedStreams.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void createResponse_range_interruptedDownloadResumed() throws IOException {
+        //Given:
+        transactionCount = 1000;
+        ResponseEntity<StreamingResponseBody> interrupted = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, null, null);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        interrupt(interrupted, received);
+
+        //When:
+        ResponseEntity<StreamingResponseBody> partial = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=" + received.size() + "-", interrupted.getHeaders().getETag());
+        int receivedLength = received.size();
+        received.write(write(partial));
+        String content = new String(received.toByteArray(), StandardCharsets.US_ASCII);
+
+        //Then:
+        assertThat(partial.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(partial.getHeaders().getETag()).isEqualTo(interrupted.getHeaders().getETag());
+        assertThat(partial.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes " + receivedLength + "-" + (received.size() - 1) + "/" + received.size());
+        assertThat(content).startsWith(":20:");
+        assertThat(content).contains("//tx-2\r\n", "//tx-1000\r\n");
+        assertThat(content).endsWith("-\r\n");
+    }
+
+    @Test
+    public void createResponse_range_beyondSentBytes_wholeStatement() throws IOException {
+        //Given:
+        transactionCount = 1000;
+        ResponseEntity<StreamingResponseBody> interrupted = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, null, null);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        interrupt(interrupted, received);
+
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=" + (received.size() + 1) + "-", interrupted.getHeaders().getETag());
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(interrupted.getHeaders().getETag());
+        assertThat(new String(write(response), StandardCharsets.US_ASCII)).startsWith(":20:");
+    }
+
+    @Test
+    public void createResponse_range_unknownSnapshot_wholeStatementResumedWithNewETag() throws IOException {
+        //Given:
+        String eTag = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, null, null).getHeaders().getETag();
+        ResponseEntity<StreamingResponseBody> whole = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=100-", eTag);
+        byte[] wholeContent = write(whole);
+
+        //When:
+        ResponseEntity<StreamingResponseBody> partial = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=100-", whole.getHeaders().getETag());
+
+        //Then:
+        assertThat(whole.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(partial.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(write(partial)).isEqualTo(Arrays.copyOfRange(wholeContent, 100, wholeContent.length));
+    }
+
+    @Test
+    public void createResponse_range_changedStatement_wholeStatement() throws IOException {
+        //Given:
+        ResponseEntity<StreamingResponseBody> full = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, null, null);
+        write(full);
+        String eTag = full.getHeaders().getETag();
+        transactionCount = 101;
+
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=100-", eTag);
+        String content = new String(write(response), StandardCharsets.US_ASCII);
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(content).startsWith(":20:");
+        assertThat(content).contains("//tx-101\r\n");
+    }
+
+    @Test
+    public void createResponse_rangeWithoutIfRange_wholeStatement() throws IOException {
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=10-20", null);
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isNull();
+    }
+
+    @Test
+    public void createResponse_range_notSatisfiable() throws IOException {
+        //Given:
+        ResponseEntity<StreamingResponseBody> full = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, null, null);
+        write(full);
+        String eTag = full.getHeaders().getETag();
+
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=100000-", eTag);
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).startsWith("bytes */");
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    public void createResponse_range_otherStatement_wholeStatement() throws IOException {
+        //When:
+        ResponseEntity<StreamingResponseBody> response = responseFactory.createResponse(getStatement(), StatementFormat.MT940, null, "bytes=10-20", "\"camt.053-1539860000-8a0b0bba-a1c5-4bde-a6a0-0a4d9f3c2e11\"");
+
+        //Then:
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo("\"mt940-1539860000\"");
+    }
+
+    private void interrupt(ResponseEntity<StreamingResponseBody> response, ByteArrayOutputStream received) {
+        try {
+            response.getBody().writeTo(new InterruptedOutputStream(received, 20000));
+            fail("Download should be interrupted");
+        } catch (IOException e) {
+            assertThat(received.size()).isGreaterThan(0);
+        }
+    }
+
+    private byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private ResponseObject<AccountStatement> getStatement() {
+        AccountDetails account = new AccountDetails("33333-999999999", "DE89370400440532013000", null, null, null, null, EUR,
+            "Test account", null, null, null, null);
+        AccountStatement statement = new AccountStatement(account, DATE_FROM, DATE_TO, () -> {
+            openedStreams.incrementAndGet();
+            return IntStream.rangeClosed(1, transactionCount)
+                       .mapToObj(i -> getTransaction("tx-" + i, i % 10 == 0 ? null : DATE_FROM.plusDays(i - 1), i % 2 == 0 ? "-12.50" : "32.25"));
+        });
+        return ResponseObject.<AccountStatement>builder().body(statement).build();
+    }
+
+    private Transactions getTransaction(String transactionId, LocalDate bookingDate, String amount) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId(transactionId);
+        transaction.setBookingDate(bookingDate);
+        transaction.setValueDate(bookingDate);
+        Amount transactionAmount = new Amount();
+        transactionAmount.setCurrency(EUR);
+        transactionAmount.setContent(amount);
+        transaction.setAmount(transactionAmount);
+        return transaction;
+    }
+
+    /**
+     * Accepts whole writes up to the given number of bytes, like a connection closed by the TPP
+     */
+    private static class InterruptedOutputStream extends OutputStream {
+        private final ByteArrayOutputStream received;
+        private final int limit;
+
+        private InterruptedOutputStream(ByteArrayOutputStream received, int limit) {
+            this.received = received;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (received.size() + len > limit) {
+                throw new IOException("Connection closed");
+            }
+            received.write(b, off, len);
+        }
+    }
+}
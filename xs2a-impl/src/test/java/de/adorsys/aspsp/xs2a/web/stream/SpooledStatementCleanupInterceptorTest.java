@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.aspsp.xs2a.web.stream;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpooledStatementCleanupInterceptorTest {
+    private final SpooledStatementCleanupInterceptor interceptor = new SpooledStatementCleanupInterceptor();
+
+    @Test
+    public void afterCompletion_Success_SpooledStatementDeleted() throws IOException {
+        //Given:
+        Path file = Files.createTempFile("statement-", ".tmp");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(SpooledStatementCleanupInterceptor.SPOOLED_STATEMENT_ATTRIBUTE, file);
+
+        //When:
+        interceptor.afterCompletion(new ServletWebRequest(request), () -> null);
+
+        //Then:
+        assertThat(Files.exists(file)).isFalse();
+    }
+}